@@ -1,19 +1,52 @@
 package io.openbas.helper;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.openbas.execution.ExecutionContext;
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
 public class TemplateHelper {
-  public static String buildContextualContent(String content, ExecutionContext context)
-      throws Exception {
-    if (content == null) return "";
+
+  private static final Configuration CONFIGURATION = buildConfiguration();
+
+  // Compiled templates are immutable and thread safe, the same subject and body are rendered for
+  // every recipient of an inject
+  private static final Cache<String, Template> TEMPLATES =
+      Caffeine.newBuilder().maximumSize(500).build();
+
+  private static Configuration buildConfiguration() {
     Configuration cfg = new Configuration(Configuration.VERSION_2_3_31);
     cfg.setTemplateExceptionHandler(new TemplateExceptionManager());
     cfg.setLogTemplateExceptions(false);
-    Template template = new Template("template", new StringReader(content), cfg);
+    return cfg;
+  }
+
+  static Template getTemplate(String content) {
+    return TEMPLATES.get(
+        content,
+        key -> {
+          try {
+            return new Template("template", new StringReader(key), CONFIGURATION);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  public static String buildContextualContent(String content, ExecutionContext context)
+      throws Exception {
+    if (content == null) return "";
+    Template template;
+    try {
+      template = getTemplate(content);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
     return FreeMarkerTemplateUtils.processTemplateIntoString(template, context);
   }
 }
@@ -33,9 +33,16 @@ import io.openbas.service.ScenarioService;
 import io.openbas.telemetry.metric_collectors.ActionMetricCollector;
 import io.openbas.utils.Constants;
 import jakarta.activation.MimetypesFileTypeMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +50,8 @@ import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -77,8 +86,62 @@ public class V1_DataImporter implements Importer {
   private final InjectDependenciesRepository injectDependenciesRepository;
   private final PayloadCreationService payloadCreationService;
 
+  @Value("${openbas.import.upload-concurrency:4}")
+  private int uploadConcurrency;
+
+  // Documents of an import are uploaded concurrently, a bounded number at a time
+  private ExecutorService uploadExecutor;
+
   // endregion
 
+  @PostConstruct
+  public void init() {
+    this.uploadExecutor = Executors.newFixedThreadPool(Math.max(1, this.uploadConcurrency));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    this.uploadExecutor.shutdownNow();
+  }
+
+  /**
+   * Existing entities matching the given keys, resolved with a single query and indexed by their
+   * lower-cased key. The first entity of a key wins, as with the previous one by one lookups.
+   */
+  private static <T> Map<String, T> findExisting(
+      List<String> keys, Function<List<String>, List<T>> query, Function<T, String> key) {
+    Map<String, T> existing = new HashMap<>();
+    if (!keys.isEmpty()) {
+      query
+          .apply(keys)
+          .forEach(entity -> existing.putIfAbsent(lowerCase(key.apply(entity)), entity));
+    }
+    return existing;
+  }
+
+  private static String lowerCase(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
+  private List<String> resolveJsonValues(JsonNode node, String key, String field) {
+    return resolveJsonElements(node, key)
+        .map(element -> element.get(field))
+        .filter(Objects::nonNull)
+        .map(JsonNode::textValue)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+  }
+
+  private <T extends Base> void saveAll(
+      CrudRepository<T, String> repository,
+      List<String> ids,
+      List<T> entities,
+      Map<String, Base> baseIds) {
+    Iterator<String> idIterator = ids.iterator();
+    repository.saveAll(entities).forEach(saved -> baseIds.put(idIterator.next(), saved));
+  }
+
   private String handleInjectContent(
       Map<String, Base> baseIds, String contract, JsonNode injectNode) {
     if (contract == null) {
@@ -171,6 +234,11 @@ public class V1_DataImporter implements Importer {
   // -- TAGS --
 
   private void importTags(JsonNode importNode, String prefix, Map<String, Base> baseIds) {
+    Map<String, Tag> existingTags =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "tags", "tag_name"),
+            this.tagRepository::findAllByNameInIgnoreCase,
+            Tag::getName);
     resolveJsonElements(importNode, prefix + "tags")
         .forEach(
             nodeTag -> {
@@ -181,12 +249,10 @@ public class V1_DataImporter implements Importer {
               }
               String name = nodeTag.get("tag_name").textValue();
 
-              List<Tag> existingTags = this.tagRepository.findByNameIgnoreCase(name);
-              if (!existingTags.isEmpty()) {
-                baseIds.put(id, existingTags.getFirst());
-              } else {
-                baseIds.put(id, this.tagRepository.save(createTag(nodeTag)));
-              }
+              baseIds.put(
+                  id,
+                  existingTags.computeIfAbsent(
+                      lowerCase(name), n -> this.tagRepository.save(createTag(nodeTag))));
             });
   }
 
@@ -201,6 +267,11 @@ public class V1_DataImporter implements Importer {
   private List<String> importAttackPattern(
       JsonNode importNode, String prefix, Map<String, Base> baseIds) {
     ArrayList<String> attackPatternIds = new ArrayList<>();
+    Map<String, AttackPattern> existingAttackPatterns =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "attack_patterns", "attack_pattern_external_id"),
+            this.attackPatternRepository::findAllByExternalIdInIgnoreCase,
+            AttackPattern::getExternalId);
     resolveJsonElements(importNode, prefix + "attack_patterns")
         .forEach(
             nodeAttackPattern -> {
@@ -214,20 +285,17 @@ public class V1_DataImporter implements Importer {
               }
               String name = nodeAttackPattern.get("attack_pattern_external_id").textValue();
 
-              List<AttackPattern> existingAttackPattern =
-                  this.attackPatternRepository.findAllByExternalIdInIgnoreCase(List.of(name));
-              if (!existingAttackPattern.isEmpty()) {
-                baseIds.put(id, existingAttackPattern.getFirst());
-                attackPatternIds.add(existingAttackPattern.getFirst().getId());
-              } else {
-                AttackPattern attackPatternCreated =
-                    this.attackPatternRepository.save(
-                        createAttackPattern(
-                            nodeAttackPattern,
-                            importKillChainPhase(nodeAttackPattern, "attack_pattern_", baseIds)));
-                baseIds.put(id, attackPatternCreated);
-                attackPatternIds.add(attackPatternCreated.getId());
-              }
+              AttackPattern attackPattern =
+                  existingAttackPatterns.computeIfAbsent(
+                      lowerCase(name),
+                      n ->
+                          this.attackPatternRepository.save(
+                              createAttackPattern(
+                                  nodeAttackPattern,
+                                  importKillChainPhase(
+                                      nodeAttackPattern, "attack_pattern_", baseIds))));
+              baseIds.put(id, attackPattern);
+              attackPatternIds.add(attackPattern.getId());
             });
     return attackPatternIds;
   }
@@ -246,6 +314,11 @@ public class V1_DataImporter implements Importer {
   private List<KillChainPhase> importKillChainPhase(
       JsonNode importNode, String prefix, Map<String, Base> baseIds) {
     List<KillChainPhase> killChainPhases = new ArrayList<>();
+    Map<String, KillChainPhase> existingKillChainPhases =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "kill_chain_phases", "phase_external_id"),
+            this.killChainPhaseRepository::findAllByExternalIdInIgnoreCase,
+            KillChainPhase::getExternalId);
     resolveJsonElements(importNode, prefix + "kill_chain_phases")
         .forEach(
             nodeKillChainPhase -> {
@@ -259,17 +332,14 @@ public class V1_DataImporter implements Importer {
               }
               String name = nodeKillChainPhase.get("phase_external_id").textValue();
 
-              List<KillChainPhase> existingKillChainPhases =
-                  this.killChainPhaseRepository.findAllByExternalIdInIgnoreCase(List.of(name));
-              if (!existingKillChainPhases.isEmpty()) {
-                baseIds.put(id, existingKillChainPhases.getFirst());
-                killChainPhases.add(existingKillChainPhases.getFirst());
-              } else {
-                KillChainPhase killChainPhaseCreated =
-                    this.killChainPhaseRepository.save(createKillChainPhase(nodeKillChainPhase));
-                baseIds.put(id, killChainPhaseCreated);
-                killChainPhases.add(killChainPhaseCreated);
-              }
+              KillChainPhase killChainPhase =
+                  existingKillChainPhases.computeIfAbsent(
+                      lowerCase(name),
+                      n ->
+                          this.killChainPhaseRepository.save(
+                              createKillChainPhase(nodeKillChainPhase)));
+              baseIds.put(id, killChainPhase);
+              killChainPhases.add(killChainPhase);
             });
     return killChainPhases;
   }
@@ -359,33 +429,72 @@ public class V1_DataImporter implements Importer {
       Exercise savedExercise,
       Scenario savedScenario,
       Map<String, Base> baseIds) {
-    Stream<JsonNode> documentsStream = resolveJsonElements(importNode, prefix + "documents");
-    documentsStream.forEach(
+    List<JsonNode> documentNodes =
+        resolveJsonElements(importNode, prefix + "documents")
+            .filter(
+                nodeDoc -> docReferences.get(nodeDoc.get("document_target").textValue()) != null)
+            .toList();
+    List<String> targets =
+        documentNodes.stream()
+            .map(nodeDoc -> nodeDoc.get("document_target").textValue())
+            .distinct()
+            .toList();
+    Map<String, Document> existingDocuments = new HashMap<>();
+    if (!targets.isEmpty()) {
+      this.documentRepository
+          .findAllByTargetIn(targets)
+          .forEach(document -> existingDocuments.putIfAbsent(document.getTarget(), document));
+    }
+
+    // Upload the new files first, concurrently, the database work stays in this transaction
+    uploadFiles(
+        targets.stream().filter(target -> !existingDocuments.containsKey(target)).toList(),
+        docReferences);
+
+    documentNodes.forEach(
         nodeDoc -> {
           String target = nodeDoc.get("document_target").textValue();
-          ImportEntry entry = docReferences.get(target);
-
-          if (entry != null) {
-            handleDocumentWithEntry(nodeDoc, entry, target, savedExercise, savedScenario, baseIds);
+          Document existingDocument = existingDocuments.get(target);
+          if (existingDocument != null) {
+            updateExistingDocument(
+                nodeDoc, existingDocument, savedExercise, savedScenario, baseIds);
+          } else {
+            ImportEntry entry = docReferences.get(target);
+            existingDocuments.put(
+                target,
+                createDocument(nodeDoc, entry, target, savedExercise, savedScenario, baseIds));
           }
         });
   }
 
-  private void handleDocumentWithEntry(
-      JsonNode nodeDoc,
-      ImportEntry entry,
-      String target,
-      Exercise savedExercise,
-      Scenario savedScenario,
-      Map<String, Base> baseIds) {
-    String contentType = new MimetypesFileTypeMap().getContentType(entry.getEntry().getName());
-    Optional<Document> targetDocument = this.documentRepository.findByTarget(target);
-
-    if (targetDocument.isPresent()) {
-      updateExistingDocument(nodeDoc, targetDocument.get(), savedExercise, savedScenario, baseIds);
-    } else {
-      uploadNewDocument(nodeDoc, entry, target, savedExercise, savedScenario, contentType, baseIds);
+  private void uploadFiles(List<String> targets, Map<String, ImportEntry> docReferences) {
+    List<Future<?>> uploads = new ArrayList<>();
+    for (String target : targets) {
+      ImportEntry entry = docReferences.get(target);
+      uploads.add(
+          this.uploadExecutor.submit(
+              () -> {
+                this.documentService.uploadFile(
+                    target, entry.getData(), entry.getEntry().getSize(), contentType(entry));
+                return null;
+              }));
     }
+    try {
+      for (Future<?> upload : uploads) {
+        upload.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImportException(e);
+    } catch (ExecutionException e) {
+      throw new ImportException(e.getCause());
+    } finally {
+      uploads.forEach(upload -> upload.cancel(true));
+    }
+  }
+
+  private String contentType(ImportEntry entry) {
+    return new MimetypesFileTypeMap().getContentType(entry.getEntry().getName());
   }
 
   private void updateExistingDocument(
@@ -410,21 +519,13 @@ public class V1_DataImporter implements Importer {
     baseIds.put(nodeDoc.get("document_id").textValue(), savedDocument);
   }
 
-  private void uploadNewDocument(
+  private Document createDocument(
       JsonNode nodeDoc,
       ImportEntry entry,
       String target,
       Exercise savedExercise,
       Scenario savedScenario,
-      String contentType,
       Map<String, Base> baseIds) {
-    try {
-      this.documentService.uploadFile(
-          target, entry.getData(), entry.getEntry().getSize(), contentType);
-    } catch (Exception e) {
-      throw new ImportException(e);
-    }
-
     Document document = new Document();
     document.setTarget(target);
     document.setName(nodeDoc.get("document_name").textValue());
@@ -440,14 +541,20 @@ public class V1_DataImporter implements Importer {
             .map(tid -> baseIds.get(tid).getId())
             .toList();
     document.setTags(iterableToSet(tagRepository.findAllById(tagIds)));
-    document.setType(contentType);
+    document.setType(contentType(entry));
     Document savedDocument = this.documentRepository.save(document);
     baseIds.put(nodeDoc.get("document_id").textValue(), savedDocument);
+    return savedDocument;
   }
 
   // -- ORGANIZATION --
 
   private void importOrganizations(JsonNode importNode, String prefix, Map<String, Base> baseIds) {
+    Map<String, Organization> existingOrganizations =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "organizations", "organization_name"),
+            this.organizationRepository::findAllByNameInIgnoreCase,
+            Organization::getName);
     resolveJsonElements(importNode, prefix + "organizations")
         .forEach(
             nodeOrganization -> {
@@ -458,17 +565,13 @@ public class V1_DataImporter implements Importer {
               }
               String name = nodeOrganization.get("organization_name").textValue();
 
-              List<Organization> existingOrganizations =
-                  this.organizationRepository.findByNameIgnoreCase(name);
-
-              if (!existingOrganizations.isEmpty()) {
-                baseIds.put(id, existingOrganizations.getFirst());
-              } else {
-                baseIds.put(
-                    id,
-                    this.organizationRepository.save(
-                        createOrganization(nodeOrganization, baseIds)));
-              }
+              baseIds.put(
+                  id,
+                  existingOrganizations.computeIfAbsent(
+                      lowerCase(name),
+                      n ->
+                          this.organizationRepository.save(
+                              createOrganization(nodeOrganization, baseIds))));
             });
   }
 
@@ -487,6 +590,11 @@ public class V1_DataImporter implements Importer {
   // -- USERS --
 
   private void importUsers(JsonNode importNode, String prefix, Map<String, Base> baseIds) {
+    Map<String, User> existingUsers =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "users", "user_email"),
+            this.userRepository::findAllByEmailInIgnoreCase,
+            User::getEmail);
     resolveJsonElements(importNode, prefix + "users")
         .forEach(
             nodeUser -> {
@@ -497,12 +605,11 @@ public class V1_DataImporter implements Importer {
               }
               String email = nodeUser.get("user_email").textValue();
 
-              User existingUser = this.userRepository.findByEmailIgnoreCase(email).orElse(null);
-
               baseIds.put(
                   id,
-                  Objects.requireNonNullElseGet(
-                      existingUser, () -> this.userRepository.save(createUser(nodeUser, baseIds))));
+                  existingUsers.computeIfAbsent(
+                      lowerCase(email),
+                      e -> this.userRepository.save(createUser(nodeUser, baseIds))));
             });
   }
 
@@ -562,6 +669,14 @@ public class V1_DataImporter implements Importer {
       Exercise savedExercise,
       Scenario savedScenario) {
     Map<String, Team> baseTeams = new HashMap<>();
+    Map<String, Team> existingTeams =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "teams", "team_name").stream()
+                .map(V1_DataImporter::lowerCase)
+                .distinct()
+                .toList(),
+            this.teamRepository::findByLowerNamesAndNotContextual,
+            Team::getName);
 
     resolveJsonElements(importNode, prefix + "teams")
         .forEach(
@@ -574,11 +689,10 @@ public class V1_DataImporter implements Importer {
               String name = nodeTeam.get("team_name").textValue();
 
               // Prevent duplication of team, based on the team name and not contextual
-              List<Team> existingTeams =
-                  this.teamRepository.findByNameIgnoreCaseAndNotContextual(name);
+              Team existingTeam = existingTeams.get(lowerCase(name));
 
-              if (!existingTeams.isEmpty()) {
-                baseTeams.put(id, existingTeams.getFirst());
+              if (existingTeam != null) {
+                baseTeams.put(id, existingTeam);
               } else {
                 // skip creating contextual team if atomic testing
                 if (nodeTeam.has("team_contextual")) {
@@ -609,6 +723,9 @@ public class V1_DataImporter implements Importer {
                 team.setUsers(usersForTeam);
                 Team savedTeam = this.teamRepository.save(team);
                 baseTeams.put(id, savedTeam);
+                if (!savedTeam.getContextual()) {
+                  existingTeams.put(lowerCase(name), savedTeam);
+                }
               }
             });
     return baseTeams;
@@ -633,6 +750,11 @@ public class V1_DataImporter implements Importer {
   // -- CHALLENGES --
 
   private void importChallenges(JsonNode importNode, String prefix, Map<String, Base> baseIds) {
+    Map<String, Challenge> existingChallenges =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "challenges", "challenge_name"),
+            this.challengeRepository::findAllByNameInIgnoreCase,
+            Challenge::getName);
     resolveJsonElements(importNode, prefix + "challenges")
         .forEach(
             nodeChallenge -> {
@@ -643,14 +765,11 @@ public class V1_DataImporter implements Importer {
               }
               String name = nodeChallenge.get("challenge_name").textValue();
 
-              List<Challenge> existingChallenges =
-                  this.challengeRepository.findByNameIgnoreCase(name);
-              if (!existingChallenges.isEmpty()) {
-                baseIds.put(id, existingChallenges.getFirst());
-              } else {
-                baseIds.put(
-                    id, this.challengeRepository.save(createChallenge(nodeChallenge, baseIds)));
-              }
+              baseIds.put(
+                  id,
+                  existingChallenges.computeIfAbsent(
+                      lowerCase(name),
+                      n -> this.challengeRepository.save(createChallenge(nodeChallenge, baseIds))));
             });
   }
 
@@ -690,6 +809,11 @@ public class V1_DataImporter implements Importer {
   // -- CHANNELS --
 
   private void importChannels(JsonNode importNode, String prefix, Map<String, Base> baseIds) {
+    Map<String, Channel> existingChannels =
+        findExisting(
+            resolveJsonValues(importNode, prefix + "channels", "channel_name"),
+            this.channelRepository::findAllByNameInIgnoreCase,
+            Channel::getName);
     resolveJsonElements(importNode, prefix + "channels")
         .forEach(
             nodeChannel -> {
@@ -700,13 +824,11 @@ public class V1_DataImporter implements Importer {
               }
               String channelName = nodeChannel.get("channel_name").textValue();
 
-              List<Channel> existingChannels =
-                  this.channelRepository.findByNameIgnoreCase(channelName);
-              if (!existingChannels.isEmpty()) {
-                baseIds.put(id, existingChannels.getFirst());
-              } else {
-                baseIds.put(id, this.channelRepository.save(createChannel(nodeChannel, baseIds)));
-              }
+              baseIds.put(
+                  id,
+                  existingChannels.computeIfAbsent(
+                      lowerCase(channelName),
+                      n -> this.channelRepository.save(createChannel(nodeChannel, baseIds))));
             });
   }
 
@@ -739,13 +861,15 @@ public class V1_DataImporter implements Importer {
       Exercise savedExercise,
       Scenario savedScenario,
       Map<String, Base> baseIds) {
+    List<String> ids = new ArrayList<>();
+    List<Article> articles = new ArrayList<>();
     resolveJsonElements(importNode, prefix + "articles")
         .forEach(
             nodeArticle -> {
-              String id = nodeArticle.get("article_id").textValue();
-              Article article = createArticle(nodeArticle, savedExercise, savedScenario, baseIds);
-              baseIds.put(id, this.articleRepository.save(article));
+              ids.add(nodeArticle.get("article_id").textValue());
+              articles.add(createArticle(nodeArticle, savedExercise, savedScenario, baseIds));
             });
+    saveAll(this.articleRepository, ids, articles, baseIds);
   }
 
   private Article createArticle(
@@ -781,13 +905,15 @@ public class V1_DataImporter implements Importer {
       Exercise savedExercise,
       Scenario savedScenario,
       Map<String, Base> baseIds) {
+    List<String> ids = new ArrayList<>();
+    List<Objective> objectives = new ArrayList<>();
     resolveJsonElements(importNode, prefix + "objectives")
         .forEach(
             nodeObjective -> {
-              String id = nodeObjective.get("objective_id").textValue();
-              Objective objective = createObjective(nodeObjective, savedExercise, savedScenario);
-              baseIds.put(id, this.objectiveRepository.save(objective));
+              ids.add(nodeObjective.get("objective_id").textValue());
+              objectives.add(createObjective(nodeObjective, savedExercise, savedScenario));
             });
+    saveAll(this.objectiveRepository, ids, objectives, baseIds);
   }
 
   private Objective createObjective(
@@ -811,21 +937,26 @@ public class V1_DataImporter implements Importer {
       Exercise savedExercise,
       Scenario savedScenario,
       Map<String, Base> baseIds) {
+    List<String> categoryIds = new ArrayList<>();
+    List<LessonsCategory> lessonsCategories = new ArrayList<>();
     resolveJsonElements(importNode, prefix + "lessons_categories")
         .forEach(
             nodeLessonCategory -> {
-              String id = nodeLessonCategory.get("lessonscategory_id").textValue();
-              LessonsCategory lessonsCategory =
-                  createLessonsCategory(nodeLessonCategory, savedExercise, savedScenario, baseIds);
-              baseIds.put(id, this.lessonsCategoryRepository.save(lessonsCategory));
+              categoryIds.add(nodeLessonCategory.get("lessonscategory_id").textValue());
+              lessonsCategories.add(
+                  createLessonsCategory(nodeLessonCategory, savedExercise, savedScenario, baseIds));
             });
+    saveAll(this.lessonsCategoryRepository, categoryIds, lessonsCategories, baseIds);
+    // Questions are created once their categories are saved
+    List<String> questionIds = new ArrayList<>();
+    List<LessonsQuestion> lessonsQuestions = new ArrayList<>();
     resolveJsonElements(importNode, prefix + "lessons_questions")
         .forEach(
             nodeLessonQuestion -> {
-              String id = nodeLessonQuestion.get("lessonsquestion_id").textValue();
-              LessonsQuestion lessonsQuestion = createLessonsQuestion(nodeLessonQuestion, baseIds);
-              baseIds.put(id, this.lessonsQuestionRepository.save(lessonsQuestion));
+              questionIds.add(nodeLessonQuestion.get("lessonsquestion_id").textValue());
+              lessonsQuestions.add(createLessonsQuestion(nodeLessonQuestion, baseIds));
             });
+    saveAll(this.lessonsQuestionRepository, questionIds, lessonsQuestions, baseIds);
   }
 
   private LessonsCategory createLessonsCategory(
@@ -912,12 +1043,28 @@ public class V1_DataImporter implements Importer {
             .get()
             .filter(jsonNode -> !children.contains(jsonNode.get("inject_id").asText()));
 
+    // The injector contracts referenced by the injects are resolved at once
+    List<String> injectorContractIds =
+        injectsStream
+            .get()
+            .map(jsonNode -> jsonNode.get("inject_injector_contract"))
+            .filter(node -> node != null && !node.isNull())
+            .map(node -> node.get("injector_contract_id").textValue())
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    Set<String> existingInjectorContractIds = new HashSet<>();
+    this.injectorContractRepository
+        .findAllById(injectorContractIds)
+        .forEach(injectorContract -> existingInjectorContractIds.add(injectorContract.getId()));
+
     importInjects(
         baseIds,
         savedExercise,
         savedScenario,
         injectsNoParent.toList(),
-        injectsStream.get().toList());
+        injectsStream.get().toList(),
+        existingInjectorContractIds);
   }
 
   private void importInjects(
@@ -925,7 +1072,8 @@ public class V1_DataImporter implements Importer {
       Exercise exercise,
       Scenario scenario,
       List<JsonNode> injectsToAdd,
-      List<JsonNode> allInjects) {
+      List<JsonNode> allInjects,
+      Set<String> existingInjectorContractIds) {
     List<String> originalIds = new ArrayList<>();
     injectsToAdd.forEach(
         injectNode -> {
@@ -948,13 +1096,10 @@ public class V1_DataImporter implements Importer {
             log.warn("Import Inject Failed: Missing injector contract ID on inject: {}", injectId);
             return;
           }
-          Optional<InjectorContract> injectorContract =
-              this.injectorContractRepository.findById(injectorContractIdFromNode);
-
           String injectorContractId = null;
 
           // If not, rely on payload
-          if (injectorContract.isEmpty()) {
+          if (!existingInjectorContractIds.contains(injectorContractIdFromNode)) {
             JsonNode payloadNode = injectContractNode.get("injector_contract_payload");
             if (!payloadNode.isNull() && !payloadNode.isEmpty()) {
               String externalId = payloadNode.get("payload_external_id").textValue();
@@ -976,7 +1121,7 @@ public class V1_DataImporter implements Importer {
               }
             }
           } else {
-            injectorContractId = injectorContract.get().getId();
+            injectorContractId = injectorContractIdFromNode;
           }
 
           if (injectorContractId == null) {
@@ -1041,20 +1186,18 @@ public class V1_DataImporter implements Importer {
               InjectDependencyInput dependency =
                   mapper.convertValue(dependsOnNode, InjectDependencyInput.class);
 
-              Optional<Inject> injectParent =
-                  injectRepository.findById(
-                      baseIds.get(dependency.getRelationship().getInjectParentId()).getId());
-              Optional<Inject> injectChildren =
-                  injectRepository.findById(
-                      baseIds.get(dependency.getRelationship().getInjectChildrenId()).getId());
-
-              if (injectParent.isPresent() && injectChildren.isPresent()) {
-                InjectDependency injectDependency = new InjectDependency();
-                injectDependency.getCompositeId().setInjectParent(injectParent.get());
-                injectDependency.getCompositeId().setInjectChildren(injectChildren.get());
-                injectDependency.setInjectDependencyCondition(dependency.getConditions());
-                injectDependenciesRepository.save(injectDependency);
-              }
+              // Both injects were just inserted, references are enough to link them
+              InjectDependency injectDependency = new InjectDependency();
+              injectDependency
+                  .getCompositeId()
+                  .setInjectParent(
+                      injectRepository.getReferenceById(
+                          baseIds.get(dependency.getRelationship().getInjectParentId()).getId()));
+              injectDependency
+                  .getCompositeId()
+                  .setInjectChildren(injectRepository.getReferenceById(injectId));
+              injectDependency.setInjectDependencyCondition(dependency.getConditions());
+              injectDependenciesRepository.save(injectDependency);
             }
           }
           // Tags
@@ -1116,7 +1259,8 @@ public class V1_DataImporter implements Importer {
                 })
             .toList();
     if (!childInjects.isEmpty()) {
-      importInjects(baseIds, exercise, scenario, childInjects, allInjects);
+      importInjects(
+          baseIds, exercise, scenario, childInjects, allInjects, existingInjectorContractIds);
     }
   }
 
@@ -1226,20 +1370,22 @@ public class V1_DataImporter implements Importer {
     } else if (ofNullable(importNode.get(SCENARIO_VARIABLES)).isPresent()) {
       variableNodesOpt = ofNullable(importNode.get(SCENARIO_VARIABLES)).map(JsonNode::elements);
     }
+    List<String> ids = new ArrayList<>();
+    List<Variable> variables = new ArrayList<>();
     variableNodesOpt.ifPresent(
         variableNodes ->
             variableNodes.forEachRemaining(
                 variableNode -> {
-                  String id = VariableWithValueMixin.getId(variableNode);
                   Variable variable = VariableWithValueMixin.build(variableNode);
                   if (savedExercise != null) {
                     variable.setExercise(savedExercise);
                   } else if (savedScenario != null) {
                     variable.setScenario(savedScenario);
                   }
-                  Variable variableSaved = this.variableRepository.save(variable);
-                  baseIds.put(id, variableSaved);
+                  ids.add(VariableWithValueMixin.getId(variableNode));
+                  variables.add(variable);
                 }));
+    saveAll(this.variableRepository, ids, variables, baseIds);
   }
 
   private String getNodeValue(JsonNode importNode) {
@@ -45,11 +45,20 @@ public class EmailExecutor extends Injector {
     try {
       emailService.sendEmail(
           execution, users, from, replyTos, inReplyTo, subject, message, attachments);
+    } catch (InterruptedException e) {
+      interrupted(execution);
     } catch (Exception e) {
       execution.addTrace(getNewErrorTrace(e.getMessage(), ExecutionTraceAction.COMPLETE));
     }
   }
 
+  private static void interrupted(Execution execution) {
+    // Keep the interruption visible to the thread running the inject
+    Thread.currentThread().interrupt();
+    execution.addTrace(
+        getNewErrorTrace("Mail delivery interrupted", ExecutionTraceAction.COMPLETE));
+  }
+
   private void sendSingle(
       Execution execution,
       List<ExecutionContext> users,
@@ -60,23 +69,22 @@ public class EmailExecutor extends Injector {
       String subject,
       String message,
       List<DataAttachment> attachments) {
-    users.forEach(
-        user -> {
-          try {
-            emailService.sendEmail(
-                execution,
-                user,
-                from,
-                replyTos,
-                inReplyTo,
-                mustBeEncrypted,
-                subject,
-                message,
-                attachments);
-          } catch (Exception e) {
-            execution.addTrace(getNewErrorTrace(e.getMessage(), ExecutionTraceAction.COMPLETE));
-          }
-        });
+    try {
+      emailService.sendEmails(
+          execution,
+          users,
+          from,
+          replyTos,
+          inReplyTo,
+          mustBeEncrypted,
+          subject,
+          message,
+          attachments);
+    } catch (InterruptedException e) {
+      interrupted(execution);
+    } catch (Exception e) {
+      execution.addTrace(getNewErrorTrace(e.getMessage(), ExecutionTraceAction.COMPLETE));
+    }
   }
 
   @Override
@@ -6,11 +6,16 @@ import static io.openbas.database.model.ExecutionTrace.getNewSuccessTrace;
 import static io.openbas.helper.TemplateHelper.buildContextualContent;
 import static java.util.stream.Collectors.joining;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
 import io.openbas.database.model.DataAttachment;
 import io.openbas.database.model.Execution;
 import io.openbas.database.model.ExecutionTraceAction;
 import io.openbas.execution.ExecutionContext;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
 import jakarta.activation.DataHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
@@ -19,29 +24,93 @@ import jakarta.mail.util.ByteArrayDataSource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.openpgp.PGPPublicKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 public class EmailService {
 
+  private static final int SEND_ATTEMPTS = 3;
+
   private JavaMailSender emailSender;
   private EmailPgp emailPgp;
 
   @Value("${openbas.mail.imap.enabled}")
   private boolean imapEnabled;
 
+  // Number of SMTP connections used concurrently to deliver the emails of an inject
+  @Value("${openbas.mail.smtp.parallelism:4}")
+  private int smtpParallelism;
+
+  // Number of emails delivered over a single SMTP connection
+  @Value("${openbas.mail.smtp.batch-size:20}")
+  private int smtpBatchSize;
+
+  private RateLimiter smtpRateLimiter;
+
+  // SMTP connections of this node, shared by the injects delivering emails concurrently
+  private ExecutorService smtpExecutor;
+
   private ImapService imapService;
+  private MetricRegistry metricRegistry;
+
+  // Counters of the deliveries since the last metric collection
+  private final AtomicLong deliveredCount = new AtomicLong(0);
+  private final AtomicLong failedCount = new AtomicLong(0);
+  private final AtomicLong deliveryDuration = new AtomicLong(0);
+
+  @PostConstruct
+  public void init() {
+    this.smtpExecutor = Executors.newFixedThreadPool(Math.max(1, this.smtpParallelism));
+    this.metricRegistry.registerGauge(
+        "emails_delivered_count", "Number of emails delivered", () -> deliveredCount.getAndSet(0));
+    this.metricRegistry.registerGauge(
+        "emails_failed_count",
+        "Number of emails failed to deliver",
+        () -> failedCount.getAndSet(0));
+    this.metricRegistry.registerGauge(
+        "emails_delivery_duration",
+        "Time spent delivering emails",
+        () -> deliveryDuration.getAndSet(0),
+        "ms");
+  }
+
+  @PreDestroy
+  public void destroy() {
+    this.smtpExecutor.shutdownNow();
+  }
+
+  // Maximum number of emails delivered per second by this node, 0 for no limit
+  @Value("${openbas.mail.smtp.rate-limit:0}")
+  public void setSmtpRateLimit(double smtpRateLimit) {
+    this.smtpRateLimiter = smtpRateLimit > 0 ? RateLimiter.create(smtpRateLimit) : null;
+  }
 
   @Autowired
   public void setImapService(ImapService imapService) {
     this.imapService = imapService;
   }
 
+  @Autowired
+  public void setMetricRegistry(MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
   @Autowired
   public void setEmailSender(JavaMailSender emailSender) {
     this.emailSender = emailSender;
@@ -75,7 +144,7 @@ public class EmailService {
     execution.addTrace(
         getNewSuccessTrace("Mail sent to " + emails, ExecutionTraceAction.EXECUTION, userIds));
     // Store message in Imap after sending
-    storeMessageImap(execution, mimeMessage, userIds);
+    storeMessagesImap(execution, List.of(mimeMessage), userIds);
   }
 
   public void sendEmail(
@@ -108,7 +177,166 @@ public class EmailService {
     execution.addTrace(
         getNewSuccessTrace("Mail sent to " + email, ExecutionTraceAction.EXECUTION, userIds));
     // Store message in Imap after sending
-    storeMessageImap(execution, mimeMessage, userIds);
+    storeMessagesImap(execution, List.of(mimeMessage), userIds);
+  }
+
+  /**
+   * Send a personal email to each user. Users are split in batches delivered over a single SMTP
+   * connection, batches are delivered concurrently over the SMTP connections of this node and
+   * throttled by the configured rate limit.
+   */
+  public void sendEmails(
+      Execution execution,
+      List<ExecutionContext> usersContext,
+      String from,
+      List<String> replyTos,
+      String inReplyTo,
+      boolean mustBeEncrypted,
+      String subject,
+      String message,
+      List<DataAttachment> attachments)
+      throws InterruptedException {
+    long start = System.currentTimeMillis();
+    List<List<ExecutionContext>> batches =
+        Lists.partition(usersContext, Math.max(1, this.smtpBatchSize));
+    int delivered = 0;
+    List<Future<Integer>> deliveries =
+        batches.stream()
+            .map(
+                batch ->
+                    this.smtpExecutor.submit(
+                        () ->
+                            sendBatch(
+                                execution,
+                                batch,
+                                from,
+                                replyTos,
+                                inReplyTo,
+                                mustBeEncrypted,
+                                subject,
+                                message,
+                                attachments)))
+            .toList();
+    try {
+      for (Future<Integer> delivery : deliveries) {
+        try {
+          delivered += delivery.get();
+        } catch (ExecutionException e) {
+          execution.addTrace(
+              getNewErrorTrace(e.getCause().getMessage(), ExecutionTraceAction.COMPLETE));
+        }
+      }
+    } finally {
+      // Interrupted while waiting, the remaining batches must not be delivered anymore
+      deliveries.forEach(delivery -> delivery.cancel(true));
+    }
+    long duration = Math.max(1, System.currentTimeMillis() - start);
+    this.deliveredCount.addAndGet(delivered);
+    this.failedCount.addAndGet(usersContext.size() - delivered);
+    this.deliveryDuration.addAndGet(duration);
+    execution.addTrace(
+        getNewInfoTrace(
+            String.format(
+                "%d of %d mails delivered in %d ms (%.1f mails/s)",
+                delivered, usersContext.size(), duration, delivered * 1000.0 / duration),
+            ExecutionTraceAction.EXECUTION));
+  }
+
+  private int sendBatch(
+      Execution execution,
+      List<ExecutionContext> batch,
+      String from,
+      List<String> replyTos,
+      String inReplyTo,
+      boolean mustBeEncrypted,
+      String subject,
+      String message,
+      List<DataAttachment> attachments)
+      throws InterruptedException {
+    // Message to deliver -> clear message stored in IMAP and its user
+    Map<MimeMessage, MimeMessage> clearMessages = new LinkedHashMap<>();
+    Map<MimeMessage, ExecutionContext> users = new LinkedHashMap<>();
+    for (ExecutionContext userContext : batch) {
+      try {
+        String email = userContext.getUser().getEmail();
+        MimeMessage mimeMessage =
+            buildMimeMessage(
+                from,
+                replyTos,
+                inReplyTo,
+                buildContextualContent(subject, userContext),
+                buildContextualContent(message, userContext),
+                attachments);
+        mimeMessage.setRecipient(Message.RecipientType.TO, new InternetAddress(email));
+        MimeMessage toDeliver =
+            mustBeEncrypted
+                ? getEncryptedMimeMessage(userContext, from, replyTos, subject, email, mimeMessage)
+                : mimeMessage;
+        clearMessages.put(toDeliver, mimeMessage);
+        users.put(toDeliver, userContext);
+      } catch (Exception e) {
+        execution.addTrace(
+            getNewErrorTrace(
+                e.getMessage(),
+                ExecutionTraceAction.COMPLETE,
+                List.of(userContext.getUser().getId())));
+      }
+    }
+    if (users.isEmpty()) {
+      return 0;
+    }
+    if (this.smtpRateLimiter != null) {
+      this.smtpRateLimiter.acquire(users.size());
+    }
+
+    List<MimeMessage> pending = new ArrayList<>(users.keySet());
+    for (int i = 0; i < SEND_ATTEMPTS && !pending.isEmpty(); i++) {
+      if (i > 0) {
+        Thread.sleep(2000);
+      }
+      try {
+        emailSender.send(pending.toArray(MimeMessage[]::new));
+        pending = List.of();
+      } catch (MailSendException e) {
+        // Only failed messages are sent again, without any failed message the connection failed
+        if (!e.getFailedMessages().isEmpty()) {
+          pending = pending.stream().filter(e.getFailedMessages()::containsKey).toList();
+        }
+        execution.addTrace(
+            getNewInfoTrace(
+                "Failed to send mail" + e.getMessage(), ExecutionTraceAction.EXECUTION));
+      } catch (MailException e) {
+        execution.addTrace(
+            getNewInfoTrace(
+                "Failed to send mail" + e.getMessage(), ExecutionTraceAction.EXECUTION));
+      }
+    }
+
+    List<MimeMessage> storedMessages = new ArrayList<>();
+    List<String> deliveredUserIds = new ArrayList<>();
+    for (Map.Entry<MimeMessage, ExecutionContext> entry : users.entrySet()) {
+      String userId = entry.getValue().getUser().getId();
+      if (pending.contains(entry.getKey())) {
+        execution.addTrace(
+            getNewErrorTrace(
+                "Failed to send mail after " + SEND_ATTEMPTS + " attempts",
+                ExecutionTraceAction.COMPLETE,
+                List.of(userId)));
+      } else {
+        execution.addTrace(
+            getNewSuccessTrace(
+                "Mail sent to " + entry.getValue().getUser().getEmail(),
+                ExecutionTraceAction.EXECUTION,
+                List.of(userId)));
+        storedMessages.add(clearMessages.get(entry.getKey()));
+        deliveredUserIds.add(userId);
+      }
+    }
+    // Store the whole batch in Imap after sending
+    if (!storedMessages.isEmpty()) {
+      storeMessagesImap(execution, storedMessages, deliveredUserIds);
+    }
+    return storedMessages.size();
   }
 
   private InternetAddress getInternetAddress(String email) {
@@ -119,7 +347,8 @@ public class EmailService {
     }
   }
 
-  private void storeMessageImap(Execution execution, MimeMessage mimeMessage, List<String> userIds)
+  private void storeMessagesImap(
+      Execution execution, List<MimeMessage> mimeMessages, List<String> userIds)
       throws InterruptedException {
     if (!imapEnabled) {
       execution.addTrace(
@@ -130,7 +359,7 @@ public class EmailService {
     if (execution.isRuntime() && imapEnabled) {
       for (int i = 0; i < 3; i++) {
         try {
-          imapService.storeSentMessage(mimeMessage);
+          imapService.storeSentMessages(mimeMessages);
           execution.addTrace(
               getNewSuccessTrace(
                   "Mail successfully stored in IMAP", ExecutionTraceAction.COMPLETE, userIds));
@@ -233,7 +462,7 @@ public class EmailService {
 
   private void sendEmailWithRetry(Execution execution, MimeMessage mimeMessage)
       throws InterruptedException {
-    for (int i = 0; i < 3; i++) {
+    for (int i = 0; i < SEND_ATTEMPTS; i++) {
       try {
         emailSender.send(mimeMessage);
         return;
@@ -244,6 +473,6 @@ public class EmailService {
         Thread.sleep(2000);
       }
     }
-    throw new InterruptedException("Failed to send mail after 3 attempts");
+    throw new MailSendException("Failed to send mail after 3 attempts");
   }
 }
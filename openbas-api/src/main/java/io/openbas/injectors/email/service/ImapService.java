@@ -364,12 +364,15 @@ public class ImapService {
     }
   }
 
-  public void storeSentMessage(MimeMessage message) throws Exception {
+  public void storeSentMessages(List<MimeMessage> messages) throws Exception {
     if (enabled) {
       try (Folder folder = imapStore.getFolder(sentFolder)) {
         folder.open(Folder.READ_WRITE);
-        message.setFlag(Flags.Flag.SEEN, true);
-        folder.appendMessages(new Message[] {message});
+        for (MimeMessage message : messages) {
+          message.setFlag(Flags.Flag.SEEN, true);
+        }
+        // A single append command for the whole batch
+        folder.appendMessages(messages.toArray(Message[]::new));
       }
     }
   }
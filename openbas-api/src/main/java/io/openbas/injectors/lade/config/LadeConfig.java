@@ -21,4 +21,10 @@ public class LadeConfig {
   @NotNull private String username;
 
   @NotNull private String password;
+
+  // Number of workflow statuses requested to Lade at the same time
+  @NotNull private Integer pollConcurrency = 4;
+
+  // Upper bound, in seconds, of the polling interval of a workflow reporting nothing new
+  @NotNull private Integer pollMaxInterval = 300;
 }
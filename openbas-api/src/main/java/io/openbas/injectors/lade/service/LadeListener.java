@@ -1,14 +1,22 @@
 package io.openbas.injectors.lade.service;
 
 import io.openbas.database.model.ExecutionStatus;
+import io.openbas.database.model.ExecutionTrace;
 import io.openbas.database.model.Inject;
 import io.openbas.database.model.InjectStatus;
 import io.openbas.database.repository.InjectRepository;
 import io.openbas.database.repository.InjectStatusRepository;
 import io.openbas.injectors.lade.LadeContract;
+import io.openbas.injectors.lade.config.LadeConfig;
 import io.openbas.injectors.lade.model.LadeWorkflow;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -19,25 +27,78 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class LadeListener {
 
+  public static final Duration POLL_INTERVAL = Duration.ofSeconds(15);
+
   private final InjectRepository injectRepository;
   private final InjectStatusRepository injectStatusRepository;
   private final LadeService ladeService;
+  private final LadeConfig ladeConfig;
+  private final MetricRegistry metricRegistry;
+
+  // Polling schedule of each pending workflow, keyed by inject status id
+  private final Map<String, WorkflowPoll> polls = new ConcurrentHashMap<>();
+
+  private final AtomicLong pollCount = new AtomicLong(0);
+  private final AtomicLong pollMaxLatency = new AtomicLong(0);
+
+  private ExecutorService pollExecutor;
+
+  @PostConstruct
+  public void init() {
+    this.pollExecutor = Executors.newFixedThreadPool(this.ladeConfig.getPollConcurrency());
+    this.metricRegistry.registerGauge(
+        "lade_workflow_polls_count",
+        "Number of Lade workflow status requests",
+        () -> this.pollCount.getAndSet(0));
+    this.metricRegistry.registerGauge(
+        "lade_workflow_poll_max_latency",
+        "Highest Lade workflow status request latency",
+        () -> this.pollMaxLatency.getAndSet(0),
+        "ms");
+  }
+
+  @PreDestroy
+  public void destroy() {
+    this.pollExecutor.shutdownNow();
+  }
 
   @Scheduled(fixedDelay = 15000, initialDelay = 0)
   public void listenWorkflows() {
     // Get all lade inject with workflow_id that are not done yet
     List<InjectStatus> injectStatuses =
         this.injectStatusRepository.pendingForInjectType(LadeContract.TYPE);
-    // For each workflow ask for traces and status
-    injectStatuses.forEach(
-        injectStatus -> {
-          // Add traces and close inject if needed.
-          String asyncId =
-              injectStatus.statusIdentifiers().stream()
-                  .findFirst()
-                  .orElse(null); // Lade handle only one asyncID for now
+    Set<String> pendingIds = new HashSet<>();
+    injectStatuses.forEach(injectStatus -> pendingIds.add(injectStatus.getId()));
+    this.polls.keySet().retainAll(pendingIds);
+
+    // Ask Lade for the workflows due for a poll, a bounded number at a time
+    Instant now = Instant.now();
+    Map<InjectStatus, Future<LadeWorkflow>> results = new LinkedHashMap<>();
+    for (InjectStatus injectStatus : injectStatuses) {
+      WorkflowPoll poll =
+          this.polls.computeIfAbsent(
+              injectStatus.getId(),
+              id ->
+                  new WorkflowPoll(
+                      injectStatus.statusIdentifiers().stream()
+                          .findFirst()
+                          .orElse(null))); // Lade handle only one asyncID for now
+      if (poll.isDue(now)) {
+        results.put(injectStatus, this.pollExecutor.submit(() -> fetchWorkflow(poll.workflowId)));
+      }
+    }
+
+    // Add traces and close inject if needed, only touching injects whose workflow moved
+    results.forEach(
+        (injectStatus, result) -> {
+          WorkflowPoll poll = this.polls.get(injectStatus.getId());
           try {
-            LadeWorkflow workflowStatus = this.ladeService.getWorkflowStatus(asyncId);
+            LadeWorkflow workflowStatus = result.get();
+            if (!hasChanged(injectStatus, workflowStatus)) {
+              poll.backoff(now, maxInterval());
+              return;
+            }
+            poll.reset(now);
             if (workflowStatus.isDone()) {
               ExecutionStatus name =
                   workflowStatus.isFail() ? ExecutionStatus.ERROR : ExecutionStatus.SUCCESS;
@@ -49,9 +110,77 @@ public class LadeListener {
             Inject relatedInject = injectStatus.getInject();
             relatedInject.setUpdatedAt(Instant.now());
             this.injectRepository.save(relatedInject);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
           } catch (Exception e) {
+            poll.backoff(now, maxInterval());
             log.error(e.getMessage(), e);
           }
         });
   }
+
+  private LadeWorkflow fetchWorkflow(String workflowId) {
+    long start = System.nanoTime();
+    try {
+      return this.ladeService.getWorkflowStatus(workflowId);
+    } finally {
+      long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      this.pollCount.incrementAndGet();
+      this.pollMaxLatency.accumulateAndGet(latency, Math::max);
+    }
+  }
+
+  private Duration maxInterval() {
+    return Duration.ofSeconds(this.ladeConfig.getPollMaxInterval());
+  }
+
+  private static boolean hasChanged(InjectStatus injectStatus, LadeWorkflow workflowStatus) {
+    if (workflowStatus.isDone()) {
+      return true;
+    }
+    List<ExecutionTrace> currentTraces = injectStatus.getTraces();
+    List<ExecutionTrace> workflowTraces = workflowStatus.getTraces();
+    if (currentTraces.size() != workflowTraces.size()) {
+      return true;
+    }
+    for (int i = 0; i < currentTraces.size(); i++) {
+      ExecutionTrace current = currentTraces.get(i);
+      ExecutionTrace polled = workflowTraces.get(i);
+      if (!Objects.equals(current.getMessage(), polled.getMessage())
+          || current.getStatus() != polled.getStatus()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adaptive polling of a workflow: the interval doubles each time Lade reports nothing new, up to
+   * the configured maximum, and goes back to the base interval as soon as the workflow moves.
+   */
+  static class WorkflowPoll {
+
+    private final String workflowId;
+    private Duration interval = POLL_INTERVAL;
+    private Instant nextPoll = Instant.MIN;
+
+    WorkflowPoll(String workflowId) {
+      this.workflowId = workflowId;
+    }
+
+    boolean isDue(Instant now) {
+      return !now.isBefore(this.nextPoll);
+    }
+
+    void reset(Instant now) {
+      this.interval = POLL_INTERVAL;
+      this.nextPoll = now.plus(this.interval);
+    }
+
+    void backoff(Instant now, Duration maxInterval) {
+      Duration doubled = this.interval.multipliedBy(2);
+      this.interval = doubled.compareTo(maxInterval) > 0 ? maxInterval : doubled;
+      this.nextPoll = now.plus(this.interval);
+    }
+  }
 }
@@ -0,0 +1,218 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_91__Add_exercises_summaries extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      statement.execute(
+          """
+          CREATE TABLE exercises_summaries (
+              exercise_id varchar(255) not null primary key
+                  constraint exercise_summary_exercise_fk
+                      references exercises
+                      on delete cascade,
+              summary_stale boolean not null default false,
+              summary_injects_total bigint not null default 0,
+              summary_injects_executed bigint not null default 0,
+              summary_inject_dates bigint[] not null default '{}',
+              summary_pending_inject_dates bigint[] not null default '{}',
+              summary_communications_number bigint not null default 0,
+              summary_lessons_answers_number bigint not null default 0,
+              summary_users_number bigint not null default 0,
+              summary_all_users_number bigint not null default 0,
+              summary_platforms text[] not null default '{}',
+              -- Null until the first refresh computes the summary
+              summary_updated_at timestamp with time zone
+          );
+          CREATE INDEX idx_exercises_summaries_stale ON exercises_summaries (exercise_id)
+              WHERE summary_stale;
+
+          CREATE TABLE exercises_summaries_kill_chain_phases (
+              exercise_id varchar(255) not null
+                  constraint exercise_summary_fk
+                      references exercises_summaries
+                      on delete cascade,
+              phase_id varchar(255) not null
+                  constraint phase_id_fk
+                      references kill_chain_phases
+                      on delete cascade,
+              primary key (exercise_id, phase_id)
+          );
+          CREATE INDEX idx_exercises_summaries_kill_chain_phases_phase
+              ON exercises_summaries_kill_chain_phases (phase_id);
+          """);
+
+      // Every exercise has a summary row, so that the exercise can load it lazily
+      statement.execute(
+          """
+          INSERT INTO exercises_summaries (exercise_id, summary_stale)
+          SELECT exercise_id, true FROM exercises;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_create()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO exercises_summaries (exercise_id, summary_stale)
+              VALUES (NEW.exercise_id, true);
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER exercise_summary_create
+          AFTER INSERT ON exercises
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_create();
+          """);
+
+      // Any change feeding the summary flags it as stale, the refresh job recomputes it
+      statement.execute(
+          """
+          CREATE OR REPLACE FUNCTION mark_exercise_summary_stale(summary_exercise_id varchar)
+          RETURNS void AS $$
+          BEGIN
+              UPDATE exercises_summaries
+              SET summary_stale = true
+              WHERE exercise_id = summary_exercise_id AND NOT summary_stale;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_exercise()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              PERFORM mark_exercise_summary_stale(NEW.exercise_id);
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_inject()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              IF TG_OP <> 'INSERT' AND OLD.inject_exercise IS NOT NULL THEN
+                  PERFORM mark_exercise_summary_stale(OLD.inject_exercise);
+              END IF;
+              IF TG_OP <> 'DELETE' AND NEW.inject_exercise IS NOT NULL THEN
+                  PERFORM mark_exercise_summary_stale(NEW.inject_exercise);
+              END IF;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_inject_child()
+          RETURNS TRIGGER AS $$
+          DECLARE
+              child_inject_id varchar;
+          BEGIN
+              IF TG_OP = 'DELETE' THEN
+                  child_inject_id := to_jsonb(OLD) ->> TG_ARGV[0];
+              ELSE
+                  child_inject_id := to_jsonb(NEW) ->> TG_ARGV[0];
+              END IF;
+              PERFORM mark_exercise_summary_stale(i.inject_exercise)
+              FROM injects i
+              WHERE i.inject_id = child_inject_id AND i.inject_exercise IS NOT NULL;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_exercise_child()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              IF TG_OP = 'DELETE' THEN
+                  PERFORM mark_exercise_summary_stale(to_jsonb(OLD) ->> TG_ARGV[0]);
+              ELSE
+                  PERFORM mark_exercise_summary_stale(to_jsonb(NEW) ->> TG_ARGV[0]);
+              END IF;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_lessons_answer()
+          RETURNS TRIGGER AS $$
+          DECLARE
+              answer_question_id varchar;
+          BEGIN
+              IF TG_OP = 'DELETE' THEN
+                  answer_question_id := OLD.lessons_answer_question;
+              ELSE
+                  answer_question_id := NEW.lessons_answer_question;
+              END IF;
+              PERFORM mark_exercise_summary_stale(c.lessons_category_exercise)
+              FROM lessons_questions q
+              JOIN lessons_categories c ON c.lessons_category_id = q.lessons_question_category
+              WHERE q.lessons_question_id = answer_question_id
+                AND c.lessons_category_exercise IS NOT NULL;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION exercise_summary_stale_on_team_user()
+          RETURNS TRIGGER AS $$
+          DECLARE
+              changed_team_id varchar;
+          BEGIN
+              IF TG_OP = 'DELETE' THEN
+                  changed_team_id := OLD.team_id;
+              ELSE
+                  changed_team_id := NEW.team_id;
+              END IF;
+              PERFORM mark_exercise_summary_stale(et.exercise_id)
+              FROM exercises_teams et
+              WHERE et.team_id = changed_team_id;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER exercise_summary_stale_exercise
+          AFTER UPDATE ON exercises
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_exercise();
+
+          CREATE TRIGGER exercise_summary_stale_inject
+          AFTER INSERT OR UPDATE OR DELETE ON injects
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_inject();
+
+          CREATE TRIGGER exercise_summary_stale_inject_status
+          AFTER INSERT OR UPDATE OR DELETE ON injects_statuses
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_inject_child('status_inject');
+
+          CREATE TRIGGER exercise_summary_stale_communication
+          AFTER INSERT OR UPDATE OR DELETE ON communications
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_inject_child('communication_inject');
+
+          CREATE TRIGGER exercise_summary_stale_pause
+          AFTER INSERT OR UPDATE OR DELETE ON pauses
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_exercise_child('pause_exercise');
+
+          CREATE TRIGGER exercise_summary_stale_exercise_team
+          AFTER INSERT OR DELETE ON exercises_teams
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_exercise_child('exercise_id');
+
+          CREATE TRIGGER exercise_summary_stale_exercise_team_user
+          AFTER INSERT OR DELETE ON exercises_teams_users
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_exercise_child('exercise_id');
+
+          CREATE TRIGGER exercise_summary_stale_lessons_answer
+          AFTER INSERT OR DELETE ON lessons_answers
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_lessons_answer();
+
+          CREATE TRIGGER exercise_summary_stale_team_user
+          AFTER INSERT OR DELETE ON users_teams
+          FOR EACH ROW
+          EXECUTE PROCEDURE exercise_summary_stale_on_team_user();
+          """);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_92__Add_delayed_notification_events extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      statement.execute(
+          """
+          CREATE TABLE delayed_notification_events (
+              notification_event_id varchar(255) not null primary key,
+              notification_event_type varchar(255) not null,
+              notification_event_resource_type varchar(255) not null,
+              notification_event_resource_id varchar(255) not null,
+              notification_event_timestamp timestamp with time zone not null,
+              notification_event_due_at timestamp with time zone not null,
+              notification_event_status varchar(255) not null default 'PENDING',
+              notification_event_attempts int not null default 0,
+              notification_event_error text,
+              notification_event_created_at timestamp with time zone not null default now(),
+              notification_event_updated_at timestamp with time zone not null default now(),
+              constraint delayed_notification_event_unique
+                  unique (notification_event_type, notification_event_resource_type,
+                          notification_event_resource_id, notification_event_timestamp)
+          );
+          CREATE INDEX idx_delayed_notification_events_due
+              ON delayed_notification_events (notification_event_due_at)
+              WHERE notification_event_status IN ('PENDING', 'PROCESSING');
+          CREATE INDEX idx_delayed_notification_events_status
+              ON delayed_notification_events (notification_event_status);
+          """);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_93__Add_trigram_search_indexes extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      // Text search filters on lower(column) LIKE '%text%', which only trigram indexes can serve
+      statement.execute(
+          """
+          CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+          CREATE INDEX IF NOT EXISTS idx_trgm_injects_inject_title
+              ON injects USING gin (lower(inject_title) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_findings_finding_field
+              ON findings USING gin (lower(finding_field) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_findings_finding_value
+              ON findings USING gin (lower(finding_value) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_findings_finding_name
+              ON findings USING gin (lower(finding_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_assets_asset_name
+              ON assets USING gin (lower(asset_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_asset_groups_asset_group_name
+              ON asset_groups USING gin (lower(asset_group_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_payloads_payload_name
+              ON payloads USING gin (lower(payload_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_teams_team_name
+              ON teams USING gin (lower(team_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_users_user_email
+              ON users USING gin (lower(user_email) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_scenarios_scenario_name
+              ON scenarios USING gin (lower(scenario_name) gin_trgm_ops);
+          CREATE INDEX IF NOT EXISTS idx_trgm_exercises_exercise_name
+              ON exercises USING gin (lower(exercise_name) gin_trgm_ops);
+          """);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_94__Add_injects_expectations_rollups extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      statement.execute(
+          """
+          CREATE TABLE injects_expectations_rollups (
+              inject_id varchar(255) not null
+                  constraint inject_expectation_rollup_inject_fk
+                      references injects
+                      on delete cascade,
+              rollup_expectation_type varchar(255) not null,
+              rollup_success_count bigint not null default 0,
+              rollup_partial_count bigint not null default 0,
+              rollup_pending_count bigint not null default 0,
+              rollup_failed_count bigint not null default 0,
+              primary key (inject_id, rollup_expectation_type)
+          );
+          """);
+
+      // Outcome of an expectation, as computed by the statistics from its score
+      statement.execute(
+          """
+          CREATE OR REPLACE FUNCTION inject_expectation_outcome(
+              score double precision, expected_score double precision)
+          RETURNS text AS $$
+          BEGIN
+              IF score IS NULL THEN
+                  RETURN 'pending';
+              ELSIF score >= expected_score THEN
+                  RETURN 'success';
+              ELSIF score = 0 THEN
+                  RETURN 'failed';
+              END IF;
+              RETURN 'partial';
+          END;
+          $$ LANGUAGE plpgsql IMMUTABLE;
+
+          CREATE OR REPLACE FUNCTION inject_expectation_rollup_add(
+              rollup_inject_id varchar, expectation_type varchar, outcome text, delta int)
+          RETURNS void AS $$
+          BEGIN
+              IF rollup_inject_id IS NULL OR expectation_type IS NULL THEN
+                  RETURN;
+              END IF;
+              IF delta < 0 THEN
+                  -- The row is gone when the whole inject is being deleted
+                  UPDATE injects_expectations_rollups
+                  SET rollup_success_count = rollup_success_count - (outcome = 'success')::int,
+                      rollup_partial_count = rollup_partial_count - (outcome = 'partial')::int,
+                      rollup_pending_count = rollup_pending_count - (outcome = 'pending')::int,
+                      rollup_failed_count = rollup_failed_count - (outcome = 'failed')::int
+                  WHERE inject_id = rollup_inject_id
+                    AND rollup_expectation_type = expectation_type;
+                  -- Without any expectation left, the type is no longer part of the inject
+                  DELETE FROM injects_expectations_rollups
+                  WHERE inject_id = rollup_inject_id
+                    AND rollup_expectation_type = expectation_type
+                    AND rollup_success_count = 0
+                    AND rollup_partial_count = 0
+                    AND rollup_pending_count = 0
+                    AND rollup_failed_count = 0;
+                  RETURN;
+              END IF;
+              INSERT INTO injects_expectations_rollups (
+                  inject_id, rollup_expectation_type, rollup_success_count, rollup_partial_count,
+                  rollup_pending_count, rollup_failed_count)
+              VALUES (rollup_inject_id, expectation_type, (outcome = 'success')::int,
+                  (outcome = 'partial')::int, (outcome = 'pending')::int, (outcome = 'failed')::int)
+              ON CONFLICT (inject_id, rollup_expectation_type) DO UPDATE
+              SET rollup_success_count =
+                      injects_expectations_rollups.rollup_success_count + EXCLUDED.rollup_success_count,
+                  rollup_partial_count =
+                      injects_expectations_rollups.rollup_partial_count + EXCLUDED.rollup_partial_count,
+                  rollup_pending_count =
+                      injects_expectations_rollups.rollup_pending_count + EXCLUDED.rollup_pending_count,
+                  rollup_failed_count =
+                      injects_expectations_rollups.rollup_failed_count + EXCLUDED.rollup_failed_count;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION inject_expectation_rollup()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              IF TG_OP = 'UPDATE'
+                  AND OLD.inject_id IS NOT DISTINCT FROM NEW.inject_id
+                  AND OLD.inject_expectation_type IS NOT DISTINCT FROM NEW.inject_expectation_type
+                  AND inject_expectation_outcome(OLD.inject_expectation_score, OLD.inject_expectation_expected_score)
+                      = inject_expectation_outcome(NEW.inject_expectation_score, NEW.inject_expectation_expected_score) THEN
+                  RETURN NULL;
+              END IF;
+              IF TG_OP <> 'INSERT' THEN
+                  PERFORM inject_expectation_rollup_add(
+                      OLD.inject_id, OLD.inject_expectation_type,
+                      inject_expectation_outcome(OLD.inject_expectation_score, OLD.inject_expectation_expected_score),
+                      -1);
+              END IF;
+              IF TG_OP <> 'DELETE' THEN
+                  PERFORM inject_expectation_rollup_add(
+                      NEW.inject_id, NEW.inject_expectation_type,
+                      inject_expectation_outcome(NEW.inject_expectation_score, NEW.inject_expectation_expected_score),
+                      1);
+              END IF;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER inject_expectation_rollup
+          AFTER INSERT OR UPDATE OR DELETE ON injects_expectations
+          FOR EACH ROW
+          EXECUTE PROCEDURE inject_expectation_rollup();
+          """);
+
+      // Backfill from the existing expectations
+      statement.execute(
+          """
+          INSERT INTO injects_expectations_rollups (
+              inject_id, rollup_expectation_type, rollup_success_count, rollup_partial_count,
+              rollup_pending_count, rollup_failed_count)
+          SELECT ie.inject_id,
+                 ie.inject_expectation_type,
+                 count(*) FILTER (WHERE o.outcome = 'success'),
+                 count(*) FILTER (WHERE o.outcome = 'partial'),
+                 count(*) FILTER (WHERE o.outcome = 'pending'),
+                 count(*) FILTER (WHERE o.outcome = 'failed')
+          FROM injects_expectations ie
+          CROSS JOIN LATERAL (
+              SELECT inject_expectation_outcome(
+                  ie.inject_expectation_score, ie.inject_expectation_expected_score) AS outcome
+          ) o
+          WHERE ie.inject_id IS NOT NULL AND ie.inject_expectation_type IS NOT NULL
+          GROUP BY ie.inject_id, ie.inject_expectation_type;
+          """);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_95__Add_full_text_search_indexes extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      // Global search matches to_tsvector('simple', column) @@ query on the name and id columns.
+      // The name and email expressions are already indexed since V2_85.
+      statement.execute(
+          """
+          CREATE INDEX IF NOT EXISTS idx_fts_assets_asset_id
+              ON assets USING gin (to_tsvector('simple', asset_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_asset_groups_asset_group_id
+              ON asset_groups USING gin (to_tsvector('simple', asset_group_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_users_user_id
+              ON users USING gin (to_tsvector('simple', user_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_teams_team_id
+              ON teams USING gin (to_tsvector('simple', team_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_organizations_organization_id
+              ON organizations USING gin (to_tsvector('simple', organization_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_scenarios_scenario_id
+              ON scenarios USING gin (to_tsvector('simple', scenario_id));
+          CREATE INDEX IF NOT EXISTS idx_fts_exercises_exercise_id
+              ON exercises USING gin (to_tsvector('simple', exercise_id));
+          """);
+    }
+  }
+}
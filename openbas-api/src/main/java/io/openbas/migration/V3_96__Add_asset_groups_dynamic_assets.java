@@ -0,0 +1,155 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_96__Add_asset_groups_dynamic_assets extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      // Materialized members of the dynamic filters, refreshed by the platform when stale
+      statement.execute(
+          """
+          CREATE TABLE asset_groups_dynamic_assets (
+              asset_group_id varchar(255) not null
+                  constraint asset_group_dynamic_asset_group_fk
+                      references asset_groups
+                      on delete cascade,
+              asset_id varchar(255) not null
+                  constraint asset_group_dynamic_asset_asset_fk
+                      references assets
+                      on delete cascade,
+              primary key (asset_group_id, asset_id)
+          );
+          CREATE INDEX idx_asset_groups_dynamic_assets_asset
+              ON asset_groups_dynamic_assets(asset_id);
+
+          -- Existing and new groups start stale, so that the first refresh computes them
+          ALTER TABLE asset_groups
+              ADD COLUMN asset_group_dynamic_stale_since timestamp with time zone default now();
+
+          -- Endpoints changed in a way a filter can see, re-evaluated against every fresh group
+          CREATE TABLE asset_groups_dynamic_changes (
+              asset_id varchar(255) not null primary key,
+              change_date timestamp with time zone not null default now()
+          );
+          """);
+
+      // A group is stale when its filter changes
+      statement.execute(
+          """
+          CREATE OR REPLACE FUNCTION asset_group_dynamic_filter_changed()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              NEW.asset_group_dynamic_stale_since =
+                  COALESCE(OLD.asset_group_dynamic_stale_since, now());
+              RETURN NEW;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER asset_group_dynamic_filter_changed
+          BEFORE UPDATE ON asset_groups
+          FOR EACH ROW
+          WHEN (OLD.asset_group_dynamic_filter::text
+              IS DISTINCT FROM NEW.asset_group_dynamic_filter::text)
+          EXECUTE PROCEDURE asset_group_dynamic_filter_changed();
+          """);
+
+      // Changed endpoints are recorded once per statement, instead of updating every group per
+      // row. Each endpoint has its own row, so that concurrent changes to different endpoints do
+      // not wait for each other.
+      statement.execute(
+          """
+          CREATE OR REPLACE FUNCTION asset_groups_dynamic_endpoints_inserted()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO asset_groups_dynamic_changes (asset_id)
+              SELECT asset_id FROM new_assets WHERE asset_type = 'Endpoint'
+              ON CONFLICT DO NOTHING;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION asset_groups_dynamic_endpoints_updated()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO asset_groups_dynamic_changes (asset_id)
+              SELECT n.asset_id FROM new_assets n JOIN old_assets o ON o.asset_id = n.asset_id
+              WHERE n.asset_type = 'Endpoint' AND (
+                  o.asset_name IS DISTINCT FROM n.asset_name
+                  OR o.endpoint_ips IS DISTINCT FROM n.endpoint_ips
+                  OR o.endpoint_seen_ip IS DISTINCT FROM n.endpoint_seen_ip
+                  OR o.endpoint_hostname IS DISTINCT FROM n.endpoint_hostname
+                  OR o.endpoint_platform IS DISTINCT FROM n.endpoint_platform
+                  OR o.endpoint_arch IS DISTINCT FROM n.endpoint_arch)
+              ON CONFLICT DO NOTHING;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE OR REPLACE FUNCTION asset_groups_dynamic_tags_changed()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO asset_groups_dynamic_changes (asset_id)
+              SELECT DISTINCT asset_id FROM changed_tags
+              ON CONFLICT DO NOTHING;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          -- Agents decide whether an endpoint can be targeted, injected agents do not
+          CREATE OR REPLACE FUNCTION asset_groups_dynamic_agents_changed()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO asset_groups_dynamic_changes (asset_id)
+              SELECT DISTINCT agent_asset FROM changed_agents
+              WHERE agent_parent IS NULL AND agent_inject IS NULL
+              ON CONFLICT DO NOTHING;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          -- Transition tables are limited to a single event per trigger
+          CREATE TRIGGER asset_groups_dynamic_invalidate_endpoint_insert
+          AFTER INSERT ON assets
+          REFERENCING NEW TABLE AS new_assets
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_endpoints_inserted();
+
+          CREATE TRIGGER asset_groups_dynamic_invalidate_endpoint_update
+          AFTER UPDATE ON assets
+          REFERENCING OLD TABLE AS old_assets NEW TABLE AS new_assets
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_endpoints_updated();
+
+          CREATE TRIGGER asset_groups_dynamic_invalidate_tags_insert
+          AFTER INSERT ON assets_tags
+          REFERENCING NEW TABLE AS changed_tags
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_tags_changed();
+
+          CREATE TRIGGER asset_groups_dynamic_invalidate_tags_delete
+          AFTER DELETE ON assets_tags
+          REFERENCING OLD TABLE AS changed_tags
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_tags_changed();
+
+          CREATE TRIGGER asset_groups_dynamic_invalidate_agent_insert
+          AFTER INSERT ON agents
+          REFERENCING NEW TABLE AS changed_agents
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_agents_changed();
+
+          CREATE TRIGGER asset_groups_dynamic_invalidate_agent_delete
+          AFTER DELETE ON agents
+          REFERENCING OLD TABLE AS changed_agents
+          FOR EACH STATEMENT
+          EXECUTE PROCEDURE asset_groups_dynamic_agents_changed();
+          """);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_97__Add_injects_challenges extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      statement.execute(
+          """
+          CREATE TABLE injects_challenges (
+              inject_id varchar(255) not null
+                  constraint inject_challenge_inject_fk
+                      references injects
+                      on delete cascade,
+              challenge_id varchar(255) not null
+                  constraint inject_challenge_challenge_fk
+                      references challenges
+                      on delete cascade,
+              primary key (inject_id, challenge_id)
+          );
+          CREATE INDEX idx_injects_challenges_challenge ON injects_challenges(challenge_id);
+          """);
+
+      // Challenges published by an inject, read from the content of the challenge publish contract.
+      // The partial index finds the injects publishing a challenge without scanning their content.
+      statement.execute(
+          """
+          CREATE OR REPLACE FUNCTION inject_challenge_ids(contract varchar, content text)
+          RETURNS varchar[] AS $$
+          BEGIN
+              IF contract IS DISTINCT FROM 'f8e70b27-a69c-4b9f-a2df-e217c36b3981' OR content IS NULL THEN
+                  RETURN '{}';
+              END IF;
+              RETURN ARRAY(
+                  SELECT DISTINCT c.value::varchar
+                  FROM jsonb_array_elements_text(
+                      CASE WHEN jsonb_typeof(content::jsonb -> 'challenges') = 'array'
+                           THEN content::jsonb -> 'challenges'
+                           ELSE '[]'::jsonb END) c);
+          EXCEPTION WHEN invalid_text_representation THEN
+              -- Content that is not JSON publishes no challenge
+              RETURN '{}';
+          END;
+          $$ LANGUAGE plpgsql IMMUTABLE;
+
+          CREATE INDEX idx_injects_challenge_ids
+              ON injects USING gin (inject_challenge_ids(inject_injector_contract, inject_content))
+              WHERE inject_injector_contract = 'f8e70b27-a69c-4b9f-a2df-e217c36b3981';
+
+          CREATE OR REPLACE FUNCTION inject_challenges_sync()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              IF TG_OP = 'UPDATE'
+                  AND OLD.inject_injector_contract IS NOT DISTINCT FROM NEW.inject_injector_contract
+                  AND OLD.inject_content IS NOT DISTINCT FROM NEW.inject_content THEN
+                  RETURN NULL;
+              END IF;
+              IF TG_OP = 'UPDATE' THEN
+                  DELETE FROM injects_challenges WHERE inject_id = NEW.inject_id;
+              END IF;
+              INSERT INTO injects_challenges (inject_id, challenge_id)
+              SELECT NEW.inject_id, ch.challenge_id
+              FROM challenges ch
+              WHERE ch.challenge_id = ANY (
+                  inject_challenge_ids(NEW.inject_injector_contract, NEW.inject_content));
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER inject_challenges_sync
+          AFTER INSERT OR UPDATE OF inject_injector_contract, inject_content ON injects
+          FOR EACH ROW
+          EXECUTE PROCEDURE inject_challenges_sync();
+
+          -- An inject written before the challenge it publishes, in the same flush, is linked here
+          CREATE OR REPLACE FUNCTION challenge_injects_sync()
+          RETURNS TRIGGER AS $$
+          BEGIN
+              INSERT INTO injects_challenges (inject_id, challenge_id)
+              SELECT i.inject_id, NEW.challenge_id
+              FROM injects i
+              WHERE i.inject_injector_contract = 'f8e70b27-a69c-4b9f-a2df-e217c36b3981'
+                AND inject_challenge_ids(i.inject_injector_contract, i.inject_content)
+                    @> ARRAY[NEW.challenge_id]::varchar[]
+              ON CONFLICT DO NOTHING;
+              RETURN NULL;
+          END;
+          $$ LANGUAGE plpgsql;
+
+          CREATE TRIGGER challenge_injects_sync
+          AFTER INSERT ON challenges
+          FOR EACH ROW
+          EXECUTE PROCEDURE challenge_injects_sync();
+          """);
+
+      // Backfill from the existing injects
+      statement.execute(
+          """
+          INSERT INTO injects_challenges (inject_id, challenge_id)
+          SELECT DISTINCT i.inject_id, ch.challenge_id
+          FROM injects i
+          CROSS JOIN LATERAL unnest(
+              inject_challenge_ids(i.inject_injector_contract, i.inject_content)) ids(challenge_id)
+          JOIN challenges ch ON ch.challenge_id = ids.challenge_id
+          WHERE i.inject_injector_contract = 'f8e70b27-a69c-4b9f-a2df-e217c36b3981';
+          """);
+    }
+  }
+}
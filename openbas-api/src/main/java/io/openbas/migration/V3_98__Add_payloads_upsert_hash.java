@@ -0,0 +1,18 @@
+package io.openbas.migration;
+
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+@Component
+public class V3_98__Add_payloads_upsert_hash extends BaseJavaMigration {
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    try (Statement statement = context.getConnection().createStatement()) {
+      // Hash of the last upserted input, unset when the payload is changed by other means
+      statement.execute("ALTER TABLE payloads ADD COLUMN payload_upsert_hash varchar(255);");
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package io.openbas.notification.model;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Getter;
+
+/** A notification rule that fired, delivered once the triggering transaction is committed. */
+@Builder
+@Getter
+public class NotificationRuleActivation {
+  private String ruleId;
+  private Map<String, String> data;
+}
@@ -38,9 +38,8 @@ public class ChallengeApi extends RestBehavior {
 
   @GetMapping("/api/challenges")
   public Iterable<Challenge> challenges() {
-    return fromIterable(challengeRepository.findAll()).stream()
-        .map(challengeService::enrichChallengeWithExercisesOrScenarios)
-        .toList();
+    return challengeService.enrichChallengesWithExercisesOrScenarios(
+        fromIterable(challengeRepository.findAll()));
   }
 
   @LogExecutionTime
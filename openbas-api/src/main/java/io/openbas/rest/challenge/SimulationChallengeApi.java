@@ -6,6 +6,7 @@ import static io.openbas.injectors.challenge.ChallengeContract.CHALLENGE_PUBLISH
 import static io.openbas.rest.challenge.ChallengeHelper.resolveChallengeIds;
 import static io.openbas.rest.exercise.ExerciseApi.EXERCISE_URI;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.ChallengeRepository;
 import io.openbas.database.repository.ExerciseRepository;
@@ -21,11 +22,18 @@ import io.openbas.rest.exception.InputValidationException;
 import io.openbas.rest.exercise.service.ExerciseService;
 import io.openbas.rest.helper.RestBehavior;
 import io.openbas.service.ChallengeService;
+import io.openbas.service.PlayerContentCacheService;
+import io.openbas.service.PlayerContentCacheService.Scope;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -41,6 +49,7 @@ public class SimulationChallengeApi extends RestBehavior {
 
   private final ChallengeService challengeService;
   private final ExerciseService exerciseService;
+  private final PlayerContentCacheService playerContentCacheService;
 
   @PreAuthorize("isExerciseObserver(#exerciseId)")
   @GetMapping(EXERCISE_URI + "/{exerciseId}/challenges")
@@ -73,7 +82,11 @@ public class SimulationChallengeApi extends RestBehavior {
     if (user.getId().equals(ANONYMOUS)) {
       throw new UnsupportedOperationException("User must be logged or dynamic player is required");
     }
-    return challengeService.validateChallenge(exerciseId, challengeId, input, user);
+    SimulationChallengesReader reader =
+        challengeService.validateChallenge(exerciseId, challengeId, input, user);
+    // Failed attempts are not audited, the snapshots are dropped here once the attempt is committed
+    playerContentCacheService.invalidate(Scope.CHALLENGES, exerciseId);
+    return reader;
   }
 
   @GetMapping("/api/player/simulations/{simulationId}/documents")
@@ -110,12 +123,24 @@ public class SimulationChallengeApi extends RestBehavior {
   }
 
   @GetMapping("/api/player/simulations/{simulationId}/challenges")
-  public SimulationChallengesReader playerChallenges(
-      @PathVariable String simulationId, @RequestParam Optional<String> userId) {
+  @ApiResponse(
+      responseCode = "200",
+      content = @Content(schema = @Schema(implementation = SimulationChallengesReader.class)))
+  public ResponseEntity<JsonNode> playerChallenges(
+      @PathVariable String simulationId,
+      @RequestParam Optional<String> userId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     final User user = impersonateUser(userRepository, userId);
     if (user.getId().equals(ANONYMOUS)) {
       throw new UnsupportedOperationException("User must be logged or dynamic player is required");
     }
-    return challengeService.playerChallenges(simulationId, user);
+    return playerContentCacheService
+        .get(
+            Scope.CHALLENGES,
+            simulationId,
+            null,
+            user.getId(),
+            () -> challengeService.playerChallenges(simulationId, user))
+        .toResponse(ifNoneMatch);
   }
 }
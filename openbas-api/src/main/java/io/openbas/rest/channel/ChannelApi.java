@@ -5,6 +5,7 @@ import static io.openbas.database.model.User.ROLE_ADMIN;
 import static io.openbas.rest.channel.ChannelHelper.enrichArticleWithVirtualPublication;
 import static io.openbas.rest.scenario.ScenarioApi.SCENARIO_URI;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
 import io.openbas.rest.channel.form.*;
@@ -12,7 +13,12 @@ import io.openbas.rest.channel.response.ChannelReader;
 import io.openbas.rest.exception.ElementNotFoundException;
 import io.openbas.rest.helper.RestBehavior;
 import io.openbas.service.ChannelService;
+import io.openbas.service.PlayerContentCacheService;
+import io.openbas.service.PlayerContentCacheService.Scope;
 import io.openbas.service.ScenarioService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -21,6 +27,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +44,7 @@ public class ChannelApi extends RestBehavior {
   private final DocumentRepository documentRepository;
   private final UserRepository userRepository;
   private final ChannelService channelService;
+  private final PlayerContentCacheService playerContentCacheService;
 
   // -- CHANNELS --
 
@@ -124,15 +133,26 @@ public class ChannelApi extends RestBehavior {
   }
 
   @GetMapping("/api/player/channels/{exerciseId}/{channelId}")
-  public ChannelReader playerArticles(
+  @ApiResponse(
+      responseCode = "200",
+      content = @Content(schema = @Schema(implementation = ChannelReader.class)))
+  public ResponseEntity<JsonNode> playerArticles(
       @PathVariable String exerciseId,
       @PathVariable String channelId,
-      @RequestParam Optional<String> userId) {
+      @RequestParam Optional<String> userId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     final User user = impersonateUser(userRepository, userId);
     if (user.getId().equals(ANONYMOUS)) {
       throw new UnsupportedOperationException("User must be logged or dynamic player is required");
     }
-    return channelService.validateArticles(exerciseId, channelId, user);
+    return playerContentCacheService
+        .get(
+            Scope.CHANNEL,
+            exerciseId,
+            channelId,
+            user.getId(),
+            () -> channelService.validateArticles(exerciseId, channelId, user))
+        .toResponse(ifNoneMatch);
   }
 
   // -- EXERCISES --
@@ -585,26 +585,8 @@ public class ExerciseApi extends RestBehavior {
               .map(i -> i.map(InjectStatus::getId).orElse(""))
               .toList());
       exercise.getInjects().forEach(Inject::clean);
-      // Reset lessons learned answers
-      List<LessonsAnswer> lessonsAnswers =
-          lessonsCategoryRepository
-              .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-              .stream()
-              .flatMap(
-                  lessonsCategory ->
-                      lessonsQuestionRepository
-                          .findAll(
-                              LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                          .stream()
-                          .flatMap(
-                              lessonsQuestion ->
-                                  lessonsAnswerRepository
-                                      .findAll(
-                                          LessonsAnswerSpecification.fromQuestion(
-                                              lessonsQuestion.getId()))
-                                      .stream()))
-              .toList();
-      lessonsAnswerRepository.deleteAll(lessonsAnswers);
+      // Reset lessons learned answers, removed as entities so that their delete events are sent
+      lessonsAnswerRepository.deleteAll(lessonsAnswerRepository.findAllByExerciseId(exerciseId));
       // Delete exercise transient files (communications, ...)
       fileService.deleteDirectory(exerciseId);
     }
@@ -725,14 +707,13 @@ public class ExerciseApi extends RestBehavior {
         exerciseRepository.findById(exerciseId).orElseThrow(ElementNotFoundException::new);
     int exportOptionsMask = ExportOptions.mask(isWithPlayers, isWithTeams, isWithVariableValues);
 
-    byte[] zippedExport = exportService.exportExerciseToZip(exercise, exportOptionsMask);
     String zipName = exportService.getZipFileName(exercise, exportOptionsMask);
 
     response.addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + zipName);
     response.addHeader(HttpHeaders.CONTENT_TYPE, "application/zip");
     response.setStatus(HttpServletResponse.SC_OK);
     ServletOutputStream outputStream = response.getOutputStream();
-    outputStream.write(zippedExport);
+    exportService.exportExerciseToZip(exercise, exportOptionsMask, outputStream);
     outputStream.close();
   }
 
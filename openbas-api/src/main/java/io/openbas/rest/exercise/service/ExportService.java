@@ -4,6 +4,7 @@ import static io.openbas.service.ImportService.EXPORT_ENTRY_ATTACHMENT;
 import static io.openbas.service.ImportService.EXPORT_ENTRY_EXERCISE;
 import static java.time.Instant.now;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.openbas.database.model.Document;
 import io.openbas.database.model.Exercise;
@@ -18,6 +19,7 @@ import jakarta.annotation.Resource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Optional;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -52,6 +54,18 @@ public class ExportService {
   }
 
   public byte[] exportExerciseToZip(Exercise exercise, int exportOptionsMask) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    exportExerciseToZip(exercise, exportOptionsMask, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Write the export of an exercise as a zip to the given stream. The JSON is serialized straight
+   * into its entry and the documents are copied one at a time from the file storage, so the memory
+   * used does not depend on the size of the export. The given stream is not closed.
+   */
+  public void exportExerciseToZip(
+      Exercise exercise, int exportOptionsMask, OutputStream outputStream) throws IOException {
     ObjectMapper objectMapper = mapper.copy();
 
     ExerciseFileExport importExport =
@@ -59,41 +73,31 @@ public class ExportService {
                 exercise, objectMapper, this.challengeService, this.articleService)
             .withOptions(exportOptionsMask);
 
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     ZipOutputStream zipExport = new ZipOutputStream(outputStream);
     ZipEntry zipEntry = new ZipEntry(exercise.getName() + ".json");
     zipEntry.setComment(EXPORT_ENTRY_EXERCISE);
     zipExport.putNextEntry(zipEntry);
-    zipExport.write(
-        importExport
-            .getObjectMapper()
-            .writerWithDefaultPrettyPrinter()
-            .writeValueAsBytes(importExport));
+    importExport
+        .getObjectMapper()
+        .writerWithDefaultPrettyPrinter()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .writeValue(zipExport, importExport);
     zipExport.closeEntry();
     // Add the actual files for the documents
-    importExport.getAllDocumentIds().stream()
-        .distinct()
-        .forEach(
-            docId -> {
-              Document doc =
-                  documentRepository.findById(docId).orElseThrow(ElementNotFoundException::new);
-              Optional<InputStream> docStream = fileService.getFile(doc);
-              if (docStream.isPresent()) {
-                try {
-                  ZipEntry zipDoc = new ZipEntry(doc.getTarget());
-                  zipDoc.setComment(EXPORT_ENTRY_ATTACHMENT);
-                  byte[] data = docStream.get().readAllBytes();
-                  zipExport.putNextEntry(zipDoc);
-                  zipExport.write(data);
-                  zipExport.closeEntry();
-                } catch (IOException e) {
-                  log.error(e.getMessage(), e);
-                }
-              }
-            });
+    for (String docId : importExport.getAllDocumentIds().stream().distinct().toList()) {
+      Document doc = documentRepository.findById(docId).orElseThrow(ElementNotFoundException::new);
+      Optional<InputStream> docStream = fileService.getFile(doc);
+      if (docStream.isPresent()) {
+        // A failed copy leaves a truncated entry, the export is aborted instead of going on
+        try (InputStream data = docStream.get()) {
+          ZipEntry zipDoc = new ZipEntry(doc.getTarget());
+          zipDoc.setComment(EXPORT_ENTRY_ATTACHMENT);
+          zipExport.putNextEntry(zipDoc);
+          data.transferTo(zipExport);
+          zipExport.closeEntry();
+        }
+      }
+    }
     zipExport.finish();
-    zipExport.close();
-
-    return outputStream.toByteArray();
   }
 }
@@ -99,77 +99,111 @@ public class FindingService {
     // NOTE: do it in every call to callback ? (reflexion on implant mechanism)
     if (input.getOutputStructured() != null) {
       try {
-        List<Finding> findings = new ArrayList<>();
         // Get the contract
         InjectorContract injectorContract = inject.getInjectorContract().orElseThrow();
         List<ContractOutputElement> contractOutputs =
             getContractOutputs(injectorContract.getConvertedContent(), mapper);
         ObjectNode values = mapper.readValue(input.getOutputStructured(), ObjectNode.class);
-        if (!contractOutputs.isEmpty()) {
-          contractOutputs.forEach(
-              contractOutput -> {
-                if (contractOutput.isFindingCompatible()) {
-                  if (contractOutput.isMultiple()) {
-                    JsonNode jsonNodes = values.get(contractOutput.getField());
-                    if (jsonNodes != null && jsonNodes.isArray()) {
-                      for (JsonNode jsonNode : jsonNodes) {
-                        if (!contractOutput.getType().validate.apply(jsonNode)) {
-                          throw new IllegalArgumentException("Finding not correctly formatted");
-                        }
-                        Finding finding = ContractOutputUtils.createFinding(contractOutput);
-                        finding.setValue(contractOutput.getType().toFindingValue.apply(jsonNode));
-                        Finding linkedFinding = linkFindings(contractOutput, jsonNode, finding);
-                        findings.add(linkedFinding);
-                      }
-                    }
-                  } else {
-                    JsonNode jsonNode = values.get(contractOutput.getField());
-                    if (!contractOutput.getType().validate.apply(jsonNode)) {
-                      throw new IllegalArgumentException("Finding not correctly formatted");
+        Map<String, Finding> findings = new LinkedHashMap<>();
+        FindingLinks links = new FindingLinks();
+        contractOutputs.forEach(
+            contractOutput -> {
+              if (contractOutput.isFindingCompatible()) {
+                if (contractOutput.isMultiple()) {
+                  JsonNode jsonNodes = values.get(contractOutput.getField());
+                  if (jsonNodes != null && jsonNodes.isArray()) {
+                    for (JsonNode jsonNode : jsonNodes) {
+                      addStructuredFinding(contractOutput, jsonNode, inject, findings, links);
                     }
-                    Finding finding = ContractOutputUtils.createFinding(contractOutput);
-                    finding.setValue(contractOutput.getType().toFindingValue.apply(jsonNode));
-                    Finding linkedFinding = linkFindings(contractOutput, jsonNode, finding);
-                    findings.add(linkedFinding);
                   }
+                } else {
+                  JsonNode jsonNode = values.get(contractOutput.getField());
+                  addStructuredFinding(contractOutput, jsonNode, inject, findings, links);
                 }
-              });
-        }
-        this.createFindings(findings, inject.getId());
+              }
+            });
+        linkFindings(links);
+        this.findingUtils.upsertFindings(inject, findings.values());
       } catch (JsonProcessingException e) {
         throw new RuntimeException(e);
       }
     }
   }
 
-  private Finding linkFindings(
-      ContractOutputElement contractOutput, JsonNode jsonNode, Finding finding) {
-    // Create links with assets
+  private void addStructuredFinding(
+      ContractOutputElement contractOutput,
+      JsonNode jsonNode,
+      Inject inject,
+      Map<String, Finding> findings,
+      FindingLinks links) {
+    if (!contractOutput.getType().validate.apply(jsonNode)) {
+      throw new IllegalArgumentException("Finding not correctly formatted");
+    }
+    String value = contractOutput.getType().toFindingValue.apply(jsonNode);
+    Finding finding =
+        findings.computeIfAbsent(
+            FindingUtils.findingKey(contractOutput.getType(), contractOutput.getField(), value),
+            k -> {
+              Finding newFinding = ContractOutputUtils.createFinding(contractOutput);
+              newFinding.setInject(inject);
+              newFinding.setValue(value);
+              return newFinding;
+            });
     if (contractOutput.getType().toFindingAssets != null) {
-      List<String> assetsIds = contractOutput.getType().toFindingAssets.apply(jsonNode);
-      List<Optional<Asset>> assets =
-          assetsIds.stream().map(this.assetRepository::findById).toList();
-      if (!assets.isEmpty()) {
-        finding.setAssets(assets.stream().filter(Optional::isPresent).map(Optional::get).toList());
-      }
+      links
+          .assets
+          .computeIfAbsent(finding, f -> new ArrayList<>())
+          .addAll(contractOutput.getType().toFindingAssets.apply(jsonNode));
     }
-    // Create links with teams
     if (contractOutput.getType().toFindingTeams != null) {
-      List<String> teamsIds = contractOutput.getType().toFindingTeams.apply(jsonNode);
-      List<Optional<Team>> teams = teamsIds.stream().map(this.teamRepository::findById).toList();
-      if (!teams.isEmpty()) {
-        finding.setTeams(teams.stream().filter(Optional::isPresent).map(Optional::get).toList());
-      }
+      links
+          .teams
+          .computeIfAbsent(finding, f -> new ArrayList<>())
+          .addAll(contractOutput.getType().toFindingTeams.apply(jsonNode));
     }
-    // Create links with users
     if (contractOutput.getType().toFindingUsers != null) {
-      List<String> usersIds = contractOutput.getType().toFindingUsers.apply(jsonNode);
-      List<Optional<User>> users = usersIds.stream().map(this.userRepository::findById).toList();
-      if (!users.isEmpty()) {
-        finding.setUsers(users.stream().filter(Optional::isPresent).map(Optional::get).toList());
-      }
+      links
+          .users
+          .computeIfAbsent(finding, f -> new ArrayList<>())
+          .addAll(contractOutput.getType().toFindingUsers.apply(jsonNode));
+    }
+  }
+
+  /** Resolve the link targets of all findings of a callback with one lookup per target type. */
+  private void linkFindings(FindingLinks links) {
+    Map<String, Asset> assets =
+        indexById(this.assetRepository.findAllById(links.targetIds(links.assets)));
+    links.assets.forEach((finding, ids) -> finding.setAssets(resolve(ids, assets)));
+    Map<String, Team> teams =
+        indexById(this.teamRepository.findAllById(links.targetIds(links.teams)));
+    links.teams.forEach((finding, ids) -> finding.setTeams(resolve(ids, teams)));
+    Map<String, User> users =
+        indexById(this.userRepository.findAllById(links.targetIds(links.users)));
+    links.users.forEach((finding, ids) -> finding.setUsers(resolve(ids, users)));
+  }
+
+  private static <T extends Base> Map<String, T> indexById(Iterable<T> entities) {
+    Map<String, T> byId = new HashMap<>();
+    entities.forEach(entity -> byId.put(entity.getId(), entity));
+    return byId;
+  }
+
+  private static <T extends Base> List<T> resolve(List<String> ids, Map<String, T> byId) {
+    return ids.stream().distinct().map(byId::get).filter(Objects::nonNull).toList();
+  }
+
+  /** Target ids to link, gathered per finding before being resolved in bulk. */
+  private static class FindingLinks {
+
+    private final Map<Finding, List<String>> assets = new IdentityHashMap<>();
+    private final Map<Finding, List<String>> teams = new IdentityHashMap<>();
+    private final Map<Finding, List<String>> users = new IdentityHashMap<>();
+
+    private Set<String> targetIds(Map<Finding, List<String>> links) {
+      Set<String> ids = new HashSet<>();
+      links.values().forEach(ids::addAll);
+      return ids;
     }
-    return finding;
   }
 
   // -- RAW OUTPUT --
@@ -191,6 +225,7 @@ public class FindingService {
   }
 
   private void extractFindings(Inject inject, Asset asset, String trace) {
+    Map<String, Finding> findings = new LinkedHashMap<>();
     inject
         .getPayload()
         .map(Payload::getOutputParsers)
@@ -210,9 +245,11 @@ public class FindingService {
                               inject,
                               asset,
                               rawOutputByMode,
-                              outputParser.getContractOutputElements());
+                              outputParser.getContractOutputElements(),
+                              findings);
                           break;
                       }
                     }));
+    findingUtils.upsertFindings(inject, findings.values());
   }
 }
@@ -1,9 +1,13 @@
 package io.openbas.rest.finding;
 
+import static io.openbas.database.audit.ModelBaseListener.DATA_PERSIST;
+import static io.openbas.database.audit.ModelBaseListener.DATA_UPDATE;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.openbas.database.audit.BaseEvent;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.FindingRepository;
 import jakarta.annotation.Resource;
@@ -14,7 +18,7 @@ import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -25,12 +29,19 @@ public class FindingUtils {
   @Resource private final ObjectMapper mapper;
 
   private final FindingRepository findingRepository;
+  private final ApplicationEventPublisher appPublisher;
 
+  /**
+   * Extract findings from a raw output and merge them into {@code findings}, keyed by {@link
+   * #findingKey}. Nothing is persisted here: the caller flushes the whole callback at once through
+   * {@link #upsertFindings}.
+   */
   public void computeFindingUsingRegexRules(
       Inject inject,
       Asset asset,
       String rawOutputByMode,
-      Set<io.openbas.database.model.ContractOutputElement> contractOutputElements) {
+      Set<io.openbas.database.model.ContractOutputElement> contractOutputElements,
+      Map<String, Finding> findings) {
     Map<String, Pattern> patternCache = new HashMap<>();
 
     contractOutputElements.stream()
@@ -63,7 +74,7 @@ public class FindingUtils {
               while (matcher.find()) {
                 String finalValue = buildValue(contractOutputElement, matcher);
                 if (isValid(finalValue)) {
-                  buildFinding(inject, asset, contractOutputElement, finalValue);
+                  buildFinding(inject, asset, contractOutputElement, finalValue, findings);
                 }
               }
             });
@@ -149,72 +160,148 @@ public class FindingUtils {
     return extractedValues;
   }
 
+  public static String findingKey(ContractOutputType type, String field, String value) {
+    return type + "|" + field + "|" + value;
+  }
+
   public void buildFinding(
       Inject inject,
       Asset asset,
       io.openbas.database.model.ContractOutputElement contractOutputElement,
-      String finalValue) {
-    try {
-      Optional<Finding> optionalFinding =
-          findingRepository.findByInjectIdAndValueAndTypeAndKey(
-              inject.getId(),
-              finalValue,
-              contractOutputElement.getType(),
-              contractOutputElement.getKey());
-
-      Finding finding =
-          optionalFinding.orElseGet(
-              () -> {
-                Finding newFinding = new Finding();
-                newFinding.setInject(inject);
-                newFinding.setField(contractOutputElement.getKey());
-                newFinding.setType(contractOutputElement.getType());
-                newFinding.setValue(finalValue);
-                newFinding.setName(contractOutputElement.getName());
-                newFinding.setTags(new HashSet<>(contractOutputElement.getTags()));
-                return newFinding;
-              });
+      String finalValue,
+      Map<String, Finding> findings) {
+    Finding finding =
+        findings.computeIfAbsent(
+            findingKey(contractOutputElement.getType(), contractOutputElement.getKey(), finalValue),
+            k -> {
+              Finding newFinding = new Finding();
+              newFinding.setInject(inject);
+              newFinding.setField(contractOutputElement.getKey());
+              newFinding.setType(contractOutputElement.getType());
+              newFinding.setValue(finalValue);
+              newFinding.setName(contractOutputElement.getName());
+              newFinding.setTags(new HashSet<>(contractOutputElement.getTags()));
+              return newFinding;
+            });
 
-      boolean isNewAsset =
-          finding.getAssets().stream().noneMatch(a -> a.getId().equals(asset.getId()));
+    boolean isNewAsset =
+        finding.getAssets().stream().noneMatch(a -> a.getId().equals(asset.getId()));
+    if (isNewAsset) {
+      finding.getAssets().add(asset);
+    }
+  }
 
-      if (isNewAsset) {
-        finding.getAssets().add(asset);
-      }
+  /**
+   * Persist deduplicated findings of an inject with a fixed number of statements: one upsert on the
+   * findings unique constraint, then one insert per non-empty link table. Concurrent callbacks for
+   * the same inject are arbitrated by the database instead of a catch and retry. The statements
+   * bypass the entity listener, so the upserted findings are then read back once to notify the
+   * stream.
+   */
+  public void upsertFindings(Inject inject, Collection<Finding> findings) {
+    if (findings.isEmpty()) {
+      return;
+    }
+    int size = findings.size();
+    String[] ids = new String[size];
+    String[] fields = new String[size];
+    String[] types = new String[size];
+    String[] values = new String[size];
+    String[] names = new String[size];
+    LinkColumns assets = new LinkColumns();
+    LinkColumns teams = new LinkColumns();
+    LinkColumns users = new LinkColumns();
+    List<String> taggedFindingIds = new ArrayList<>();
+    List<String> tagIds = new ArrayList<>();
 
-      if (optionalFinding.isEmpty() || isNewAsset) {
-        findingRepository.save(finding);
+    int i = 0;
+    for (Finding finding : findings) {
+      if (finding.getId() == null) {
+        finding.setId(UUID.randomUUID().toString());
       }
+      ids[i] = finding.getId();
+      fields[i] = finding.getField();
+      types[i] = finding.getType().name();
+      values[i] = finding.getValue();
+      names[i] = finding.getName();
+      i++;
+      finding.getAssets().forEach(asset -> assets.add(finding, asset.getId()));
+      finding.getTeams().forEach(team -> teams.add(finding, team.getId()));
+      finding.getUsers().forEach(user -> users.add(finding, user.getId()));
+      finding
+          .getTags()
+          .forEach(
+              tag -> {
+                taggedFindingIds.add(finding.getId());
+                tagIds.add(tag.getId());
+              });
+    }
 
-    } catch (DataIntegrityViolationException ex) {
-      log.info(
-          String.format(
-              "Race condition: finding already exists. Retrying ... %s ", ex.getMessage()),
-          ex);
-      // Re-fetch and try to add the asset
-      handleRaceCondition(inject, asset, contractOutputElement, finalValue);
+    String injectId = inject.getId();
+    findingRepository.upsertFindings(injectId, ids, fields, types, values, names);
+    if (!assets.isEmpty()) {
+      findingRepository.linkAssets(
+          injectId, assets.fields(), assets.types(), assets.values(), assets.targetIds());
     }
+    if (!teams.isEmpty()) {
+      findingRepository.linkTeams(
+          injectId, teams.fields(), teams.types(), teams.values(), teams.targetIds());
+    }
+    if (!users.isEmpty()) {
+      findingRepository.linkUsers(
+          injectId, users.fields(), users.types(), users.values(), users.targetIds());
+    }
+    if (!tagIds.isEmpty()) {
+      findingRepository.linkTagsToNewFindings(
+          taggedFindingIds.toArray(String[]::new), tagIds.toArray(String[]::new));
+    }
+
+    // Rows keeping their pre-generated id were inserted, the others already existed
+    Set<String> insertedIds = new HashSet<>(Arrays.asList(ids));
+    findingRepository
+        .findAllByInjectIdAndKeys(injectId, fields, types, values)
+        .forEach(
+            finding ->
+                appPublisher.publishEvent(
+                    new BaseEvent(
+                        insertedIds.contains(finding.getId()) ? DATA_PERSIST : DATA_UPDATE,
+                        finding,
+                        mapper)));
   }
 
-  private void handleRaceCondition(
-      Inject inject, Asset asset, ContractOutputElement contractOutputElement, String finalValue) {
-    Optional<Finding> retryFinding =
-        findingRepository.findByInjectIdAndValueAndTypeAndKey(
-            inject.getId(),
-            finalValue,
-            contractOutputElement.getType(),
-            contractOutputElement.getKey());
-
-    if (retryFinding.isPresent()) {
-      Finding existingFinding = retryFinding.get();
-      boolean isNewAsset =
-          existingFinding.getAssets().stream().noneMatch(a -> a.getId().equals(asset.getId()));
-      if (isNewAsset) {
-        existingFinding.getAssets().add(asset);
-        findingRepository.save(existingFinding);
-      }
-    } else {
-      log.warn("Retry failed: Finding still not found after race condition.");
+  /** Column-oriented (finding natural key, target id) pairs bound as arrays to the link queries. */
+  private static class LinkColumns {
+
+    private final List<String> fields = new ArrayList<>();
+    private final List<String> types = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+    private final List<String> targetIds = new ArrayList<>();
+
+    void add(Finding finding, String targetId) {
+      fields.add(finding.getField());
+      types.add(finding.getType().name());
+      values.add(finding.getValue());
+      targetIds.add(targetId);
+    }
+
+    boolean isEmpty() {
+      return targetIds.isEmpty();
+    }
+
+    String[] fields() {
+      return fields.toArray(String[]::new);
+    }
+
+    String[] types() {
+      return types.toArray(String[]::new);
+    }
+
+    String[] values() {
+      return values.toArray(String[]::new);
+    }
+
+    String[] targetIds() {
+      return targetIds.toArray(String[]::new);
     }
   }
 }
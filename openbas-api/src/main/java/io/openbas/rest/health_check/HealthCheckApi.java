@@ -2,6 +2,7 @@ package io.openbas.rest.health_check;
 
 import io.openbas.rest.helper.RestBehavior;
 import io.openbas.service.HealthCheckService;
+import io.openbas.service.HealthCheckService.HealthCheckResult;
 import io.openbas.service.exception.HealthCheckFailureException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -40,7 +42,8 @@ public class HealthCheckApi extends RestBehavior {
   @GetMapping(HEALTH_CHECK_URI)
   @Operation(
       summary = "Run an healthcheck ",
-      description = "Tries to connect to dependencies (DB/Minio/RabbitMQ)")
+      description =
+          "Returns the last background check of the dependencies (DB/Minio/RabbitMQ), the Age header gives its age in seconds")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Service is healthy"),
@@ -53,13 +56,16 @@ public class HealthCheckApi extends RestBehavior {
         || !healthCheckKey.equals(requestHealthAccessKey)) {
       throw new ResponseStatusException(HttpStatusCode.valueOf(HttpStatus.UNAUTHORIZED.value()));
     }
+    HealthCheckResult result;
     try {
-      healthCheckService.runHealthCheck();
+      result = healthCheckService.runHealthCheck();
     } catch (HealthCheckFailureException e) {
       String message = String.format("Health check failure : %s", e.getMessage());
       throw new ResponseStatusException(
           HttpStatusCode.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()), message);
     }
-    return new ResponseEntity<>("success", HttpStatus.OK);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.AGE, String.valueOf(result.age().toSeconds()))
+        .body("success");
   }
 }
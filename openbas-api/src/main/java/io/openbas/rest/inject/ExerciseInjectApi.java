@@ -35,6 +35,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.persistence.criteria.Join;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,10 +48,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -159,6 +164,36 @@ public class ExerciseInjectApi extends RestBehavior {
     return injectSearchService.getListOfInjectResults(exerciseId);
   }
 
+  @Operation(
+      summary = "Stream the inject results of an exercise",
+      description = "One JSON inject result per line, written chunk by chunk")
+  @LogExecutionTime
+  @GetMapping(
+      value = EXERCISE_URI + "/{exerciseId}/injects/results/stream",
+      produces = "application/x-ndjson")
+  @PreAuthorize("isExerciseObserver(#exerciseId)")
+  public ResponseEntity<StreamingResponseBody> exerciseInjectsResultsStream(
+      @PathVariable final String exerciseId) {
+    StreamingResponseBody body =
+        outputStream ->
+            injectSearchService.streamInjectResults(
+                exerciseId,
+                chunk -> {
+                  try {
+                    for (InjectResultOutput injectResult : chunk) {
+                      outputStream.write(mapper.writeValueAsBytes(injectResult));
+                      outputStream.write('\n');
+                    }
+                    outputStream.flush();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+        .body(body);
+  }
+
   @GetMapping(EXERCISE_URI + "/{exerciseId}/injects/{injectId}")
   @PreAuthorize("isExerciseObserver(#exerciseId)")
   public Inject exerciseInject(@PathVariable String exerciseId, @PathVariable String injectId) {
@@ -5,7 +5,6 @@ import static java.time.Instant.now;
 
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
-import io.openbas.database.specification.LessonsAnswerSpecification;
 import io.openbas.database.specification.LessonsCategorySpecification;
 import io.openbas.database.specification.LessonsQuestionSpecification;
 import io.openbas.rest.exception.ElementNotFoundException;
@@ -95,28 +94,8 @@ public class ExerciseLessonsApi extends RestBehavior {
   @PreAuthorize("isExercisePlanner(#exerciseId)")
   @Transactional(rollbackOn = Exception.class)
   public Iterable<LessonsCategory> resetExerciseLessonsAnswers(@PathVariable String exerciseId) {
-    List<LessonsAnswer> lessonsAnswers =
-        lessonsCategoryRepository
-            .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-            .stream()
-            .flatMap(
-                lessonsCategory ->
-                    lessonsQuestionRepository
-                        .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                        .stream()
-                        .flatMap(
-                            lessonsQuestion ->
-                                lessonsAnswerRepository
-                                    .findAll(
-                                        LessonsAnswerSpecification.fromQuestion(
-                                            lessonsQuestion.getId()))
-                                    .stream()))
-            .toList();
-    lessonsAnswerRepository.deleteAll(lessonsAnswers);
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-        .stream()
-        .toList();
+    lessonsAnswerRepository.deleteAll(lessonsAnswerRepository.findAllByExerciseId(exerciseId));
+    return lessonsCategoryRepository.findAll(LessonsCategorySpecification.fromExercise(exerciseId));
   }
 
   @PostMapping(EXERCISE_URL + "{exerciseId}/lessons_empty")
@@ -129,12 +108,8 @@ public class ExerciseLessonsApi extends RestBehavior {
             .stream()
             .toList();
     lessonsCategoryRepository.deleteAll(lessonsCategories);
-    lessonsCategories =
-        lessonsCategoryRepository
-            .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-            .stream()
-            .toList();
-    return lessonsCategories;
+    // Every category of the exercise is gone, nothing left to fetch back
+    return List.of();
   }
 
   @PutMapping(EXERCISE_URL + "{exerciseId}/lessons_categories/{lessonsCategoryId}")
@@ -180,15 +155,7 @@ public class ExerciseLessonsApi extends RestBehavior {
   @GetMapping(EXERCISE_URL + "{exerciseId}/lessons_questions")
   @PreAuthorize("isExerciseObserver(#exerciseId)")
   public Iterable<LessonsQuestion> exerciseLessonsQuestions(@PathVariable String exerciseId) {
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-        .stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsQuestionRepository
-                    .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                    .stream())
-        .toList();
+    return lessonsQuestionRepository.findAllByExerciseId(exerciseId);
   }
 
   @GetMapping(
@@ -270,22 +237,7 @@ public class ExerciseLessonsApi extends RestBehavior {
   @PreAuthorize("isExerciseObserver(#exerciseId)")
   public List<LessonsAnswer> exerciseLessonsAnswers(
       @PathVariable String exerciseId, @RequestParam Optional<String> userId) {
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-        .stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsQuestionRepository
-                    .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                    .stream()
-                    .flatMap(
-                        lessonsQuestion ->
-                            lessonsAnswerRepository
-                                .findAll(
-                                    LessonsAnswerSpecification.fromQuestion(
-                                        lessonsQuestion.getId()))
-                                .stream()))
-        .toList();
+    return lessonsAnswerRepository.findAllByExerciseId(exerciseId);
   }
 
   @GetMapping("/api/player/lessons/exercise/{exerciseId}/lessons_categories")
@@ -299,37 +251,14 @@ public class ExerciseLessonsApi extends RestBehavior {
   public List<LessonsQuestion> playerLessonsQuestions(
       @PathVariable String exerciseId, @RequestParam Optional<String> userId) {
     impersonateUser(userRepository, userId); // Protection for ?
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-        .stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsQuestionRepository
-                    .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                    .stream())
-        .toList();
+    return lessonsQuestionRepository.findAllByExerciseId(exerciseId);
   }
 
   @GetMapping("/api/player/lessons/exercise/{exerciseId}/lessons_answers")
   public List<LessonsAnswer> playerLessonsAnswers(
       @PathVariable String exerciseId, @RequestParam Optional<String> userId) {
     impersonateUser(userRepository, userId); // Protection for ?
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromExercise(exerciseId))
-        .stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsQuestionRepository
-                    .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                    .stream()
-                    .flatMap(
-                        lessonsQuestion ->
-                            lessonsAnswerRepository
-                                .findAll(
-                                    LessonsAnswerSpecification.fromQuestion(
-                                        lessonsQuestion.getId()))
-                                .stream()))
-        .toList();
+    return lessonsAnswerRepository.findAllByExerciseId(exerciseId);
   }
 
   @PostMapping(
@@ -148,15 +148,7 @@ public class ScenarioLessonsApi extends RestBehavior {
   @GetMapping(SCENARIO_URI + "{scenarioId}/lessons_questions")
   @PreAuthorize("isScenarioObserver(#scenarioId)")
   public Iterable<LessonsQuestion> scenarioLessonsQuestions(@PathVariable String scenarioId) {
-    return lessonsCategoryRepository
-        .findAll(LessonsCategorySpecification.fromScenario(scenarioId))
-        .stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsQuestionRepository
-                    .findAll(LessonsQuestionSpecification.fromCategory(lessonsCategory.getId()))
-                    .stream())
-        .toList();
+    return lessonsQuestionRepository.findAllByScenarioId(scenarioId);
   }
 
   @GetMapping(
@@ -13,6 +13,8 @@ import io.openbas.rest.payload.form.PayloadCreateInput;
 import io.openbas.rest.payload.form.PayloadUpdateInput;
 import io.openbas.rest.payload.form.PayloadUpsertInput;
 import io.openbas.rest.payload.form.PayloadsDeprecateInput;
+import io.openbas.rest.payload.form.PayloadsUpsertInput;
+import io.openbas.rest.payload.output.PayloadsUpsertOutput;
 import io.openbas.rest.payload.service.PayloadCreationService;
 import io.openbas.rest.payload.service.PayloadService;
 import io.openbas.rest.payload.service.PayloadUpdateService;
@@ -84,6 +86,13 @@ public class PayloadApi extends RestBehavior {
     return this.payloadUpsertService.upsertPayload(input);
   }
 
+  @PostMapping(PAYLOAD_URI + "/upsert/bulk")
+  @PreAuthorize("isPlanner()")
+  @org.springframework.transaction.annotation.Transactional(rollbackFor = Exception.class)
+  public PayloadsUpsertOutput upsertPayloads(@Valid @RequestBody PayloadsUpsertInput input) {
+    return this.payloadUpsertService.upsertPayloads(input.payloads());
+  }
+
   @Secured(ROLE_ADMIN)
   @DeleteMapping(PAYLOAD_URI + "/{payloadId}")
   public void deletePayload(@PathVariable String payloadId) {
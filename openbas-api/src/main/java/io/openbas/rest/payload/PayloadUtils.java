@@ -122,6 +122,7 @@ public class PayloadUtils {
     duplicate.setName(duplicateString(origin.getName()));
     duplicate.setAttackPatterns(new ArrayList<>(origin.getAttackPatterns()));
     duplicate.setExternalId(null);
+    duplicate.setUpsertHash(null);
     duplicate.setArguments(
         Optional.ofNullable(origin.getArguments()).map(ArrayList::new).orElseGet(ArrayList::new));
     duplicate.setPrerequisites(
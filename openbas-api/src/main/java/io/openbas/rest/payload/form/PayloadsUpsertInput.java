@@ -0,0 +1,9 @@
+package io.openbas.rest.payload.form;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+public record PayloadsUpsertInput(
+    @JsonProperty("payloads") @NotNull List<@Valid PayloadUpsertInput> payloads) {}
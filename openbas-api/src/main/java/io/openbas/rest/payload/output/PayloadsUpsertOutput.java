@@ -0,0 +1,8 @@
+package io.openbas.rest.payload.output;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record PayloadsUpsertOutput(
+    @JsonProperty("payloads_created") int created,
+    @JsonProperty("payloads_updated") int updated,
+    @JsonProperty("payloads_unchanged") int unchanged) {}
@@ -54,7 +54,11 @@ public class PayloadService {
   private final PayloadUtils payloadUtils;
 
   public void updateInjectorContractsForPayload(Payload payload) {
-    List<Injector> injectors = this.injectorRepository.findAllByPayloads(true);
+    updateInjectorContractsForPayload(payload, this.injectorRepository.findAllByPayloads(true));
+  }
+
+  /** Same, with the injectors handling payloads already fetched by the caller. */
+  public void updateInjectorContractsForPayload(Payload payload, List<Injector> injectors) {
     injectors.forEach(injector -> updateInjectorContract(injector, payload));
   }
 
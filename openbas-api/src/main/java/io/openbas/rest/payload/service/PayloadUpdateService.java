@@ -39,6 +39,8 @@ public class PayloadUpdateService {
         fromIterable(attackPatternRepository.findAllById(input.getAttackPatternsIds())));
     payload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
     payload.setUpdatedAt(Instant.now());
+    // The next upsert must restore the collected version
+    payload.setUpsertHash(null);
 
     return update(input, payload);
   }
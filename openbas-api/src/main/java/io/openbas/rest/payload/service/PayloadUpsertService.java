@@ -1,17 +1,24 @@
 package io.openbas.rest.payload.service;
 
 import static io.openbas.helper.StreamHelper.fromIterable;
-import static io.openbas.helper.StreamHelper.iterableToSet;
 import static io.openbas.rest.payload.PayloadUtils.validateArchitecture;
+import static java.util.stream.Collectors.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
 import io.openbas.rest.payload.PayloadUtils;
 import io.openbas.rest.payload.form.PayloadUpsertInput;
+import io.openbas.rest.payload.output.PayloadsUpsertOutput;
+import jakarta.annotation.Resource;
 import jakarta.transaction.Transactional;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 
@@ -28,112 +35,200 @@ public class PayloadUpsertService {
   private final PayloadRepository payloadRepository;
   private final CollectorRepository collectorRepository;
   private final DocumentRepository documentRepository;
+  private final InjectorRepository injectorRepository;
+
+  @Resource protected ObjectMapper mapper;
+
+  /** References of the upserted payloads, resolved with a single query per type. */
+  private record References(
+      Map<String, Collector> collectors,
+      Map<String, List<AttackPattern>> attackPatterns,
+      Map<String, Tag> tags,
+      Map<String, Document> documents,
+      List<Injector> injectors) {
+
+    Collector collector(String id) {
+      return Optional.ofNullable(collectors.get(id)).orElseThrow();
+    }
+
+    List<AttackPattern> attackPatterns(List<String> externalIds) {
+      return externalIds.stream()
+          .flatMap(
+              externalId ->
+                  attackPatterns
+                      .getOrDefault(externalId.toLowerCase(Locale.ROOT), List.of())
+                      .stream())
+          .distinct()
+          .collect(toCollection(ArrayList::new));
+    }
+
+    Set<Tag> tags(List<String> ids) {
+      return ids.stream()
+          .map(tags::get)
+          .filter(Objects::nonNull)
+          .collect(toCollection(HashSet::new));
+    }
+
+    Document document(String id) {
+      return Optional.ofNullable(id).map(documents::get).orElseThrow();
+    }
+  }
 
   @Transactional(rollbackOn = Exception.class)
   public Payload upsertPayload(PayloadUpsertInput input) {
+    References references = resolveReferences(List.of(input));
     Optional<Payload> payload = payloadRepository.findByExternalId(input.getExternalId());
-    if (payload.isPresent()) {
-      Payload existingPayload = payload.get();
-      if (input.getCollector() != null) {
-        existingPayload.setCollector(
-            collectorRepository.findById(input.getCollector()).orElseThrow());
+    return upsert(input, payload.orElse(null), references).orElseGet(payload::get);
+  }
+
+  /**
+   * Upsert a batch of payloads, identified by their external id. The references of the whole batch
+   * are resolved upfront, and payloads whose input did not change since their last upsert are not
+   * written.
+   */
+  @Transactional(rollbackOn = Exception.class)
+  public PayloadsUpsertOutput upsertPayloads(List<PayloadUpsertInput> inputs) {
+    // The last input of an external id wins, as with successive upserts
+    Map<String, PayloadUpsertInput> inputsByExternalId =
+        inputs.stream()
+            .collect(
+                toMap(
+                    PayloadUpsertInput::getExternalId,
+                    Function.identity(),
+                    (first, second) -> second,
+                    LinkedHashMap::new));
+    References references = resolveReferences(inputsByExternalId.values());
+    Map<String, Payload> existingPayloads =
+        payloadRepository.findAllByExternalIdIn(inputsByExternalId.keySet()).stream()
+            .collect(toMap(Payload::getExternalId, Function.identity()));
+
+    int created = 0;
+    int updated = 0;
+    int unchanged = 0;
+    for (PayloadUpsertInput input : inputsByExternalId.values()) {
+      Payload existingPayload = existingPayloads.get(input.getExternalId());
+      if (upsert(input, existingPayload, references).isEmpty()) {
+        unchanged++;
+      } else if (existingPayload == null) {
+        created++;
+      } else {
+        updated++;
       }
-      existingPayload.setAttackPatterns(
-          fromIterable(
-              attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                  input.getAttackPatternsExternalIds())));
-      existingPayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-      existingPayload.setUpdatedAt(Instant.now());
-
-      return updatePayloadFromUpsert(input, existingPayload);
-    } else {
-      return createPayloadFromUpsert(input);
     }
+    return new PayloadsUpsertOutput(created, updated, unchanged);
   }
 
-  private Payload createPayloadFromUpsert(PayloadUpsertInput input) {
-    PayloadType payloadType = PayloadType.fromString(input.getType());
+  // -- PRIVATE --
+
+  private References resolveReferences(Collection<PayloadUpsertInput> inputs) {
+    Set<String> collectorIds =
+        inputs.stream()
+            .map(PayloadUpsertInput::getCollector)
+            .filter(Objects::nonNull)
+            .collect(toSet());
+    List<String> attackPatternExternalIds =
+        inputs.stream()
+            .flatMap(input -> input.getAttackPatternsExternalIds().stream())
+            .distinct()
+            .toList();
+    Set<String> tagIds =
+        inputs.stream().flatMap(input -> input.getTagIds().stream()).collect(toSet());
+    Set<String> documentIds =
+        inputs.stream()
+            .flatMap(input -> Stream.of(input.getExecutableFile(), input.getFileDropFile()))
+            .filter(Objects::nonNull)
+            .collect(toSet());
+    return new References(
+        fromIterable(collectorRepository.findAllById(collectorIds)).stream()
+            .collect(toMap(Collector::getId, Function.identity())),
+        attackPatternExternalIds.isEmpty()
+            ? Map.of()
+            : attackPatternRepository
+                .findAllByExternalIdInIgnoreCase(attackPatternExternalIds)
+                .stream()
+                .collect(groupingBy(pattern -> pattern.getExternalId().toLowerCase(Locale.ROOT))),
+        fromIterable(tagRepository.findAllById(tagIds)).stream()
+            .collect(toMap(Tag::getId, Function.identity())),
+        fromIterable(documentRepository.findAllById(documentIds)).stream()
+            .collect(toMap(Document::getId, Function.identity())),
+        injectorRepository.findAllByPayloads(true));
+  }
+
+  /**
+   * Create or update the payload of the input.
+   *
+   * @return the written payload, or empty if the input did not change since its last upsert
+   */
+  private Optional<Payload> upsert(
+      PayloadUpsertInput input, Payload existingPayload, References references) {
+    PayloadType payloadType =
+        PayloadType.fromString(
+            existingPayload != null ? existingPayload.getType() : input.getType());
     validateArchitecture(payloadType.key, input.getExecutionArch());
 
+    List<AttackPattern> attackPatterns =
+        references.attackPatterns(input.getAttackPatternsExternalIds());
+    String upsertHash = computeUpsertHash(input, attackPatterns, references.injectors());
+    if (existingPayload != null && upsertHash.equals(existingPayload.getUpsertHash())) {
+      return Optional.empty();
+    }
+
+    Payload payload =
+        existingPayload != null
+            ? updatePayloadFromUpsert(input, existingPayload, references)
+            : createPayloadFromUpsert(input, references);
+    if (input.getCollector() != null) {
+      payload.setCollector(references.collector(input.getCollector()));
+    }
+    payload.setAttackPatterns(attackPatterns);
+    payload.setTags(references.tags(input.getTagIds()));
+    payload.setUpsertHash(upsertHash);
+    payload.setUpdatedAt(Instant.now());
+    payload = payloadRepository.save(payload);
+    this.payloadService.updateInjectorContractsForPayload(payload, references.injectors());
+    return Optional.of(payload);
+  }
+
+  // The resolved attack patterns are hashed too, so that patterns created later get linked, and so
+  // are the injectors handling payloads, so that injectors registered later get their contracts
+  private String computeUpsertHash(
+      PayloadUpsertInput input, List<AttackPattern> attackPatterns, List<Injector> injectors) {
+    try {
+      String attackPatternIds =
+          attackPatterns.stream().map(AttackPattern::getId).sorted().collect(joining(","));
+      String injectorIds = injectors.stream().map(Injector::getId).sorted().collect(joining(","));
+      return DigestUtils.sha256Hex(
+          mapper.writeValueAsString(input) + attackPatternIds + "|" + injectorIds);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Payload createPayloadFromUpsert(PayloadUpsertInput input, References references) {
+    PayloadType payloadType = PayloadType.fromString(input.getType());
+
     switch (payloadType) {
       case COMMAND:
         Command commandPayload = new Command();
         payloadUtils.copyProperties(input, commandPayload, false);
-        if (input.getCollector() != null) {
-          commandPayload.setCollector(
-              collectorRepository.findById(input.getCollector()).orElseThrow());
-        }
-        commandPayload.setAttackPatterns(
-            fromIterable(
-                attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                    input.getAttackPatternsExternalIds())));
-        commandPayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-        commandPayload = payloadRepository.save(commandPayload);
-        this.payloadService.updateInjectorContractsForPayload(commandPayload);
         return commandPayload;
       case EXECUTABLE:
         Executable executablePayload = new Executable();
         payloadUtils.copyProperties(input, executablePayload, false);
-        if (input.getCollector() != null) {
-          executablePayload.setCollector(
-              collectorRepository.findById(input.getCollector()).orElseThrow());
-        }
-        executablePayload.setAttackPatterns(
-            fromIterable(
-                attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                    input.getAttackPatternsExternalIds())));
-        executablePayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-        executablePayload.setExecutableFile(
-            documentRepository.findById(input.getExecutableFile()).orElseThrow());
-        executablePayload = payloadRepository.save(executablePayload);
-        this.payloadService.updateInjectorContractsForPayload(executablePayload);
+        executablePayload.setExecutableFile(references.document(input.getExecutableFile()));
         return executablePayload;
       case FILE_DROP:
         FileDrop fileDropPayload = new FileDrop();
         payloadUtils.copyProperties(input, fileDropPayload, false);
-        if (input.getCollector() != null) {
-          fileDropPayload.setCollector(
-              collectorRepository.findById(input.getCollector()).orElseThrow());
-        }
-        fileDropPayload.setAttackPatterns(
-            fromIterable(
-                attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                    input.getAttackPatternsExternalIds())));
-        fileDropPayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-        fileDropPayload.setFileDropFile(
-            documentRepository.findById(input.getFileDropFile()).orElseThrow());
-        fileDropPayload = payloadRepository.save(fileDropPayload);
-        this.payloadService.updateInjectorContractsForPayload(fileDropPayload);
+        fileDropPayload.setFileDropFile(references.document(input.getFileDropFile()));
         return fileDropPayload;
       case DNS_RESOLUTION:
         DnsResolution dnsResolutionPayload = new DnsResolution();
         payloadUtils.copyProperties(input, dnsResolutionPayload, false);
-        if (input.getCollector() != null) {
-          dnsResolutionPayload.setCollector(
-              collectorRepository.findById(input.getCollector()).orElseThrow());
-        }
-        dnsResolutionPayload.setAttackPatterns(
-            fromIterable(
-                attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                    input.getAttackPatternsExternalIds())));
-        dnsResolutionPayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-        dnsResolutionPayload = payloadRepository.save(dnsResolutionPayload);
-        this.payloadService.updateInjectorContractsForPayload(dnsResolutionPayload);
         return dnsResolutionPayload;
       case NETWORK_TRAFFIC:
         NetworkTraffic networkTrafficPayload = new NetworkTraffic();
         payloadUtils.copyProperties(input, networkTrafficPayload, false);
-        if (input.getCollector() != null) {
-          networkTrafficPayload.setCollector(
-              collectorRepository.findById(input.getCollector()).orElseThrow());
-        }
-        networkTrafficPayload.setAttackPatterns(
-            fromIterable(
-                attackPatternRepository.findAllByExternalIdInIgnoreCase(
-                    input.getAttackPatternsExternalIds())));
-        networkTrafficPayload.setTags(iterableToSet(tagRepository.findAllById(input.getTagIds())));
-        networkTrafficPayload = payloadRepository.save(networkTrafficPayload);
-        this.payloadService.updateInjectorContractsForPayload(networkTrafficPayload);
         return networkTrafficPayload;
       default:
         throw new UnsupportedOperationException(
@@ -141,44 +236,32 @@ public class PayloadUpsertService {
     }
   }
 
-  public Payload updatePayloadFromUpsert(PayloadUpsertInput input, Payload existingPayload) {
+  private Payload updatePayloadFromUpsert(
+      PayloadUpsertInput input, Payload existingPayload, References references) {
     PayloadType payloadType = PayloadType.fromString(existingPayload.getType());
-    validateArchitecture(payloadType.key, input.getExecutionArch());
 
     switch (payloadType) {
       case COMMAND:
         Command payloadCommand = (Command) Hibernate.unproxy(existingPayload);
         payloadUtils.copyProperties(input, payloadCommand, true);
-        payloadCommand = payloadRepository.save(payloadCommand);
-        this.payloadService.updateInjectorContractsForPayload(payloadCommand);
         return payloadCommand;
       case EXECUTABLE:
         Executable payloadExecutable = (Executable) Hibernate.unproxy(existingPayload);
         payloadUtils.copyProperties(input, payloadExecutable, true);
-        payloadExecutable.setExecutableFile(
-            documentRepository.findById(input.getExecutableFile()).orElseThrow());
-        payloadExecutable = payloadRepository.save(payloadExecutable);
-        this.payloadService.updateInjectorContractsForPayload(payloadExecutable);
+        payloadExecutable.setExecutableFile(references.document(input.getExecutableFile()));
         return payloadExecutable;
       case FILE_DROP:
         FileDrop payloadFileDrop = (FileDrop) Hibernate.unproxy(existingPayload);
         payloadUtils.copyProperties(input, payloadFileDrop, true);
-        payloadFileDrop.setFileDropFile(
-            documentRepository.findById(input.getFileDropFile()).orElseThrow());
-        payloadFileDrop = payloadRepository.save(payloadFileDrop);
-        this.payloadService.updateInjectorContractsForPayload(payloadFileDrop);
+        payloadFileDrop.setFileDropFile(references.document(input.getFileDropFile()));
         return payloadFileDrop;
       case DNS_RESOLUTION:
         DnsResolution payloadDnsResolution = (DnsResolution) Hibernate.unproxy(existingPayload);
         payloadUtils.copyProperties(input, payloadDnsResolution, true);
-        payloadDnsResolution = payloadRepository.save(payloadDnsResolution);
-        this.payloadService.updateInjectorContractsForPayload(payloadDnsResolution);
         return payloadDnsResolution;
       case NETWORK_TRAFFIC:
         NetworkTraffic payloadNetworkTraffic = (NetworkTraffic) Hibernate.unproxy(existingPayload);
         payloadUtils.copyProperties(input, payloadNetworkTraffic, true);
-        payloadNetworkTraffic = payloadRepository.save(payloadNetworkTraffic);
-        this.payloadService.updateInjectorContractsForPayload(payloadNetworkTraffic);
         return payloadNetworkTraffic;
       default:
         throw new UnsupportedOperationException(
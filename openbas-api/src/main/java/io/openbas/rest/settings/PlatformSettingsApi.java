@@ -2,6 +2,7 @@ package io.openbas.rest.settings;
 
 import static io.openbas.database.model.User.ROLE_ADMIN;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.openbas.aop.UserRoleDescription;
 import io.openbas.rest.helper.RestBehavior;
 import io.openbas.rest.settings.form.PolicyInput;
@@ -18,12 +19,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RequestMapping("/api/settings")
 @RestController
@@ -45,10 +49,21 @@ public class PlatformSettingsApi extends RestBehavior {
   }
 
   @GetMapping()
-  @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "The list of settings")})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "The list of settings"),
+        @ApiResponse(responseCode = "304", description = "The settings did not change")
+      })
   @Operation(summary = "List settings", description = "Return the settings")
-  public PlatformSettings settings() {
-    return platformSettingsService.findSettings();
+  public ResponseEntity<PlatformSettings> settings(WebRequest request)
+      throws JsonProcessingException {
+    PlatformSettings settings = platformSettingsService.findSettings();
+    // The UI loads the settings on every page, let it skip the payload when nothing changed
+    String eTag = "\"" + DigestUtils.md5DigestAsHex(mapper.writeValueAsBytes(settings)) + "\"";
+    if (request.checkNotModified(eTag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(eTag).body(settings);
   }
 
   @Secured(ROLE_ADMIN)
@@ -1,22 +1,18 @@
 package io.openbas.rest.statistic;
 
 import static io.openbas.config.SessionHelper.currentUser;
-import static io.openbas.helper.StreamHelper.fromIterable;
-import static io.openbas.utils.AtomicTestingUtils.getExpectationResultByTypesFromRaw;
+import static io.openbas.utils.AtomicTestingUtils.getExpectationResultByTypesFromRollups;
 import static java.util.stream.Collectors.groupingBy;
 
 import io.openbas.aop.LogExecutionTime;
 import io.openbas.config.OpenBASPrincipal;
 import io.openbas.database.model.AttackPattern;
-import io.openbas.database.raw.RawGlobalInjectExpectation;
-import io.openbas.database.raw.RawInjectExpectation;
-import io.openbas.database.raw.impl.SimpleRawInjectExpectation;
+import io.openbas.database.raw.RawInjectExpectationRollup;
 import io.openbas.database.repository.*;
 import io.openbas.rest.helper.RestBehavior;
 import io.openbas.rest.inject.form.InjectExpectationResultsByAttackPattern;
 import io.openbas.rest.statistic.response.PlatformStatistic;
 import io.openbas.rest.statistic.response.StatisticElement;
-import io.openbas.utils.AtomicTestingUtils;
 import io.openbas.utils.AtomicTestingUtils.ExpectationResultsByType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,6 +24,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -121,113 +118,72 @@ public class StatisticApi extends RestBehavior {
   private List<ExpectationResultsByType> computeGlobalExpectationResults(
       @NotNull final Instant from) {
     Instant minus6Months = from.minus(180, ChronoUnit.DAYS);
-    List<RawInjectExpectation> rawInjectExpectations =
-        fromIterable(this.exerciseRepository.allInjectExpectationsFromDate(minus6Months));
-    return getExpectationResultByTypesFromRaw(rawInjectExpectations);
+    return getExpectationResultByTypesFromRollups(
+        this.exerciseRepository.expectationRollupsFromDate(minus6Months));
   }
 
   private List<ExpectationResultsByType> computeUserExpectationResults(
       @NotNull final Instant from) {
     OpenBASPrincipal user = currentUser();
     Instant minus6Months = from.minus(180, ChronoUnit.DAYS);
-    List<RawInjectExpectation> rawInjectExpectations =
-        fromIterable(
-            this.exerciseRepository.allGrantedInjectExpectationsFromDate(
-                minus6Months, user.getId()));
-    return getExpectationResultByTypesFromRaw(rawInjectExpectations);
+    return getExpectationResultByTypesFromRollups(
+        this.exerciseRepository.grantedExpectationRollupsFromDate(minus6Months, user.getId()));
   }
 
   private List<InjectExpectationResultsByAttackPattern> computeGlobalInjectExpectationResults(
       @NotNull final Instant from) {
     Instant minus6Months = from.minus(180, ChronoUnit.DAYS);
-    List<RawGlobalInjectExpectation> rawGlobalInjectExpectations =
-        fromIterable(
-            this.exerciseRepository.rawGlobalInjectExpectationResultsFromDate(minus6Months));
-    return injectExpectationResultsByAttackPatternFromRawGlobalInjectExpectation(
-        rawGlobalInjectExpectations);
+    return injectExpectationResultsByAttackPatternFromRollups(
+        this.exerciseRepository.attackPatternExpectationRollupsFromDate(minus6Months));
   }
 
   private List<InjectExpectationResultsByAttackPattern> computeUserInjectExpectationResults(
       @NotNull final Instant from) {
     OpenBASPrincipal user = currentUser();
     Instant minus6Months = from.minus(180, ChronoUnit.DAYS);
-    List<RawGlobalInjectExpectation> rawGlobalInjectExpectations =
-        fromIterable(
-            this.exerciseRepository.rawGrantedInjectExpectationResultsFromDate(
-                minus6Months, user.getId()));
-    return injectExpectationResultsByAttackPatternFromRawGlobalInjectExpectation(
-        rawGlobalInjectExpectations);
+    return injectExpectationResultsByAttackPatternFromRollups(
+        this.exerciseRepository.grantedAttackPatternExpectationRollupsFromDate(
+            minus6Months, user.getId()));
   }
 
-  private List<InjectExpectationResultsByAttackPattern>
-      injectExpectationResultsByAttackPatternFromRawGlobalInjectExpectation(
-          List<RawGlobalInjectExpectation> rawGlobalInjectExpectations) {
-    return rawGlobalInjectExpectations.stream()
-        .map(RawGlobalInjectExpectation::getAttack_pattern_id)
-        .distinct()
-        .map(
-            attackPatternId -> {
-              InjectExpectationResultsByAttackPattern resultExpectation =
-                  new InjectExpectationResultsByAttackPattern();
-              resultExpectation.setAttackPattern(new AttackPattern());
-              resultExpectation.getAttackPattern().setId(attackPatternId);
-
-              Map<String, Map<String, List<RawGlobalInjectExpectation>>>
-                  rawGlobalInjectExpectationsGroupByAttackAndInjectId =
-                      rawGlobalInjectExpectations.stream()
-                          .collect(
-                              groupingBy(
-                                  RawGlobalInjectExpectation::getAttack_pattern_id,
-                                  groupingBy(RawGlobalInjectExpectation::getInject_id)));
-
-              List<InjectExpectationResultsByAttackPattern.InjectExpectationResultsByType> results =
-                  new ArrayList<>();
-
-              rawGlobalInjectExpectationsGroupByAttackAndInjectId.forEach(
-                  (attackId, injects) -> {
-                    if (attackId.equals(attackPatternId)) {
-                      injects.forEach(
-                          (injectId, expectations) -> {
-                            RawGlobalInjectExpectation expectation = expectations.getFirst();
-                            InjectExpectationResultsByAttackPattern.InjectExpectationResultsByType
-                                resultInjectExpectationResultsByAttackPattern =
-                                    new InjectExpectationResultsByAttackPattern
-                                        .InjectExpectationResultsByType();
-                            resultInjectExpectationResultsByAttackPattern.setInjectTitle(
-                                expectation.getInject_title());
-
-                            ArrayList<RawInjectExpectation> expectationsRefined = new ArrayList<>();
-
-                            expectations.stream()
-                                .forEach(
-                                    e -> {
-                                      if (e.getInject_expectation_type() != null) {
-                                        SimpleRawInjectExpectation rawInjectExpectation =
-                                            new SimpleRawInjectExpectation();
-                                        rawInjectExpectation.setInject_expectation_score(
-                                            e.getInject_expectation_score());
-                                        rawInjectExpectation.setInject_expectation_expected_score(
-                                            e.getInject_expectation_expected_score());
-                                        rawInjectExpectation.setInject_expectation_type(
-                                            e.getInject_expectation_type());
-                                        expectationsRefined.add(rawInjectExpectation);
-                                      }
-                                    });
-
-                            resultInjectExpectationResultsByAttackPattern.setResults(
-                                AtomicTestingUtils.getExpectationResultByTypesFromRaw(
-                                    expectationsRefined));
-
-                            results.add(resultInjectExpectationResultsByAttackPattern);
-                          });
-                    }
-                  });
-
-              resultExpectation.setResults(results);
-
-              return resultExpectation;
-            })
-        .collect(Collectors.toList());
+  /** Group the rollups by attack pattern then inject in a single pass. */
+  static List<InjectExpectationResultsByAttackPattern>
+      injectExpectationResultsByAttackPatternFromRollups(List<RawInjectExpectationRollup> rollups) {
+    Map<String, Map<String, List<RawInjectExpectationRollup>>> rollupsByAttackPatternAndInject =
+        rollups.stream()
+            .collect(
+                groupingBy(
+                    RawInjectExpectationRollup::getAttack_pattern_id,
+                    LinkedHashMap::new,
+                    groupingBy(
+                        RawInjectExpectationRollup::getInject_id,
+                        LinkedHashMap::new,
+                        Collectors.toList())));
+
+    List<InjectExpectationResultsByAttackPattern> results = new ArrayList<>();
+    rollupsByAttackPatternAndInject.forEach(
+        (attackPatternId, injects) -> {
+          InjectExpectationResultsByAttackPattern resultExpectation =
+              new InjectExpectationResultsByAttackPattern();
+          resultExpectation.setAttackPattern(new AttackPattern());
+          resultExpectation.getAttackPattern().setId(attackPatternId);
+          resultExpectation.setResults(
+              injects.values().stream()
+                  .map(
+                      injectRollups -> {
+                        InjectExpectationResultsByAttackPattern.InjectExpectationResultsByType
+                            injectResults =
+                                new InjectExpectationResultsByAttackPattern
+                                    .InjectExpectationResultsByType();
+                        injectResults.setInjectTitle(injectRollups.getFirst().getInject_title());
+                        injectResults.setResults(
+                            getExpectationResultByTypesFromRollups(injectRollups));
+                        return injectResults;
+                      })
+                  .toList());
+          results.add(resultExpectation);
+        });
+    return results;
   }
 
   private Map<String, Long> computeExerciseCountGroupByCategory(
@@ -4,7 +4,9 @@ import static org.quartz.JobKey.jobKey;
 
 import io.openbas.scheduler.jobs.ComchecksExecutionJob;
 import io.openbas.scheduler.jobs.ElasticSyncExecutionJob;
+import io.openbas.scheduler.jobs.ExerciseSummaryRefreshJob;
 import io.openbas.scheduler.jobs.InjectsExecutionJob;
+import io.openbas.scheduler.jobs.NotificationEventsDispatchJob;
 import io.openbas.scheduler.jobs.ScenarioExecutionJob;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
@@ -45,4 +47,20 @@ public class PlatformJobDefinitions {
         .withIdentity(jobKey("ElasticSyncExecutionJob"))
         .build();
   }
+
+  @Bean
+  public JobDetail getExerciseSummaryRefresh() {
+    return JobBuilder.newJob(ExerciseSummaryRefreshJob.class)
+        .storeDurably()
+        .withIdentity(jobKey("ExerciseSummaryRefreshJob"))
+        .build();
+  }
+
+  @Bean
+  public JobDetail getNotificationEventsDispatch() {
+    return JobBuilder.newJob(NotificationEventsDispatchJob.class)
+        .storeDurably()
+        .withIdentity(jobKey("NotificationEventsDispatchJob"))
+        .build();
+  }
 }
@@ -57,4 +57,24 @@ public class PlatformTriggers {
         .withSchedule(_15_seconds)
         .build();
   }
+
+  @Bean
+  public Trigger exerciseSummaryRefreshTrigger() {
+    SimpleScheduleBuilder _15_seconds = simpleSchedule().withIntervalInSeconds(15).repeatForever();
+    return newTrigger()
+        .forJob(this.platformJobs.getExerciseSummaryRefresh())
+        .withIdentity("exerciseSummaryRefreshTrigger")
+        .withSchedule(_15_seconds)
+        .build();
+  }
+
+  @Bean
+  public Trigger notificationEventsDispatchTrigger() {
+    SimpleScheduleBuilder _1_minute = simpleSchedule().withIntervalInMinutes(1).repeatForever();
+    return newTrigger()
+        .forJob(this.platformJobs.getNotificationEventsDispatch())
+        .withIdentity("notificationEventsDispatchTrigger")
+        .withSchedule(_1_minute)
+        .build();
+  }
 }
@@ -0,0 +1,36 @@
+package io.openbas.scheduler.jobs;
+
+import io.openbas.service.ExerciseSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+@Slf4j
+public class ExerciseSummaryRefreshJob implements Job {
+
+  private ExerciseSummaryService exerciseSummaryService;
+
+  @Autowired
+  public void setExerciseSummaryService(ExerciseSummaryService exerciseSummaryService) {
+    this.exerciseSummaryService = exerciseSummaryService;
+  }
+
+  @Override
+  public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+    // Each summary is refreshed in its own transaction so one failure does not block the batch,
+    // and stays stale to be retried by the next run
+    for (String exerciseId : exerciseSummaryService.findExercisesToRefresh()) {
+      try {
+        exerciseSummaryService.refreshSummary(exerciseId);
+      } catch (Exception e) {
+        log.error("Failed to refresh summary of exercise " + exerciseId, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package io.openbas.scheduler.jobs;
+
+import io.openbas.database.model.DelayedNotificationEvent;
+import io.openbas.service.NotificationEventService;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@DisallowConcurrentExecution
+@Slf4j
+public class NotificationEventsDispatchJob implements Job {
+
+  private NotificationEventService notificationEventService;
+
+  @Autowired
+  public void setNotificationEventService(NotificationEventService notificationEventService) {
+    this.notificationEventService = notificationEventService;
+  }
+
+  @Override
+  public void execute(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+    try {
+      List<DelayedNotificationEvent> events = notificationEventService.claimDueNotificationEvents();
+      if (!events.isEmpty()) {
+        notificationEventService.dispatchNotificationEvents(events);
+      }
+      notificationEventService.cleanSentNotificationEvents();
+    } catch (Exception e) {
+      log.error("Failed to dispatch delayed notification events", e);
+      throw new JobExecutionException(e);
+    }
+  }
+}
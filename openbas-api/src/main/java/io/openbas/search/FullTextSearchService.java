@@ -9,22 +9,29 @@ import io.openbas.database.repository.*;
 import io.openbas.database.specification.SpecificationUtils;
 import io.openbas.utils.pagination.SearchPaginationInput;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
+@Slf4j
 @RequiredArgsConstructor
 public class FullTextSearchService<T extends Base> {
 
@@ -36,6 +43,17 @@ public class FullTextSearchService<T extends Base> {
   private final ScenarioRepository scenarioRepository;
   private final ExerciseRepository exerciseRepository;
 
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${openbas.fulltextsearch.concurrency:4}")
+  private int countConcurrency;
+
+  @Value("${openbas.fulltextsearch.timeout:5}")
+  private int countTimeout;
+
+  private ExecutorService countExecutor;
+  private TransactionTemplate countTransactionTemplate;
+
   private Map<Class<T>, JpaSpecificationExecutor<T>> repositoryMap;
 
   private Map<Class<T>, List<String>> searchListByClassMap;
@@ -43,6 +61,11 @@ public class FullTextSearchService<T extends Base> {
   @PostConstruct
   @SuppressWarnings("unchecked")
   public void init() {
+    this.countExecutor = Executors.newFixedThreadPool(this.countConcurrency);
+    this.countTransactionTemplate = new TransactionTemplate(this.transactionManager);
+    this.countTransactionTemplate.setReadOnly(true);
+    this.countTransactionTemplate.setTimeout(this.countTimeout);
+
     this.repositoryMap =
         Map.of(
             (Class<T>) Asset.class, (JpaSpecificationExecutor<T>) this.assetRepository,
@@ -72,6 +95,11 @@ public class FullTextSearchService<T extends Base> {
             List.of("name", "id"));
   }
 
+  @PreDestroy
+  public void destroy() {
+    this.countExecutor.shutdownNow();
+  }
+
   public Page<FullTextSearchResult> fullTextSearch(
       @NotBlank final Class<?> clazz, @NotNull final SearchPaginationInput searchPaginationInput) {
     if (!hasText(searchPaginationInput.getTextSearch())) {
@@ -189,18 +217,42 @@ public class FullTextSearchService<T extends Base> {
               new FullTextSearchCountResult(Exercise.class.getSimpleName(), 0L));
     }
 
-    Map<Class<T>, FullTextSearchCountResult> results = new HashMap<>();
     String finalSearchTerm = getFinalSearchTerm(searchTerm);
 
+    // Count every type concurrently, each in a read only transaction bounding its query time
+    Map<Class<T>, Future<Long>> counts = new LinkedHashMap<>();
     repositoryMap.forEach(
-        (className, repository) -> {
-          long count =
-              repository.count(
-                  SpecificationUtils.fullTextSearch(
-                      finalSearchTerm, searchListByClassMap.get(className)));
-          results.put(className, new FullTextSearchCountResult(className.getSimpleName(), count));
-        });
+        (className, repository) ->
+            counts.put(
+                className,
+                this.countExecutor.submit(
+                    () ->
+                        this.countTransactionTemplate.execute(
+                            status ->
+                                repository.count(
+                                    SpecificationUtils.fullTextSearch(
+                                        finalSearchTerm, searchListByClassMap.get(className)))))));
 
+    // Types whose count did not finish in time are returned as partial results
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(this.countTimeout);
+    Map<Class<T>, FullTextSearchCountResult> results = new HashMap<>();
+    counts.forEach(
+        (className, count) -> {
+          FullTextSearchCountResult result =
+              new FullTextSearchCountResult(className.getSimpleName(), 0L);
+          try {
+            result.setCount(count.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            count.cancel(true);
+            result.setPartial(true);
+          } catch (ExecutionException | TimeoutException e) {
+            log.warn("Full text search count of " + className.getSimpleName() + " failed", e);
+            count.cancel(true);
+            result.setPartial(true);
+          }
+          results.put(className, result);
+        });
     return results;
   }
 
@@ -220,6 +272,13 @@ public class FullTextSearchService<T extends Base> {
 
     @NotBlank private String clazz;
     @NotBlank private long count;
+
+    // The count did not complete in time
+    private boolean partial;
+
+    public FullTextSearchCountResult(String clazz, long count) {
+      this(clazz, count, false);
+    }
   }
 
   @Data
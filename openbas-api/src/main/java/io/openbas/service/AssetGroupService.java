@@ -3,36 +3,63 @@ package io.openbas.service;
 import static io.openbas.database.model.Filters.isEmptyFilterGroup;
 import static io.openbas.helper.StreamHelper.fromIterable;
 import static io.openbas.utils.FilterUtilsJpa.computeFilterGroupJpa;
-import static io.openbas.utils.FilterUtilsRuntime.computeFilterGroupRuntime;
 import static java.time.Instant.now;
 
 import io.openbas.database.model.Asset;
 import io.openbas.database.model.AssetGroup;
 import io.openbas.database.model.Endpoint;
+import io.openbas.database.model.Filters.FilterGroup;
 import io.openbas.database.raw.RawAssetGroup;
+import io.openbas.database.raw.RawAssetGroupDynamicFilter;
 import io.openbas.database.repository.AssetGroupRepository;
+import io.openbas.database.repository.EndpointRepository;
 import io.openbas.database.specification.EndpointSpecification;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
 import io.openbas.utils.FilterUtilsJpa;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @RequiredArgsConstructor
 @Service
+@Slf4j
 public class AssetGroupService {
 
+  private static final int DYNAMIC_ASSETS_CHANGES_BATCH_SIZE = 500;
+
   private final AssetGroupRepository assetGroupRepository;
   private final AssetService assetService;
   private final EndpointService endpointService;
+  private final EndpointRepository endpointRepository;
+  private final MetricRegistry metricRegistry;
+  private final PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate refreshTransactionTemplate;
+
+  @PostConstruct
+  public void init() {
+    this.refreshTransactionTemplate = new TransactionTemplate(this.transactionManager);
+    this.metricRegistry.registerGauge(
+        "asset_group_dynamic_assets_refresh_lag",
+        "Age of the oldest asset group dynamic assets waiting for a refresh",
+        this.assetGroupRepository::dynamicAssetsRefreshLag,
+        "ms");
+  }
 
   // -- ASSET GROUP --
 
@@ -107,48 +134,30 @@ public class AssetGroupService {
     return assets;
   }
 
-  private List<AssetGroup> computeDynamicAssets(@NotNull final List<AssetGroup> assetGroups) {
-    if (assetGroups.stream()
-        .noneMatch(assetGroup -> isEmptyFilterGroup(assetGroup.getDynamicFilter()))) {
-      return assetGroups;
-    }
+  // -- DYNAMIC ASSETS --
+
+  // Fresh groups read their materialized members, with the endpoints changed since the last refresh
+  // evaluated from the filter. Stale groups are evaluated from the filter until the next refresh.
 
-    List<Asset> assets = this.assetService.assets();
+  private List<AssetGroup> computeDynamicAssets(@NotNull final List<AssetGroup> assetGroups) {
+    Map<String, FilterGroup> dynamicFilters = new HashMap<>();
+    assetGroups.stream()
+        .filter(assetGroup -> !isEmptyFilterGroup(assetGroup.getDynamicFilter()))
+        .forEach(
+            assetGroup -> dynamicFilters.put(assetGroup.getId(), assetGroup.getDynamicFilter()));
+    Map<String, List<Endpoint>> dynamicEndpoints = dynamicEndpoints(dynamicFilters);
     assetGroups.forEach(
         assetGroup -> {
-          if (!isEmptyFilterGroup(assetGroup.getDynamicFilter())) {
-            Predicate<Object> filters = computeFilterGroupRuntime(assetGroup.getDynamicFilter());
-
-            List<Asset> filteredAssets =
-                assets.stream()
-                    .filter(
-                        asset ->
-                            "Endpoint"
-                                .equals(
-                                    asset.getType())) // Filters for dynamic assets are applicable
-                    // only to endpoints
-                    .filter(filters)
-                    .toList();
-
-            assetGroup.setDynamicAssets(filteredAssets);
+          List<Endpoint> endpoints = dynamicEndpoints.get(assetGroup.getId());
+          if (endpoints != null) {
+            assetGroup.setDynamicAssets(new ArrayList<>(endpoints));
           }
         });
     return assetGroups;
   }
 
   public AssetGroup computeDynamicAssets(@NotNull final AssetGroup assetGroup) {
-    if (isEmptyFilterGroup(assetGroup.getDynamicFilter())) {
-      return assetGroup;
-    }
-    Specification<Endpoint> specification = computeFilterGroupJpa(assetGroup.getDynamicFilter());
-    Specification<Endpoint> specification2 =
-        EndpointSpecification.findEndpointsForInjectionOrAgentlessEndpoints();
-    List<Asset> assets =
-        this.endpointService.endpoints(specification.and(specification2)).stream()
-            .map(Asset.class::cast)
-            .distinct()
-            .toList();
-    assetGroup.setDynamicAssets(assets);
+    computeDynamicAssets(List.of(assetGroup));
     return assetGroup;
   }
 
@@ -158,26 +167,185 @@ public class AssetGroupService {
       return Map.of();
     }
 
+    Map<String, FilterGroup> dynamicFilters = new HashMap<>();
+    assetGroups.forEach(
+        assetGroup ->
+            Optional.ofNullable(assetGroup.getAssetGroupDynamicFilter())
+                .filter(filterGroup -> !isEmptyFilterGroup(filterGroup))
+                .ifPresent(
+                    filterGroup ->
+                        dynamicFilters.put(assetGroup.getAsset_group_id(), filterGroup)));
+    Map<String, List<Endpoint>> dynamicEndpoints = dynamicEndpoints(dynamicFilters);
+
     return assetGroups.stream()
         .collect(
             Collectors.toMap(
                 RawAssetGroup::getAsset_group_id,
                 assetGroup ->
-                    Optional.of(assetGroup.getAssetGroupDynamicFilter())
-                        .filter(filterGroup -> !isEmptyFilterGroup(filterGroup))
-                        .map(
-                            filter -> {
-                              Specification<Endpoint> specification = computeFilterGroupJpa(filter);
-                              Specification<Endpoint> specification2 =
-                                  EndpointSpecification
-                                      .findEndpointsForInjectionOrAgentlessEndpoints();
-                              return this.endpointService
-                                  .endpoints(specification.and(specification2))
-                                  .stream()
-                                  .distinct()
-                                  .toList();
-                            })
-                        .orElse(Collections.emptyList())));
+                    dynamicEndpoints.getOrDefault(
+                        assetGroup.getAsset_group_id(), Collections.emptyList()),
+                (existing, replacement) -> existing));
+  }
+
+  /**
+   * Dynamic endpoints of each group, by asset group id
+   *
+   * @param dynamicFilters the non empty dynamic filters, by asset group id
+   */
+  private Map<String, List<Endpoint>> dynamicEndpoints(
+      @NotNull final Map<String, FilterGroup> dynamicFilters) {
+    if (dynamicFilters.isEmpty()) {
+      return Map.of();
+    }
+    Set<String> freshIds =
+        this.assetGroupRepository.freshDynamicAssetGroupIds(dynamicFilters.keySet());
+    Set<String> changedIds =
+        freshIds.isEmpty() ? Set.of() : this.assetGroupRepository.dynamicAssetsChanges();
+    Map<String, List<Endpoint>> materialized = materializedDynamicEndpoints(freshIds);
+
+    Map<String, List<Endpoint>> dynamicEndpoints = new HashMap<>();
+    dynamicFilters.forEach(
+        (assetGroupId, filterGroup) -> {
+          if (!freshIds.contains(assetGroupId)) {
+            dynamicEndpoints.put(assetGroupId, computeDynamicEndpoints(filterGroup));
+            return;
+          }
+          List<Endpoint> endpoints =
+              materialized.getOrDefault(assetGroupId, Collections.emptyList());
+          if (!changedIds.isEmpty()) {
+            endpoints = new ArrayList<>(endpoints);
+            endpoints.removeIf(endpoint -> changedIds.contains(endpoint.getId()));
+            endpoints.addAll(computeDynamicEndpoints(filterGroup, changedIds));
+          }
+          dynamicEndpoints.put(assetGroupId, endpoints);
+        });
+    return dynamicEndpoints;
+  }
+
+  private List<Endpoint> computeDynamicEndpoints(@NotNull final FilterGroup filterGroup) {
+    return computeDynamicEndpoints(filterGroup, null);
+  }
+
+  /**
+   * Evaluate a dynamic filter, the only evaluation used to read or to materialize dynamic assets
+   *
+   * @param endpointIds the endpoints to evaluate, every endpoint if null
+   */
+  private List<Endpoint> computeDynamicEndpoints(
+      @NotNull final FilterGroup filterGroup, final Collection<String> endpointIds) {
+    Specification<Endpoint> specification = computeFilterGroupJpa(filterGroup);
+    Specification<Endpoint> specification2 =
+        EndpointSpecification.findEndpointsForInjectionOrAgentlessEndpoints();
+    if (endpointIds != null) {
+      specification2 = specification2.and(EndpointSpecification.fromIds(List.copyOf(endpointIds)));
+    }
+    return this.endpointService.endpoints(specification.and(specification2)).stream()
+        .distinct()
+        .toList();
+  }
+
+  private Map<String, List<Endpoint>> materializedDynamicEndpoints(
+      @NotNull final Set<String> assetGroupIds) {
+    if (assetGroupIds.isEmpty()) {
+      return Map.of();
+    }
+    Map<String, Endpoint> endpoints =
+        this.endpointRepository.findDynamicEndpointsOfAssetGroups(assetGroupIds).stream()
+            .collect(Collectors.toMap(Endpoint::getId, Function.identity()));
+    Map<String, List<Endpoint>> dynamicEndpoints = new HashMap<>();
+    this.assetGroupRepository
+        .dynamicAssetIds(assetGroupIds)
+        .forEach(
+            row -> {
+              Endpoint endpoint = endpoints.get((String) row[1]);
+              if (endpoint != null) {
+                dynamicEndpoints
+                    .computeIfAbsent((String) row[0], id -> new ArrayList<>())
+                    .add(endpoint);
+              }
+            });
+    return dynamicEndpoints;
+  }
+
+  /**
+   * Recompute the materialized dynamic assets. Groups whose filter changed are recomputed entirely,
+   * then the endpoints changed since the last refresh are re-evaluated against every fresh group.
+   */
+  @Scheduled(
+      fixedDelayString = "${openbas.asset-group.dynamic-assets.refresh-interval:10}",
+      initialDelay = 0,
+      timeUnit = TimeUnit.SECONDS)
+  public void refreshDynamicAssets() {
+    for (String assetGroupId : this.assetGroupRepository.staleDynamicAssetGroupIds()) {
+      try {
+        this.refreshTransactionTemplate.executeWithoutResult(
+            status -> refreshDynamicAssets(assetGroupId));
+      } catch (Exception e) {
+        log.error("Unable to refresh dynamic assets of asset group " + assetGroupId, e);
+      }
+    }
+    try {
+      // A failed batch is rolled back, so its endpoints are retried by the next run
+      while (Boolean.TRUE.equals(
+          this.refreshTransactionTemplate.execute(status -> refreshDynamicAssetsChanges()))) {
+        log.debug("Dynamic assets changes remaining, refreshing the next batch");
+      }
+    } catch (Exception e) {
+      log.error("Unable to refresh dynamic assets of changed endpoints", e);
+    }
+  }
+
+  private void refreshDynamicAssets(@NotBlank final String assetGroupId) {
+    if (this.assetGroupRepository.claimStaleDynamicAssets(assetGroupId) == 0) {
+      return;
+    }
+    Optional<AssetGroup> assetGroup = this.assetGroupRepository.findById(assetGroupId);
+    if (assetGroup.isEmpty()) {
+      return;
+    }
+    FilterGroup filterGroup = assetGroup.get().getDynamicFilter();
+    String[] assetIds =
+        isEmptyFilterGroup(filterGroup)
+            ? new String[0]
+            : computeDynamicEndpoints(filterGroup).stream()
+                .map(Endpoint::getId)
+                .distinct()
+                .toArray(String[]::new);
+    this.assetGroupRepository.deleteDynamicAssets(assetGroupId);
+    if (assetIds.length > 0) {
+      this.assetGroupRepository.insertDynamicAssets(assetGroupId, assetIds);
+    }
+  }
+
+  /**
+   * Re-evaluate a batch of changed endpoints against every fresh group
+   *
+   * @return true if the batch was full, i.e. more changes may be waiting
+   */
+  private boolean refreshDynamicAssetsChanges() {
+    List<String> changedIds =
+        this.assetGroupRepository.claimDynamicAssetsChanges(DYNAMIC_ASSETS_CHANGES_BATCH_SIZE);
+    if (changedIds.isEmpty()) {
+      return false;
+    }
+    for (RawAssetGroupDynamicFilter assetGroup :
+        this.assetGroupRepository.lockFreshDynamicFilters()) {
+      String assetGroupId = assetGroup.getAsset_group_id();
+      FilterGroup filterGroup = assetGroup.getAssetGroupDynamicFilter();
+      String[] assetIds =
+          isEmptyFilterGroup(filterGroup)
+              ? new String[0]
+              : computeDynamicEndpoints(filterGroup, changedIds).stream()
+                  .map(Endpoint::getId)
+                  .distinct()
+                  .toArray(String[]::new);
+      this.assetGroupRepository.deleteDynamicAssets(assetGroupId, changedIds);
+      if (assetIds.length > 0) {
+        this.assetGroupRepository.insertDynamicAssets(assetGroupId, assetIds);
+      }
+    }
+    this.assetGroupRepository.deleteDynamicAssetsChanges(changedIds);
+    return changedIds.size() == DYNAMIC_ASSETS_CHANGES_BATCH_SIZE;
   }
 
   public List<FilterUtilsJpa.Option> getOptionsByNameLinkedToFindings(
@@ -16,6 +16,7 @@ import io.openbas.injector_contract.fields.ContractFieldType;
 import io.openbas.rest.atomic_testing.form.*;
 import io.openbas.rest.exception.ElementNotFoundException;
 import io.openbas.rest.inject.service.InjectService;
+import io.openbas.service.InjectSearchService.ResultsCountKey;
 import io.openbas.telemetry.metric_collectors.ActionMetricCollector;
 import io.openbas.utils.InjectMapper;
 import io.openbas.utils.PayloadMapper;
@@ -245,7 +246,8 @@ public class AtomicTestingService {
                 customSpec.and(specification),
                 customSpec.and(specificationCount),
                 pageable,
-                joinMap),
+                joinMap,
+                ResultsCountKey.of("atomic_testings", searchPaginationInput)),
         searchPaginationInput,
         Inject.class,
         joinMap);
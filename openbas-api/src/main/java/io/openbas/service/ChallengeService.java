@@ -9,6 +9,7 @@ import static io.openbas.utils.challenge.ChallengeExpectationUtils.buildChalleng
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.openbas.database.model.*;
+import io.openbas.database.raw.RawChallengeUsage;
 import io.openbas.database.repository.ChallengeRepository;
 import io.openbas.database.repository.ExerciseRepository;
 import io.openbas.database.repository.InjectExpectationRepository;
@@ -25,9 +26,10 @@ import jakarta.annotation.Resource;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -44,36 +46,38 @@ public class ChallengeService {
   @Resource protected ObjectMapper mapper;
 
   public Challenge enrichChallengeWithExercisesOrScenarios(@NotNull Challenge challenge) {
-    List<Inject> injects =
-        fromIterable(this.injectRepository.findAllForChallengeId("%" + challenge.getId() + "%"));
-    List<String> exerciseIds =
-        injects.stream()
-            .filter(i -> i.getExercise() != null)
-            .map(i -> i.getExercise().getId())
-            .distinct()
-            .toList();
-    challenge.setExerciseIds(exerciseIds);
-    List<String> scenarioIds =
-        injects.stream()
-            .filter(i -> i.getScenario() != null)
-            .map(i -> i.getScenario().getId())
-            .distinct()
-            .toList();
-    challenge.setScenarioIds(scenarioIds);
-    return challenge;
+    return enrichChallengesWithExercisesOrScenarios(List.of(challenge)).getFirst();
+  }
+
+  /** Set the simulations and scenarios using each challenge, with a single query for them all. */
+  public List<Challenge> enrichChallengesWithExercisesOrScenarios(
+      @NotNull final List<Challenge> challenges) {
+    if (challenges.isEmpty()) {
+      return challenges;
+    }
+    Map<String, RawChallengeUsage> usages =
+        this.injectRepository
+            .rawChallengeUsages(challenges.stream().map(Challenge::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(RawChallengeUsage::getChallenge_id, Function.identity()));
+    challenges.forEach(
+        challenge -> {
+          RawChallengeUsage usage = usages.get(challenge.getId());
+          challenge.setExerciseIds(usage != null ? usage.getChallenge_exercises() : List.of());
+          challenge.setScenarioIds(usage != null ? usage.getChallenge_scenarios() : List.of());
+        });
+    return challenges;
   }
 
   public Iterable<Challenge> getExerciseChallenges(@NotBlank final String exerciseId) {
     Exercise exercise = exerciseRepository.findById(exerciseId).orElseThrow();
-    return StreamSupport.stream(getInjectsChallenges(exercise.getInjects()).spliterator(), false)
-        .map(this::enrichChallengeWithExercisesOrScenarios)
-        .toList();
+    return enrichChallengesWithExercisesOrScenarios(
+        resolveChallenges(exercise.getInjects()).toList());
   }
 
   public Iterable<Challenge> getScenarioChallenges(@NotNull final Scenario scenario) {
-    return StreamSupport.stream(getInjectsChallenges(scenario.getInjects()).spliterator(), false)
-        .map(this::enrichChallengeWithExercisesOrScenarios)
-        .toList();
+    return enrichChallengesWithExercisesOrScenarios(
+        resolveChallenges(scenario.getInjects()).toList());
   }
 
   public Iterable<Challenge> getInjectsChallenges(@NotNull final List<Inject> injects) {
@@ -3,7 +3,10 @@ package io.openbas.service;
 import static io.openbas.helper.TemplateHelper.buildContextualContent;
 
 import io.openbas.database.model.NotificationRule;
+import io.openbas.database.repository.NotificationRuleRepository;
 import io.openbas.execution.ExecutionContext;
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.io.IOException;
 import java.io.InputStream;
@@ -18,8 +21,16 @@ import org.springframework.stereotype.Service;
 public class EmailNotificationService {
 
   private final MailingService mailingService;
+  private final NotificationRuleRepository notificationRuleRepository;
   private final ResourceLoader resourceLoader;
 
+  @Transactional
+  public void sendNotification(
+      @NotBlank final String ruleId, @NotNull final Map<String, String> data) {
+    // The rule may have been deleted since it fired
+    notificationRuleRepository.findById(ruleId).ifPresent(rule -> sendNotification(rule, data));
+  }
+
   public void sendNotification(
       @NotNull final NotificationRule rule, @NotNull final Map<String, String> data) {
 
@@ -0,0 +1,66 @@
+package io.openbas.service;
+
+import static io.openbas.database.audit.ModelBaseListener.DATA_UPDATE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openbas.database.audit.BaseEvent;
+import io.openbas.database.model.ExerciseSummary;
+import io.openbas.database.repository.ExerciseRepository;
+import io.openbas.database.repository.ExerciseSummaryRepository;
+import io.openbas.database.repository.LessonsAnswerRepository;
+import jakarta.annotation.Resource;
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Service
+public class ExerciseSummaryService {
+
+  public static final int REFRESH_BATCH_SIZE = 50;
+
+  private final ExerciseRepository exerciseRepository;
+  private final ExerciseSummaryRepository exerciseSummaryRepository;
+  private final LessonsAnswerRepository lessonsAnswerRepository;
+  private final ApplicationEventPublisher appPublisher;
+  @Resource protected ObjectMapper mapper;
+
+  /** List a batch of exercises whose summary is flagged as stale by the database triggers. */
+  public List<String> findExercisesToRefresh() {
+    return this.exerciseSummaryRepository.findExerciseIdsToRefresh(REFRESH_BATCH_SIZE);
+  }
+
+  /**
+   * Recompute the summary of an exercise if it is still stale, then notify the stream: the events
+   * sent when the exercise changed carried the previous figures.
+   */
+  @Transactional
+  public void refreshSummary(@NotBlank final String exerciseId) {
+    if (this.exerciseSummaryRepository.lockStale(exerciseId).isEmpty()) {
+      return;
+    }
+    this.exerciseSummaryRepository.clearStale(exerciseId);
+    this.exerciseRepository
+        .findById(exerciseId)
+        .ifPresent(
+            exercise -> {
+              ExerciseSummary summary =
+                  this.exerciseSummaryRepository
+                      .findById(exerciseId)
+                      .orElseGet(
+                          () -> {
+                            ExerciseSummary newSummary = new ExerciseSummary();
+                            newSummary.setId(exerciseId);
+                            return newSummary;
+                          });
+              summary.refresh(exercise);
+              summary.setLessonsAnswersNumber(
+                  this.lessonsAnswerRepository.countByExerciseId(exerciseId));
+              this.exerciseSummaryRepository.save(summary);
+              this.appPublisher.publishEvent(new BaseEvent(DATA_UPDATE, exercise, this.mapper));
+            });
+  }
+}
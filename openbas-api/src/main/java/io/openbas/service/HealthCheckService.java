@@ -1,6 +1,7 @@
 package io.openbas.service;
 
 import com.cronutils.utils.VisibleForTesting;
+import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import io.minio.BucketExistsArgs;
@@ -11,40 +12,146 @@ import io.openbas.config.RabbitmqConfig;
 import io.openbas.database.repository.HealthCheckRepository;
 import io.openbas.driver.MinioDriver;
 import io.openbas.service.exception.HealthCheckFailureException;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-/** Service containing the logic related to service health checks */
+/**
+ * Service containing the logic related to service health checks. Dependencies are probed in the
+ * background and callers read the last result, so health requests never touch the dependencies.
+ */
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class HealthCheckService {
 
+  public static final String DATABASE = "database";
+  public static final String RABBITMQ = "rabbitmq";
+  public static final String FILE_STORAGE = "file_storage";
+
+  // A result older than this many probe intervals means the prober is stuck
+  private static final int STALE_INTERVALS = 3;
+
   @Autowired private HealthCheckRepository healthCheckRepository;
 
   @Autowired private MinioConfig minioConfig;
 
   @Autowired private MinioDriver minioDriver;
 
+  @Autowired private MetricRegistry metricRegistry;
+
   @Resource private RabbitmqConfig rabbitmqConfig;
 
+  @Value("${openbas.healthcheck.interval:15}")
+  private long healthCheckInterval;
+
+  private final Map<String, AtomicLong> latencies = new ConcurrentHashMap<>();
+
+  private volatile HealthCheckResult lastResult;
+
+  // Connections kept open between probes, recreated after a failure
+  private ConnectionFactory rabbitMQConnectionFactory;
+  private Connection rabbitMQConnection;
+  private MinioClient fileStorageClient;
+
+  public record DependencyCheck(boolean healthy, long latency, String error) {}
+
+  public record HealthCheckResult(Instant checkedAt, Map<String, DependencyCheck> checks) {
+
+    public Duration age() {
+      return Duration.between(checkedAt, Instant.now());
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    for (String dependency : new String[] {DATABASE, RABBITMQ, FILE_STORAGE}) {
+      AtomicLong latency = latencies.computeIfAbsent(dependency, d -> new AtomicLong(0));
+      metricRegistry.registerGauge(
+          "health_check_" + dependency + "_latency",
+          "Latency of the last " + dependency + " health check",
+          latency::get,
+          "ms");
+    }
+  }
+
+  @PreDestroy
+  public synchronized void destroy() {
+    closeRabbitMQConnection();
+    fileStorageClient = null;
+  }
+
   /**
-   * Run health checks by testing connection to the service dependencies (database/rabbitMq/file
-   * storage)
+   * Return the last health check result, probing synchronously only if no probe ran yet.
    *
-   * @throws HealthCheckFailureException
+   * @throws HealthCheckFailureException if a dependency failed its last check or the result is
+   *     stale
    */
-  public void runHealthCheck() throws HealthCheckFailureException {
-    runDatabaseCheck();
-    runRabbitMQCheck(createRabbitMQConnectionFactory());
-    runFileStorageCheck();
+  public HealthCheckResult runHealthCheck() throws HealthCheckFailureException {
+    if (lastResult == null) {
+      probe();
+    }
+    HealthCheckResult result = lastResult;
+    for (Map.Entry<String, DependencyCheck> check : result.checks().entrySet()) {
+      if (!check.getValue().healthy()) {
+        throw new HealthCheckFailureException(check.getValue().error());
+      }
+    }
+    if (result.age().compareTo(Duration.ofSeconds(healthCheckInterval * STALE_INTERVALS)) > 0) {
+      throw new HealthCheckFailureException(
+          "Last health check is " + result.age().toSeconds() + "s old");
+    }
+    return result;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${openbas.healthcheck.interval:15}",
+      initialDelay = 0,
+      timeUnit = TimeUnit.SECONDS)
+  public synchronized void probe() {
+    Map<String, DependencyCheck> checks = new LinkedHashMap<>();
+    checks.put(DATABASE, timeCheck(DATABASE, this::runDatabaseCheck));
+    checks.put(RABBITMQ, timeCheck(RABBITMQ, () -> runRabbitMQCheck(rabbitMQConnectionFactory())));
+    checks.put(FILE_STORAGE, timeCheck(FILE_STORAGE, this::runFileStorageCheck));
+    lastResult = new HealthCheckResult(Instant.now(), checks);
+  }
+
+  private DependencyCheck timeCheck(String dependency, Check check) {
+    long start = System.nanoTime();
+    String error = null;
+    try {
+      check.run();
+    } catch (Exception e) {
+      log.warn("Health check of " + dependency + " failed", e);
+      error =
+          e instanceof HealthCheckFailureException ? e.getMessage() : dependency + " check failure";
+    }
+    long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    latencies.computeIfAbsent(dependency, d -> new AtomicLong(0)).set(latency);
+    return new DependencyCheck(error == null, latency, error);
+  }
+
+  @FunctionalInterface
+  private interface Check {
+    void run() throws Exception;
   }
 
   @VisibleForTesting
@@ -52,6 +159,13 @@ public class HealthCheckService {
     healthCheckRepository.healthCheck();
   }
 
+  private ConnectionFactory rabbitMQConnectionFactory() {
+    if (rabbitMQConnectionFactory == null) {
+      rabbitMQConnectionFactory = createRabbitMQConnectionFactory();
+    }
+    return rabbitMQConnectionFactory;
+  }
+
   @VisibleForTesting
   protected ConnectionFactory createRabbitMQConnectionFactory() {
     ConnectionFactory factory = new ConnectionFactory();
@@ -64,37 +178,54 @@ public class HealthCheckService {
     return factory;
   }
 
+  /**
+   * Check RabbitMQ by opening a channel on the kept connection. The connection is only created,
+   * with the given factory, when there is no open one.
+   */
   @VisibleForTesting
   protected void runRabbitMQCheck(ConnectionFactory connectionFactory)
       throws HealthCheckFailureException {
-    // Declare queueing
-    Connection connection = null;
     try {
-      connection = connectionFactory.newConnection();
-      connection.createChannel();
-    } catch (IOException | TimeoutException e) {
+      if (rabbitMQConnection == null || !rabbitMQConnection.isOpen()) {
+        closeRabbitMQConnection();
+        rabbitMQConnection = connectionFactory.newConnection();
+      }
+      try (Channel ignored = rabbitMQConnection.createChannel()) {
+        // Channel opened and closed successfully
+      }
+    } catch (IOException | TimeoutException | RuntimeException e) {
+      closeRabbitMQConnection();
       throw new HealthCheckFailureException("RabbitMQ check failure", e);
-    } finally {
-      if (connection != null) {
-        try {
-          connection.close();
-        } catch (IOException e) {
-          log.error(
-              "Unable to close RabbitMQ connection. You should worry as this could impact performance",
-              e);
-        }
+    }
+  }
+
+  private void closeRabbitMQConnection() {
+    if (rabbitMQConnection == null) {
+      return;
+    }
+    try {
+      if (rabbitMQConnection.isOpen()) {
+        rabbitMQConnection.close();
       }
+    } catch (IOException e) {
+      log.error(
+          "Unable to close RabbitMQ connection. You should worry as this could impact performance",
+          e);
+    } finally {
+      rabbitMQConnection = null;
     }
   }
 
   @VisibleForTesting
   protected void runFileStorageCheck() throws HealthCheckFailureException {
-
-    // we get a new client instance to avoid to update the client injected by Spring
-    MinioClient minioClient = minioDriver.getMinioClient();
-    minioClient.setTimeout(2000L, 2000L, 2000L);
+    // we use a dedicated client instance to avoid to update the client injected by Spring
+    if (fileStorageClient == null) {
+      fileStorageClient = minioDriver.getMinioClient();
+      fileStorageClient.setTimeout(2000L, 2000L, 2000L);
+    }
     try {
-      minioClient.bucketExists(BucketExistsArgs.builder().bucket(minioConfig.getBucket()).build());
+      fileStorageClient.bucketExists(
+          BucketExistsArgs.builder().bucket(minioConfig.getBucket()).build());
     } catch (ErrorResponseException
         | InvalidResponseException
         | InsufficientDataException
@@ -0,0 +1,105 @@
+package io.openbas.service;
+
+import static io.openbas.database.audit.ModelBaseListener.DATA_UPDATE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.hypersistence.utils.hibernate.type.util.ObjectMapperWrapper;
+import io.openbas.database.audit.BaseEvent;
+import io.openbas.database.model.Base;
+import io.openbas.database.model.Inject;
+import io.openbas.database.model.InjectExpectation;
+import io.openbas.database.repository.InjectExpectationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the expectations created at inject execution with one statement per batch instead of one
+ * insert per expectation. The statements bypass the entity listener, so once written a single
+ * update event of the inject, embedding its expectations, is published instead of one per
+ * expectation.
+ */
+@RequiredArgsConstructor
+@Service
+public class InjectExpectationBulkService {
+
+  public static final int INSERT_BATCH_SIZE = 1000;
+
+  // Same serialization as the JSON columns mapped on the entity
+  private static final ObjectMapper COLUMN_MAPPER = ObjectMapperWrapper.INSTANCE.getObjectMapper();
+
+  private final InjectExpectationRepository injectExpectationRepository;
+  private final ApplicationEventPublisher appPublisher;
+  private final ObjectMapper mapper;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Transactional
+  public void insertAll(
+      @NotNull final Inject inject, @NotNull final List<InjectExpectation> expectations) {
+    if (expectations.isEmpty()) {
+      return;
+    }
+    for (int from = 0; from < expectations.size(); from += INSERT_BATCH_SIZE) {
+      List<InjectExpectation> batch =
+          expectations.subList(from, Math.min(from + INSERT_BATCH_SIZE, expectations.size()));
+      ArrayNode rows = COLUMN_MAPPER.createArrayNode();
+      batch.forEach(expectation -> rows.add(toRow(expectation)));
+      this.injectExpectationRepository.insertAll(rows.toString());
+    }
+    if (inject.getId() == null) {
+      return;
+    }
+    // A single update of the inject carries the new expectations to the stream
+    if (this.entityManager.contains(inject)) {
+      // Pending changes are written first so that the reload does not drop them
+      this.entityManager.flush();
+      this.entityManager.refresh(inject);
+    } else {
+      inject.getExpectations().addAll(expectations);
+    }
+    this.appPublisher.publishEvent(new BaseEvent(DATA_UPDATE, inject, this.mapper));
+  }
+
+  private static ObjectNode toRow(InjectExpectation expectation) {
+    if (expectation.getId() == null) {
+      expectation.setId(UUID.randomUUID().toString());
+    }
+    ObjectNode row = COLUMN_MAPPER.createObjectNode();
+    row.put("inject_expectation_id", expectation.getId());
+    row.put("inject_expectation_type", expectation.getType().name());
+    row.put("inject_expectation_name", expectation.getName());
+    row.put("inject_expectation_description", expectation.getDescription());
+    row.set(
+        "inject_expectation_signatures", COLUMN_MAPPER.valueToTree(expectation.getSignatures()));
+    row.set("inject_expectation_results", COLUMN_MAPPER.valueToTree(expectation.getResults()));
+    row.put("inject_expectation_score", expectation.getScore());
+    row.put("inject_expectation_expected_score", expectation.getExpectedScore());
+    row.put("inject_expiration_time", expectation.getExpirationTime());
+    row.put("inject_expectation_created_at", expectation.getCreatedAt().toString());
+    row.put("inject_expectation_updated_at", expectation.getUpdatedAt().toString());
+    row.put("inject_expectation_group", expectation.isExpectationGroup());
+    row.put("exercise_id", idOf(expectation.getExercise()));
+    row.put("inject_id", idOf(expectation.getInject()));
+    row.put("user_id", idOf(expectation.getUser()));
+    row.put("team_id", idOf(expectation.getTeam()));
+    row.put("agent_id", idOf(expectation.getAgent()));
+    row.put("asset_id", idOf(expectation.getAsset()));
+    row.put("asset_group_id", idOf(expectation.getAssetGroup()));
+    row.put("article_id", idOf(expectation.getArticle()));
+    row.put("challenge_id", idOf(expectation.getChallenge()));
+    return row;
+  }
+
+  private static String idOf(Base base) {
+    return base != null ? base.getId() : null;
+  }
+}
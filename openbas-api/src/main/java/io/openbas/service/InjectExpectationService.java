@@ -47,6 +47,7 @@ public class InjectExpectationService {
   public static final String PENDING = "Pending";
   public static final String COLLECTOR = "collector";
   private final InjectExpectationRepository injectExpectationRepository;
+  private final InjectExpectationBulkService injectExpectationBulkService;
   private final InjectRepository injectRepository;
   private final AssetGroupService assetGroupService;
   private final EndpointService endpointService;
@@ -974,13 +975,15 @@ public class InjectExpectationService {
                   .collect(Collectors.toList());
         }
         injectExpectationsByTeam.addAll(injectExpectationsByUserAndTeam);
-        injectExpectationRepository.saveAll(injectExpectationsByTeam);
+        injectExpectationBulkService.insertAll(
+            executableInject.getInjection().getInject(), injectExpectationsByTeam);
       } else if (!assets.isEmpty() || !assetGroups.isEmpty()) {
         List<InjectExpectation> injectExpectations =
             expectations.stream()
                 .map(expectation -> expectationConverter(executableInject, expectation))
                 .collect(Collectors.toList());
-        injectExpectationRepository.saveAll(injectExpectations);
+        injectExpectationBulkService.insertAll(
+            executableInject.getInjection().getInject(), injectExpectations);
       }
     }
   }
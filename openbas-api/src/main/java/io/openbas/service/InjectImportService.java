@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
 import io.openbas.rest.exception.BadRequestException;
@@ -15,9 +16,9 @@ import io.openbas.rest.scenario.response.ImportMessage;
 import io.openbas.rest.scenario.response.ImportPostSummary;
 import io.openbas.rest.scenario.response.ImportTestSummary;
 import io.openbas.service.utils.InjectImportUtils;
+import io.openbas.service.utils.SpreadsheetRowReader;
 import io.openbas.utils.InjectUtils;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -67,6 +68,8 @@ public class InjectImportService {
 
   final int FILE_STORAGE_DURATION = 60;
 
+  public static final int SAVE_BATCH_SIZE = 500;
+
   /**
    * Store an xls file for ulterior import. The file will be deleted on exit.
    *
@@ -80,17 +83,12 @@ public class InjectImportService {
     String fileID = UUID.randomUUID().toString();
     result.setImportId(fileID);
     try {
-      // We're opening the file and listing the names of the sheets
-      Workbook workbook = WorkbookFactory.create(file.getInputStream());
-      for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-        result.getAvailableSheets().add(workbook.getSheetName(i));
-      }
       // Writing the file in a temp dir
       Path tempDir = Files.createDirectory(Path.of(System.getProperty("java.io.tmpdir"), fileID));
       Path tempFile =
           Files.createTempFile(
               tempDir, null, "." + FilenameUtils.getExtension(file.getOriginalFilename()));
-      Files.write(tempFile, file.getBytes());
+      file.transferTo(tempFile);
 
       CompletableFuture.delayedExecutor(FILE_STORAGE_DURATION, TimeUnit.MINUTES)
           .execute(
@@ -102,6 +100,9 @@ public class InjectImportService {
       // We're making sure the files are deleted when the backend restart
       tempDir.toFile().deleteOnExit();
       tempFile.toFile().deleteOnExit();
+
+      // We're listing the names of the sheets, without loading them
+      result.getAvailableSheets().addAll(SpreadsheetRowReader.getSheetNames(tempFile));
     } catch (Exception ex) {
       log.error("Error while importing an xls file", ex);
       throw new BadRequestException("File seems to be corrupt");
@@ -157,15 +158,14 @@ public class InjectImportService {
       importTestSummary.setTotalNumberOfInjects(0);
       importTestSummary.setInjects(new ArrayList<>());
     } else if (saveAll) {
-      importTestSummary.setInjects(
-          importTestSummary.getInjects().stream()
-              .map(
-                  inject -> {
-                    inject.setListened(false);
-                    return inject;
-                  })
-              .toList());
-      Iterable<Inject> newInjects = injectRepository.saveAll(importTestSummary.getInjects());
+      List<Inject> injects = importTestSummary.getInjects();
+      injects.forEach(inject -> inject.setListened(false));
+      // Injects are written by chunks, flushed as JDBC batches within the caller transaction
+      List<Inject> newInjects = new ArrayList<>(injects.size());
+      for (List<Inject> chunk : Lists.partition(injects, SAVE_BATCH_SIZE)) {
+        newInjects.addAll(injectRepository.saveAll(chunk));
+        injectRepository.flush();
+      }
       if (exercise != null) {
         computeInjectInExercise(exercise, newInjects);
       } else if (scenario != null) {
@@ -184,6 +184,15 @@ public class InjectImportService {
 
   private void computeInjectInExercise(
       @NotNull Exercise exercise, @NotNull Iterable<Inject> newInjects) {
+    // Index the teams and team users once, instead of looking them up for each inject
+    Set<String> teamIds =
+        exercise.getTeams().stream()
+            .map(Team::getId)
+            .collect(Collectors.toCollection(HashSet::new));
+    Set<String> teamUserIds =
+        exercise.getTeamUsers().stream()
+            .map(teamUser -> teamUser.getTeam().getId() + "|" + teamUser.getUser().getId())
+            .collect(Collectors.toCollection(HashSet::new));
     newInjects.forEach(
         inject -> {
           exercise.getInjects().add(inject);
@@ -191,7 +200,7 @@ public class InjectImportService {
               .getTeams()
               .forEach(
                   team -> {
-                    if (!exercise.getTeams().contains(team)) {
+                    if (teamIds.add(team.getId())) {
                       exercise.getTeams().add(team);
                     }
                   });
@@ -202,7 +211,7 @@ public class InjectImportService {
                       team.getUsers()
                           .forEach(
                               user -> {
-                                if (!exercise.getTeamUsers().contains(user)) {
+                                if (teamUserIds.add(team.getId() + "|" + user.getId())) {
                                   ExerciseTeamUserId compositeId = new ExerciseTeamUserId();
                                   compositeId.setExerciseId(exercise.getId());
                                   compositeId.setTeamId(team.getId());
@@ -225,6 +234,15 @@ public class InjectImportService {
 
   private void computeInjectInScenario(
       @NotNull Scenario scenario, @NotNull Iterable<Inject> newInjects) {
+    // Index the teams and team users once, instead of looking them up for each inject
+    Set<String> teamIds =
+        scenario.getTeams().stream()
+            .map(Team::getId)
+            .collect(Collectors.toCollection(HashSet::new));
+    Set<String> teamUserIds =
+        scenario.getTeamUsers().stream()
+            .map(teamUser -> teamUser.getTeam().getId() + "|" + teamUser.getUser().getId())
+            .collect(Collectors.toCollection(HashSet::new));
     newInjects.forEach(
         inject -> {
           scenario.getInjects().add(inject);
@@ -232,7 +250,7 @@ public class InjectImportService {
               .getTeams()
               .forEach(
                   team -> {
-                    if (!scenario.getTeams().contains(team)) {
+                    if (teamIds.add(team.getId())) {
                       scenario.getTeams().add(team);
                     }
                   });
@@ -243,7 +261,7 @@ public class InjectImportService {
                       team.getUsers()
                           .forEach(
                               user -> {
-                                if (!scenario.getTeamUsers().contains(user)) {
+                                if (teamUserIds.add(team.getId() + "|" + user.getId())) {
                                   ScenarioTeamUserId compositeId = new ScenarioTeamUserId();
                                   compositeId.setScenarioId(scenario.getId());
                                   compositeId.setTeamId(team.getId());
@@ -281,11 +299,6 @@ public class InjectImportService {
               .findFirst()
               .orElseThrow();
 
-      // We open the file and convert it to an apache POI object
-      InputStream xlsFile = Files.newInputStream(file);
-      Workbook workbook = WorkbookFactory.create(xlsFile);
-      Sheet selectedSheet = workbook.getSheet(sheetName);
-
       Map<Integer, InjectTime> mapInstantByRowIndex = new HashMap<>();
 
       // For performance reasons, we compile the pattern of the Inject Importers only once
@@ -315,8 +328,7 @@ public class InjectImportService {
       // We also get the list of teams into a map to be able to get them easily later on
       // First, all the teams that are non-contextual
       Map<String, Team> mapTeamByName =
-          StreamSupport.stream(teamRepository.findAll().spliterator(), false)
-              .filter(team -> !team.getContextual())
+          teamRepository.findByContextualFalse().stream()
               .collect(
                   Collectors.toMap(Team::getName, Function.identity(), (first, second) -> first));
 
@@ -338,46 +350,55 @@ public class InjectImportService {
 
       ZoneOffset zoneOffset = ZoneOffset.ofTotalSeconds(timezoneOffset * 60);
 
-      // For each rows of the selected sheet
-      selectedSheet
-          .rowIterator()
-          .forEachRemaining(
-              row -> {
-                Instant start;
-                if (scenario != null) {
-                  start = scenario.getRecurrenceStart();
-                } else if (exercise != null) {
-                  start = exercise.getStart().orElse(null);
-                } else {
-                  throw new IllegalArgumentException(
-                      "At least one of exercise or scenario should be present");
-                }
-                ImportRow rowSummary =
-                    importRow(
-                        row,
-                        importMapper,
-                        start,
-                        mapPatternByInjectImport,
-                        mapTeamByName,
-                        mapPatternByAllTeams,
-                        zoneOffset);
-                // We set the exercise or scenario
-                Inject inject = rowSummary.getInject();
-                if (scenario != null && inject != null) {
-                  inject.setScenario(scenario);
-                } else if (exercise != null && inject != null) {
-                  inject.setExercise(exercise);
-                }
-                rowSummary.setInject(inject);
+      Instant start;
+      if (scenario != null) {
+        start = scenario.getRecurrenceStart();
+      } else {
+        start = exercise.getStart().orElse(null);
+      }
 
-                importTestSummary.getImportMessage().addAll(rowSummary.getImportMessages());
-                if (rowSummary.getInject() != null) {
-                  importTestSummary.getInjects().add(rowSummary.getInject());
-                }
-                if (rowSummary.getInjectTime() != null) {
-                  mapInstantByRowIndex.put(row.getRowNum(), rowSummary.getInjectTime());
-                }
-              });
+      // The user is the one doing the import
+      User user =
+          userRepository
+              .findById(currentUser().getId())
+              .orElseThrow(() -> new ElementNotFoundException("Current user not found"));
+
+      // The fields of each injector contract, indexed by key, are computed on their first use
+      Map<String, Map<String, JsonNode>> mapFieldByKeyByInjectorContract = new HashMap<>();
+
+      // For each rows of the selected sheet, streamed so that only the current row is in memory
+      SpreadsheetRowReader.forEachRow(
+          file,
+          sheetName,
+          row -> {
+            ImportRow rowSummary =
+                importRow(
+                    row,
+                    importMapper,
+                    start,
+                    mapPatternByInjectImport,
+                    mapTeamByName,
+                    mapPatternByAllTeams,
+                    zoneOffset,
+                    user,
+                    mapFieldByKeyByInjectorContract);
+            // We set the exercise or scenario
+            Inject inject = rowSummary.getInject();
+            if (scenario != null && inject != null) {
+              inject.setScenario(scenario);
+            } else if (exercise != null && inject != null) {
+              inject.setExercise(exercise);
+            }
+            rowSummary.setInject(inject);
+
+            importTestSummary.getImportMessage().addAll(rowSummary.getImportMessages());
+            if (rowSummary.getInject() != null) {
+              importTestSummary.getInjects().add(rowSummary.getInject());
+            }
+            if (rowSummary.getInjectTime() != null) {
+              mapInstantByRowIndex.put(row.getRowNum(), rowSummary.getInjectTime());
+            }
+          });
 
       // Now that we did our first pass, we do another one real quick to find out
       // the date relative to each others
@@ -440,7 +461,9 @@ public class InjectImportService {
       Map<String, Pattern> mapPatternByInjectImport,
       Map<String, Team> mapTeamByName,
       Map<String, Pattern> mapPatternByAllTeams,
-      ZoneOffset timezoneOffset) {
+      ZoneOffset timezoneOffset,
+      User user,
+      Map<String, Map<String, JsonNode>> mapFieldByKeyByInjectorContract) {
     ImportRow importTestSummary = new ImportRow();
     // The column that differenciate the importer is the same for all so we get it right now
     int colTypeIdx = CellReference.convertColStringToIndex(importMapper.getInjectTypeColumn());
@@ -722,13 +745,10 @@ public class InjectImportService {
                           mapTeamByName,
                           expectation,
                           importMapper,
-                          mapPatternByAllTeams));
+                          mapPatternByAllTeams,
+                          mapFieldByKeyByInjectorContract));
             });
-    // The user is the one doing the import
-    inject.setUser(
-        userRepository
-            .findById(currentUser().getId())
-            .orElseThrow(() -> new ElementNotFoundException("Current user not found")));
+    inject.setUser(user);
     // No exercise yet
     inject.setExercise(null);
     // No dependencies
@@ -786,25 +806,24 @@ public class InjectImportService {
       Map<String, Team> mapTeamByName,
       AtomicReference<InjectExpectation> expectation,
       ImportMapper importMapper,
-      Map<String, Pattern> mapPatternByAllTeams) {
+      Map<String, Pattern> mapPatternByAllTeams,
+      Map<String, Map<String, JsonNode>> mapFieldByKeyByInjectorContract) {
     // If it's a reserved field, it's already taken care of
     if (importReservedField.contains(ruleAttribute.getName())) {
       return emptyList();
     }
 
     // For ease of use, we create a map of the available keys for the injector
+    InjectorContract contract = inject.getInjectorContract().orElseThrow();
     Map<String, JsonNode> mapFieldByKey =
-        StreamSupport.stream(
-                (Objects.requireNonNull(
-                    inject
-                        .getInjectorContract()
-                        .map(
-                            injectorContract ->
-                                injectorContract.getConvertedContent().get("fields").spliterator())
-                        .orElse(null))),
-                false)
-            .collect(
-                Collectors.toMap(jsonNode -> jsonNode.get("key").asText(), Function.identity()));
+        mapFieldByKeyByInjectorContract.computeIfAbsent(
+            contract.getId(),
+            id ->
+                StreamSupport.stream(
+                        contract.getConvertedContent().get("fields").spliterator(), false)
+                    .collect(
+                        Collectors.toMap(
+                            jsonNode -> jsonNode.get("key").asText(), Function.identity())));
 
     // Otherwise, the default type is text, but it can be overriden
     String type = "text";
@@ -855,9 +874,10 @@ public class InjectImportService {
           inject
               .getTeams()
               .addAll(
-                  mapTeamByName.entrySet().stream()
-                      .filter(nameTeamEntry -> defaultValues.contains(nameTeamEntry.getKey()))
-                      .map(Map.Entry::getValue)
+                  defaultValues.stream()
+                      .distinct()
+                      .map(mapTeamByName::get)
+                      .filter(Objects::nonNull)
                       .toList());
         } else {
           List<ImportMessage> importMessages = new ArrayList<>();
@@ -8,7 +8,10 @@ import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.openbas.database.model.*;
+import io.openbas.database.model.Filters.FilterGroup;
 import io.openbas.database.raw.RawInjectExpectation;
 import io.openbas.database.repository.AssetGroupRepository;
 import io.openbas.database.repository.AssetRepository;
@@ -21,20 +24,25 @@ import io.openbas.utils.AtomicTestingUtils;
 import io.openbas.utils.InjectMapper;
 import io.openbas.utils.TargetType;
 import io.openbas.utils.pagination.SearchPaginationInput;
+import io.openbas.utils.pagination.SortField;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
@@ -42,6 +50,11 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class InjectSearchService {
 
+  // Size of the keyset chunks used to read every inject result of a scope
+  public static final int RESULTS_CHUNK_SIZE = 500;
+  // Page counts are reused for the same scope and filters while browsing pages
+  private static final Duration RESULTS_COUNT_TTL = Duration.ofSeconds(15);
+
   private final InjectExpectationRepository injectExpectationRepository;
   private final TeamRepository teamRepository;
   private final AssetRepository assetRepository;
@@ -51,6 +64,32 @@ public class InjectSearchService {
 
   @PersistenceContext private EntityManager entityManager;
 
+  /**
+   * Identifies the rows counted for a paginated inject result search. Keyset pages count from their
+   * cursor, so the cursor and the sort it follows are part of the key.
+   */
+  public record ResultsCountKey(
+      String scope,
+      FilterGroup filterGroup,
+      String textSearch,
+      List<SortField> sorts,
+      String after) {
+
+    public static ResultsCountKey of(String scope, SearchPaginationInput input) {
+      return input.isKeyset()
+          ? new ResultsCountKey(
+              scope,
+              input.getFilterGroup(),
+              input.getTextSearch(),
+              input.getSorts(),
+              input.getAfter())
+          : new ResultsCountKey(scope, input.getFilterGroup(), input.getTextSearch(), null, null);
+    }
+  }
+
+  private final Cache<ResultsCountKey, Long> resultsCounts =
+      Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(RESULTS_COUNT_TTL).build();
+
   // -- LIST INJECTOUTPUT --
 
   public List<InjectOutput> injects(Specification<Inject> specification) {
@@ -220,7 +259,8 @@ public class InjectSearchService {
                 customSpec.and(specification),
                 customSpec.and(specificationCount),
                 pageable,
-                joinMap),
+                joinMap,
+                ResultsCountKey.of("exercise:" + exerciseId, searchPaginationInput)),
         searchPaginationInput,
         Inject.class,
         joinMap);
@@ -231,6 +271,19 @@ public class InjectSearchService {
       Specification<Inject> specificationCount,
       Pageable pageable,
       Map<String, Join<Base, Base>> joinMap) {
+    return injectResults(specification, specificationCount, pageable, joinMap, null);
+  }
+
+  /**
+   * Search a page of inject results. The count query only runs when the page itself does not give
+   * the total, and its result is shared by the searches with the same count key.
+   */
+  public Page<InjectResultOutput> injectResults(
+      Specification<Inject> specification,
+      Specification<Inject> specificationCount,
+      Pageable pageable,
+      Map<String, Join<Base, Base>> joinMap,
+      ResultsCountKey countKey) {
 
     // Prepare query and execute
     CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -239,26 +292,58 @@ public class InjectSearchService {
     // Fetch related data for injects
     setComputedAttribute(injects);
 
-    long totalCount = countQuery(cb, entityManager, Inject.class, specificationCount);
-    return new PageImpl<>(injects, pageable, totalCount);
+    LongSupplier count = () -> countQuery(cb, entityManager, Inject.class, specificationCount);
+    if (countKey != null) {
+      LongSupplier query = count;
+      count = () -> resultsCounts.get(countKey, key -> query.getAsLong());
+    }
+    return PageableExecutionUtils.getPage(injects, pageable, count);
   }
 
   // -- LIST INJECTRESUTLOUTPUT --
   public List<InjectResultOutput> getListOfInjectResults(String exerciseId) {
-    // Create specification for filtering by exerciseId
+    List<InjectResultOutput> injects = new ArrayList<>();
+    streamInjectResults(exerciseId, injects::addAll);
+    return injects;
+  }
+
+  /**
+   * Read every inject result of an exercise, most recently updated first, by keyset chunks of
+   * {@link #RESULTS_CHUNK_SIZE}. Each chunk is handed to the consumer with its targets and
+   * expectation results, so callers can write it out before the next one is read.
+   */
+  public void streamInjectResults(
+      String exerciseId, Consumer<List<InjectResultOutput>> chunkConsumer) {
     Specification<Inject> specification =
         Specification.where(
             (root, query, cb) -> cb.equal(root.get("exercise").get("id"), exerciseId));
-
-    // Prepare query and execute
     CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-    Sort sort = Sort.by(Sort.Order.desc("updatedAt"));
-    Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE, sort);
-    List<InjectResultOutput> injects =
-        executeInjectQuery(cb, specification, pageable, new HashMap<>());
+    Sort sort = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("id"));
+    Pageable pageable = PageRequest.of(0, RESULTS_CHUNK_SIZE, sort);
+
+    InjectResultOutput last = null;
+    List<InjectResultOutput> chunk;
+    do {
+      Specification<Inject> chunkSpecification =
+          last == null ? specification : specification.and(updatedBefore(last));
+      chunk = executeInjectQuery(cb, chunkSpecification, pageable, new HashMap<>());
+      if (chunk.isEmpty()) {
+        return;
+      }
+      setComputedAttribute(chunk);
+      chunkConsumer.accept(chunk);
+      last = chunk.getLast();
+    } while (chunk.size() == RESULTS_CHUNK_SIZE);
+  }
 
-    setComputedAttribute(injects);
-    return injects;
+  /** Keyset predicate: injects after the given one in the (updatedAt desc, id desc) order. */
+  private static Specification<Inject> updatedBefore(InjectResultOutput last) {
+    return (root, query, cb) ->
+        cb.or(
+            cb.lessThan(root.get("updatedAt"), last.getUpdatedAt()),
+            cb.and(
+                cb.equal(root.get("updatedAt"), last.getUpdatedAt()),
+                cb.lessThan(root.get("id"), last.getId())));
   }
 
   // -- UTILS --
@@ -1,57 +1,165 @@
 package io.openbas.service;
 
+import static java.time.Instant.now;
+
+import io.openbas.database.model.DelayedNotificationEvent;
 import io.openbas.database.model.NotificationRuleResourceType;
+import io.openbas.database.repository.DelayedNotificationEventRepository;
 import io.openbas.notification.handler.NotificationEventHandler;
 import io.openbas.notification.handler.ScenarioNotificationEventHandler;
 import io.openbas.notification.model.NotificationEvent;
+import io.openbas.notification.model.NotificationEventType;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.constraints.NotNull;
-import java.time.Instant;
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.Map;
-import java.util.Optional;
-import lombok.RequiredArgsConstructor;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class NotificationEventService {
 
+  public static final int DISPATCH_BATCH_SIZE = 100;
+  // Events still processing after this delay are considered abandoned by a stopped node
+  public static final Duration PROCESSING_TIMEOUT = Duration.ofMinutes(10);
+  public static final Duration SENT_RETENTION = Duration.ofDays(7);
+  // Failed dispatches are retried, waiting a bit longer after each attempt
+  public static final int MAX_ATTEMPTS = 5;
+  public static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
   private final ApplicationEventPublisher appPublisher;
   private final ScenarioNotificationEventHandler scenarioNotificationEventHandler;
-  private final ThreadPoolTaskScheduler taskScheduler;
+  private final DelayedNotificationEventRepository delayedNotificationEventRepository;
+  private final MetricRegistry metricRegistry;
   private final Map<NotificationRuleResourceType, NotificationEventHandler> handlers;
 
+  private final AtomicLong sentCount = new AtomicLong(0);
+  private final AtomicLong failedCount = new AtomicLong(0);
+
   @Autowired
   public NotificationEventService(
       ApplicationEventPublisher appPublisher,
       ScenarioNotificationEventHandler scenarioNotificationEventHandler,
-      ThreadPoolTaskScheduler taskScheduler) {
+      DelayedNotificationEventRepository delayedNotificationEventRepository,
+      MetricRegistry metricRegistry) {
 
     this.appPublisher = appPublisher;
     this.scenarioNotificationEventHandler = scenarioNotificationEventHandler;
-    this.taskScheduler = taskScheduler;
+    this.delayedNotificationEventRepository = delayedNotificationEventRepository;
+    this.metricRegistry = metricRegistry;
     this.handlers = Map.of(NotificationRuleResourceType.SCENARIO, scenarioNotificationEventHandler);
   }
 
+  @PostConstruct
+  public void init() {
+    metricRegistry.registerGauge(
+        "notification_events_pending_count",
+        "Number of delayed notification events waiting for dispatch",
+        () ->
+            delayedNotificationEventRepository.countByStatus(
+                DelayedNotificationEvent.STATUS.PENDING));
+    metricRegistry.registerGauge(
+        "notification_events_sent_count",
+        "Number of delayed notification events sent",
+        () -> sentCount.getAndSet(0));
+    metricRegistry.registerGauge(
+        "notification_events_failed_count",
+        "Number of delayed notification event dispatch attempts failed",
+        () -> failedCount.getAndSet(0));
+  }
+
   public void sendNotificationEvent(@NotNull final NotificationEvent notificationEvent) {
     appPublisher.publishEvent(notificationEvent);
   }
 
   /**
-   * Send a notification with a delay (in seconds)
+   * Send a notification with a delay (in seconds). The event is stored and dispatched by the
+   * notification job once due, so it survives restarts and is sent by a single node.
    *
    * @param notificationEvent notification to send
    * @param delay delay in seconds
    */
   public void sendNotificationEventWithDelay(
       @NotNull final NotificationEvent notificationEvent, long delay) {
-    taskScheduler.schedule(
-        () -> sendNotificationEvent(notificationEvent),
-        Instant.now().plus(delay, ChronoUnit.SECONDS));
+    delayedNotificationEventRepository.enqueue(
+        UUID.randomUUID().toString(),
+        notificationEvent.getEventType().name(),
+        notificationEvent.getResourceType().name(),
+        notificationEvent.getResourceId(),
+        notificationEvent.getTimestamp(),
+        now().plus(delay, ChronoUnit.SECONDS));
+  }
+
+  /** Claim the delayed events due for dispatch, other nodes skip the claimed ones. */
+  @Transactional
+  public List<DelayedNotificationEvent> claimDueNotificationEvents() {
+    List<DelayedNotificationEvent> events =
+        delayedNotificationEventRepository.findDueForUpdate(
+            DISPATCH_BATCH_SIZE, now().minus(PROCESSING_TIMEOUT));
+    if (!events.isEmpty()) {
+      delayedNotificationEventRepository.markProcessing(
+          events.stream().map(DelayedNotificationEvent::getId).toList());
+    }
+    return events;
+  }
+
+  /**
+   * Dispatch a claimed batch. Events of the same type and resource due in the same window are sent
+   * once, with the most recent one. The events are handled on the calling thread, so that they are
+   * marked sent only once their notifications went out, and retried when sending them failed.
+   */
+  public void dispatchNotificationEvents(@NotNull final List<DelayedNotificationEvent> events) {
+    Map<String, List<DelayedNotificationEvent>> batches =
+        events.stream()
+            .collect(
+                Collectors.groupingBy(
+                    event ->
+                        event.getEventType()
+                            + "|"
+                            + event.getResourceType()
+                            + "|"
+                            + event.getResourceId(),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
+    batches
+        .values()
+        .forEach(
+            batch -> {
+              List<String> ids = batch.stream().map(DelayedNotificationEvent::getId).toList();
+              DelayedNotificationEvent latest =
+                  batch.stream()
+                      .max(Comparator.comparing(DelayedNotificationEvent::getTimestamp))
+                      .orElseThrow();
+              try {
+                handleNotificationEvent(
+                    NotificationEvent.builder()
+                        .eventType(NotificationEventType.valueOf(latest.getEventType()))
+                        .resourceType(latest.getResourceType())
+                        .resourceId(latest.getResourceId())
+                        .timestamp(latest.getTimestamp())
+                        .build());
+                delayedNotificationEventRepository.markSent(ids);
+                sentCount.addAndGet(ids.size());
+              } catch (Exception e) {
+                log.error("Failed to dispatch notification event " + latest.getId(), e);
+                delayedNotificationEventRepository.markFailed(
+                    ids, e.getMessage(), MAX_ATTEMPTS, RETRY_DELAY.toSeconds());
+                failedCount.addAndGet(ids.size());
+              }
+            });
+  }
+
+  public void cleanSentNotificationEvents() {
+    delayedNotificationEventRepository.deleteSentBefore(now().minus(SENT_RETENTION));
   }
 
   @EventListener
@@ -4,20 +4,24 @@ import static io.openbas.utils.pagination.PaginationUtils.buildPaginationJPA;
 
 import io.openbas.database.model.*;
 import io.openbas.database.repository.NotificationRuleRepository;
+import io.openbas.notification.model.NotificationRuleActivation;
 import io.openbas.rest.exception.ElementNotFoundException;
-import io.openbas.utils.ImageUtils;
 import io.openbas.utils.pagination.SearchPaginationInput;
-import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @RequiredArgsConstructor
 @Service
@@ -28,6 +32,7 @@ public class NotificationRuleService {
   private final ScenarioService scenarioService;
   private final EmailNotificationService emailNotificationService;
   private final PlatformSettingsService platformSettingsService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public Optional<NotificationRule> findById(final String id) {
     return notificationRuleRepository.findById(id);
@@ -95,37 +100,49 @@ public class NotificationRuleService {
         notificationRuleRepository::findAll, searchPaginationInput, NotificationRule.class);
   }
 
-  @Transactional
+  /**
+   * Send the notifications of the rules matching the trigger. Within a transaction, sending is
+   * deferred until it completes, see deliverNotification. Otherwise the emails are sent right away,
+   * and a failure is thrown to the caller so that it can retry.
+   */
   public void activateNotificationRules(
       @NotNull final String resourceId,
       @NotNull final NotificationRuleTrigger trigger,
       @NotNull final Map<String, String> data) {
     List<NotificationRule> rules =
         notificationRuleRepository.findNotificationRuleByResourceAndTrigger(resourceId, trigger);
-    // TODO extract this logic from this method
-    // TODO fix: custom logo only working with png because of the html template
-    // add data about custom logo and whitemarked platform
-    if (!rules.isEmpty()) {
-      // check if there is a custom logo
-      String theme =
-          platformSettingsService
-              .setting(SettingKeys.DEFAULT_THEME.name())
-              .map(Setting::getValue)
-              .orElseGet(SettingKeys.DEFAULT_THEME::defaultValue);
-      String b64CustomLogo =
-          platformSettingsService
-              .setting(theme + "." + Theme.THEME_KEYS.LOGO_URL.name().toLowerCase())
-              .map(setting -> ImageUtils.downloadImageAndEncodeBase64(setting.getValue()))
-              .orElse("");
-      data.put("custom_logo_b64", b64CustomLogo);
-      data.put(
-          "hide_filigran_logo", Boolean.toString(platformSettingsService.isPlatformWhiteMarked()));
-    }
-
+    boolean deferred = TransactionSynchronizationManager.isActualTransactionActive();
     for (NotificationRule rule : rules) {
       if (NotificationRuleType.EMAIL.equals(rule.getType())) {
-        emailNotificationService.sendNotification(rule, data);
+        NotificationRuleActivation activation =
+            NotificationRuleActivation.builder()
+                .ruleId(rule.getId())
+                .data(Map.copyOf(data))
+                .build();
+        if (deferred) {
+          eventPublisher.publishEvent(activation);
+        } else {
+          send(activation);
+        }
       }
     }
   }
+
+  @Async
+  @TransactionalEventListener(fallbackExecution = true)
+  public void deliverNotification(@NotNull final NotificationRuleActivation activation) {
+    send(activation);
+  }
+
+  // -- PRIVATE --
+
+  private void send(@NotNull final NotificationRuleActivation activation) {
+    // TODO fix: custom logo only working with png because of the html template
+    // add data about custom logo and whitemarked platform
+    Map<String, String> data = new HashMap<>(activation.getData());
+    data.put("custom_logo_b64", platformSettingsService.defaultThemeLogoBase64());
+    data.put(
+        "hide_filigran_logo", Boolean.toString(platformSettingsService.isPlatformWhiteMarked()));
+    emailNotificationService.sendNotification(activation.getRuleId(), data);
+  }
 }
@@ -5,6 +5,8 @@ import static io.openbas.database.model.SettingKeys.*;
 import static io.openbas.helper.StreamHelper.fromIterable;
 import static java.util.Optional.ofNullable;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.openbas.config.OpenBASConfig;
 import io.openbas.config.OpenBASPrincipal;
 import io.openbas.config.RabbitmqConfig;
@@ -26,9 +28,14 @@ import io.openbas.rest.settings.form.*;
 import io.openbas.rest.settings.response.OAuthProvider;
 import io.openbas.rest.settings.response.PlatformSettings;
 import io.openbas.rest.stream.ai.AiConfig;
+import io.openbas.utils.ImageUtils;
 import jakarta.annotation.Resource;
 import jakarta.validation.constraints.NotBlank;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +69,16 @@ public class PlatformSettingsService {
   @Value("${openbas.mail.imap.username}")
   private String imapUsername;
 
+  // Settings are read on every page load: they are served from an immutable snapshot, reloaded
+  // after any write from this node, or once expired to catch up with writes from other nodes
+  public static final Duration SETTINGS_SNAPSHOT_TTL = Duration.ofSeconds(30);
+
+  private final AtomicLong settingsVersion = new AtomicLong(0);
+  private final AtomicReference<SettingsSnapshot> settingsSnapshot = new AtomicReference<>();
+
+  // Base64 logos embedded in notification emails, keyed by logo url
+  private final Cache<String, String> encodedLogos = Caffeine.newBuilder().maximumSize(10).build();
+
   @Resource private OpenBASConfig openBASConfig;
   @Resource private ExpectationPropertiesConfig expectationPropertiesConfig;
   @Resource private RabbitmqConfig rabbitmqConfig;
@@ -181,24 +198,79 @@ public class PlatformSettingsService {
     return new Setting(themeKey, value);
   }
 
+  // -- SNAPSHOT --
+
+  /**
+   * Immutable view of the stored settings and of everything derived from them alone. {@code
+   * version} is the settings version the snapshot was loaded at.
+   */
+  private record SettingsSnapshot(
+      long version,
+      Instant loadedAt,
+      Map<String, Setting> settings,
+      List<OAuthProvider> openIdProviders,
+      List<OAuthProvider> saml2Providers,
+      ThemeInput themeLight,
+      ThemeInput themeDark,
+      PolicyInput policies,
+      Map<String, List<String>> platformBannerByLevel,
+      AtomicReference<String> postgreVersion) {
+
+    private boolean isCurrent(long currentVersion) {
+      return version == currentVersion
+          && loadedAt.plus(SETTINGS_SNAPSHOT_TTL).isAfter(Instant.now());
+    }
+
+    private String value(String key, String defaultValue) {
+      return ofNullable(settings.get(key)).map(Setting::getValue).orElse(defaultValue);
+    }
+  }
+
+  private SettingsSnapshot settingsSnapshot() {
+    SettingsSnapshot snapshot = this.settingsSnapshot.get();
+    long version = this.settingsVersion.get();
+    if (snapshot != null && snapshot.isCurrent(version)) {
+      return snapshot;
+    }
+    Map<String, Setting> dbSettings = mapOfSettings(fromIterable(this.settingRepository.findAll()));
+    SettingsSnapshot loaded =
+        new SettingsSnapshot(
+            version,
+            Instant.now(),
+            Map.copyOf(dbSettings),
+            List.copyOf(buildOpenIdProviders()),
+            List.copyOf(buildSaml2Providers()),
+            createThemeInput(dbSettings, THEME_TYPE_LIGHT),
+            createThemeInput(dbSettings, THEME_TYPE_DARK),
+            createPolicies(dbSettings),
+            createPlatformBannerByLevel(dbSettings),
+            new AtomicReference<>());
+    // Only publish the snapshot if no write happened while loading it
+    if (this.settingsVersion.get() == version) {
+      this.settingsSnapshot.set(loaded);
+    }
+    return loaded;
+  }
+
+  /** Must be called after any write to the settings, the next read reloads them. */
+  private void invalidateSettings() {
+    this.settingsVersion.incrementAndGet();
+  }
+
   // -- FIND SETTINGS --
   public PlatformSettings findSettings() {
-    Map<String, Setting> dbSettings = mapOfSettings(fromIterable(this.settingRepository.findAll()));
+    SettingsSnapshot snapshot = settingsSnapshot();
     PlatformSettings platformSettings = new PlatformSettings();
     // Build anonymous settings
-    platformSettings.setPlatformOpenIdProviders(buildOpenIdProviders());
-    platformSettings.setPlatformSaml2Providers(buildSaml2Providers());
+    platformSettings.setPlatformOpenIdProviders(snapshot.openIdProviders());
+    platformSettings.setPlatformSaml2Providers(snapshot.saml2Providers());
     platformSettings.setAuthOpenidEnable(openBASConfig.isAuthOpenidEnable());
     platformSettings.setAuthSaml2Enable(openBASConfig.isAuthSaml2Enable());
     platformSettings.setAuthLocalEnable(openBASConfig.isAuthLocalEnable());
     platformSettings.setPlatformTheme(
-        ofNullable(dbSettings.get(DEFAULT_THEME.key()))
-            .map(Setting::getValue)
-            .orElse(DEFAULT_THEME.defaultValue()));
+        snapshot.value(DEFAULT_THEME.key(), DEFAULT_THEME.defaultValue()));
     platformSettings.setPlatformLang(
-        ofNullable(dbSettings.get(DEFAULT_LANG.key()))
-            .map(Setting::getValue)
-            .orElse(DEFAULT_LANG.defaultValue()));
+        snapshot.value(DEFAULT_LANG.key(), DEFAULT_LANG.defaultValue()));
     if (this.imapEnabled) {
       platformSettings.setDefaultMailer(this.imapUsername);
       platformSettings.setDefaultReplyTo(this.imapUsername);
@@ -211,19 +283,13 @@ public class PlatformSettingsService {
     OpenBASPrincipal user = currentUser();
     if (user != null) {
       platformSettings.setPlatformWhitemark(
-          ofNullable(dbSettings.get(PLATFORM_WHITEMARK.key()))
-              .map(Setting::getValue)
-              .orElse(PLATFORM_WHITEMARK.defaultValue()));
+          snapshot.value(PLATFORM_WHITEMARK.key(), PLATFORM_WHITEMARK.defaultValue()));
       platformSettings.setMapTileServerLight(openBASConfig.getMapTileServerLight());
       platformSettings.setMapTileServerDark(openBASConfig.getMapTileServerDark());
       platformSettings.setPlatformId(
-          ofNullable(dbSettings.get(PLATFORM_INSTANCE.key()))
-              .map(Setting::getValue)
-              .orElse(PLATFORM_INSTANCE.defaultValue()));
+          snapshot.value(PLATFORM_INSTANCE.key(), PLATFORM_INSTANCE.defaultValue()));
       platformSettings.setPlatformName(
-          ofNullable(dbSettings.get(PLATFORM_NAME.key()))
-              .map(Setting::getValue)
-              .orElse(PLATFORM_NAME.defaultValue()));
+          snapshot.value(PLATFORM_NAME.key(), PLATFORM_NAME.defaultValue()));
       platformSettings.setPlatformBaseUrl(openBASConfig.getBaseUrl());
       platformSettings.setPlatformAgentUrl(openBASConfig.getBaseUrlForAgent());
       platformSettings.setXtmOpenctiEnable(openCTIConfig.getEnable());
@@ -240,27 +306,22 @@ public class PlatformSettingsService {
       // Build admin settings
       if (user.isAdmin()) {
         platformSettings.setPlatformVersion(openBASConfig.getVersion());
-        platformSettings.setPostgreVersion(settingRepository.getServerVersion());
+        platformSettings.setPostgreVersion(
+            snapshot
+                .postgreVersion()
+                .updateAndGet(
+                    version -> version != null ? version : settingRepository.getServerVersion()));
         platformSettings.setJavaVersion(Runtime.version().toString());
         platformSettings.setRabbitMQVersion(RabbitMQHelper.getRabbitMQVersion(rabbitmqConfig));
       }
     }
 
     // THEME
-    ThemeInput themeLight = createThemeInput(dbSettings, THEME_TYPE_LIGHT);
-    platformSettings.setThemeLight(themeLight);
-
-    ThemeInput themeDark = createThemeInput(dbSettings, THEME_TYPE_DARK);
-    platformSettings.setThemeDark(themeDark);
+    platformSettings.setThemeLight(snapshot.themeLight());
+    platformSettings.setThemeDark(snapshot.themeDark());
 
     // POLICIES
-    PolicyInput policies = new PolicyInput();
-    policies.setLoginMessage(getValueFromMapOfSettings(dbSettings, PLATFORM_LOGIN_MESSAGE.key()));
-    policies.setConsentMessage(
-        getValueFromMapOfSettings(dbSettings, PLATFORM_CONSENT_MESSAGE.key()));
-    policies.setConsentConfirmText(
-        getValueFromMapOfSettings(dbSettings, PLATFORM_CONSENT_CONFIRM_TEXT.key()));
-    platformSettings.setPolicies(policies);
+    platformSettings.setPolicies(snapshot.policies());
 
     // FEATURE FLAG
     if (!StringUtils.hasText(openBASConfig.getEnabledDevFeatures())) {
@@ -283,19 +344,7 @@ public class PlatformSettingsService {
     }
 
     // PLATFORM MESSAGE
-    Map<String, List<String>> platformBannerByLevel = new HashMap<>();
-    for (BannerMessage.BANNER_KEYS bannerKey : BannerMessage.BANNER_KEYS.values()) {
-      String value = getValueFromMapOfSettings(dbSettings, PLATFORM_BANNER + "." + bannerKey.key());
-      if (value != null) {
-        if (platformBannerByLevel.get(bannerKey.level().name()) == null) {
-          platformBannerByLevel.put(
-              bannerKey.level().name(), new ArrayList<>(Arrays.asList(bannerKey.message())));
-        } else {
-          platformBannerByLevel.get(bannerKey.level().name()).add(bannerKey.message());
-        }
-      }
-    }
-    platformSettings.setPlatformBannerByLevel(platformBannerByLevel);
+    platformSettings.setPlatformBannerByLevel(snapshot.platformBannerByLevel());
 
     // EXPECTATION
     platformSettings.setDetectionExpirationTime(
@@ -315,6 +364,32 @@ public class PlatformSettingsService {
     return platformSettings;
   }
 
+  private PolicyInput createPolicies(Map<String, Setting> dbSettings) {
+    PolicyInput policies = new PolicyInput();
+    policies.setLoginMessage(getValueFromMapOfSettings(dbSettings, PLATFORM_LOGIN_MESSAGE.key()));
+    policies.setConsentMessage(
+        getValueFromMapOfSettings(dbSettings, PLATFORM_CONSENT_MESSAGE.key()));
+    policies.setConsentConfirmText(
+        getValueFromMapOfSettings(dbSettings, PLATFORM_CONSENT_CONFIRM_TEXT.key()));
+    return policies;
+  }
+
+  private Map<String, List<String>> createPlatformBannerByLevel(Map<String, Setting> dbSettings) {
+    Map<String, List<String>> platformBannerByLevel = new HashMap<>();
+    for (BannerMessage.BANNER_KEYS bannerKey : BannerMessage.BANNER_KEYS.values()) {
+      String value = getValueFromMapOfSettings(dbSettings, PLATFORM_BANNER + "." + bannerKey.key());
+      if (value != null) {
+        if (platformBannerByLevel.get(bannerKey.level().name()) == null) {
+          platformBannerByLevel.put(
+              bannerKey.level().name(), new ArrayList<>(Arrays.asList(bannerKey.message())));
+        } else {
+          platformBannerByLevel.get(bannerKey.level().name()).add(bannerKey.message());
+        }
+      }
+    }
+    return platformBannerByLevel;
+  }
+
   private ThemeInput createThemeInput(Map<String, Setting> dbSettings, String themeType) {
     ThemeInput themeInput = new ThemeInput();
     themeInput.setBackgroundColor(
@@ -348,7 +423,29 @@ public class PlatformSettingsService {
 
   // -- UPDATE SETTINGS --
   public Optional<Setting> setting(String key) {
-    return this.settingRepository.findByKey(key);
+    return ofNullable(settingsSnapshot().settings().get(key));
+  }
+
+  /**
+   * Base64 encoded logo of the default theme. The logo is downloaded once and kept until a theme is
+   * updated; an unreachable logo is rendered as no logo instead of failing the caller.
+   */
+  public String defaultThemeLogoBase64() {
+    String theme =
+        setting(DEFAULT_THEME.key()).map(Setting::getValue).orElseGet(DEFAULT_THEME::defaultValue);
+    Optional<String> logoUrl =
+        setting(theme + "." + Theme.THEME_KEYS.LOGO_URL.key())
+            .map(Setting::getValue)
+            .filter(StringUtils::hasText);
+    if (logoUrl.isEmpty()) {
+      return "";
+    }
+    try {
+      return this.encodedLogos.get(logoUrl.get(), ImageUtils::downloadImageAndEncodeBase64);
+    } catch (RuntimeException e) {
+      log.warn("Unable to download theme logo {}", logoUrl.get(), e);
+      return "";
+    }
   }
 
   public PlatformSettings updateBasicConfigurationSettings(SettingsUpdateInput input) {
@@ -358,6 +455,7 @@ public class PlatformSettingsService {
     settingsToSave.add(resolveFromMap(dbSettings, DEFAULT_THEME.key(), input.getTheme()));
     settingsToSave.add(resolveFromMap(dbSettings, DEFAULT_LANG.key(), input.getLang()));
     settingRepository.saveAll(settingsToSave);
+    invalidateSettings();
     return findSettings();
   }
 
@@ -374,6 +472,7 @@ public class PlatformSettingsService {
     }
     settingsToSave.add(resolveFromMap(dbSettings, PLATFORM_ENTERPRISE_LICENSE.key(), certPem));
     settingRepository.saveAll(settingsToSave);
+    invalidateSettings();
     licenseCacheManager.refreshLicense();
     return findSettings();
   }
@@ -385,6 +484,7 @@ public class PlatformSettingsService {
     settingsToSave.add(
         resolveFromMap(dbSettings, PLATFORM_WHITEMARK.key(), input.getPlatformWhitemark()));
     settingRepository.saveAll(settingsToSave);
+    invalidateSettings();
     return findSettings();
   }
 
@@ -399,6 +499,7 @@ public class PlatformSettingsService {
         resolveFromMap(
             dbSettings, PLATFORM_CONSENT_CONFIRM_TEXT.key(), input.getConsentConfirmText()));
     settingRepository.saveAll(settingsToSave);
+    invalidateSettings();
     return findSettings();
   }
 
@@ -472,6 +573,8 @@ public class PlatformSettingsService {
     settingRepository.deleteAllById(
         delete.stream().map(Setting::getId).collect(Collectors.toList()));
     settingRepository.saveAll(update);
+    invalidateSettings();
+    this.encodedLogos.invalidateAll();
     return findSettings();
   }
 
@@ -479,6 +582,7 @@ public class PlatformSettingsService {
 
   public void cleanMessage(@NotBlank final BannerMessage.BANNER_KEYS banner) {
     settingRepository.deleteByKeyIn(List.of(PLATFORM_BANNER + "." + banner.key()));
+    invalidateSettings();
   }
 
   public void errorMessage(@NotBlank final BannerMessage.BANNER_KEYS banner) {
@@ -488,6 +592,7 @@ public class PlatformSettingsService {
       Setting bannerLevel =
           resolve(bannerLevelOpt, PLATFORM_BANNER + "." + banner.key(), banner.level().name());
       settingRepository.save(bannerLevel);
+      invalidateSettings();
     }
   }
 
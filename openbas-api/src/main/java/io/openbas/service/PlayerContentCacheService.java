@@ -0,0 +1,214 @@
+package io.openbas.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.openbas.database.audit.BaseEvent;
+import io.openbas.database.audit.InjectStatusEvent;
+import io.openbas.database.model.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Snapshots of the content polled by the players, per simulation or scenario, per channel and per
+ * player. A snapshot is dropped once the content it was computed from changes on this instance, and
+ * expires after a short time so that the changes made by other instances are seen too. Each
+ * snapshot carries an ETag, so that polls of unchanged content are answered with a 304.
+ */
+@Service
+public class PlayerContentCacheService {
+
+  public enum Scope {
+    CHANNEL,
+    CHALLENGES,
+  }
+
+  public record Snapshot(JsonNode content, String eTag) {
+
+    /** The content, or a 304 without it if the client already holds this version. */
+    public ResponseEntity<JsonNode> toResponse(String ifNoneMatch) {
+      if (isMatching(ifNoneMatch)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .cacheControl(CacheControl.noCache())
+            .eTag(eTag)
+            .build();
+      }
+      return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(content);
+    }
+
+    private boolean isMatching(String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+      // Proxies compressing the response may weaken the tag
+      return Arrays.stream(ifNoneMatch.split(","))
+          .map(String::trim)
+          .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+          .anyMatch(tag -> tag.equals(eTag) || tag.equals("*"));
+    }
+  }
+
+  private record Key(Scope scope, String exerciseId, String itemId, String userId) {}
+
+  private record Entry(Snapshot snapshot, long version) {}
+
+  @Resource private ObjectMapper mapper;
+
+  @Value("${openbas.player.content-cache.ttl:10}")
+  private long ttl;
+
+  @Value("${openbas.player.content-cache.size:10000}")
+  private long size;
+
+  // Only ever incremented, so that their sum changes with any of them
+  private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+  private final AtomicLong globalVersion = new AtomicLong();
+
+  private Cache<Key, Entry> snapshots;
+
+  @PostConstruct
+  public void init() {
+    snapshots =
+        Caffeine.newBuilder().maximumSize(size).expireAfterWrite(Duration.ofSeconds(ttl)).build();
+  }
+
+  /**
+   * Return the snapshot of the content, computing it with the loader if there is no up-to-date one.
+   *
+   * @param exerciseId the simulation or scenario id
+   * @param itemId the channel id, or null when the scope has a single item
+   */
+  public Snapshot get(
+      @NotNull final Scope scope,
+      @NotBlank final String exerciseId,
+      final String itemId,
+      @NotBlank final String userId,
+      @NotNull final Supplier<?> loader) {
+    Key key = new Key(scope, exerciseId, itemId, userId);
+    // Read before loading, a change committed meanwhile makes the new snapshot stale at once
+    long version = version(scope, exerciseId);
+    Entry entry = snapshots.getIfPresent(key);
+    if (entry != null && entry.version() == version) {
+      return entry.snapshot();
+    }
+    JsonNode content = mapper.valueToTree(loader.get());
+    String eTag =
+        "\""
+            + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8))
+            + "\"";
+    Snapshot snapshot = new Snapshot(content, eTag);
+    snapshots.put(key, new Entry(snapshot, version));
+    return snapshot;
+  }
+
+  /** Drop the snapshots of a simulation or scenario, once the current transaction commits. */
+  public void invalidate(@NotNull final Scope scope, final String exerciseId) {
+    if (exerciseId == null) {
+      return;
+    }
+    afterCommit(
+        () ->
+            versions
+                .computeIfAbsent(versionKey(scope, exerciseId), k -> new AtomicLong())
+                .incrementAndGet());
+  }
+
+  /** Drop all the snapshots, once the current transaction commits. */
+  public void invalidateAll() {
+    afterCommit(globalVersion::incrementAndGet);
+  }
+
+  @EventListener
+  public void onModelChange(BaseEvent event) {
+    switch (event.getInstance()) {
+      case Article article -> {
+        invalidateContent(article.getExercise());
+        invalidateContent(article.getScenario());
+      }
+      case Inject inject -> {
+        invalidateContent(inject.getExercise());
+        invalidateContent(inject.getScenario());
+      }
+      case InjectExpectation expectation -> {
+        if (expectation.getExercise() != null) {
+          invalidate(Scope.CHALLENGES, expectation.getExercise().getId());
+        }
+      }
+      case Exercise exercise -> invalidateContent(exercise);
+      case Scenario scenario -> invalidateContent(scenario);
+      case Channel ignored -> invalidateAll();
+      case Challenge ignored -> invalidateAll();
+      case ChallengeFlag ignored -> invalidateAll();
+      case Document ignored -> invalidateAll();
+      default -> {
+        // Not part of the player content
+      }
+    }
+  }
+
+  @EventListener
+  public void onInjectStatusChange(InjectStatusEvent event) {
+    if (event.getExerciseId() != null) {
+      invalidateContent(event.getExerciseId());
+    }
+  }
+
+  // -- PRIVATE --
+
+  private void invalidateContent(Base exerciseOrScenario) {
+    if (exerciseOrScenario != null) {
+      invalidateContent(exerciseOrScenario.getId());
+    }
+  }
+
+  private void invalidateContent(String exerciseId) {
+    for (Scope scope : Scope.values()) {
+      invalidate(scope, exerciseId);
+    }
+  }
+
+  private long version(Scope scope, String exerciseId) {
+    AtomicLong version = versions.get(versionKey(scope, exerciseId));
+    return globalVersion.get() + (version != null ? version.get() : 0);
+  }
+
+  private static String versionKey(Scope scope, String exerciseId) {
+    return scope + ":" + exerciseId;
+  }
+
+  // Bumped once the change is visible, so that no snapshot is computed from the previous data
+  // after.
+  // A rolled back transaction changed nothing, the snapshots are kept.
+  private static void afterCommit(Runnable bump) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      bump.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            bump.run();
+          }
+        });
+  }
+}
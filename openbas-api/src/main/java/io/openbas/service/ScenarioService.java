@@ -16,6 +16,7 @@ import static java.time.Instant.now;
 import static java.util.Optional.ofNullable;
 import static org.springframework.util.StringUtils.hasText;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -525,29 +526,27 @@ public class ScenarioService {
     ZipEntry zipEntry = new ZipEntry(scenario.getName() + ".json");
     zipEntry.setComment(EXPORT_ENTRY_SCENARIO);
     zipExport.putNextEntry(zipEntry);
-    zipExport.write(
-        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(scenarioFileExport));
+    // The JSON and the documents are streamed to the response, one document at a time
+    objectMapper
+        .writerWithDefaultPrettyPrinter()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .writeValue(zipExport, scenarioFileExport);
     zipExport.closeEntry();
     // Add the documents
-    documentIds.stream()
-        .distinct()
-        .forEach(
-            docId -> {
-              Document doc = this.documentRepository.findById(docId).orElseThrow();
-              Optional<InputStream> docStream = this.fileService.getFile(doc);
-              if (docStream.isPresent()) {
-                try {
-                  ZipEntry zipDoc = new ZipEntry(doc.getTarget());
-                  zipDoc.setComment(EXPORT_ENTRY_ATTACHMENT);
-                  byte[] data = docStream.get().readAllBytes();
-                  zipExport.putNextEntry(zipDoc);
-                  zipExport.write(data);
-                  zipExport.closeEntry();
-                } catch (IOException e) {
-                  log.error(e.getMessage(), e);
-                }
-              }
-            });
+    for (String docId : documentIds.stream().distinct().toList()) {
+      Document doc = this.documentRepository.findById(docId).orElseThrow();
+      Optional<InputStream> docStream = this.fileService.getFile(doc);
+      if (docStream.isPresent()) {
+        // A failed copy leaves a truncated entry, the export is aborted instead of going on
+        try (InputStream data = docStream.get()) {
+          ZipEntry zipDoc = new ZipEntry(doc.getTarget());
+          zipDoc.setComment(EXPORT_ENTRY_ATTACHMENT);
+          zipExport.putNextEntry(zipDoc);
+          data.transferTo(zipExport);
+          zipExport.closeEntry();
+        }
+      }
+    }
     zipExport.finish();
     zipExport.close();
   }
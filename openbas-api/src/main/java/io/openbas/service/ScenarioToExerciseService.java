@@ -1,7 +1,10 @@
 package io.openbas.service;
 
+import static io.openbas.database.audit.ModelBaseListener.DATA_PERSIST;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openbas.database.audit.BaseEvent;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
 import io.openbas.injectors.channel.ChannelContract;
@@ -9,6 +12,8 @@ import io.openbas.injectors.channel.model.ChannelContent;
 import io.openbas.utils.CopyObjectListUtils;
 import jakarta.annotation.Nullable;
 import jakarta.annotation.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.lang.reflect.InvocationTargetException;
@@ -16,6 +21,7 @@ import java.time.Instant;
 import java.util.*;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.beanutils.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,10 +39,11 @@ public class ScenarioToExerciseService {
   private final LessonsCategoryRepository lessonsCategoryRepository;
   private final LessonsQuestionRepository lessonsQuestionRepository;
   private final InjectRepository injectRepository;
-  private final InjectDocumentRepository injectDocumentRepository;
   private final VariableService variableService;
   private final TeamService teamService;
+  private final ApplicationEventPublisher appPublisher;
   @Resource protected ObjectMapper mapper;
+  @PersistenceContext private EntityManager entityManager;
 
   @Transactional(rollbackFor = Exception.class)
   public Exercise toExercise(
@@ -72,34 +79,30 @@ public class ScenarioToExerciseService {
                   grant.setName(scenarioGrant.getName());
                   grant.setGroup(scenarioGrant.getGroup());
                   grant.setExercise(exerciseSaved);
-                  return this.grantRepository.save(grant);
+                  return grant;
                 })
             .toList();
+    this.grantRepository.saveAll(exerciseGrants);
     exerciseSaved.setGrants(exerciseGrants);
 
     // Teams
     Map<String, Team> contextualTeams = new HashMap<>();
+    List<Team> exerciseTeams = new ArrayList<>();
     scenario
         .getTeams()
         .forEach(
             scenarioTeam -> {
               if (scenarioTeam.getContextual()) {
                 Team team = teamService.copyContextualTeam(scenarioTeam);
-                team.setExercises(
-                    new ArrayList<>() {
-                      {
-                        add(exerciseSaved);
-                      }
-                    });
-                Team teamSaved = this.teamRepository.save(team);
-                contextualTeams.put(scenarioTeam.getId(), teamSaved);
+                contextualTeams.put(scenarioTeam.getId(), team);
+                exerciseTeams.add(team);
               } else {
-                List<Exercise> exercises = scenarioTeam.getExercises();
-                exercises.add(exercise);
-                scenarioTeam.setExercises(exercises);
-                this.teamRepository.save(scenarioTeam);
+                exerciseTeams.add(scenarioTeam);
               }
             });
+    this.teamRepository.saveAll(contextualTeams.values());
+    // Linked from the simulation side to avoid loading the simulations of each team
+    exerciseSaved.setTeams(exerciseTeams);
 
     // TeamUsers
     List<ExerciseTeamUser> exerciseTeamUsers =
@@ -167,139 +170,45 @@ public class ScenarioToExerciseService {
     exercise.setLessonsAnonymized(scenario.isLessonsAnonymized());
 
     // Lessons categories
-    List<LessonsCategory> scenarioLessonCategories = scenario.getLessonsCategories();
-    scenarioLessonCategories.forEach(
-        scenarioLessonCategory -> {
-          LessonsCategory exerciseLessonCategory = new LessonsCategory();
-          exerciseLessonCategory.setExercise(exerciseSaved);
-          exerciseLessonCategory.setName(scenarioLessonCategory.getName());
-          exerciseLessonCategory.setDescription(scenarioLessonCategory.getDescription());
-          exerciseLessonCategory.setOrder(scenarioLessonCategory.getOrder());
-
-          // Teams
-          List<Team> teams = new ArrayList<>();
-          scenarioLessonCategory
-              .getTeams()
-              .forEach(team -> teams.add(computeTeam(team, contextualTeams)));
-          exerciseLessonCategory.setTeams(teams);
+    List<LessonsCategory> exerciseLessonCategories = new ArrayList<>();
+    List<LessonsQuestion> exerciseLessonsQuestions = new ArrayList<>();
+    scenario
+        .getLessonsCategories()
+        .forEach(
+            scenarioLessonCategory -> {
+              LessonsCategory exerciseLessonCategory = new LessonsCategory();
+              exerciseLessonCategory.setExercise(exerciseSaved);
+              exerciseLessonCategory.setName(scenarioLessonCategory.getName());
+              exerciseLessonCategory.setDescription(scenarioLessonCategory.getDescription());
+              exerciseLessonCategory.setOrder(scenarioLessonCategory.getOrder());
 
-          LessonsCategory exerciseLessonCategorySaved =
-              this.lessonsCategoryRepository.save(exerciseLessonCategory);
+              // Teams
+              List<Team> teams = new ArrayList<>();
+              scenarioLessonCategory
+                  .getTeams()
+                  .forEach(team -> teams.add(computeTeam(team, contextualTeams)));
+              exerciseLessonCategory.setTeams(teams);
+              exerciseLessonCategories.add(exerciseLessonCategory);
 
-          // Lessons questions
-          List<LessonsQuestion> exerciseLessonsQuestions =
-              scenarioLessonCategory.getQuestions().stream()
-                  .map(
+              // Lessons questions
+              scenarioLessonCategory
+                  .getQuestions()
+                  .forEach(
                       scenarioLessonsQuestion -> {
                         LessonsQuestion exerciseLessonsQuestion = new LessonsQuestion();
                         exerciseLessonsQuestion.setContent(scenarioLessonsQuestion.getContent());
                         exerciseLessonsQuestion.setExplanation(
                             scenarioLessonsQuestion.getExplanation());
                         exerciseLessonsQuestion.setOrder(scenarioLessonsQuestion.getOrder());
-                        exerciseLessonsQuestion.setCategory(exerciseLessonCategorySaved);
-                        return exerciseLessonsQuestion;
-                      })
-                  .toList();
-          this.lessonsQuestionRepository.saveAll(exerciseLessonsQuestions);
-        });
+                        exerciseLessonsQuestion.setCategory(exerciseLessonCategory);
+                        exerciseLessonsQuestions.add(exerciseLessonsQuestion);
+                      });
+            });
+    this.lessonsCategoryRepository.saveAll(exerciseLessonCategories);
+    this.lessonsQuestionRepository.saveAll(exerciseLessonsQuestions);
 
     // Injects
-    List<Inject> scenarioInjects = scenario.getInjects();
-    Map<String, Inject> mapExerciseInjectsByScenarioInject = new HashMap<>();
-    scenarioInjects.forEach(
-        scenarioInject -> {
-          Inject exerciseInject = new Inject();
-          exerciseInject.setTitle(scenarioInject.getTitle());
-          exerciseInject.setDescription(scenarioInject.getDescription());
-          exerciseInject.setInjectorContract(scenarioInject.getInjectorContract().orElse(null));
-          exerciseInject.setCountry(scenarioInject.getCountry());
-          exerciseInject.setCity(scenarioInject.getCity());
-          exerciseInject.setEnabled(scenarioInject.isEnabled());
-          exerciseInject.setAllTeams(scenarioInject.isAllTeams());
-          exerciseInject.setExercise(exerciseSaved);
-          exerciseInject.setDependsDuration(scenarioInject.getDependsDuration());
-          exerciseInject.setUser(scenarioInject.getUser());
-          exerciseInject.setStatus(scenarioInject.getStatus().orElse(null));
-          exerciseInject.setTags(CopyObjectListUtils.copy(scenarioInject.getTags(), Tag.class));
-          exerciseInject.setContent(scenarioInject.getContent());
-
-          // Content
-          scenarioInject
-              .getInjectorContract()
-              .ifPresentOrElse(
-                  injectorContract -> {
-                    if (ChannelContract.TYPE.equals(injectorContract.getInjector().getType())) {
-                      try {
-                        ChannelContent content =
-                            mapper.treeToValue(scenarioInject.getContent(), ChannelContent.class);
-                        content.setArticles(
-                            content.getArticles().stream()
-                                .map(articleId -> articles.get(articleId).getId())
-                                .toList());
-                        exerciseInject.setContent(mapper.valueToTree(content));
-                      } catch (JsonProcessingException e) {
-                        throw new RuntimeException(e);
-                      }
-                    }
-                  },
-                  () -> exerciseInject.setContent(scenarioInject.getContent()));
-
-          // Teams
-          List<Team> teams = new ArrayList<>();
-          scenarioInject.getTeams().forEach(team -> teams.add(computeTeam(team, contextualTeams)));
-          exerciseInject.setTeams(teams);
-
-          // Assets & Asset Groups
-          exerciseInject.setAssets(
-              CopyObjectListUtils.copy(scenarioInject.getAssets(), Asset.class));
-          exerciseInject.setAssetGroups(
-              CopyObjectListUtils.copy(scenarioInject.getAssetGroups(), AssetGroup.class));
-          Inject injectSaved = this.injectRepository.save(exerciseInject);
-
-          mapExerciseInjectsByScenarioInject.put(scenarioInject.getId(), injectSaved);
-
-          // Documents
-          List<InjectDocument> exerciseInjectDocuments = new ArrayList<>();
-          scenarioInject
-              .getDocuments()
-              .forEach(
-                  injectDocument -> {
-                    InjectDocument exerciseInjectDocument = new InjectDocument();
-                    exerciseInjectDocument.setInject(injectSaved);
-                    exerciseInjectDocument.setDocument(injectDocument.getDocument());
-                    exerciseInjectDocument.setAttached(injectDocument.isAttached());
-                    exerciseInjectDocuments.add(exerciseInjectDocument);
-                  });
-          this.injectDocumentRepository.saveAll(exerciseInjectDocuments);
-        });
-
-    // Second pass to add the correct links
-    scenarioInjects.forEach(
-        scenarioInject -> {
-          if (scenarioInject.getDependsOn() != null) {
-            Inject injectToUpdate = mapExerciseInjectsByScenarioInject.get(scenarioInject.getId());
-            injectToUpdate.getDependsOn().clear();
-            injectToUpdate
-                .getDependsOn()
-                .addAll(
-                    scenarioInject.getDependsOn().stream()
-                        .map(
-                            (injectDependency -> {
-                              InjectDependency dep = new InjectDependency();
-                              dep.setCompositeId(injectDependency.getCompositeId());
-                              dep.setInjectDependencyCondition(
-                                  injectDependency.getInjectDependencyCondition());
-                              dep.getCompositeId()
-                                  .setInjectParent(
-                                      mapExerciseInjectsByScenarioInject.get(
-                                          dep.getCompositeId().getInjectParent().getId()));
-                              dep.getCompositeId().setInjectChildren(injectToUpdate);
-                              return dep;
-                            }))
-                        .toList());
-            this.injectRepository.save(injectToUpdate);
-          }
-        });
+    copyInjects(scenario, exerciseSaved, articles, contextualTeams);
 
     // Variables
     List<Variable> scenarioVariables = this.variableService.variablesFromScenario(scenario.getId());
@@ -318,9 +227,82 @@ public class ScenarioToExerciseService {
             .toList();
     this.variableService.createVariables(exerciseVariables);
 
+    // The injects are copied by native statements, reload the simulation so that callers see them
+    this.entityManager.flush();
+    this.entityManager.refresh(exerciseSaved);
+    // and notify the stream of them, as the entity listener would have
+    exerciseSaved
+        .getInjects()
+        .forEach(
+            inject -> this.appPublisher.publishEvent(new BaseEvent(DATA_PERSIST, inject, mapper)));
     return exerciseSaved;
   }
 
+  /**
+   * Copy the scenario injects and their links with a fixed number of statements whatever the number
+   * of injects. Target ids are generated upfront so dependencies are copied in the same pass.
+   */
+  private void copyInjects(
+      @NotNull final Scenario scenario,
+      @NotNull final Exercise exercise,
+      @NotNull final Map<String, Article> articles,
+      @NotNull final Map<String, Team> contextualTeams) {
+    List<Inject> scenarioInjects = new ArrayList<>(scenario.getInjects());
+    if (scenarioInjects.isEmpty()) {
+      return;
+    }
+    int size = scenarioInjects.size();
+    String[] sourceIds = new String[size];
+    String[] targetIds = new String[size];
+    String[] contents = new String[size];
+    for (int i = 0; i < size; i++) {
+      Inject scenarioInject = scenarioInjects.get(i);
+      sourceIds[i] = scenarioInject.getId();
+      targetIds[i] = UUID.randomUUID().toString();
+      contents[i] = channelContent(scenarioInject, articles);
+    }
+    String[] teamSourceIds = contextualTeams.keySet().toArray(String[]::new);
+    String[] teamTargetIds =
+        Arrays.stream(teamSourceIds)
+            .map(teamId -> contextualTeams.get(teamId).getId())
+            .toArray(String[]::new);
+
+    // The simulation, its teams and articles must exist before copying the injects
+    this.injectRepository.flush();
+    this.injectRepository.copyInjectsToExercise(exercise.getId(), sourceIds, targetIds, contents);
+    this.injectRepository.copyInjectsTeams(sourceIds, targetIds, teamSourceIds, teamTargetIds);
+    this.injectRepository.copyInjectsAssets(sourceIds, targetIds);
+    this.injectRepository.copyInjectsAssetGroups(sourceIds, targetIds);
+    this.injectRepository.copyInjectsTags(sourceIds, targetIds);
+    this.injectRepository.copyInjectsDocuments(sourceIds, targetIds);
+    this.injectRepository.copyInjectsDependencies(sourceIds, targetIds);
+  }
+
+  /** Channel injects reference articles, which are copied with new ids */
+  private String channelContent(
+      @NotNull final Inject scenarioInject, @NotNull final Map<String, Article> articles) {
+    boolean isChannel =
+        scenarioInject
+            .getInjectorContract()
+            .map(injectorContract -> injectorContract.getInjector().getType())
+            .filter(ChannelContract.TYPE::equals)
+            .isPresent();
+    if (!isChannel) {
+      return null;
+    }
+    try {
+      ChannelContent content =
+          mapper.treeToValue(scenarioInject.getContent(), ChannelContent.class);
+      content.setArticles(
+          content.getArticles().stream()
+              .map(articleId -> articles.get(articleId).getId())
+              .toList());
+      return mapper.writeValueAsString(content);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private List<Document> addExerciseToDocuments(
       @NotNull final List<Document> origDocuments, @NotNull final Exercise exercise) {
     List<Document> destDocuments = new ArrayList<>();
@@ -82,6 +82,7 @@ public abstract class SearchAdaptorBase {
     newInput.setPage(input.getPage());
     newInput.setSize(input.getSize());
     newInput.setTextSearch(input.getTextSearch());
+    newInput.setAfter(input.getAfter());
 
     return newInput;
   }
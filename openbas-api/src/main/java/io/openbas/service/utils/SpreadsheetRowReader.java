@@ -0,0 +1,277 @@
+package io.openbas.service.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Read a spreadsheet row by row. XLSX sheets are parsed with SAX and each row is handed to the
+ * consumer as a detached row, dropped as soon as the consumer returns, so the memory used does not
+ * grow with the number of rows. Legacy XLS files and XLSX files using the 1904 date system are read
+ * with the POI usermodel.
+ */
+public class SpreadsheetRowReader {
+
+  private SpreadsheetRowReader() {}
+
+  public static List<String> getSheetNames(Path file) throws IOException {
+    List<String> sheetNames = new ArrayList<>();
+    if (!isOoxml(file)) {
+      try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+          sheetNames.add(workbook.getSheetName(i));
+        }
+      }
+      return sheetNames;
+    }
+    OPCPackage pkg = openPackage(file);
+    try {
+      XSSFReader.SheetIterator sheets = new XSSFReader(pkg).getSheetIterator();
+      while (sheets.hasNext()) {
+        try (InputStream ignored = sheets.next()) {
+          sheetNames.add(sheets.getSheetName());
+        }
+      }
+      return sheetNames;
+    } catch (OpenXML4JException e) {
+      throw new IOException(e);
+    } finally {
+      pkg.revert();
+    }
+  }
+
+  /**
+   * Call the consumer on each row of the given sheet, in order.
+   *
+   * @throws IOException if the file can't be read or has no sheet with this name
+   */
+  public static void forEachRow(Path file, String sheetName, Consumer<Row> consumer)
+      throws IOException {
+    if (!isOoxml(file)) {
+      forEachWorkbookRow(file, sheetName, consumer);
+      return;
+    }
+    OPCPackage pkg = openPackage(file);
+    try {
+      XSSFReader reader = new XSSFReader(pkg);
+      if (!isDate1904(reader)) {
+        SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+        XSSFReader.SheetIterator sheets = reader.getSheetIterator();
+        while (sheets.hasNext()) {
+          try (InputStream sheetData = sheets.next()) {
+            if (sheets.getSheetName().equals(sheetName)) {
+              parseSheet(sheetData, sharedStrings, consumer);
+              return;
+            }
+          }
+        }
+        throw new IOException("Sheet " + sheetName + " not found");
+      }
+    } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+      throw new IOException(e);
+    } finally {
+      pkg.revert();
+    }
+    // The streamed cells can't carry the 1904 date system, such workbooks are loaded instead
+    forEachWorkbookRow(file, sheetName, consumer);
+  }
+
+  private static boolean isOoxml(Path file) throws IOException {
+    return FileMagic.valueOf(file.toFile()) == FileMagic.OOXML;
+  }
+
+  private static OPCPackage openPackage(Path file) throws IOException {
+    try {
+      return OPCPackage.open(file.toFile(), PackageAccess.READ);
+    } catch (OpenXML4JException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static void forEachWorkbookRow(Path file, String sheetName, Consumer<Row> consumer)
+      throws IOException {
+    try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+      Sheet sheet = workbook.getSheet(sheetName);
+      if (sheet == null) {
+        throw new IOException("Sheet " + sheetName + " not found");
+      }
+      sheet.rowIterator().forEachRemaining(consumer);
+    }
+  }
+
+  private static boolean isDate1904(XSSFReader reader)
+      throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+    boolean[] date1904 = {false};
+    XMLReader parser = XMLHelper.newXMLReader();
+    parser.setContentHandler(
+        new DefaultHandler() {
+          @Override
+          public void startElement(
+              String uri, String localName, String qName, Attributes attributes) {
+            if ("workbookPr".equals(localName)) {
+              String value = attributes.getValue("date1904");
+              date1904[0] = "1".equals(value) || "true".equals(value);
+            }
+          }
+        });
+    try (InputStream workbookData = reader.getWorkbookData()) {
+      parser.parse(new InputSource(workbookData));
+    }
+    return date1904[0];
+  }
+
+  private static void parseSheet(
+      InputStream sheetData, SharedStrings sharedStrings, Consumer<Row> consumer)
+      throws IOException, SAXException, ParserConfigurationException {
+    // Rows are built in a scratch workbook that never holds more than the current one
+    try (SXSSFWorkbook scratch = new SXSSFWorkbook(-1)) {
+      XMLReader parser = XMLHelper.newXMLReader();
+      parser.setContentHandler(new SheetHandler(sharedStrings, scratch.createSheet(), consumer));
+      parser.parse(new InputSource(sheetData));
+    }
+  }
+
+  /** Rebuild the typed cells of each row of a sheet part, see ECMA-376 18.3.1. */
+  private static class SheetHandler extends DefaultHandler {
+
+    private final SharedStrings sharedStrings;
+    private final Sheet sheet;
+    private final Consumer<Row> consumer;
+    private final StringBuilder text = new StringBuilder();
+
+    private Row row;
+    private int nextRowNum = 0;
+    private int nextColumnNum = 0;
+    private int columnNum;
+    private String cellType;
+    private String value;
+    private String formula;
+    private boolean capturing = false;
+    private boolean inInlineString = false;
+
+    SheetHandler(SharedStrings sharedStrings, Sheet sheet, Consumer<Row> consumer) {
+      this.sharedStrings = sharedStrings;
+      this.sheet = sheet;
+      this.consumer = consumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      switch (localName) {
+        case "row" -> {
+          String reference = attributes.getValue("r");
+          int rowNum = reference != null ? Integer.parseInt(reference) - 1 : nextRowNum;
+          row = sheet.createRow(rowNum);
+          nextRowNum = rowNum + 1;
+          nextColumnNum = 0;
+        }
+        case "c" -> {
+          String reference = attributes.getValue("r");
+          columnNum = reference != null ? new CellReference(reference).getCol() : nextColumnNum;
+          nextColumnNum = columnNum + 1;
+          cellType = attributes.getValue("t");
+          value = null;
+          formula = null;
+        }
+        case "v", "f" -> {
+          text.setLength(0);
+          capturing = true;
+        }
+        case "is" -> {
+          text.setLength(0);
+          inInlineString = true;
+        }
+        case "t" -> capturing = inInlineString;
+        default -> {
+          // Other elements carry no cell value
+        }
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (capturing) {
+        text.append(ch, start, length);
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      switch (localName) {
+        case "v" -> {
+          value = text.toString();
+          capturing = false;
+        }
+        case "f" -> {
+          formula = text.toString();
+          capturing = false;
+        }
+        case "t" -> capturing = false;
+        case "is" -> {
+          value = text.toString();
+          inInlineString = false;
+        }
+        case "c" -> {
+          if (row != null) {
+            setCell(row.createCell(columnNum));
+          }
+        }
+        case "row" -> {
+          consumer.accept(row);
+          sheet.removeRow(row);
+          row = null;
+        }
+        default -> {
+          // Other elements carry no cell value
+        }
+      }
+    }
+
+    private void setCell(Cell cell) {
+      if (formula != null) {
+        cell.setCellFormula(formula);
+        return;
+      }
+      if (value == null) {
+        return;
+      }
+      switch (cellType == null ? "n" : cellType) {
+        case "s" -> cell.setCellValue(sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+        case "b" -> cell.setCellValue("1".equals(value) || "true".equals(value));
+        case "e" -> {
+          try {
+            cell.setCellErrorValue(FormulaError.forString(value).getCode());
+          } catch (IllegalArgumentException e) {
+            cell.setCellValue(value);
+          }
+        }
+        case "n" -> {
+          if (!value.isEmpty()) {
+            cell.setCellValue(Double.parseDouble(value));
+          }
+        }
+        default -> cell.setCellValue(value);
+      }
+    }
+  }
+}
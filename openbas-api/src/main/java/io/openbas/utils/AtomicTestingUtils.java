@@ -559,6 +559,42 @@ public class AtomicTestingUtils {
     return resultAvgOfExpectations;
   }
 
+  /**
+   * Same results as {@link #getExpectationResultByTypesFromRaw(List)}, from expectation outcome
+   * counts already aggregated by expectation type.
+   */
+  public static List<ExpectationResultsByType> getExpectationResultByTypesFromRollups(
+      List<RawInjectExpectationRollup> rollups) {
+    Map<ExpectationType, long[]> counts = new LinkedHashMap<>();
+    counts.put(ExpectationType.PREVENTION, new long[4]);
+    counts.put(ExpectationType.DETECTION, new long[4]);
+    counts.put(ExpectationType.HUMAN_RESPONSE, new long[4]);
+    for (RawInjectExpectationRollup rollup : rollups) {
+      ExpectationType type =
+          switch (EXPECTATION_TYPE.valueOf(rollup.getInject_expectation_type())) {
+            case PREVENTION -> ExpectationType.PREVENTION;
+            case DETECTION -> ExpectationType.DETECTION;
+            case ARTICLE, CHALLENGE, MANUAL -> ExpectationType.HUMAN_RESPONSE;
+            default -> null;
+          };
+      if (type != null) {
+        long[] typeCounts = counts.get(type);
+        typeCounts[0] += rollup.getSuccess_count();
+        typeCounts[1] += rollup.getPending_count();
+        typeCounts[2] += rollup.getPartial_count();
+        typeCounts[3] += rollup.getFailed_count();
+      }
+    }
+
+    List<ExpectationResultsByType> resultAvgOfExpectations = new ArrayList<>();
+    counts.forEach(
+        (type, typeCounts) ->
+            resultAvgOfExpectations.add(
+                getExpectationByTypeFromCounts(
+                    type, typeCounts[0], typeCounts[1], typeCounts[2], typeCounts[3])));
+    return resultAvgOfExpectations;
+  }
+
   @NotNull
   public static List<ExpectationResultsByType> getExpectationResultByTypes(
       final List<InjectExpectation> expectations) {
@@ -671,6 +707,33 @@ public class AtomicTestingUtils {
             type, InjectExpectation.EXPECTATION_STATUS.PENDING, getResultDetail(type, scores)));
   }
 
+  private static ExpectationResultsByType getExpectationByTypeFromCounts(
+      final ExpectationType type,
+      final long successCount,
+      final long pendingCount,
+      final long partialCount,
+      final long failureCount) {
+    long scoredCount = successCount + partialCount + failureCount;
+    if (scoredCount + pendingCount == 0) {
+      return new ExpectationResultsByType(
+          type, InjectExpectation.EXPECTATION_STATUS.UNKNOWN, Collections.emptyList());
+    }
+    InjectExpectation.EXPECTATION_STATUS avgResult;
+    if (scoredCount == 0) {
+      avgResult = InjectExpectation.EXPECTATION_STATUS.PENDING;
+    } else if (successCount == scoredCount) {
+      avgResult = InjectExpectation.EXPECTATION_STATUS.SUCCESS;
+    } else if (successCount + partialCount == 0) {
+      avgResult = InjectExpectation.EXPECTATION_STATUS.FAILED;
+    } else {
+      avgResult = InjectExpectation.EXPECTATION_STATUS.PARTIAL;
+    }
+    return new ExpectationResultsByType(
+        type,
+        avgResult,
+        getResultDetail(type, successCount, pendingCount, partialCount, failureCount));
+  }
+
   public static InjectExpectation.EXPECTATION_STATUS getResult(final OptionalDouble avg) {
     Double avgAsDouble = avg.getAsDouble();
     return avgAsDouble == 0.0
@@ -693,7 +756,15 @@ public class AtomicTestingUtils {
     long partialCount = normalizedScores.stream().filter(s -> s != null && s.equals(0.5)).count();
     long pendingCount = normalizedScores.stream().filter(Objects::isNull).count();
     long failureCount = normalizedScores.stream().filter(s -> s != null && s.equals(0.0)).count();
+    return getResultDetail(type, successCount, pendingCount, partialCount, failureCount);
+  }
 
+  private static List<ResultDistribution> getResultDetail(
+      final ExpectationType type,
+      final long successCount,
+      final long pendingCount,
+      final long partialCount,
+      final long failureCount) {
     return List.of(
         new ResultDistribution(ExpectationType.SUCCESS_ID, type.successLabel, (int) successCount),
         new ResultDistribution(ExpectationType.PENDING_ID, type.pendingLabel, (int) pendingCount),
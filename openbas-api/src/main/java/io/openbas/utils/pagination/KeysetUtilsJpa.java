@@ -0,0 +1,94 @@
+package io.openbas.utils.pagination;
+
+import jakarta.persistence.criteria.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset (seek) pagination: instead of skipping rows with an offset, a page starts right after a
+ * cursor element, given by its id. The sort values of the cursor are read with indexed subqueries
+ * on its id, so the client only has to send back the id of the last element it received.
+ */
+public class KeysetUtilsJpa {
+
+  public static final String TIE_BREAKER = "id";
+
+  private KeysetUtilsJpa() {}
+
+  /** Append the id to the sort, so that every element has a distinct position. */
+  public static Sort withTieBreaker(@NotNull final Sort sort) {
+    if (sort.getOrderFor(TIE_BREAKER) != null) {
+      return sort;
+    }
+    return sort.and(Sort.by(Sort.Direction.ASC, TIE_BREAKER));
+  }
+
+  /**
+   * Elements strictly after the cursor in the given sort, which must end with the tie-breaker.
+   * Nulls are ordered as PostgreSQL does by default: last when ascending, first when descending.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static <T> Specification<T> computeKeysetJpa(
+      @NotNull final Sort sort, @NotBlank final String after) {
+    return (root, query, cb) -> {
+      List<Predicate> alternatives = new ArrayList<>();
+      List<Predicate> equalities = new ArrayList<>();
+      for (Sort.Order order : sort) {
+        Predicate isAfter;
+        Predicate isEqual;
+        if (TIE_BREAKER.equals(order.getProperty())) {
+          Path<String> id = root.get(TIE_BREAKER);
+          isAfter = order.isAscending() ? cb.greaterThan(id, after) : cb.lessThan(id, after);
+          isEqual = cb.equal(id, after);
+        } else {
+          Path<Comparable> path = toPath(root, order.getProperty());
+          Supplier<Subquery<Comparable>> cursor =
+              () -> cursorValue(root.getJavaType(), query, cb, order.getProperty(), after);
+          isAfter =
+              order.isAscending()
+                  ? cb.or(
+                      cb.greaterThan(path, cursor.get()),
+                      cb.and(cb.isNull(path), cb.isNotNull(cursor.get())))
+                  : cb.or(
+                      cb.lessThan(path, cursor.get()),
+                      cb.and(cb.isNotNull(path), cb.isNull(cursor.get())));
+          isEqual =
+              cb.or(cb.equal(path, cursor.get()), cb.and(cb.isNull(path), cb.isNull(cursor.get())));
+        }
+        List<Predicate> alternative = new ArrayList<>(equalities);
+        alternative.add(isAfter);
+        alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+        equalities.add(isEqual);
+      }
+      return cb.or(alternatives.toArray(Predicate[]::new));
+    };
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> Subquery<Comparable> cursorValue(
+      Class<? extends T> clazz,
+      CommonAbstractCriteria query,
+      CriteriaBuilder cb,
+      String property,
+      String after) {
+    Subquery<Comparable> subquery = query.subquery(Comparable.class);
+    Root<? extends T> cursorRoot = subquery.from(clazz);
+    subquery.select((Expression) toPath(cursorRoot, property));
+    subquery.where(cb.equal(cursorRoot.get(TIE_BREAKER), after));
+    return subquery;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Path<Comparable> toPath(Path<?> root, String property) {
+    Path<?> path = root;
+    for (String part : property.split("\\.")) {
+      path = path.get(part);
+    }
+    return (Path<Comparable>) path;
+  }
+}
@@ -1,6 +1,8 @@
 package io.openbas.utils.pagination;
 
 import static io.openbas.utils.FilterUtilsJpa.computeFilterGroupJpa;
+import static io.openbas.utils.pagination.KeysetUtilsJpa.computeKeysetJpa;
+import static io.openbas.utils.pagination.KeysetUtilsJpa.withTieBreaker;
 import static io.openbas.utils.pagination.SearchUtilsJpa.computeSearchJpa;
 import static io.openbas.utils.pagination.SortUtilsJpa.toSortJpa;
 
@@ -14,6 +16,7 @@ import org.apache.commons.lang3.function.TriFunction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class PaginationUtils {
@@ -22,9 +25,32 @@ public class PaginationUtils {
 
   // -- JPA --
 
+  /**
+   * Build the pageable of a search. In keyset mode the sort gets the id as tie-breaker and the page
+   * is the first one after the cursor, see {@link #withKeyset(Specification, SearchPaginationInput,
+   * Pageable)}.
+   */
   public static <T> Pageable buildPageable(
       @NotNull final SearchPaginationInput input, @NotNull final Class<T> clazz) {
-    return PageRequest.of(input.getPage(), input.getSize(), toSortJpa(input.getSorts(), clazz));
+    Sort sort = toSortJpa(input.getSorts(), clazz);
+    if (input.isKeyset()) {
+      return PageRequest.of(0, input.getSize(), withTieBreaker(sort));
+    }
+    return PageRequest.of(input.getPage(), input.getSize(), sort);
+  }
+
+  /**
+   * Restrict a specification to the elements after the keyset cursor, if any. The returned page
+   * total then counts the elements from the cursor on, which stays cheap on deep pages.
+   */
+  public static <T> Specification<T> withKeyset(
+      @NotNull final Specification<T> specification,
+      @NotNull final SearchPaginationInput input,
+      @NotNull final Pageable pageable) {
+    if (!input.isKeyset()) {
+      return specification;
+    }
+    return specification.and(computeKeysetJpa(pageable.getSort(), input.getAfter()));
   }
 
   public static <T> Page<T> buildPaginationJPA(
@@ -38,7 +64,8 @@ public class PaginationUtils {
     // Pageable
     Pageable pageable = buildPageable(input, clazz);
 
-    return findAll.apply(filterSpecifications.and(searchSpecifications), pageable);
+    return findAll.apply(
+        withKeyset(filterSpecifications.and(searchSpecifications), input, pageable), pageable);
   }
 
   // -- CRITERIA BUILDER --
@@ -55,11 +82,13 @@ public class PaginationUtils {
     Specification<T> searchSpecifications = computeSearchJpa(input.getTextSearch());
 
     // Pageable
-    Pageable pageable =
-        PageRequest.of(input.getPage(), input.getSize(), toSortJpa(input.getSorts(), clazz));
+    Pageable pageable = buildPageable(input, clazz);
 
+    // The count is restricted to the cursor as well, as the JPA pagination counts
     return findAll.apply(
-        filterSpecifications.and(searchSpecifications), filterSpecificationsForCount, pageable);
+        withKeyset(filterSpecifications.and(searchSpecifications), input, pageable),
+        withKeyset(filterSpecificationsForCount, input, pageable),
+        pageable);
   }
 
   public static <T, U> Page<U> buildPaginationCriteriaBuilder(
@@ -88,9 +117,10 @@ public class PaginationUtils {
     Specification<T> filterSpecifications = computeFilterGroupJpa(input.getFilterGroup());
 
     // Pageable
-    Pageable pageable =
-        PageRequest.of(input.getPage(), input.getSize(), toSortJpa(input.getSorts(), clazz));
+    Pageable pageable = buildPageable(input, clazz);
 
-    return findAll.apply(filterSpecifications.and(specificSearchSpecification), pageable);
+    return findAll.apply(
+        withKeyset(filterSpecifications.and(specificSearchSpecification), input, pageable),
+        pageable);
   }
 }
@@ -1,5 +1,8 @@
 package io.openbas.utils.pagination;
 
+import static org.springframework.util.StringUtils.hasText;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.openbas.database.model.Filters.FilterGroup;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Max;
@@ -38,4 +41,14 @@ public class SearchPaginationInput {
       description =
           "List of sort fields : a field is composed of a property (for instance \"label\" and an optional direction (\"asc\" is assumed if no direction is specified) : (\"desc\", \"asc\")")
   private List<SortField> sorts = new ArrayList<>();
+
+  @Schema(
+      description =
+          "Id of the last element of the previous page. When set, the page number is ignored and the elements following this one in the sort order are returned (keyset pagination)")
+  private String after;
+
+  @JsonIgnore
+  public boolean isKeyset() {
+    return hasText(after);
+  }
 }
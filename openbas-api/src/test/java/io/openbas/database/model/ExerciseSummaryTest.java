@@ -0,0 +1,80 @@
+package io.openbas.database.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExerciseSummaryTest {
+
+  @Test
+  @DisplayName("Should split inject dates around the current time when reading statistics")
+  void given_inject_dates_should_compute_past_and_future_injects() {
+    long now = Instant.now().toEpochMilli();
+    ExerciseSummary summary = new ExerciseSummary();
+    summary.setInjectsTotal(4);
+    summary.setInjectsExecuted(1);
+    summary.setInjectDates(new long[] {now - 60_000, now - 30_000, now + 60_000});
+
+    Map<String, Long> statistics = summary.getInjectStatistics();
+
+    assertEquals(4L, statistics.get("total_count"));
+    assertEquals(1L, statistics.get("total_executed"));
+    assertEquals(3L, statistics.get("total_remaining"));
+    assertEquals(2L, statistics.get("total_past"));
+    assertEquals(1L, statistics.get("total_future"));
+    assertEquals(25L, statistics.get("total_progress"));
+  }
+
+  @Test
+  @DisplayName("Should return the first pending inject date after the current time")
+  void given_pending_inject_dates_should_return_next_execution() {
+    long now = Instant.now().toEpochMilli();
+    ExerciseSummary summary = new ExerciseSummary();
+    summary.setPendingInjectDates(new long[] {now - 60_000, now + 60_000, now + 120_000});
+
+    assertEquals(Optional.of(Instant.ofEpochMilli(now + 60_000)), summary.getNextInjectExecution());
+
+    summary.setPendingInjectDates(new long[] {now - 60_000});
+    assertTrue(summary.getNextInjectExecution().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should compute inject statistics live while the exercise is paused")
+  void given_paused_exercise_should_not_read_stored_inject_dates() {
+    long now = Instant.now().toEpochMilli();
+    ExerciseSummary summary = new ExerciseSummary();
+    summary.setInjectsTotal(4);
+    summary.setInjectDates(new long[] {now - 60_000});
+    summary.setPendingInjectDates(new long[] {now + 60_000});
+    Exercise exercise = new Exercise();
+    exercise.setStart(Instant.ofEpochMilli(now - 120_000));
+    exercise.setCurrentPause(Instant.ofEpochMilli(now - 30_000));
+    exercise.setSummary(summary);
+    Inject inject = new Inject();
+    inject.setExercise(exercise);
+    inject.setDependsDuration(0L);
+    exercise.setInjects(List.of(inject));
+
+    assertEquals(1L, exercise.getInjectStatistics().get("total_count"));
+    assertTrue(exercise.getNextInjectExecution().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should compute the summary while the stored one was never refreshed")
+  void given_summary_never_refreshed_should_compute_summary() {
+    ExerciseSummary summary = new ExerciseSummary();
+    summary.setInjectsTotal(4);
+    summary.setUpdatedAt(null);
+    Exercise exercise = new Exercise();
+    exercise.setSummary(summary);
+    exercise.setInjects(List.of(new Inject()));
+
+    assertEquals(1L, exercise.getInjectStatistics().get("total_count"));
+  }
+}
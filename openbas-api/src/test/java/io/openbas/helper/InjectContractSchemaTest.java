@@ -0,0 +1,114 @@
+package io.openbas.helper;
+
+import static io.openbas.utils.fixtures.InjectorContractFixture.createDefaultInjectorContract;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.openbas.database.model.InjectorContract;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InjectContractSchemaTest {
+
+  private static final String CONTENT =
+      """
+      {"fields": [
+        {"key": "teams", "type": "team", "mandatory": false},
+        {"key": "subject", "type": "text", "mandatory": true},
+        {"key": "body", "type": "textarea", "mandatory": false, "defaultValue": "Hello"},
+        {"key": "mode", "type": "select", "mandatory": false},
+        {"key": "target", "type": "text", "mandatory": false,
+         "mandatoryConditionField": "mode", "mandatoryConditionValue": "targeted"}
+      ]}
+      """;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private InjectorContract contract(String content) {
+    InjectorContract injectorContract = createDefaultInjectorContract();
+    injectorContract.setContent(content);
+    return injectorContract;
+  }
+
+  private ObjectNode content(String json) throws Exception {
+    return mapper.readValue(json, ObjectNode.class);
+  }
+
+  @Test
+  @DisplayName("Should not be ready when a mandatory field is missing")
+  void given_missing_mandatory_field_should_not_be_ready() throws Exception {
+    InjectorContract injectorContract = contract(CONTENT);
+
+    assertFalse(
+        InjectModelHelper.isReady(
+            injectorContract,
+            content("{\"subject\": \"\"}"),
+            true,
+            List.of(),
+            List.of(),
+            List.of()));
+    assertTrue(
+        InjectModelHelper.isReady(
+            injectorContract,
+            content("{\"subject\": \"Phishing\"}"),
+            true,
+            List.of(),
+            List.of(),
+            List.of()));
+  }
+
+  @Test
+  @DisplayName("Should only require a conditional field when its condition value is set")
+  void given_conditional_field_should_check_it_only_on_condition_value() throws Exception {
+    InjectorContract injectorContract = contract(CONTENT);
+
+    assertTrue(
+        InjectModelHelper.isReady(
+            injectorContract,
+            content("{\"subject\": \"Phishing\", \"mode\": \"broadcast\"}"),
+            true,
+            List.of(),
+            List.of(),
+            List.of()));
+    assertFalse(
+        InjectModelHelper.isReady(
+            injectorContract,
+            content("{\"subject\": \"Phishing\", \"mode\": \"targeted\"}"),
+            true,
+            List.of(),
+            List.of(),
+            List.of()));
+    assertTrue(
+        InjectModelHelper.isReady(
+            injectorContract,
+            content("{\"subject\": \"Phishing\", \"mode\": \"targeted\", \"target\": \"ceo\"}"),
+            true,
+            List.of(),
+            List.of(),
+            List.of()));
+  }
+
+  @Test
+  @DisplayName("Should reuse the compiled schema until the contract changes")
+  void given_unchanged_contract_should_reuse_compiled_schema() throws Exception {
+    InjectorContract injectorContract = contract(CONTENT);
+
+    InjectContractSchema schema = InjectContractSchema.of(injectorContract);
+    assertSame(schema, InjectContractSchema.of(injectorContract));
+
+    injectorContract.setContent(
+        "{\"fields\": [{\"key\": \"teams\", \"type\": \"team\", \"mandatory\": true}]}");
+    InjectContractSchema updated = InjectContractSchema.of(injectorContract);
+    assertFalse(updated.isReady(content("{}"), false, List.of(), List.of(), List.of()));
+
+    injectorContract.setUpdatedAt(Instant.now().plusSeconds(60));
+    assertTrue(
+        InjectContractSchema.of(injectorContract)
+            .isReady(content("{}"), false, List.of("team"), List.of(), List.of()));
+  }
+}
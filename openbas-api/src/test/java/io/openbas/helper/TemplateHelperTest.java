@@ -0,0 +1,55 @@
+package io.openbas.helper;
+
+import static io.openbas.helper.TemplateHelper.buildContextualContent;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.openbas.database.model.User;
+import io.openbas.execution.ExecutionContext;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@Slf4j
+class TemplateHelperTest {
+
+  private static final String SUBJECT = "Hello ${user.firstname}";
+  private static final String BODY =
+      "<p>Dear ${user.firstname} ${user.lastname},</p><p>Your teams: ${teams?join(\", \")}</p>";
+
+  private ExecutionContext context(int index) {
+    User user = new User();
+    user.setFirstname("First" + index);
+    user.setLastname("Last" + index);
+    user.setEmail("user" + index + "@openbas.io");
+    return new ExecutionContext(user, List.of("Red", "Blue"));
+  }
+
+  @Test
+  @DisplayName("Should render the same compiled template for every recipient")
+  void given_same_content_should_reuse_compiled_template() throws Exception {
+    assertSame(TemplateHelper.getTemplate(BODY), TemplateHelper.getTemplate(BODY));
+
+    assertEquals("Hello First1", buildContextualContent(SUBJECT, context(1)));
+    assertEquals("Hello First2", buildContextualContent(SUBJECT, context(2)));
+    assertEquals(
+        "<p>Dear First3 Last3,</p><p>Your teams: Red, Blue</p>",
+        buildContextualContent(BODY, context(3)));
+  }
+
+  @Test
+  @DisplayName("Should render subject and body for many recipients")
+  void given_many_recipients_should_render_each_of_them() throws Exception {
+    int recipients = 2000;
+    long start = System.nanoTime();
+    for (int i = 0; i < recipients; i++) {
+      ExecutionContext context = context(i);
+      assertEquals("Hello First" + i, buildContextualContent(SUBJECT, context));
+      buildContextualContent(BODY, context);
+    }
+    long elapsed = System.nanoTime() - start;
+    log.info(
+        "Rendered {} recipients, {} µs per recipient", recipients, elapsed / recipients / 1000);
+  }
+}
@@ -104,6 +104,20 @@ class V1_DataImporterTest extends IntegrationTest {
     assertEquals(TAG_NAME, tag.getFirst().getName());
   }
 
+  @Test
+  @Transactional
+  void testImportData_twice_should_reuse_existing_references() {
+    // -- EXECUTE --
+    this.importer.importData(this.importNode, Map.of(), null, null);
+    this.importer.importData(this.importNode, Map.of(), null, null);
+
+    // -- ASSERT --
+    assertEquals(1, this.tagRepository.findByNameIgnoreCase(TAG_NAME).size());
+    assertEquals(1, this.organizationRepository.findByNameIgnoreCase(ORGANIZATION_NAME).size());
+    assertEquals(1, this.teamRepository.findByNameIgnoreCaseAndNotContextual(TEAM_NAME).size());
+    assertTrue(this.userRepository.findByEmailIgnoreCase(USER_EMAIL).isPresent());
+  }
+
   @Test
   @Transactional
   void testScenario_with_attackpattern() throws IOException {
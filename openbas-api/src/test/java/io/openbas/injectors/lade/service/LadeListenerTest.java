@@ -0,0 +1,197 @@
+package io.openbas.injectors.lade.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.openbas.database.model.*;
+import io.openbas.database.repository.InjectRepository;
+import io.openbas.database.repository.InjectStatusRepository;
+import io.openbas.injectors.lade.config.LadeConfig;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LadeListenerTest {
+
+  private static final int POLL_CONCURRENCY = 4;
+
+  private HttpServer server;
+  private final Map<String, String> workflowStates = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> workflowRequests = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private volatile long responseDelay = 0;
+
+  private InjectRepository injectRepository;
+  private InjectStatusRepository injectStatusRepository;
+  private LadeListener ladeListener;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // Local stub of the Lade API
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/api/token/issue", exchange -> respond(exchange, "{\"access_token\": \"token\"}"));
+    server.createContext("/api/workflows/", this::workflow);
+    server.createContext(
+        "/api/workzones/",
+        exchange ->
+            respond(exchange, "[{\"level\": \"info\", \"message\": \"Workflow started\"}]"));
+    server.start();
+
+    LadeConfig config = new LadeConfig();
+    config.setUrl("http://localhost:" + server.getAddress().getPort());
+    config.setSession(30);
+    config.setUsername("lade");
+    config.setPassword("lade");
+    config.setPollConcurrency(POLL_CONCURRENCY);
+    config.setPollMaxInterval(300);
+    LadeService ladeService = new LadeService();
+    ladeService.setConfig(config);
+    ReflectionTestUtils.setField(ladeService, "mapper", new ObjectMapper());
+
+    injectRepository = mock(InjectRepository.class);
+    injectStatusRepository = mock(InjectStatusRepository.class);
+    ladeListener =
+        new LadeListener(
+            injectRepository,
+            injectStatusRepository,
+            ladeService,
+            config,
+            mock(MetricRegistry.class));
+    ladeListener.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    ladeListener.destroy();
+    server.stop(0);
+  }
+
+  private void workflow(HttpExchange exchange) throws IOException {
+    String workflowId = exchange.getRequestURI().getPath().substring("/api/workflows/".length());
+    workflowRequests.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet();
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(responseDelay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+    String state = workflowStates.getOrDefault(workflowId, "running");
+    respond(
+        exchange,
+        "{\"status\": \""
+            + state
+            + "\", \"workzone_identifier\": \"workzone\", \"complete_time\": \""
+            + Instant.now()
+            + "\"}");
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(bytes);
+    }
+  }
+
+  private static InjectStatus pendingStatus(String workflowId) {
+    Inject inject = new Inject();
+    inject.setId(UUID.randomUUID().toString());
+    InjectStatus injectStatus = new InjectStatus();
+    injectStatus.setId(UUID.randomUUID().toString());
+    injectStatus.setName(ExecutionStatus.PENDING);
+    injectStatus.setInject(inject);
+    injectStatus.addTrace(
+        ExecutionTrace.getNewSuccessTrace(
+            "Workflow started", ExecutionTraceAction.COMPLETE, List.of(workflowId)));
+    return injectStatus;
+  }
+
+  @Test
+  @DisplayName("Should only save injects whose workflow reports something new")
+  void given_unchanged_workflow_should_not_save_inject() {
+    InjectStatus running = pendingStatus("wf-running");
+    InjectStatus done = pendingStatus("wf-done");
+    workflowStates.put("wf-done", "succeeded");
+    when(injectStatusRepository.pendingForInjectType(any())).thenReturn(List.of(running, done));
+
+    ladeListener.listenWorkflows();
+
+    verify(injectRepository, times(1)).save(done.getInject());
+    verify(injectRepository, never()).save(running.getInject());
+    assertEquals(ExecutionStatus.SUCCESS, done.getName());
+    assertEquals(ExecutionStatus.PENDING, running.getName());
+  }
+
+  @Test
+  @DisplayName("Should not poll a workflow again before its interval elapsed")
+  void given_recent_poll_should_wait_for_next_interval() {
+    InjectStatus running = pendingStatus("wf-running");
+    when(injectStatusRepository.pendingForInjectType(any())).thenReturn(List.of(running));
+
+    ladeListener.listenWorkflows();
+    ladeListener.listenWorkflows();
+
+    assertEquals(1, workflowRequests.get("wf-running").get());
+  }
+
+  @Test
+  @DisplayName("Should poll workflows concurrently within the configured bound")
+  void given_many_workflows_should_poll_with_bounded_concurrency() {
+    responseDelay = 100;
+    List<InjectStatus> statuses =
+        IntStream.range(0, 12).mapToObj(i -> pendingStatus("wf-" + i)).toList();
+    when(injectStatusRepository.pendingForInjectType(any())).thenReturn(statuses);
+
+    ladeListener.listenWorkflows();
+
+    assertEquals(12, workflowRequests.size());
+    assertTrue(maxInFlight.get() > 1);
+    assertTrue(maxInFlight.get() <= POLL_CONCURRENCY);
+  }
+
+  @Test
+  @DisplayName("Should back off up to the maximum interval and reset when the workflow moves")
+  void given_unchanged_polls_should_back_off_until_reset() {
+    LadeListener.WorkflowPoll poll = new LadeListener.WorkflowPoll("wf");
+    Instant now = Instant.now();
+    Duration max = Duration.ofSeconds(100);
+    assertTrue(poll.isDue(now));
+
+    poll.backoff(now, max);
+    assertTrue(poll.isDue(now.plusSeconds(30)));
+    assertTrue(!poll.isDue(now.plusSeconds(29)));
+
+    poll.backoff(now, max);
+    poll.backoff(now, max);
+    assertTrue(poll.isDue(now.plusSeconds(100)));
+    assertTrue(!poll.isDue(now.plusSeconds(99)));
+
+    poll.reset(now);
+    assertTrue(poll.isDue(now.plus(LadeListener.POLL_INTERVAL)));
+  }
+}
@@ -7,11 +7,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import io.openbas.database.model.Endpoint;
 import io.openbas.database.raw.RawAsset;
 import io.openbas.database.raw.RawAssetGroup;
+import io.openbas.database.raw.RawInjectExpectation;
+import io.openbas.database.raw.RawInjectExpectationRollup;
+import io.openbas.database.raw.impl.SimpleRawInjectExpectation;
 import io.openbas.rest.atomic_testing.form.InjectTargetWithResult;
 import io.openbas.utils.AtomicTestingUtils;
+import io.openbas.utils.AtomicTestingUtils.ExpectationResultsByType;
 import io.openbas.utils.TargetType;
 import io.openbas.utils.fixtures.RawAssetFixture;
 import io.openbas.utils.fixtures.RawAssetGroupFixture;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
@@ -87,4 +92,79 @@ class AtomicTestingUtilsTest {
             .count(),
         "Expected asset group to have 1 child");
   }
+
+  @Test
+  @DisplayName("Expectation results from rollups match the results from raw expectations")
+  void shouldComputeSameExpectationResultsFromRollups() {
+    // -- PREPARE --
+    List<RawInjectExpectation> expectations = new ArrayList<>();
+    expectations.add(rawExpectation("PREVENTION", 100.0, 100.0));
+    expectations.add(rawExpectation("PREVENTION", 0.0, 100.0));
+    expectations.add(rawExpectation("PREVENTION", null, 100.0));
+    expectations.add(rawExpectation("DETECTION", 100.0, 100.0));
+    expectations.add(rawExpectation("MANUAL", 50.0, 100.0));
+    expectations.add(rawExpectation("CHALLENGE", 0.0, 100.0));
+
+    List<RawInjectExpectationRollup> rollups =
+        List.of(
+            rollup("PREVENTION", 1, 0, 1, 1),
+            rollup("DETECTION", 1, 0, 0, 0),
+            rollup("MANUAL", 0, 1, 0, 0),
+            rollup("CHALLENGE", 0, 0, 0, 1));
+
+    // -- EXECUTE --
+    List<ExpectationResultsByType> fromRaw =
+        AtomicTestingUtils.getExpectationResultByTypesFromRaw(expectations);
+    List<ExpectationResultsByType> fromRollups =
+        AtomicTestingUtils.getExpectationResultByTypesFromRollups(rollups);
+
+    // -- ASSERT --
+    assertEquals(fromRaw, fromRollups, "Rollups should give the same results as raw expectations");
+  }
+
+  private static RawInjectExpectation rawExpectation(
+      String type, Double score, Double expectedScore) {
+    SimpleRawInjectExpectation expectation = new SimpleRawInjectExpectation();
+    expectation.setInject_expectation_type(type);
+    expectation.setInject_expectation_score(score);
+    expectation.setInject_expectation_expected_score(expectedScore);
+    return expectation;
+  }
+
+  private static RawInjectExpectationRollup rollup(
+      String type, long success, long partial, long pending, long failed) {
+    return new RawInjectExpectationRollup() {
+      public String getAttack_pattern_id() {
+        return null;
+      }
+
+      public String getInject_id() {
+        return null;
+      }
+
+      public String getInject_title() {
+        return null;
+      }
+
+      public String getInject_expectation_type() {
+        return type;
+      }
+
+      public long getSuccess_count() {
+        return success;
+      }
+
+      public long getPartial_count() {
+        return partial;
+      }
+
+      public long getPending_count() {
+        return pending;
+      }
+
+      public long getFailed_count() {
+        return failed;
+      }
+    };
+  }
 }
@@ -4,14 +4,19 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.openbas.rest.health_check.HealthCheckApi;
 import io.openbas.service.HealthCheckService;
+import io.openbas.service.HealthCheckService.HealthCheckResult;
 import io.openbas.service.exception.HealthCheckFailureException;
+import java.time.Instant;
+import java.util.Map;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -35,9 +40,13 @@ public class HealthCheckApiTest {
   @DisplayName("Test healthCheck")
   @Test
   void test_healthCheck() throws Exception {
+    when(healthCheckService.runHealthCheck())
+        .thenReturn(new HealthCheckResult(Instant.now().minusSeconds(5), Map.of()));
     ResponseEntity<?> responseEntity = healthCheckApi.healthCheck(KEY);
     verify(healthCheckService).runHealthCheck();
-    assertEquals(new ResponseEntity<>("success", HttpStatus.OK), responseEntity);
+    assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+    assertEquals("success", responseEntity.getBody());
+    assertEquals("5", responseEntity.getHeaders().getFirst(HttpHeaders.AGE));
   }
 
   @DisplayName("Test healthCheck with wrong key")
@@ -18,6 +18,7 @@ import io.openbas.rest.payload.form.PayloadCreateInput;
 import io.openbas.rest.payload.form.PayloadUpdateInput;
 import io.openbas.rest.payload.form.PayloadUpsertInput;
 import io.openbas.rest.payload.form.PayloadsDeprecateInput;
+import io.openbas.rest.payload.form.PayloadsUpsertInput;
 import io.openbas.utils.fixtures.PayloadFixture;
 import io.openbas.utils.fixtures.PayloadInputFixture;
 import io.openbas.utils.mockUser.WithMockAdminUser;
@@ -610,4 +611,49 @@ class PayloadApiTest extends IntegrationTest {
         .andExpect(jsonPath("$.payload_collector").value(collectorId))
         .andExpect(jsonPath("$.payload_status").value("UNVERIFIED"));
   }
+
+  @Test
+  @DisplayName("Bulk upsert Payloads writing only the changed ones")
+  @WithMockPlannerUser
+  void given_payloads_upsert_input_should_write_only_changed_payloads() throws Exception {
+    // -- PREPARE --
+    PayloadUpsertInput payloadUpsertInput1 =
+        PayloadInputFixture.getDefaultCommandPayloadUpsertInput();
+    payloadUpsertInput1.setExternalId("bulk-external-id-1");
+    PayloadUpsertInput payloadUpsertInput2 =
+        PayloadInputFixture.getDefaultCommandPayloadUpsertInput();
+    payloadUpsertInput2.setName("Command Payload 2");
+    payloadUpsertInput2.setExternalId("bulk-external-id-2");
+
+    // -- EXECUTE & ASSERT --
+    mvc.perform(
+            post(PAYLOAD_URI + "/upsert/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    asJsonString(
+                        new PayloadsUpsertInput(
+                            List.of(payloadUpsertInput1, payloadUpsertInput2)))))
+        .andExpect(status().is2xxSuccessful())
+        .andExpect(jsonPath("$.payloads_created").value(2))
+        .andExpect(jsonPath("$.payloads_updated").value(0))
+        .andExpect(jsonPath("$.payloads_unchanged").value(0));
+
+    payloadUpsertInput2.setDescription("New description");
+    mvc.perform(
+            post(PAYLOAD_URI + "/upsert/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    asJsonString(
+                        new PayloadsUpsertInput(
+                            List.of(payloadUpsertInput1, payloadUpsertInput2)))))
+        .andExpect(status().is2xxSuccessful())
+        .andExpect(jsonPath("$.payloads_created").value(0))
+        .andExpect(jsonPath("$.payloads_updated").value(1))
+        .andExpect(jsonPath("$.payloads_unchanged").value(1));
+
+    Payload payload = payloadRepository.findByExternalId("bulk-external-id-2").orElseThrow();
+    mvc.perform(get(PAYLOAD_URI + "/" + payload.getId()))
+        .andExpect(status().is2xxSuccessful())
+        .andExpect(jsonPath("$.payload_description").value("New description"));
+  }
 }
@@ -135,6 +135,47 @@ public class ExerciseApiSearchTest extends IntegrationTest {
       }
     }
 
+    @Nested
+    @DisplayName("Keyset page of exercises")
+    class KeysetPageOfExercises {
+
+      @Test
+      @DisplayName("Retrieving the page after an exercise")
+      void given_after_cursor_should_return_the_exercises_following_it() throws Exception {
+        SearchPaginationInput searchPaginationInput =
+            PaginationFixture.getDefault()
+                .size(1)
+                .sorts(List.of(SortField.builder().property("exercise_name").build()))
+                .after(EXERCISE_IDS.getFirst())
+                .build();
+
+        mvc.perform(
+                post(EXERCISE_URI + "/search")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(searchPaginationInput)))
+            .andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.numberOfElements").value(1))
+            .andExpect(jsonPath("$.content.[0].exercise_name").value("Incident response exercise"));
+      }
+
+      @Test
+      @DisplayName("Retrieving nothing after the last exercise")
+      void given_last_element_as_cursor_should_return_an_empty_page() throws Exception {
+        SearchPaginationInput searchPaginationInput =
+            PaginationFixture.getDefault()
+                .sorts(List.of(SortField.builder().property("exercise_name").build()))
+                .after(EXERCISE_IDS.getLast())
+                .build();
+
+        mvc.perform(
+                post(EXERCISE_URI + "/search")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(searchPaginationInput)))
+            .andExpect(status().is2xxSuccessful())
+            .andExpect(jsonPath("$.numberOfElements").value(0));
+      }
+    }
+
     @Nested
     @DisplayName("Filtering page of exercises")
     class FilteringPageOfExercises {
@@ -1,5 +1,7 @@
 package io.openbas.rest.finding;
 
+import static io.openbas.database.audit.ModelBaseListener.DATA_PERSIST;
+import static io.openbas.database.audit.ModelBaseListener.DATA_UPDATE;
 import static io.openbas.utils.fixtures.AssetFixture.createDefaultAsset;
 import static io.openbas.utils.fixtures.InjectFixture.getDefaultInject;
 import static io.openbas.utils.fixtures.OutputParserFixture.getDefaultContractOutputElement;
@@ -8,6 +10,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.openbas.database.audit.BaseEvent;
 import io.openbas.database.model.*;
 import io.openbas.database.repository.*;
 import java.util.*;
@@ -21,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class FindingUtilsTest {
@@ -42,13 +47,14 @@ class FindingUtilsTest {
   public static final String ASSET_2 = "asset2";
 
   @Mock private FindingRepository findingRepository;
-  private final ObjectMapper mapper = new ObjectMapper();
+  @Mock private ApplicationEventPublisher appPublisher;
+  private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
   private FindingUtils findingUtils;
 
   @BeforeEach
   void setup() {
-    findingUtils = new FindingUtils(mapper, findingRepository);
+    findingUtils = new FindingUtils(mapper, findingRepository, appPublisher);
   }
 
   private Matcher getMatcher(String regex, String input) {
@@ -297,7 +303,7 @@ class FindingUtilsTest {
 
   @Test
   @DisplayName("Should have two assets for a finding")
-  void given_a_finding_already_existent_with_one_asset_should_have_two_assets() {
+  void given_a_finding_already_extracted_with_one_asset_should_have_two_assets() {
     Inject inject = getDefaultInject();
     Asset asset1 = createDefaultAsset(ASSET_1);
     asset1.setId(ASSET_1);
@@ -305,53 +311,105 @@ class FindingUtilsTest {
     asset2.setId(ASSET_2);
     String value = "value-already-existent";
     ContractOutputElement contractOutputElement = getDefaultContractOutputElement();
+    Map<String, Finding> findings = new LinkedHashMap<>();
 
-    Finding finding1 = new Finding();
-    finding1.setValue(value);
-    finding1.setInject(inject);
-    finding1.setField(contractOutputElement.getKey());
-    finding1.setType(contractOutputElement.getType());
-    finding1.setAssets(new ArrayList<>(Arrays.asList(asset1)));
+    findingUtils.buildFinding(inject, asset1, contractOutputElement, value, findings);
+    findingUtils.buildFinding(inject, asset2, contractOutputElement, value, findings);
 
-    when(findingRepository.findByInjectIdAndValueAndTypeAndKey(
-            inject.getId(), value, contractOutputElement.getType(), contractOutputElement.getKey()))
-        .thenReturn(Optional.of(finding1));
-
-    findingUtils.buildFinding(inject, asset2, contractOutputElement, value);
-
-    ArgumentCaptor<Finding> findingCaptor = ArgumentCaptor.forClass(Finding.class);
-    verify(findingRepository).save(findingCaptor.capture());
-    Finding capturedFinding = findingCaptor.getValue();
-
-    assertEquals(2, capturedFinding.getAssets().size());
+    assertEquals(1, findings.size());
+    Finding finding = findings.values().iterator().next();
+    assertEquals(2, finding.getAssets().size());
     Set<String> assetIds =
-        capturedFinding.getAssets().stream().map(Asset::getId).collect(Collectors.toSet());
+        finding.getAssets().stream().map(Asset::getId).collect(Collectors.toSet());
     assertTrue(assetIds.contains(ASSET_1));
     assertTrue(assetIds.contains(ASSET_2));
+    verifyNoInteractions(findingRepository);
   }
 
   @Test
   @DisplayName("Should have one asset for a finding")
-  void given_a_finding_already_existent_with_same_asset_should_have_one_assets() {
+  void given_a_finding_already_extracted_with_same_asset_should_have_one_assets() {
     Inject inject = getDefaultInject();
     Asset asset1 = createDefaultAsset(ASSET_1);
     asset1.setId(ASSET_1);
     String value = "value-already-existent";
     ContractOutputElement contractOutputElement = getDefaultContractOutputElement();
+    Map<String, Finding> findings = new LinkedHashMap<>();
 
-    Finding finding1 = new Finding();
-    finding1.setValue(value);
-    finding1.setInject(inject);
-    finding1.setField(contractOutputElement.getKey());
-    finding1.setType(contractOutputElement.getType());
-    finding1.setAssets(new ArrayList<>(Arrays.asList(asset1)));
+    findingUtils.buildFinding(inject, asset1, contractOutputElement, value, findings);
+    findingUtils.buildFinding(inject, asset1, contractOutputElement, value, findings);
 
-    when(findingRepository.findByInjectIdAndValueAndTypeAndKey(
-            inject.getId(), value, contractOutputElement.getType(), contractOutputElement.getKey()))
-        .thenReturn(Optional.of(finding1));
+    assertEquals(1, findings.size());
+    assertEquals(1, findings.values().iterator().next().getAssets().size());
+  }
+
+  @Test
+  @DisplayName("Should upsert all findings of a callback with one statement per table")
+  void given_extracted_findings_should_upsert_them_in_one_batch() {
+    Inject inject = getDefaultInject();
+    inject.setId("inject-id");
+    Asset asset1 = createDefaultAsset(ASSET_1);
+    asset1.setId(ASSET_1);
+    ContractOutputElement contractOutputElement = getDefaultContractOutputElement();
+    contractOutputElement.setKey("key");
+    Map<String, Finding> findings = new LinkedHashMap<>();
+
+    findingUtils.computeFindingUsingRegexRules(
+        inject,
+        asset1,
+        SIMPLE_RAW_OUTPUT_NETSTAT + SIMPLE_RAW_OUTPUT_NETSTAT,
+        Set.of(ipContractOutputElement(contractOutputElement)),
+        findings);
+    findingUtils.upsertFindings(inject, findings.values());
+
+    ArgumentCaptor<String[]> valuesCaptor = ArgumentCaptor.forClass(String[].class);
+    verify(findingRepository, times(1))
+        .upsertFindings(eq("inject-id"), any(), any(), any(), valuesCaptor.capture(), any());
+    assertEquals(4, valuesCaptor.getValue().length);
+    ArgumentCaptor<String[]> assetsCaptor = ArgumentCaptor.forClass(String[].class);
+    verify(findingRepository, times(1))
+        .linkAssets(eq("inject-id"), any(), any(), any(), assetsCaptor.capture());
+    assertEquals(4, assetsCaptor.getValue().length);
+    verify(findingRepository, never()).linkTeams(any(), any(), any(), any(), any());
+    verify(findingRepository, never()).linkUsers(any(), any(), any(), any(), any());
+  }
 
-    findingUtils.buildFinding(inject, asset1, contractOutputElement, value);
+  @Test
+  @DisplayName("Should notify the stream of inserted and updated findings after the upsert")
+  void given_upserted_findings_should_publish_persist_and_update_events() {
+    Inject inject = getDefaultInject();
+    inject.setId("inject-id");
+    Finding inserted = new Finding();
+    inserted.setInject(inject);
+    inserted.setField("key");
+    inserted.setType(ContractOutputType.Text);
+    inserted.setValue("inserted");
+    Finding existing = new Finding();
+    existing.setInject(inject);
+    existing.setField("key");
+    existing.setType(ContractOutputType.Text);
+    existing.setValue("existing");
+    // The existing finding keeps the id it was first inserted with
+    Finding existingRow = new Finding();
+    existingRow.setId("existing-id");
+    existingRow.setInject(inject);
+    when(findingRepository.findAllByInjectIdAndKeys(eq("inject-id"), any(), any(), any()))
+        .thenReturn(List.of(inserted, existingRow));
+
+    findingUtils.upsertFindings(inject, List.of(inserted, existing));
+
+    ArgumentCaptor<BaseEvent> eventCaptor = ArgumentCaptor.forClass(BaseEvent.class);
+    verify(appPublisher, times(2)).publishEvent(eventCaptor.capture());
+    assertEquals(inserted, eventCaptor.getAllValues().get(0).getInstance());
+    assertEquals(DATA_PERSIST, eventCaptor.getAllValues().get(0).getType());
+    assertEquals(existingRow, eventCaptor.getAllValues().get(1).getInstance());
+    assertEquals(DATA_UPDATE, eventCaptor.getAllValues().get(1).getType());
+  }
 
-    verify(findingRepository, never()).save(any());
+  private ContractOutputElement ipContractOutputElement(ContractOutputElement element) {
+    element.setType(ContractOutputType.IPv4);
+    element.setRule("(\\d+\\.\\d+\\.\\d+\\.\\d+):\\d+");
+    element.setFinding(true);
+    return element;
   }
 }
@@ -12,6 +12,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -59,6 +60,7 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.util.ResourceUtils;
 
@@ -240,6 +242,48 @@ class InjectApiTest extends IntegrationTest {
     assertEquals("Test inject", JsonPath.read(response, "$.inject_title"));
   }
 
+  @DisplayName("Stream inject results for simulation")
+  @Test
+  @WithMockPlannerUser
+  void streamInjectResultsForSimulationTest() throws Exception {
+    // -- PREPARE --
+    Inject inject = new Inject();
+    inject.setTitle("Inject for results stream");
+    inject.setDependsDuration(0L);
+    inject.setInjectorContract(injectorContractRepository.findById(EMAIL_DEFAULT).orElseThrow());
+    inject.setExercise(EXERCISE);
+    Inject createdInject = injectRepository.save(inject);
+
+    // -- EXECUTE --
+    String results =
+        mvc.perform(
+                get(EXERCISE_URI + "/" + EXERCISE.getId() + "/injects/results")
+                    .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    MvcResult streamResult =
+        mvc.perform(get(EXERCISE_URI + "/" + EXERCISE.getId() + "/injects/results/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String stream =
+        mvc.perform(asyncDispatch(streamResult))
+            .andExpect(status().is2xxSuccessful())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // -- ASSERT --
+    List<String> expectedIds = JsonPath.read(results, "$[*].inject_id");
+    List<String> streamedIds =
+        stream.lines().map(line -> JsonPath.<String>read(line, "$.inject_id")).toList();
+    assertTrue(streamedIds.contains(createdInject.getId()));
+    assertEquals(expectedIds, streamedIds);
+
+    injectRepository.delete(createdInject);
+  }
+
   @DisplayName("Update inject for simulation")
   @Test
   @WithMockPlannerUser
@@ -0,0 +1,140 @@
+package io.openbas.rest.scenario;
+
+import static io.openbas.database.audit.ModelBaseListener.DATA_PERSIST;
+import static io.openbas.injectors.email.EmailContract.EMAIL_DEFAULT;
+import static io.openbas.utils.fixtures.AssetGroupFixture.createDefaultAssetGroup;
+import static io.openbas.utils.fixtures.DocumentFixture.getDocumentJpeg;
+import static io.openbas.utils.fixtures.EndpointFixture.createEndpoint;
+import static io.openbas.utils.fixtures.InjectFixture.getInjectForEmailContract;
+import static io.openbas.utils.fixtures.TagFixture.getTag;
+import static io.openbas.utils.fixtures.TeamFixture.getDefaultTeam;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.openbas.database.audit.BaseEvent;
+import io.openbas.database.model.*;
+import io.openbas.database.repository.*;
+import io.openbas.service.ScenarioService;
+import io.openbas.service.ScenarioToExerciseService;
+import io.openbas.utils.fixtures.ScenarioFixture;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional
+@RecordApplicationEvents
+class ScenarioToExerciseInjectsTest {
+
+  @Autowired private ScenarioToExerciseService scenarioToExerciseService;
+  @Autowired private ScenarioService scenarioService;
+  @Autowired private TeamRepository teamRepository;
+  @Autowired private TagRepository tagRepository;
+  @Autowired private EndpointRepository endpointRepository;
+  @Autowired private AssetGroupRepository assetGroupRepository;
+  @Autowired private DocumentRepository documentRepository;
+  @Autowired private InjectRepository injectRepository;
+  @Autowired private InjectorContractRepository injectorContractRepository;
+  @Autowired private ApplicationEvents applicationEvents;
+
+  private static List<String> ids(Collection<? extends Base> elements) {
+    return elements.stream().map(Base::getId).sorted().toList();
+  }
+
+  private static List<String> documentIds(Inject inject) {
+    return inject.getDocuments().stream()
+        .map(injectDocument -> injectDocument.getDocument().getId())
+        .sorted()
+        .toList();
+  }
+
+  private static List<String> parentIds(Inject inject) {
+    return inject.getDependsOn().stream()
+        .map(dependency -> dependency.getCompositeId().getInjectParent().getId())
+        .toList();
+  }
+
+  @DisplayName("Given a scenario should copy its injects with their relations into the simulation")
+  @Test
+  void given_scenario_should_copy_injects_with_their_relations() {
+    // -- PREPARE --
+    Team team = this.teamRepository.save(getDefaultTeam());
+    Tag tag = this.tagRepository.save(getTag());
+    Endpoint endpoint = this.endpointRepository.save(createEndpoint());
+    AssetGroup assetGroup = this.assetGroupRepository.save(createDefaultAssetGroup("Group"));
+    Document document = this.documentRepository.save(getDocumentJpeg());
+
+    Scenario scenario = ScenarioFixture.getScenario();
+    scenario.setTeams(new ArrayList<>(List.of(team)));
+    Scenario scenarioSaved = this.scenarioService.createScenario(scenario);
+
+    InjectorContract emailContract =
+        this.injectorContractRepository.findById(EMAIL_DEFAULT).orElseThrow();
+    Inject parent = getInjectForEmailContract(emailContract);
+    parent.setTitle("Parent inject");
+    parent.setScenario(scenarioSaved);
+    parent.setTeams(new ArrayList<>(List.of(team)));
+    parent.setAssets(new ArrayList<>(List.of(endpoint)));
+    parent.setAssetGroups(new ArrayList<>(List.of(assetGroup)));
+    parent.setTags(new HashSet<>(Set.of(tag)));
+    InjectDocument injectDocument = new InjectDocument();
+    injectDocument.setInject(parent);
+    injectDocument.setDocument(document);
+    parent.setDocuments(new ArrayList<>(List.of(injectDocument)));
+    Inject parentSaved = this.injectRepository.save(parent);
+
+    Inject child = getInjectForEmailContract(emailContract);
+    child.setTitle("Child inject");
+    child.setScenario(scenarioSaved);
+    InjectDependency dependency = new InjectDependency();
+    dependency.getCompositeId().setInjectParent(parentSaved);
+    dependency.getCompositeId().setInjectChildren(child);
+    child.setDependsOn(new ArrayList<>(List.of(dependency)));
+    Inject childSaved = this.injectRepository.save(child);
+
+    scenarioSaved.setInjects(new HashSet<>(Set.of(parentSaved, childSaved)));
+
+    // -- EXECUTE --
+    Exercise exercise = this.scenarioToExerciseService.toExercise(scenarioSaved, null, false);
+
+    // -- ASSERT --
+    Map<String, Inject> copies =
+        exercise.getInjects().stream()
+            .collect(Collectors.toMap(Inject::getTitle, Function.identity()));
+    assertEquals(2, copies.size());
+    for (Inject source : List.of(parentSaved, childSaved)) {
+      Inject copy = copies.get(source.getTitle());
+      assertNotNull(copy, "Inject " + source.getTitle() + " should be copied");
+      assertNotEquals(source.getId(), copy.getId());
+      assertEquals(exercise.getId(), copy.getExercise().getId());
+      assertEquals(ids(source.getTeams()), ids(copy.getTeams()));
+      assertEquals(ids(source.getAssets()), ids(copy.getAssets()));
+      assertEquals(ids(source.getAssetGroups()), ids(copy.getAssetGroups()));
+      assertEquals(ids(source.getTags()), ids(copy.getTags()));
+      assertEquals(documentIds(source), documentIds(copy));
+    }
+    assertEquals(List.of(team.getId()), ids(copies.get("Parent inject").getTeams()));
+    assertEquals(List.of(document.getId()), documentIds(copies.get("Parent inject")));
+    // The dependency links the copies together, not the scenario injects
+    assertEquals(
+        List.of(copies.get("Parent inject").getId()), parentIds(copies.get("Child inject")));
+    assertTrue(copies.get("Parent inject").getDependsOn().isEmpty());
+
+    List<String> persistedInjectIds =
+        this.applicationEvents.stream(BaseEvent.class)
+            .filter(event -> DATA_PERSIST.equals(event.getType()))
+            .map(BaseEvent::getInstance)
+            .filter(Inject.class::isInstance)
+            .map(Base::getId)
+            .toList();
+    assertTrue(persistedInjectIds.containsAll(ids(copies.values())));
+  }
+}
@@ -0,0 +1,97 @@
+package io.openbas.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import io.openbas.database.model.*;
+import io.openbas.database.repository.*;
+import io.openbas.search.FullTextSearchService.FullTextSearchCountResult;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FullTextSearchServiceTest {
+
+  @Mock private AssetRepository assetRepository;
+  @Mock private AssetGroupRepository assetGroupRepository;
+  @Mock private UserRepository userRepository;
+  @Mock private TeamRepository teamRepository;
+  @Mock private OrganizationRepository organizationRepository;
+  @Mock private ScenarioRepository scenarioRepository;
+  @Mock private ExerciseRepository exerciseRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @InjectMocks private FullTextSearchService<Base> fullTextSearchService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(fullTextSearchService, "countConcurrency", 4);
+    ReflectionTestUtils.setField(fullTextSearchService, "countTimeout", 1);
+    fullTextSearchService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    fullTextSearchService.destroy();
+  }
+
+  @Test
+  @DisplayName("Count every entity type matching the search term")
+  @SuppressWarnings("unchecked")
+  void given_searchTerm_should_countEveryType() {
+    // -- PREPARE --
+    when(assetRepository.count(any(Specification.class))).thenReturn(3L);
+    when(scenarioRepository.count(any(Specification.class))).thenReturn(2L);
+
+    // -- EXECUTE --
+    Map<Class<Base>, FullTextSearchCountResult> results =
+        fullTextSearchService.fullTextSearch("search");
+
+    // -- ASSERT --
+    assertEquals(7, results.size());
+    assertEquals(3L, results.get(Asset.class).getCount());
+    assertEquals(2L, results.get(Scenario.class).getCount());
+    assertEquals(0L, results.get(Exercise.class).getCount());
+    results.values().forEach(result -> assertFalse(result.isPartial()));
+  }
+
+  @Test
+  @DisplayName("Flag as partial the types whose count does not finish in time")
+  @SuppressWarnings("unchecked")
+  void given_slowCount_should_returnPartialResults() {
+    // -- PREPARE --
+    when(assetRepository.count(any(Specification.class))).thenReturn(3L);
+    when(exerciseRepository.count(any(Specification.class)))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(5000);
+              return 1L;
+            });
+
+    // -- EXECUTE --
+    Map<Class<Base>, FullTextSearchCountResult> results =
+        fullTextSearchService.fullTextSearch("search");
+
+    // -- ASSERT --
+    assertEquals(7, results.size());
+    assertEquals(3L, results.get(Asset.class).getCount());
+    assertFalse(results.get(Asset.class).isPartial());
+    assertTrue(results.get(Exercise.class).isPartial());
+  }
+}
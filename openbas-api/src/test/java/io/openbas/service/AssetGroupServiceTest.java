@@ -0,0 +1,178 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import io.openbas.database.model.AssetGroup;
+import io.openbas.database.model.Endpoint;
+import io.openbas.database.model.Filters;
+import io.openbas.database.raw.RawAssetGroupDynamicFilter;
+import io.openbas.database.repository.AssetGroupRepository;
+import io.openbas.database.repository.EndpointRepository;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import io.openbas.utils.fixtures.AssetGroupFixture;
+import io.openbas.utils.fixtures.EndpointFixture;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AssetGroupServiceTest {
+
+  private static final String ASSET_GROUP_ID = "asset-group-id";
+
+  @Mock private AssetGroupRepository assetGroupRepository;
+  @Mock private AssetService assetService;
+  @Mock private EndpointService endpointService;
+  @Mock private EndpointRepository endpointRepository;
+  @Mock private MetricRegistry metricRegistry;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @InjectMocks private AssetGroupService assetGroupService;
+
+  private AssetGroup assetGroup;
+  private Endpoint endpoint;
+
+  @BeforeEach
+  void setUp() {
+    assetGroupService.init();
+
+    Filters.Filter filter = new Filters.Filter();
+    filter.setKey("endpoint_platform");
+    filter.setOperator(Filters.FilterOperator.eq);
+    filter.setValues(List.of("Windows"));
+    Filters.FilterGroup filterGroup = new Filters.FilterGroup();
+    filterGroup.setMode(Filters.FilterMode.and);
+    filterGroup.setFilters(List.of(filter));
+
+    assetGroup = AssetGroupFixture.createDefaultAssetGroup("Dynamic group");
+    assetGroup.setId(ASSET_GROUP_ID);
+    assetGroup.setDynamicFilter(filterGroup);
+
+    endpoint = EndpointFixture.createEndpoint();
+    endpoint.setId("endpoint-id");
+  }
+
+  @Test
+  @DisplayName("Fresh dynamic assets are read from the materialized members")
+  @SuppressWarnings("unchecked")
+  void given_freshAssetGroup_should_readMaterializedDynamicAssets() {
+    // -- PREPARE --
+    when(assetGroupRepository.freshDynamicAssetGroupIds(any())).thenReturn(Set.of(ASSET_GROUP_ID));
+    when(assetGroupRepository.dynamicAssetsChanges()).thenReturn(Set.of());
+    when(assetGroupRepository.dynamicAssetIds(any()))
+        .thenReturn(List.<Object[]>of(new Object[] {ASSET_GROUP_ID, endpoint.getId()}));
+    when(endpointRepository.findDynamicEndpointsOfAssetGroups(any())).thenReturn(List.of(endpoint));
+
+    // -- EXECUTE --
+    AssetGroup result = assetGroupService.computeDynamicAssets(assetGroup);
+
+    // -- ASSERT --
+    assertEquals(List.of(endpoint), result.getDynamicAssets());
+    verify(endpointService, never()).endpoints(any(Specification.class));
+  }
+
+  @Test
+  @DisplayName("Changed endpoints of fresh dynamic assets are evaluated from the filter")
+  @SuppressWarnings("unchecked")
+  void given_changedEndpoints_should_evaluateThemFromDynamicFilter() {
+    // -- PREPARE --
+    Endpoint changed = EndpointFixture.createEndpoint();
+    changed.setId("changed-endpoint-id");
+    when(assetGroupRepository.freshDynamicAssetGroupIds(any())).thenReturn(Set.of(ASSET_GROUP_ID));
+    when(assetGroupRepository.dynamicAssetsChanges())
+        .thenReturn(Set.of(endpoint.getId(), changed.getId()));
+    when(assetGroupRepository.dynamicAssetIds(any()))
+        .thenReturn(List.<Object[]>of(new Object[] {ASSET_GROUP_ID, endpoint.getId()}));
+    when(endpointRepository.findDynamicEndpointsOfAssetGroups(any())).thenReturn(List.of(endpoint));
+    when(endpointService.endpoints(any(Specification.class))).thenReturn(List.of(changed));
+
+    // -- EXECUTE --
+    AssetGroup result = assetGroupService.computeDynamicAssets(assetGroup);
+
+    // -- ASSERT --
+    assertEquals(List.of(changed), result.getDynamicAssets());
+  }
+
+  @Test
+  @DisplayName("Stale dynamic assets are evaluated from the filter")
+  @SuppressWarnings("unchecked")
+  void given_staleAssetGroup_should_evaluateDynamicFilter() {
+    // -- PREPARE --
+    when(assetGroupRepository.freshDynamicAssetGroupIds(any())).thenReturn(Set.of());
+    when(endpointService.endpoints(any(Specification.class))).thenReturn(List.of(endpoint));
+
+    // -- EXECUTE --
+    AssetGroup result = assetGroupService.computeDynamicAssets(assetGroup);
+
+    // -- ASSERT --
+    assertEquals(List.of(endpoint), result.getDynamicAssets());
+    verify(endpointRepository, never()).findDynamicEndpointsOfAssetGroups(any());
+    verify(assetGroupRepository, never()).dynamicAssetsChanges();
+  }
+
+  @Test
+  @DisplayName("Refresh replaces the members of the stale groups it claims")
+  @SuppressWarnings("unchecked")
+  void given_staleAssetGroups_should_refreshClaimedOnes() {
+    // -- PREPARE --
+    when(assetGroupRepository.staleDynamicAssetGroupIds())
+        .thenReturn(List.of(ASSET_GROUP_ID, "claimed-elsewhere"));
+    when(assetGroupRepository.claimStaleDynamicAssets(ASSET_GROUP_ID)).thenReturn(1);
+    when(assetGroupRepository.claimStaleDynamicAssets("claimed-elsewhere")).thenReturn(0);
+    when(assetGroupRepository.findById(ASSET_GROUP_ID)).thenReturn(Optional.of(assetGroup));
+    when(assetGroupRepository.claimDynamicAssetsChanges(anyInt())).thenReturn(List.of());
+    when(endpointService.endpoints(any(Specification.class))).thenReturn(List.of(endpoint));
+
+    // -- EXECUTE --
+    assetGroupService.refreshDynamicAssets();
+
+    // -- ASSERT --
+    verify(assetGroupRepository).deleteDynamicAssets(ASSET_GROUP_ID);
+    verify(assetGroupRepository)
+        .insertDynamicAssets(ASSET_GROUP_ID, new String[] {endpoint.getId()});
+    verify(assetGroupRepository, never()).deleteDynamicAssets("claimed-elsewhere");
+    verify(assetGroupRepository, times(1)).insertDynamicAssets(anyString(), any());
+    verify(assetGroupRepository, never()).lockFreshDynamicFilters();
+  }
+
+  @Test
+  @DisplayName("Refresh re-evaluates the changed endpoints against the fresh groups")
+  @SuppressWarnings("unchecked")
+  void given_changedEndpoints_should_refreshThemInFreshGroups() {
+    // -- PREPARE --
+    List<String> changedIds = List.of(endpoint.getId(), "deleted-endpoint-id");
+    RawAssetGroupDynamicFilter freshAssetGroup = mock(RawAssetGroupDynamicFilter.class);
+    when(freshAssetGroup.getAsset_group_id()).thenReturn(ASSET_GROUP_ID);
+    when(freshAssetGroup.getAssetGroupDynamicFilter()).thenReturn(assetGroup.getDynamicFilter());
+    when(assetGroupRepository.staleDynamicAssetGroupIds()).thenReturn(List.of());
+    when(assetGroupRepository.claimDynamicAssetsChanges(anyInt())).thenReturn(changedIds);
+    when(assetGroupRepository.lockFreshDynamicFilters()).thenReturn(List.of(freshAssetGroup));
+    when(endpointService.endpoints(any(Specification.class))).thenReturn(List.of(endpoint));
+
+    // -- EXECUTE --
+    assetGroupService.refreshDynamicAssets();
+
+    // -- ASSERT --
+    verify(assetGroupRepository).deleteDynamicAssets(ASSET_GROUP_ID, changedIds);
+    verify(assetGroupRepository)
+        .insertDynamicAssets(ASSET_GROUP_ID, new String[] {endpoint.getId()});
+    verify(assetGroupRepository).deleteDynamicAssetsChanges(changedIds);
+    verify(assetGroupRepository, times(1)).claimDynamicAssetsChanges(anyInt());
+  }
+}
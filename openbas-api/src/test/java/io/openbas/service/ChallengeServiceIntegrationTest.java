@@ -0,0 +1,133 @@
+package io.openbas.service;
+
+import static io.openbas.injectors.challenge.ChallengeContract.CHALLENGE_PUBLISH;
+import static io.openbas.injectors.email.EmailContract.EMAIL_DEFAULT;
+import static io.openbas.utils.fixtures.ChallengeFixture.createDefaultChallenge;
+import static io.openbas.utils.fixtures.ExerciseFixture.getExercise;
+import static io.openbas.utils.fixtures.InjectFixture.createDefaultInjectChallenge;
+import static io.openbas.utils.fixtures.InjectFixture.getInjectForEmailContract;
+import static io.openbas.utils.fixtures.ScenarioFixture.createDefaultCrisisScenario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openbas.IntegrationTest;
+import io.openbas.database.model.*;
+import io.openbas.database.repository.*;
+import jakarta.annotation.Resource;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@TestInstance(PER_CLASS)
+@Transactional
+class ChallengeServiceIntegrationTest extends IntegrationTest {
+
+  @Autowired private ChallengeService challengeService;
+  @Autowired private ChallengeRepository challengeRepository;
+  @Autowired private ExerciseRepository exerciseRepository;
+  @Autowired private ScenarioRepository scenarioRepository;
+  @Autowired private InjectRepository injectRepository;
+  @Autowired private InjectorContractRepository injectorContractRepository;
+  @Autowired private EntityManager entityManager;
+  @Resource private ObjectMapper objectMapper;
+
+  private Inject challengeInject(List<String> challengeIds) {
+    return createDefaultInjectChallenge(
+        this.injectorContractRepository.findById(CHALLENGE_PUBLISH).orElseThrow(),
+        this.objectMapper,
+        challengeIds);
+  }
+
+  @DisplayName("Given challenge publish injects should link their simulation and scenario")
+  @Test
+  void given_challenge_publish_injects_should_link_their_simulation_and_scenario() {
+    // -- PREPARE --
+    Challenge challenge = this.challengeRepository.save(createDefaultChallenge());
+    Exercise exercise = this.exerciseRepository.save(getExercise());
+    Scenario scenario = this.scenarioRepository.save(createDefaultCrisisScenario());
+
+    Inject exerciseInject = challengeInject(List.of(challenge.getId()));
+    exerciseInject.setExercise(exercise);
+    this.injectRepository.save(exerciseInject);
+    Inject scenarioInject = challengeInject(List.of(challenge.getId()));
+    scenarioInject.setScenario(scenario);
+    this.injectRepository.saveAndFlush(scenarioInject);
+
+    // -- EXECUTE --
+    Challenge enriched = this.challengeService.enrichChallengeWithExercisesOrScenarios(challenge);
+
+    // -- ASSERT --
+    assertEquals(List.of(exercise.getId()), enriched.getExerciseIds());
+    assertEquals(List.of(scenario.getId()), enriched.getScenarioIds());
+  }
+
+  @DisplayName("Given an inject saved before its challenge should link it once created")
+  @Test
+  void given_inject_saved_before_its_challenge_should_link_it_once_created() {
+    // -- PREPARE --
+    Exercise exercise = this.exerciseRepository.save(getExercise());
+    String challengeId = "f0e1d2c3-b4a5-4678-9abc-def012345678";
+    Inject inject = challengeInject(List.of(challengeId));
+    inject.setExercise(exercise);
+    this.injectRepository.saveAndFlush(inject);
+
+    // -- EXECUTE --
+    // The id is chosen up front, which the entity generator does not allow
+    this.entityManager
+        .createNativeQuery(
+            "INSERT INTO challenges (challenge_id, challenge_name) VALUES (:id, 'Late challenge')")
+        .setParameter("id", challengeId)
+        .executeUpdate();
+    Challenge enriched =
+        this.challengeService.enrichChallengeWithExercisesOrScenarios(
+            this.challengeRepository.findById(challengeId).orElseThrow());
+
+    // -- ASSERT --
+    assertEquals(List.of(exercise.getId()), enriched.getExerciseIds());
+  }
+
+  @DisplayName("Given an updated inject content should follow the new challenge list")
+  @Test
+  void given_updated_inject_content_should_follow_the_new_challenge_list() {
+    // -- PREPARE --
+    Challenge challenge = this.challengeRepository.save(createDefaultChallenge());
+    Exercise exercise = this.exerciseRepository.save(getExercise());
+    Inject inject = challengeInject(List.of(challenge.getId()));
+    inject.setExercise(exercise);
+    inject = this.injectRepository.saveAndFlush(inject);
+
+    // -- EXECUTE --
+    inject.setContent(challengeInject(List.of()).getContent());
+    this.injectRepository.saveAndFlush(inject);
+    Challenge enriched = this.challengeService.enrichChallengeWithExercisesOrScenarios(challenge);
+
+    // -- ASSERT --
+    assertTrue(enriched.getExerciseIds().isEmpty());
+  }
+
+  @DisplayName("Given another contract referencing the challenge should not link it")
+  @Test
+  void given_another_contract_referencing_the_challenge_should_not_link_it() {
+    // -- PREPARE --
+    Challenge challenge = this.challengeRepository.save(createDefaultChallenge());
+    Exercise exercise = this.exerciseRepository.save(getExercise());
+    Inject inject =
+        getInjectForEmailContract(
+            this.injectorContractRepository.findById(EMAIL_DEFAULT).orElseThrow());
+    inject.setContent(challengeInject(List.of(challenge.getId())).getContent());
+    inject.setExercise(exercise);
+    this.injectRepository.saveAndFlush(inject);
+
+    // -- EXECUTE --
+    Challenge enriched = this.challengeService.enrichChallengeWithExercisesOrScenarios(challenge);
+
+    // -- ASSERT --
+    assertTrue(enriched.getExerciseIds().isEmpty());
+  }
+}
@@ -0,0 +1,84 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import io.openbas.database.model.Challenge;
+import io.openbas.database.raw.RawChallengeUsage;
+import io.openbas.database.repository.InjectRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeServiceTest {
+
+  @Mock private InjectRepository injectRepository;
+
+  @InjectMocks private ChallengeService challengeService;
+
+  private static Challenge challenge(String id) {
+    Challenge challenge = new Challenge();
+    challenge.setId(id);
+    return challenge;
+  }
+
+  private static RawChallengeUsage usage(
+      String challengeId, List<String> exerciseIds, List<String> scenarioIds) {
+    return new RawChallengeUsage() {
+      @Override
+      public String getChallenge_id() {
+        return challengeId;
+      }
+
+      @Override
+      public List<String> getChallenge_exercises() {
+        return exerciseIds;
+      }
+
+      @Override
+      public List<String> getChallenge_scenarios() {
+        return scenarioIds;
+      }
+    };
+  }
+
+  @DisplayName("Enrich all the challenges with a single query")
+  @Test
+  void given_challenges_should_enrich_with_one_query() {
+    // -- PREPARE --
+    Challenge used = challenge("used");
+    Challenge unused = challenge("unused");
+    when(injectRepository.rawChallengeUsages(List.of("used", "unused")))
+        .thenReturn(List.of(usage("used", List.of("exercise"), List.of("scenario"))));
+
+    // -- EXECUTE --
+    List<Challenge> challenges =
+        challengeService.enrichChallengesWithExercisesOrScenarios(List.of(used, unused));
+
+    // -- ASSERT --
+    verify(injectRepository, times(1)).rawChallengeUsages(anyCollection());
+    assertEquals(List.of(used, unused), challenges);
+    assertEquals(List.of("exercise"), used.getExerciseIds());
+    assertEquals(List.of("scenario"), used.getScenarioIds());
+    assertEquals(List.of(), unused.getExerciseIds());
+    assertEquals(List.of(), unused.getScenarioIds());
+  }
+
+  @DisplayName("Skip the query when there is no challenge")
+  @Test
+  void given_no_challenge_should_not_query() {
+    // -- EXECUTE --
+    List<Challenge> challenges =
+        challengeService.enrichChallengesWithExercisesOrScenarios(List.of());
+
+    // -- ASSERT --
+    assertEquals(List.of(), challenges);
+    verifyNoInteractions(injectRepository);
+  }
+}
@@ -0,0 +1,157 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.openbas.database.model.Execution;
+import io.openbas.database.model.ExecutionTrace;
+import io.openbas.database.model.ExecutionTraceStatus;
+import io.openbas.database.model.User;
+import io.openbas.execution.ExecutionContext;
+import io.openbas.injectors.email.service.EmailService;
+import io.openbas.injectors.email.service.ImapService;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
+import jakarta.mail.Folder;
+import jakarta.mail.Store;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EmailDeliveryTest {
+
+  private static final String IMAP_USER = "openbas@openbas.io";
+  private static final String IMAP_PASSWORD = "secret";
+
+  @RegisterExtension
+  static GreenMailExtension greenMail =
+      new GreenMailExtension(ServerSetupTest.SMTP_IMAP)
+          .withConfiguration(GreenMailConfiguration.aConfig().withUser(IMAP_USER, IMAP_PASSWORD));
+
+  private EmailService emailService;
+
+  @BeforeEach
+  void setUp() {
+    JavaMailSenderImpl emailSender = new JavaMailSenderImpl();
+    emailSender.setHost("localhost");
+    emailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+    MockEnvironment env =
+        new MockEnvironment()
+            .withProperty("openbas.mail.imap.enabled", "true")
+            .withProperty("openbas.mail.imap.host", "localhost")
+            .withProperty("openbas.mail.imap.port", String.valueOf(ServerSetupTest.IMAP.getPort()))
+            .withProperty("openbas.mail.imap.username", IMAP_USER)
+            .withProperty("openbas.mail.imap.password", IMAP_PASSWORD)
+            .withProperty("openbas.mail.imap.sent", "Sent")
+            .withProperty("openbas.mail.imap.ssl.enable", "false")
+            .withProperty("openbas.mail.imap.ssl.trust", "*")
+            .withProperty("openbas.mail.imap.auth", "true")
+            .withProperty("openbas.mail.imap.starttls.enable", "false");
+    ImapService imapService = new ImapService(env, mock(PlatformSettingsService.class));
+    ReflectionTestUtils.setField(imapService, "enabled", true);
+    ReflectionTestUtils.setField(imapService, "sentFolder", "Sent");
+
+    emailService = new EmailService();
+    emailService.setEmailSender(emailSender);
+    emailService.setImapService(imapService);
+    ReflectionTestUtils.setField(emailService, "imapEnabled", true);
+    ReflectionTestUtils.setField(emailService, "smtpParallelism", 4);
+    ReflectionTestUtils.setField(emailService, "smtpBatchSize", 10);
+    emailService.setMetricRegistry(mock(MetricRegistry.class));
+    emailService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    emailService.destroy();
+  }
+
+  private List<ExecutionContext> users(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(
+            i -> {
+              User user = new User();
+              user.setId(UUID.randomUUID().toString());
+              user.setEmail("player" + i + "@openbas.io");
+              user.setFirstname("Player" + i);
+              return new ExecutionContext(user, List.of());
+            })
+        .toList();
+  }
+
+  private long countTraces(Execution execution, ExecutionTraceStatus status) {
+    return execution.getTraces().stream()
+        .map(ExecutionTrace::getStatus)
+        .filter(status::equals)
+        .count();
+  }
+
+  @Test
+  @DisplayName("Should deliver a personal email to each user and store them in IMAP")
+  void given_many_users_should_deliver_and_store_each_email() throws Exception {
+    Execution execution = new Execution(true);
+
+    emailService.sendEmails(
+        execution,
+        users(45),
+        "simulation@openbas.io",
+        List.of("simulation@openbas.io"),
+        null,
+        false,
+        "Hello ${user.firstname}",
+        "<p>Click here ${user.firstname}</p>",
+        Collections.emptyList());
+
+    // GreenMail counts both delivered emails and their copies stored in the sent folder
+    assertEquals(45 * 2, greenMail.getReceivedMessages().length);
+    assertEquals(0, countTraces(execution, ExecutionTraceStatus.ERROR));
+    // One delivery trace per user and one IMAP trace per batch
+    assertEquals(45 + 5, countTraces(execution, ExecutionTraceStatus.SUCCESS));
+
+    Store store = greenMail.getImap().createStore();
+    store.connect(IMAP_USER, IMAP_PASSWORD);
+    try (Folder sent = store.getFolder("Sent")) {
+      sent.open(Folder.READ_ONLY);
+      assertEquals(45, sent.getMessageCount());
+    } finally {
+      store.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Should trace each user whose email cannot be delivered")
+  void given_unreachable_smtp_should_trace_errors_per_user() throws Exception {
+    JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+    unreachable.setHost("localhost");
+    unreachable.setPort(1);
+    emailService.setEmailSender(unreachable);
+    ReflectionTestUtils.setField(emailService, "imapEnabled", false);
+    Execution execution = new Execution(true);
+
+    emailService.sendEmails(
+        execution,
+        users(3),
+        "simulation@openbas.io",
+        List.of("simulation@openbas.io"),
+        null,
+        false,
+        "Hello",
+        "Body",
+        Collections.emptyList());
+
+    assertEquals(3, countTraces(execution, ExecutionTraceStatus.ERROR));
+    assertEquals(0, countTraces(execution, ExecutionTraceStatus.SUCCESS));
+  }
+}
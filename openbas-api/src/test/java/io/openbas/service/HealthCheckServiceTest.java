@@ -1,8 +1,8 @@
 package io.openbas.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
@@ -12,15 +12,21 @@ import io.minio.errors.*;
 import io.openbas.config.MinioConfig;
 import io.openbas.database.repository.*;
 import io.openbas.driver.MinioDriver;
+import io.openbas.service.HealthCheckService.DependencyCheck;
+import io.openbas.service.HealthCheckService.HealthCheckResult;
 import io.openbas.service.exception.HealthCheckFailureException;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @SpringBootTest
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -37,6 +43,57 @@ class HealthCheckServiceTest {
 
   @InjectMocks private HealthCheckService healthCheckService;
 
+  @BeforeEach
+  void setUp() {
+    // Start without kept connections, mock injection fills them by type
+    healthCheckService.destroy();
+    ReflectionTestUtils.setField(healthCheckService, "lastResult", null);
+    ReflectionTestUtils.setField(healthCheckService, "healthCheckInterval", 15L);
+  }
+
+  private void setLastResult(Instant checkedAt, DependencyCheck rabbitMQCheck) {
+    ReflectionTestUtils.setField(
+        healthCheckService,
+        "lastResult",
+        new HealthCheckResult(
+            checkedAt,
+            Map.of(
+                HealthCheckService.DATABASE,
+                new DependencyCheck(true, 1, null),
+                HealthCheckService.RABBITMQ,
+                rabbitMQCheck)));
+  }
+
+  @DisplayName("Test runHealthCheck serves the last result without touching dependencies")
+  @Test
+  void test_runHealthCheck_WITH_last_result() throws HealthCheckFailureException {
+    clearInvocations(healthCheckRepository, connectionFactory);
+    Instant checkedAt = Instant.now();
+    setLastResult(checkedAt, new DependencyCheck(true, 1, null));
+
+    HealthCheckResult result = healthCheckService.runHealthCheck();
+    healthCheckService.runHealthCheck();
+
+    assertEquals(checkedAt, result.checkedAt());
+    verifyNoInteractions(healthCheckRepository, connectionFactory);
+  }
+
+  @DisplayName("Test runHealthCheck when a dependency failed its last check")
+  @Test
+  void test_runHealthCheck_WITH_failed_dependency() {
+    setLastResult(Instant.now(), new DependencyCheck(false, 2000, "RabbitMQ check failure"));
+    HealthCheckFailureException exception =
+        assertThrows(HealthCheckFailureException.class, () -> healthCheckService.runHealthCheck());
+    assertEquals("RabbitMQ check failure", exception.getMessage());
+  }
+
+  @DisplayName("Test runHealthCheck when the last result is stale")
+  @Test
+  void test_runHealthCheck_WITH_stale_result() {
+    setLastResult(Instant.now().minusSeconds(60), new DependencyCheck(true, 1, null));
+    assertThrows(HealthCheckFailureException.class, () -> healthCheckService.runHealthCheck());
+  }
+
   @DisplayName("Test runDatabaseCheck")
   @Test
   void test_runDatabaseCheck() {
@@ -83,6 +140,27 @@ class HealthCheckServiceTest {
     healthCheckService.runRabbitMQCheck(connectionFactory);
   }
 
+  @DisplayName("Test runRabbitMQCheck reuses the open connection")
+  @Test
+  void test_runRabbitMQCheck_WITH_open_connection()
+      throws HealthCheckFailureException, IOException, TimeoutException {
+    clearInvocations(connection);
+    AtomicInteger newConnections = new AtomicInteger();
+    when(connectionFactory.newConnection())
+        .thenAnswer(
+            invocation -> {
+              newConnections.incrementAndGet();
+              return connection;
+            });
+    when(connection.isOpen()).thenReturn(true);
+
+    healthCheckService.runRabbitMQCheck(connectionFactory);
+    healthCheckService.runRabbitMQCheck(connectionFactory);
+
+    assertEquals(1, newConnections.get());
+    verify(connection, times(2)).createChannel();
+  }
+
   @DisplayName("Test runRabbitMQCheck when check fails")
   @Test
   void test_runRabbitMQCheck_WHEN_connection_throws_exception()
@@ -0,0 +1,103 @@
+package io.openbas.service;
+
+import static io.openbas.injectors.email.EmailContract.EMAIL_DEFAULT;
+import static io.openbas.service.InjectExpectationBulkService.INSERT_BATCH_SIZE;
+import static io.openbas.utils.fixtures.ExerciseFixture.getExercise;
+import static io.openbas.utils.fixtures.InjectExpectationFixture.createDetectionInjectExpectation;
+import static io.openbas.utils.fixtures.InjectExpectationFixture.createPreventionInjectExpectation;
+import static io.openbas.utils.fixtures.InjectFixture.getInjectForEmailContract;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+import io.openbas.database.model.Exercise;
+import io.openbas.database.model.Inject;
+import io.openbas.database.model.InjectExpectation;
+import io.openbas.database.repository.ExerciseRepository;
+import io.openbas.database.repository.InjectExpectationRepository;
+import io.openbas.database.repository.InjectRepository;
+import io.openbas.database.repository.InjectorContractRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(PER_CLASS)
+@Transactional
+class InjectExpectationBulkServiceIntegrationTest {
+
+  @Autowired private InjectExpectationBulkService injectExpectationBulkService;
+  @Autowired private InjectExpectationRepository injectExpectationRepository;
+  @Autowired private ExerciseRepository exerciseRepository;
+  @Autowired private InjectRepository injectRepository;
+  @Autowired private InjectorContractRepository injectorContractRepository;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Inject inject(Exercise exercise) {
+    Inject inject =
+        getInjectForEmailContract(
+            this.injectorContractRepository.findById(EMAIL_DEFAULT).orElseThrow());
+    inject.setExercise(exercise);
+    return this.injectRepository.save(inject);
+  }
+
+  private static List<InjectExpectation> expectations(Inject inject, int count) {
+    List<InjectExpectation> expectations = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      InjectExpectation expectation =
+          i % 2 == 0
+              ? createPreventionInjectExpectation(null, inject)
+              : createDetectionInjectExpectation(null, inject);
+      expectation.setExercise(inject.getExercise());
+      expectations.add(expectation);
+    }
+    return expectations;
+  }
+
+  /** Number of statements sent to the database to insert the expectations of a detached inject. */
+  private long insertStatements(Statistics statistics, Inject inject, int count) {
+    List<InjectExpectation> expectations = expectations(inject, count);
+    this.entityManager.flush();
+    this.entityManager.clear();
+    statistics.clear();
+    this.injectExpectationBulkService.insertAll(inject, expectations);
+    return statistics.getPrepareStatementCount();
+  }
+
+  @DisplayName("Given many expectations should write them with one statement per batch")
+  @Test
+  void given_many_expectations_should_write_them_with_one_statement_per_batch() {
+    // -- PREPARE --
+    Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    Exercise exercise = this.exerciseRepository.save(getExercise());
+    Inject first = inject(exercise);
+    Inject second = inject(exercise);
+
+    // -- EXECUTE --
+    long firstStatements = insertStatements(statistics, first, 2 * INSERT_BATCH_SIZE);
+    long secondStatements = insertStatements(statistics, second, 4 * INSERT_BATCH_SIZE);
+
+    // -- ASSERT --
+    // Twice as many expectations only cost the two extra batches
+    assertEquals(2, secondStatements - firstStatements);
+    assertEquals(
+        2 * INSERT_BATCH_SIZE,
+        this.injectExpectationRepository
+            .findAllForExerciseAndInject(exercise.getId(), first.getId())
+            .size());
+    assertEquals(
+        4 * INSERT_BATCH_SIZE,
+        this.injectExpectationRepository
+            .findAllForExerciseAndInject(exercise.getId(), second.getId())
+            .size());
+  }
+}
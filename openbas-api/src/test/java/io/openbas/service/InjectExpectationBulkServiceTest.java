@@ -0,0 +1,145 @@
+package io.openbas.service;
+
+import static io.openbas.database.audit.ModelBaseListener.DATA_UPDATE;
+import static io.openbas.service.InjectExpectationBulkService.INSERT_BATCH_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openbas.database.audit.BaseEvent;
+import io.openbas.database.model.Inject;
+import io.openbas.database.model.InjectExpectation;
+import io.openbas.database.repository.InjectExpectationRepository;
+import io.openbas.utils.fixtures.InjectExpectationFixture;
+import io.openbas.utils.fixtures.InjectFixture;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class InjectExpectationBulkServiceTest {
+
+  @Mock private InjectExpectationRepository injectExpectationRepository;
+  @Mock private ApplicationEventPublisher appPublisher;
+  @Mock private ObjectMapper mapper;
+  @Mock private EntityManager entityManager;
+  @InjectMocks private InjectExpectationBulkService injectExpectationBulkService;
+
+  private final ObjectMapper reader = new ObjectMapper();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(injectExpectationBulkService, "entityManager", entityManager);
+  }
+
+  private Inject inject() {
+    Inject inject = InjectFixture.getDefaultInject();
+    inject.setId(UUID.randomUUID().toString());
+    return inject;
+  }
+
+  @Test
+  @DisplayName("Should hand the expectations of 5,000 agents to the repository in batches")
+  void given_expectations_for_many_agents_should_split_them_in_batches() throws Exception {
+    Inject inject = inject();
+    List<InjectExpectation> expectations = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      expectations.add(InjectExpectationFixture.createPreventionInjectExpectation(null, inject));
+      expectations.add(InjectExpectationFixture.createDetectionInjectExpectation(null, inject));
+    }
+
+    injectExpectationBulkService.insertAll(inject, expectations);
+
+    ArgumentCaptor<String> rows = ArgumentCaptor.forClass(String.class);
+    int expectedBatches = (expectations.size() + INSERT_BATCH_SIZE - 1) / INSERT_BATCH_SIZE;
+    verify(injectExpectationRepository, times(expectedBatches)).insertAll(rows.capture());
+    int written = 0;
+    for (String batch : rows.getAllValues()) {
+      int batchSize = reader.readTree(batch).size();
+      assertTrue(batchSize <= INSERT_BATCH_SIZE);
+      written += batchSize;
+    }
+    assertEquals(expectations.size(), written);
+    expectations.forEach(expectation -> assertNotNull(expectation.getId()));
+  }
+
+  @Test
+  @DisplayName("Should publish a single update of the inject embedding its new expectations")
+  void given_expectations_should_publish_one_inject_update() {
+    Inject inject = inject();
+    List<InjectExpectation> expectations =
+        List.of(
+            InjectExpectationFixture.createPreventionInjectExpectation(null, inject),
+            InjectExpectationFixture.createDetectionInjectExpectation(null, inject));
+
+    injectExpectationBulkService.insertAll(inject, expectations);
+
+    ArgumentCaptor<BaseEvent> events = ArgumentCaptor.forClass(BaseEvent.class);
+    verify(appPublisher, times(1)).publishEvent(events.capture());
+    assertEquals(DATA_UPDATE, events.getValue().getType());
+    assertEquals(inject, events.getValue().getInstance());
+    assertTrue(inject.getExpectations().containsAll(expectations));
+  }
+
+  @Test
+  @DisplayName("Should reload a managed inject before publishing its update")
+  void given_managed_inject_should_reload_it_before_publishing() {
+    Inject inject = inject();
+    List<InjectExpectation> expectations =
+        List.of(InjectExpectationFixture.createPreventionInjectExpectation(null, inject));
+    when(entityManager.contains(inject)).thenReturn(true);
+
+    injectExpectationBulkService.insertAll(inject, expectations);
+
+    InOrder inOrder = inOrder(injectExpectationRepository, entityManager, appPublisher);
+    inOrder.verify(injectExpectationRepository).insertAll(any());
+    inOrder.verify(entityManager).flush();
+    inOrder.verify(entityManager).refresh(inject);
+    inOrder.verify(appPublisher).publishEvent(any(BaseEvent.class));
+    assertTrue(inject.getExpectations().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should map each expectation to a row keyed by column name")
+  void given_expectation_should_write_its_columns() throws Exception {
+    Inject inject = inject();
+    InjectExpectation expectation =
+        InjectExpectationFixture.createPreventionInjectExpectation(null, inject);
+
+    injectExpectationBulkService.insertAll(inject, List.of(expectation));
+
+    ArgumentCaptor<String> rows = ArgumentCaptor.forClass(String.class);
+    verify(injectExpectationRepository).insertAll(rows.capture());
+    JsonNode row = reader.readTree(rows.getValue()).get(0);
+    assertEquals(expectation.getId(), row.get("inject_expectation_id").asText());
+    assertEquals("PREVENTION", row.get("inject_expectation_type").asText());
+    assertEquals(inject.getId(), row.get("inject_id").asText());
+    assertEquals(
+        expectation.getExpirationTime().longValue(), row.get("inject_expiration_time").asLong());
+    assertEquals(0, row.get("inject_expectation_results").size());
+  }
+
+  @Test
+  @DisplayName("Should not write nor notify anything without expectations")
+  void given_no_expectation_should_do_nothing() {
+    injectExpectationBulkService.insertAll(inject(), List.of());
+
+    verifyNoInteractions(injectExpectationRepository, appPublisher);
+  }
+}
@@ -0,0 +1,47 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.openbas.service.InjectSearchService.ResultsCountKey;
+import io.openbas.utils.pagination.SearchPaginationInput;
+import io.openbas.utils.pagination.SortField;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InjectSearchServiceTest {
+
+  private static SearchPaginationInput input(int page, String after) {
+    SearchPaginationInput input = new SearchPaginationInput();
+    input.setPage(page);
+    input.setTextSearch("search");
+    input.setSorts(List.of(new SortField("inject_updated_at", "desc")));
+    input.setAfter(after);
+    return input;
+  }
+
+  @DisplayName("Given offset pages should share the results count")
+  @Test
+  void given_offset_pages_should_share_the_results_count() {
+    // -- EXECUTE --
+    ResultsCountKey first = ResultsCountKey.of("exercise:id", input(0, null));
+    ResultsCountKey second = ResultsCountKey.of("exercise:id", input(1, null));
+
+    // -- ASSERT --
+    assertEquals(first, second);
+  }
+
+  @DisplayName("Given keyset pages should not share the results count")
+  @Test
+  void given_keyset_pages_should_not_share_the_results_count() {
+    // -- EXECUTE --
+    ResultsCountKey first = ResultsCountKey.of("exercise:id", input(0, null));
+    ResultsCountKey second = ResultsCountKey.of("exercise:id", input(0, "inject-1"));
+    ResultsCountKey third = ResultsCountKey.of("exercise:id", input(0, "inject-2"));
+
+    // -- ASSERT --
+    assertNotEquals(first, second);
+    assertNotEquals(second, third);
+  }
+}
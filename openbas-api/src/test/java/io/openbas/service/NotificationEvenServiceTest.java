@@ -1,33 +1,47 @@
 package io.openbas.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.openbas.database.model.DelayedNotificationEvent;
 import io.openbas.database.model.NotificationRuleResourceType;
+import io.openbas.database.repository.DelayedNotificationEventRepository;
 import io.openbas.notification.handler.ScenarioNotificationEventHandler;
 import io.openbas.notification.model.NotificationEvent;
 import io.openbas.notification.model.NotificationEventType;
+import io.openbas.telemetry.metric_collectors.MetricRegistry;
 import java.time.Instant;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @SpringBootTest
 public class NotificationEvenServiceTest {
 
   @Mock private ApplicationEventPublisher appPublisher;
   @Mock private ScenarioNotificationEventHandler scenarioNotificationEventHandler;
-  @Mock private ThreadPoolTaskScheduler taskScheduler;
+  @Mock private DelayedNotificationEventRepository delayedNotificationEventRepository;
+  @Mock private MetricRegistry metricRegistry;
 
   private NotificationEventService notificationEventService;
 
   @BeforeEach
   public void setUp() {
     notificationEventService =
-        new NotificationEventService(appPublisher, scenarioNotificationEventHandler, taskScheduler);
+        new NotificationEventService(
+            appPublisher,
+            scenarioNotificationEventHandler,
+            delayedNotificationEventRepository,
+            metricRegistry);
   }
 
   @Test
@@ -55,4 +69,74 @@ public class NotificationEvenServiceTest {
     notificationEventService.sendNotificationEvent(notificationEvent);
     verify(appPublisher).publishEvent(notificationEvent);
   }
+
+  @Test
+  public void test_send_event_with_delay() {
+    Instant timestamp = Instant.now();
+    NotificationEvent notificationEvent =
+        NotificationEvent.builder()
+            .eventType(NotificationEventType.SIMULATION_COMPLETED)
+            .resourceType(NotificationRuleResourceType.SCENARIO)
+            .timestamp(timestamp)
+            .resourceId("id")
+            .build();
+    notificationEventService.sendNotificationEventWithDelay(notificationEvent, 3600);
+
+    ArgumentCaptor<Instant> dueAt = ArgumentCaptor.forClass(Instant.class);
+    verify(delayedNotificationEventRepository)
+        .enqueue(
+            any(),
+            eq("SIMULATION_COMPLETED"),
+            eq("SCENARIO"),
+            eq("id"),
+            eq(timestamp),
+            dueAt.capture());
+    assertFalse(dueAt.getValue().isBefore(timestamp.plusSeconds(3600)));
+  }
+
+  @Test
+  public void test_dispatch_events_of_same_resource_once() {
+    Instant timestamp = Instant.now();
+    DelayedNotificationEvent first = delayedEvent("first", "scenario", timestamp);
+    DelayedNotificationEvent second = delayedEvent("second", "scenario", timestamp.plusSeconds(5));
+    DelayedNotificationEvent other = delayedEvent("other", "other-scenario", timestamp);
+
+    notificationEventService.dispatchNotificationEvents(List.of(first, second, other));
+
+    ArgumentCaptor<NotificationEvent> handled = ArgumentCaptor.forClass(NotificationEvent.class);
+    verify(scenarioNotificationEventHandler, times(2)).handle(handled.capture());
+    assertEquals(timestamp.plusSeconds(5), handled.getAllValues().get(0).getTimestamp());
+    assertEquals("other-scenario", handled.getAllValues().get(1).getResourceId());
+    verify(delayedNotificationEventRepository).markSent(List.of("first", "second"));
+    verify(delayedNotificationEventRepository).markSent(List.of("other"));
+  }
+
+  @Test
+  public void test_dispatch_failed_event_is_retried() {
+    DelayedNotificationEvent event = delayedEvent("event", "scenario", Instant.now());
+    doThrow(new RuntimeException("SMTP unavailable"))
+        .when(scenarioNotificationEventHandler)
+        .handle(any());
+
+    notificationEventService.dispatchNotificationEvents(List.of(event));
+
+    verify(delayedNotificationEventRepository)
+        .markFailed(
+            List.of("event"),
+            "SMTP unavailable",
+            NotificationEventService.MAX_ATTEMPTS,
+            NotificationEventService.RETRY_DELAY.toSeconds());
+    verify(delayedNotificationEventRepository, never()).markSent(any());
+  }
+
+  private static DelayedNotificationEvent delayedEvent(
+      String id, String resourceId, Instant timestamp) {
+    DelayedNotificationEvent event = new DelayedNotificationEvent();
+    event.setId(id);
+    event.setEventType(NotificationEventType.SIMULATION_COMPLETED.name());
+    event.setResourceType(NotificationRuleResourceType.SCENARIO);
+    event.setResourceId(resourceId);
+    event.setTimestamp(timestamp);
+    return event;
+  }
 }
@@ -1,6 +1,12 @@
 package io.openbas.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.openbas.database.model.NotificationRule;
@@ -8,13 +14,17 @@ import io.openbas.database.model.NotificationRuleResourceType;
 import io.openbas.database.model.NotificationRuleTrigger;
 import io.openbas.database.model.NotificationRuleType;
 import io.openbas.database.repository.NotificationRuleRepository;
+import io.openbas.notification.model.NotificationRuleActivation;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @SpringBootTest
 public class NotificationRuleServiceTest {
@@ -29,13 +39,13 @@ public class NotificationRuleServiceTest {
 
   @Mock private PlatformSettingsService platformSettingsService;
 
-  @InjectMocks private NotificationRuleService notificationRuleService;
+  @Mock private ApplicationEventPublisher eventPublisher;
 
-  @Test
-  public void test_activateNotificationRules() {
+  @InjectMocks private NotificationRuleService notificationRuleService;
 
-    Map<String, String> data = new HashMap<>();
+  private NotificationRule emailRule() {
     NotificationRule rule = new NotificationRule();
+    rule.setId("rule-id");
     rule.setResourceId("id");
     rule.setResourceType(NotificationRuleResourceType.SCENARIO);
     rule.setType(NotificationRuleType.EMAIL);
@@ -44,10 +54,66 @@ public class NotificationRuleServiceTest {
     when(notificationRuleRepository.findNotificationRuleByResourceAndTrigger(
             rule.getResourceId(), rule.getTrigger()))
         .thenReturn(List.of(rule));
+    return rule;
+  }
+
+  @Test
+  public void test_activateNotificationRules() {
+    Map<String, String> data = new HashMap<>();
+    NotificationRule rule = emailRule();
+
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      notificationRuleService.activateNotificationRules(
+          rule.getResourceId(), rule.getTrigger(), data);
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    ArgumentCaptor<NotificationRuleActivation> activation =
+        ArgumentCaptor.forClass(NotificationRuleActivation.class);
+    verify(eventPublisher).publishEvent(activation.capture());
+    assertEquals(rule.getId(), activation.getValue().getRuleId());
+    assertEquals(data, activation.getValue().getData());
+    verifyNoInteractions(emailNotificationService);
+  }
+
+  @Test
+  public void test_activateNotificationRules_without_transaction() {
+    NotificationRule rule = emailRule();
+    doThrow(new RuntimeException("SMTP unavailable"))
+        .when(emailNotificationService)
+        .sendNotification(eq(rule.getId()), any());
+
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            notificationRuleService.activateNotificationRules(
+                rule.getResourceId(), rule.getTrigger(), new HashMap<>()));
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  public void test_deliverNotification() {
+    when(platformSettingsService.defaultThemeLogoBase64()).thenReturn("logo");
+    when(platformSettingsService.isPlatformWhiteMarked()).thenReturn(true);
 
-    notificationRuleService.activateNotificationRules(
-        rule.getResourceId(), rule.getTrigger(), data);
+    notificationRuleService.deliverNotification(
+        NotificationRuleActivation.builder()
+            .ruleId("id")
+            .data(Map.of("scenario_name", "scenario"))
+            .build());
 
-    verify(emailNotificationService).sendNotification(rule, data);
+    verify(emailNotificationService)
+        .sendNotification(
+            eq("id"),
+            eq(
+                Map.of(
+                    "scenario_name",
+                    "scenario",
+                    "custom_logo_b64",
+                    "logo",
+                    "hide_filigran_logo",
+                    "true")));
   }
 }
@@ -6,7 +6,10 @@ import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 
 import io.openbas.config.OpenBASConfig;
 import io.openbas.config.RabbitmqConfig;
+import io.openbas.database.model.Setting;
+import io.openbas.database.model.SettingKeys;
 import io.openbas.rest.settings.PreviewFeature;
+import io.openbas.rest.settings.form.PolicyInput;
 import io.openbas.rest.settings.response.PlatformSettings;
 import io.openbas.utils.mockUser.WithMockAdminUser;
 import jakarta.annotation.Resource;
@@ -78,4 +81,23 @@ public class PlatformServiceSettingsTest {
 
     assertThat(settings.getEnabledDevFeatures(), is(equalTo(List.of(PreviewFeature._RESERVED))));
   }
+
+  @Test
+  @WithMockAdminUser
+  public void given_settings_updated_snapshot_serves_new_values() {
+    platformSettingsService.findSettings();
+    PolicyInput input = new PolicyInput();
+    input.setLoginMessage("Welcome");
+
+    platformSettingsService.updateSettingsPolicies(input);
+
+    PlatformSettings settings = platformSettingsService.findSettings();
+    assertThat(settings.getPolicies().getLoginMessage(), is(equalTo("Welcome")));
+    assertThat(
+        platformSettingsService
+            .setting(SettingKeys.PLATFORM_LOGIN_MESSAGE.key())
+            .map(Setting::getValue)
+            .orElse(null),
+        is(equalTo("Welcome")));
+  }
 }
@@ -0,0 +1,139 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.openbas.database.audit.InjectStatusEvent;
+import io.openbas.service.PlayerContentCacheService.Scope;
+import io.openbas.service.PlayerContentCacheService.Snapshot;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class PlayerContentCacheServiceTest {
+
+  private static final String EXERCISE_ID = "exercise-id";
+  private static final String CHANNEL_ID = "channel-id";
+  private static final String USER_ID = "user-id";
+
+  private PlayerContentCacheService playerContentCacheService;
+  private AtomicInteger loads;
+  private Supplier<Object> loader;
+
+  @BeforeEach
+  void setUp() {
+    playerContentCacheService = new PlayerContentCacheService();
+    ReflectionTestUtils.setField(playerContentCacheService, "mapper", new ObjectMapper());
+    ReflectionTestUtils.setField(playerContentCacheService, "ttl", 60L);
+    ReflectionTestUtils.setField(playerContentCacheService, "size", 100L);
+    playerContentCacheService.init();
+    loads = new AtomicInteger();
+    loader = () -> Map.of("channel_articles", loads.incrementAndGet());
+  }
+
+  private Snapshot channelSnapshot() {
+    return playerContentCacheService.get(Scope.CHANNEL, EXERCISE_ID, CHANNEL_ID, USER_ID, loader);
+  }
+
+  @DisplayName("Serve the snapshot until the content of the simulation changes")
+  @Test
+  void given_snapshot_should_load_again_only_after_invalidation() {
+    // -- EXECUTE --
+    Snapshot first = channelSnapshot();
+    Snapshot second = channelSnapshot();
+    playerContentCacheService.invalidate(Scope.CHALLENGES, EXERCISE_ID);
+    Snapshot third = channelSnapshot();
+    playerContentCacheService.onInjectStatusChange(new InjectStatusEvent("inject-id", EXERCISE_ID));
+    Snapshot fourth = channelSnapshot();
+
+    // -- ASSERT --
+    assertEquals(2, loads.get());
+    assertSame(first, second);
+    assertSame(first, third);
+    assertEquals(2, fourth.content().get("channel_articles").asInt());
+    assertNotEquals(first.eTag(), fourth.eTag());
+  }
+
+  @DisplayName("Keep a snapshot per player and per channel")
+  @Test
+  void given_other_player_or_channel_should_load_its_own_snapshot() {
+    // -- EXECUTE --
+    channelSnapshot();
+    playerContentCacheService.get(Scope.CHANNEL, EXERCISE_ID, CHANNEL_ID, "other-user-id", loader);
+    playerContentCacheService.get(Scope.CHANNEL, EXERCISE_ID, "other-channel-id", USER_ID, loader);
+    playerContentCacheService.invalidateAll();
+    channelSnapshot();
+
+    // -- ASSERT --
+    assertEquals(4, loads.get());
+  }
+
+  @DisplayName("Answer a poll of the current version with a 304")
+  @Test
+  void given_matching_if_none_match_should_return_not_modified() {
+    // -- PREPARE --
+    Snapshot snapshot = channelSnapshot();
+
+    // -- EXECUTE --
+    ResponseEntity<JsonNode> fresh = snapshot.toResponse(null);
+    ResponseEntity<JsonNode> unchanged = snapshot.toResponse("\"other\", W/" + snapshot.eTag());
+    ResponseEntity<JsonNode> changed = snapshot.toResponse("\"other\"");
+
+    // -- ASSERT --
+    assertEquals(HttpStatus.OK, fresh.getStatusCode());
+    assertEquals(snapshot.content(), fresh.getBody());
+    assertEquals(snapshot.eTag(), fresh.getHeaders().getETag());
+    assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+    assertNull(unchanged.getBody());
+    assertEquals(HttpStatus.OK, changed.getStatusCode());
+  }
+
+  @DisplayName("Drop the snapshots only once the transaction commits")
+  @Test
+  void given_transaction_should_invalidate_after_commit_only() {
+    // -- PREPARE --
+    Snapshot first = channelSnapshot();
+
+    // -- EXECUTE --
+    TransactionSynchronizationManager.initSynchronization();
+    Snapshot beforeRollback;
+    Snapshot beforeCommit;
+    try {
+      playerContentCacheService.invalidate(Scope.CHANNEL, EXERCISE_ID);
+      beforeRollback = channelSnapshot();
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Snapshot afterRollback = channelSnapshot();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      playerContentCacheService.invalidate(Scope.CHANNEL, EXERCISE_ID);
+      beforeCommit = channelSnapshot();
+      TransactionSynchronizationUtils.invokeAfterCommit(
+          TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Snapshot afterCommit = channelSnapshot();
+
+    // -- ASSERT --
+    assertSame(first, beforeRollback);
+    assertSame(first, afterRollback);
+    assertSame(first, beforeCommit);
+    assertEquals(2, afterCommit.content().get("channel_articles").asInt());
+    assertEquals(2, loads.get());
+  }
+}
@@ -0,0 +1,170 @@
+package io.openbas.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.openbas.service.utils.SpreadsheetRowReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SpreadsheetRowReaderTest {
+
+  @TempDir Path tempDir;
+
+  private Path write(Workbook workbook, String name) throws IOException {
+    Path file = tempDir.resolve(name);
+    try (workbook;
+        OutputStream out = Files.newOutputStream(file)) {
+      workbook.write(out);
+    }
+    return file;
+  }
+
+  @DisplayName("Stream the typed cells of an xlsx sheet")
+  @Test
+  void given_xlsx_should_stream_typed_cells() throws Exception {
+    // -- PREPARE --
+    Date date = Date.from(LocalDateTime.of(2025, 1, 1, 12, 0).toInstant(ZoneOffset.UTC));
+    XSSFWorkbook workbook = new XSSFWorkbook();
+    workbook.createSheet("Other").createRow(0).createCell(0).setCellValue("ignored");
+    Sheet sheet = workbook.createSheet("Injects");
+    Row first = sheet.createRow(0);
+    first.createCell(0).setCellValue("Email");
+    first.createCell(2).setCellValue(12.5);
+    first.createCell(3).setCellValue(date);
+    first.createCell(4).setCellValue(true);
+    first.createCell(5).setCellFormula("C1*2");
+    Row last = sheet.createRow(3);
+    last.createCell(1).setCellValue("Team A");
+    Path file = write(workbook, "injects.xlsx");
+
+    // -- EXECUTE --
+    List<String> sheetNames = SpreadsheetRowReader.getSheetNames(file);
+    List<Integer> rowNums = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    SpreadsheetRowReader.forEachRow(
+        file,
+        "Injects",
+        row -> {
+          rowNums.add(row.getRowNum());
+          if (row.getRowNum() == 0) {
+            assertNull(row.getCell(1));
+            assertEquals(CellType.STRING, row.getCell(0).getCellType());
+            values.add(row.getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, row.getCell(2).getCellType());
+            assertEquals(12.5, row.getCell(2).getNumericCellValue());
+            assertEquals(date, row.getCell(3).getDateCellValue());
+            assertTrue(row.getCell(4).getBooleanCellValue());
+            assertEquals(CellType.FORMULA, row.getCell(5).getCellType());
+          } else {
+            values.add(row.getCell(1).getStringCellValue());
+          }
+        });
+
+    // -- ASSERT --
+    assertEquals(List.of("Other", "Injects"), sheetNames);
+    assertEquals(List.of(0, 3), rowNums);
+    assertEquals(List.of("Email", "Team A"), values);
+  }
+
+  @DisplayName("Read the rows of a legacy xls sheet")
+  @Test
+  void given_xls_should_read_rows() throws Exception {
+    // -- PREPARE --
+    HSSFWorkbook workbook = new HSSFWorkbook();
+    Sheet sheet = workbook.createSheet("Injects");
+    sheet.createRow(0).createCell(0).setCellValue("Email");
+    sheet.createRow(1).createCell(0).setCellValue(3.0);
+    Path file = write(workbook, "injects.xls");
+
+    // -- EXECUTE --
+    List<String> sheetNames = SpreadsheetRowReader.getSheetNames(file);
+    List<String> values = new ArrayList<>();
+    SpreadsheetRowReader.forEachRow(file, "Injects", row -> values.add(row.getCell(0).toString()));
+
+    // -- ASSERT --
+    assertEquals(List.of("Injects"), sheetNames);
+    assertEquals(List.of("Email", "3.0"), values);
+  }
+
+  @DisplayName("Fail on a missing sheet")
+  @Test
+  void given_missing_sheet_should_throw() throws Exception {
+    // -- PREPARE --
+    XSSFWorkbook workbook = new XSSFWorkbook();
+    workbook.createSheet("Injects");
+    Path file = write(workbook, "injects.xlsx");
+
+    // -- EXECUTE & ASSERT --
+    assertThrows(
+        IOException.class, () -> SpreadsheetRowReader.forEachRow(file, "Missing", row -> {}));
+  }
+
+  @DisplayName("Stream a large xlsx sheet keeping a single row in memory")
+  @Test
+  void given_large_xlsx_should_stream_with_bounded_heap() throws Exception {
+    // -- PREPARE --
+    int rowCount = 20_000;
+    SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+    Sheet sheet = workbook.createSheet("Injects");
+    for (int i = 0; i < rowCount; i++) {
+      Row row = sheet.createRow(i);
+      row.createCell(0).setCellValue("Email");
+      row.createCell(1).setCellValue("Inject title " + i);
+      row.createCell(2).setCellValue("Description of the inject number " + i);
+      row.createCell(3).setCellValue("Team " + (i % 20));
+      row.createCell(4).setCellValue("D+" + (i % 30) + " H+" + (i % 24));
+      for (int column = 5; column < 10; column++) {
+        row.createCell(column).setCellValue(i * column);
+      }
+    }
+    Path file = tempDir.resolve("large.xlsx");
+    try (OutputStream out = Files.newOutputStream(file)) {
+      workbook.write(out);
+    } finally {
+      workbook.close();
+    }
+
+    // -- EXECUTE --
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+    AtomicInteger count = new AtomicInteger();
+    AtomicInteger maxRowsInMemory = new AtomicInteger();
+    AtomicLong heapDuring = new AtomicLong();
+    SpreadsheetRowReader.forEachRow(
+        file,
+        "Injects",
+        row -> {
+          maxRowsInMemory.accumulateAndGet(row.getSheet().getPhysicalNumberOfRows(), Math::max);
+          assertEquals("Inject title " + row.getRowNum(), row.getCell(1).getStringCellValue());
+          if (count.incrementAndGet() == rowCount / 2) {
+            System.gc();
+            heapDuring.set(runtime.totalMemory() - runtime.freeMemory());
+          }
+        });
+
+    // -- ASSERT --
+    assertEquals(rowCount, count.get());
+    assertEquals(1, maxRowsInMemory.get());
+    // Only the shared strings stay loaded, the whole workbook would take hundreds of MB
+    assertTrue(
+        heapDuring.get() - heapBefore < 64L * 1024 * 1024,
+        "Heap grew by " + (heapDuring.get() - heapBefore) + " bytes");
+  }
+}
@@ -0,0 +1,87 @@
+package io.openbas.utils;
+
+import static io.openbas.utils.FilterUtilsRuntime.computeFilterGroupRuntime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.openbas.database.model.Endpoint;
+import io.openbas.database.model.Filters;
+import io.openbas.utils.fixtures.EndpointFixture;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FilterUtilsRuntimeTest {
+
+  private static Filters.Filter filter(
+      String key, Filters.FilterOperator operator, String... values) {
+    Filters.Filter filter = new Filters.Filter();
+    filter.setKey(key);
+    filter.setOperator(operator);
+    filter.setValues(List.of(values));
+    return filter;
+  }
+
+  private static Filters.FilterGroup filterGroup(
+      Filters.FilterMode mode, Filters.Filter... filters) {
+    Filters.FilterGroup filterGroup = new Filters.FilterGroup();
+    filterGroup.setMode(mode);
+    filterGroup.setFilters(List.of(filters));
+    return filterGroup;
+  }
+
+  @Test
+  @DisplayName("Filter endpoints on their own and inherited properties")
+  void given_filterGroup_should_filterEndpoints() {
+    // -- PREPARE --
+    Endpoint windows = EndpointFixture.createEndpoint();
+    windows.setId("windows-id");
+    Endpoint linux =
+        EndpointFixture.createDefaultLinuxEndpointWithArch(Endpoint.PLATFORM_ARCH.arm64);
+    linux.setId("linux-id");
+    linux.setHostname("Linux Hostname");
+
+    Predicate<Object> byPlatform =
+        computeFilterGroupRuntime(
+            filterGroup(
+                Filters.FilterMode.and,
+                filter("endpoint_platform", Filters.FilterOperator.eq, "Linux")));
+    Predicate<Object> byHostnameOrId =
+        computeFilterGroupRuntime(
+            filterGroup(
+                Filters.FilterMode.or,
+                filter("endpoint_hostname", Filters.FilterOperator.contains, "windows"),
+                filter("asset_id", Filters.FilterOperator.eq, "linux-id")));
+    Predicate<Object> byIp =
+        computeFilterGroupRuntime(
+            filterGroup(
+                Filters.FilterMode.and,
+                filter("endpoint_ips", Filters.FilterOperator.starts_with, "192.168")));
+
+    // -- EXECUTE & ASSERT --
+    assertEquals(List.of(linux), List.of(windows, linux).stream().filter(byPlatform).toList());
+    assertTrue(byHostnameOrId.test(windows));
+    assertTrue(byHostnameOrId.test(linux));
+    assertTrue(byIp.test(windows));
+    assertFalse(byPlatform.test(windows));
+  }
+
+  @Test
+  @DisplayName("A property without value does not match")
+  void given_nullProperty_should_notMatch() {
+    // -- PREPARE --
+    Endpoint endpoint = EndpointFixture.createEndpoint();
+    endpoint.setSeenIp(null);
+
+    Predicate<Object> bySeenIp =
+        computeFilterGroupRuntime(
+            filterGroup(
+                Filters.FilterMode.and,
+                filter("endpoint_seen_ip", Filters.FilterOperator.contains, "192")));
+
+    // -- EXECUTE & ASSERT --
+    assertFalse(bySeenIp.test(endpoint));
+  }
+}
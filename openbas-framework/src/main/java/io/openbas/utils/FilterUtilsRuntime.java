@@ -12,9 +12,15 @@ import io.openbas.database.model.Filters.FilterOperator;
 import io.openbas.schema.PropertySchema;
 import io.openbas.schema.SchemaUtils;
 import jakarta.validation.constraints.NotNull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 
@@ -24,6 +30,9 @@ public class FilterUtilsRuntime {
 
   private static final Predicate<Object> EMPTY_PREDICATE = (value) -> true;
 
+  private static final Map<Class<?>, Map<String, Function<Object, Object>>> ACCESSORS =
+      new ConcurrentHashMap<>();
+
   public static Predicate<Object> computeFilterGroupRuntime(
       @Nullable final FilterGroup filterGroup) {
     if (filterGroup == null) {
@@ -61,56 +70,85 @@ public class FilterUtilsRuntime {
     List<String> filterValues = filter.getValues();
 
     if (!filterValues.isEmpty()) {
+      BiFunction<Object, List<String>, Boolean> operation = computeOperation(filter.getOperator());
       return (value) -> {
-        List<PropertySchema> propertySchemas = SchemaUtils.schema(value.getClass());
-        List<PropertySchema> filterableProperties = getFilterableProperties(propertySchemas);
-        PropertySchema filterableProperty = retrieveProperty(filterableProperties, filterKey);
-        Map.Entry<Class<Object>, Object> entry = getPropertyInfo(value, filterableProperty);
-        return getPropertyValue(entry, filter);
+        Function<Object, Object> accessor = propertyAccessor(value.getClass(), filterKey);
+        return getPropertyValue(accessor.apply(value), operation, filterValues);
       };
     }
     return EMPTY_PREDICATE;
   }
 
   @SuppressWarnings("unchecked")
-  private static boolean getPropertyValue(Map.Entry<Class<Object>, Object> entry, Filter filter) {
-    if (entry == null || entry.getValue() == null) {
+  private static boolean getPropertyValue(
+      Object propertyValue,
+      BiFunction<Object, List<String>, Boolean> operation,
+      List<String> filterValues) {
+    if (propertyValue == null) {
       return false;
     }
 
-    BiFunction<Object, List<String>, Boolean> operation = computeOperation(filter.getOperator());
-
-    if (entry.getKey().isAssignableFrom(Map.class)
-        || entry.getKey().getName().contains("ImmutableCollections")) {
-      return ((Map) entry.getValue())
-          .values().stream().anyMatch(v -> operation.apply(v, filter.getValues()));
-    } else if (entry.getKey().isArray()) {
-      return Arrays.stream(((Object[]) entry.getValue()))
-          .anyMatch(v -> operation.apply(v, filter.getValues()));
+    Class<?> propertyClass = propertyValue.getClass();
+    if (propertyClass.isAssignableFrom(Map.class)
+        || propertyClass.getName().contains("ImmutableCollections")) {
+      return ((Map) propertyValue)
+          .values().stream().anyMatch(v -> operation.apply(v, filterValues));
+    } else if (propertyClass.isArray()) {
+      return Arrays.stream(((Object[]) propertyValue))
+          .anyMatch(v -> operation.apply(v, filterValues));
     } else {
-      return operation.apply(entry.getValue(), filter.getValues());
+      return operation.apply(propertyValue, filterValues);
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private static Map.Entry<Class<Object>, Object> getPropertyInfo(
-      Object obj, PropertySchema propertySchema) {
-    if (obj == null) {
-      return null;
-    }
+  // -- ACCESSOR --
 
-    Field field;
-    Object currentObject;
-    try {
-      field = obj.getClass().getDeclaredField(propertySchema.getName());
-      field.setAccessible(true);
+  /**
+   * Accessor of a filterable property, resolved once per class and filter key. Evaluating a filter
+   * then costs a method handle call instead of a schema lookup and a reflective field access.
+   */
+  private static Function<Object, Object> propertyAccessor(Class<?> clazz, String filterKey) {
+    return ACCESSORS
+        .computeIfAbsent(clazz, c -> new ConcurrentHashMap<>())
+        .computeIfAbsent(filterKey, key -> computePropertyAccessor(clazz, key));
+  }
+
+  private static Function<Object, Object> computePropertyAccessor(
+      Class<?> clazz, String filterKey) {
+    List<PropertySchema> filterableProperties = getFilterableProperties(SchemaUtils.schema(clazz));
+    PropertySchema filterableProperty = retrieveProperty(filterableProperties, filterKey);
+    MethodHandle getter =
+        findGetter(clazz, filterableProperty.getName())
+            .asType(MethodType.methodType(Object.class, Object.class));
+    return obj -> {
+      try {
+        return getter.invokeExact(obj);
+      } catch (Throwable e) {
+        throw new RuntimeException(e);
+      }
+    };
+  }
 
-      currentObject = field.get(obj);
-    } catch (NoSuchFieldException | IllegalAccessException e) {
+  private static MethodHandle findGetter(Class<?> clazz, String name) {
+    try {
+      for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (field.getName().equals(name)) {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+          }
+        }
+        for (Method method : current.getDeclaredMethods()) {
+          if (method.getName().equals(name) && method.getParameterCount() == 0) {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+          }
+        }
+      }
+    } catch (IllegalAccessException e) {
       throw new RuntimeException(e);
     }
-
-    return Map.entry((Class<Object>) currentObject.getClass(), currentObject);
+    throw new IllegalArgumentException("No property " + name + " on " + clazz.getSimpleName());
   }
 
   // -- OPERATOR --
@@ -215,7 +215,7 @@ const FullTextSearch = () => {
           {entries(results).map(([entity, result]) => (
             <Tab
               key={entity}
-              label={`${t(result.clazz)} (${result.count})`}
+              label={`${t(result.clazz)} (${result.partial ? '?' : result.count})`}
               className={classes.tab}
             />
           ))}
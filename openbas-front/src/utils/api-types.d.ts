@@ -1748,6 +1748,7 @@ export interface FullTextSearchCountResult {
   clazz: string;
   /** @format int64 */
   count: number;
+  partial?: boolean;
 }
 
 export interface FullTextSearchResult {
@@ -0,0 +1,17 @@
+package io.openbas.database.audit;
+
+import lombok.Getter;
+
+/** Published when the execution status of an inject is written. */
+@Getter
+public class InjectStatusEvent {
+
+  private final String injectId;
+
+  private final String exerciseId;
+
+  public InjectStatusEvent(String injectId, String exerciseId) {
+    this.injectId = injectId;
+    this.exerciseId = exerciseId;
+  }
+}
@@ -0,0 +1,34 @@
+package io.openbas.database.audit;
+
+import io.openbas.database.model.Inject;
+import io.openbas.database.model.InjectStatus;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Statuses are not streamed to the clients, so they only get this light event
+@Component
+public class InjectStatusListener {
+
+  private ApplicationEventPublisher appPublisher;
+
+  @Autowired
+  public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+    this.appPublisher = applicationEventPublisher;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PreRemove
+  void onChange(Object status) {
+    Inject inject = ((InjectStatus) status).getInject();
+    if (inject == null) {
+      return;
+    }
+    String exerciseId = inject.getExercise() != null ? inject.getExercise().getId() : null;
+    appPublisher.publishEvent(new InjectStatusEvent(inject.getId(), exerciseId));
+  }
+}
@@ -0,0 +1,27 @@
+package io.openbas.database.criteria;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Register PostgreSQL text search functions in HQL and criteria queries. The text search
+ * configuration is rendered inline so that the expression matches the {@code to_tsvector} indexes.
+ */
+public class TextSearchFunctionContributor implements FunctionContributor {
+
+  public static final String TS_MATCH_SIMPLE = "ts_match_simple";
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    functionContributions
+        .getFunctionRegistry()
+        .registerPattern(
+            TS_MATCH_SIMPLE,
+            "(to_tsvector('simple', ?1) @@ to_tsquery('simple', ?2))",
+            functionContributions
+                .getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN));
+  }
+}
@@ -0,0 +1,60 @@
+package io.openbas.database.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Notification event waiting for its due date. Events are claimed by the notification dispatch job
+ * with {@code SKIP LOCKED}, so that each event is handled by a single node and survives restarts.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "delayed_notification_events")
+public class DelayedNotificationEvent {
+
+  public enum STATUS {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED,
+  }
+
+  @Id
+  @Column(name = "notification_event_id")
+  private String id;
+
+  @Column(name = "notification_event_type")
+  private String eventType;
+
+  @Column(name = "notification_event_resource_type")
+  @Enumerated(EnumType.STRING)
+  private NotificationRuleResourceType resourceType;
+
+  @Column(name = "notification_event_resource_id")
+  private String resourceId;
+
+  @Column(name = "notification_event_timestamp")
+  private Instant timestamp;
+
+  @Column(name = "notification_event_due_at")
+  private Instant dueAt;
+
+  @Column(name = "notification_event_status")
+  @Enumerated(EnumType.STRING)
+  private STATUS status = STATUS.PENDING;
+
+  @Column(name = "notification_event_attempts")
+  private int attempts;
+
+  @Column(name = "notification_event_error")
+  private String error;
+
+  @Column(name = "notification_event_created_at")
+  private Instant createdAt;
+
+  @Column(name = "notification_event_updated_at")
+  private Instant updatedAt;
+}
@@ -53,7 +53,8 @@ public class Execution {
     this.stopTime = now();
   }
 
-  public void addTrace(ExecutionTrace context) {
+  // Emails of a single execution are delivered by several threads
+  public synchronized void addTrace(ExecutionTrace context) {
     ExecutionTraceStatus status = context.getStatus();
     if (ExecutionTraceStatus.SUCCESS.equals(status) || ExecutionTraceStatus.INFO.equals(status)) {
       log.info(context.getMessage());
@@ -273,20 +273,43 @@ public class Exercise implements Base {
   @JsonProperty("exercise_variables")
   private List<Variable> variables = new ArrayList<>();
 
+  // Created with the exercise by the database, so it can be proxied instead of fetched on load
+  @OneToOne(fetch = FetchType.LAZY, optional = false)
+  @PrimaryKeyJoinColumn
+  @JsonIgnore
+  private ExerciseSummary summary;
+
+  @Transient @JsonIgnore private ExerciseSummary computedSummary;
+
   // region transient
+
+  /**
+   * Summary maintained by the refresh job, or computed once for this instance when the summary was
+   * not computed yet (newly created exercise).
+   */
+  @JsonIgnore
+  public ExerciseSummary getSummary() {
+    if (summary != null && summary.getUpdatedAt() != null) {
+      return summary;
+    }
+    if (computedSummary == null) {
+      computedSummary = ExerciseSummary.compute(this);
+    }
+    return computedSummary;
+  }
+
+  // Inject dates shift with the current pause, so the stored ones only hold while not paused
   @JsonProperty("exercise_injects_statistics")
   public Map<String, Long> getInjectStatistics() {
-    return InjectStatisticsHelper.getInjectStatistics(this.getInjects());
+    if (getCurrentPause().isPresent()) {
+      return InjectStatisticsHelper.getInjectStatistics(this.getInjects());
+    }
+    return getSummary().getInjectStatistics();
   }
 
   @JsonProperty("exercise_lessons_answers_number")
   public Long getLessonsAnswersNumbers() {
-    return getLessonsCategories().stream()
-        .flatMap(
-            lessonsCategory ->
-                lessonsCategory.getQuestions().stream()
-                    .flatMap(lessonsQuestion -> lessonsQuestion.getAnswers().stream()))
-        .count();
+    return getSummary().getLessonsAnswersNumber();
   }
 
   @ArraySchema(schema = @Schema(type = "string"))
@@ -305,12 +328,15 @@ public class Exercise implements Base {
 
   @JsonProperty("exercise_next_inject_date")
   public Optional<Instant> getNextInjectExecution() {
-    return getInjects().stream()
-        .filter(inject -> inject.getStatus().isEmpty())
-        .filter(inject -> inject.getDate().isPresent())
-        .filter(inject -> inject.getDate().get().isAfter(now()))
-        .findFirst()
-        .flatMap(Inject::getDate);
+    if (getCurrentPause().isPresent()) {
+      return getInjects().stream()
+          .filter(inject -> inject.getStatus().isEmpty())
+          .filter(inject -> inject.getDate().isPresent())
+          .filter(inject -> inject.getDate().get().isAfter(now()))
+          .findFirst()
+          .flatMap(Inject::getDate);
+    }
+    return getSummary().getNextInjectExecution();
   }
 
   @JsonIgnore
@@ -321,12 +347,12 @@ public class Exercise implements Base {
 
   @JsonProperty("exercise_all_users_number")
   public long usersAllNumber() {
-    return getTeams().stream().mapToLong(Team::getUsersNumber).sum();
+    return getSummary().getAllUsersNumber();
   }
 
   @JsonProperty("exercise_users_number")
   public long usersNumber() {
-    return getTeamUsers().stream().map(ExerciseTeamUser::getUser).distinct().count();
+    return getSummary().getUsersNumber();
   }
 
   @ArraySchema(schema = @Schema(type = "string"))
@@ -350,19 +376,13 @@ public class Exercise implements Base {
 
   @JsonProperty("exercise_communications_number")
   public long getCommunicationsNumber() {
-    return getInjects().stream().mapToLong(Inject::getCommunicationsNumber).sum();
+    return getSummary().getCommunicationsNumber();
   }
 
   // -- PLATFORMS --
   @JsonProperty("exercise_platforms")
   public List<PLATFORM_TYPE> getPlatforms() {
-    return getInjects().stream()
-        .flatMap(
-            inject ->
-                inject.getInjectorContract().map(InjectorContract::getPlatforms).stream()
-                    .flatMap(Arrays::stream))
-        .distinct()
-        .toList();
+    return getSummary().getPlatformTypes();
   }
 
   // -- KILL CHAIN PHASES --
@@ -372,14 +392,7 @@ public class Exercise implements Base {
       dynamicValues = true,
       path = "injects.injectorContract.attackPatterns.killChainPhases.id")
   public List<KillChainPhase> getKillChainPhases() {
-    return getInjects().stream()
-        .flatMap(
-            inject ->
-                inject.getInjectorContract().map(InjectorContract::getAttackPatterns).stream()
-                    .flatMap(Collection::stream)
-                    .flatMap(attackPattern -> attackPattern.getKillChainPhases().stream()))
-        .distinct()
-        .toList();
+    return getSummary().getKillChainPhases();
   }
 
   @JsonProperty("exercise_next_possible_status")
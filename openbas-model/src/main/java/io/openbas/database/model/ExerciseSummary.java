@@ -0,0 +1,188 @@
+package io.openbas.database.model;
+
+import static java.time.Instant.now;
+
+import io.hypersistence.utils.hibernate.type.array.LongArrayType;
+import io.hypersistence.utils.hibernate.type.array.StringArrayType;
+import io.openbas.database.model.Endpoint.PLATFORM_TYPE;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Type;
+
+/**
+ * Denormalized figures of an exercise, maintained by the summary refresh job so that serializing an
+ * exercise does not walk its injects, communications and lessons answers.
+ *
+ * <p>Figures depending on the current time (past/future injects, next inject date) are derived on
+ * read from the sorted inject dates kept in the summary. Those dates move with the current pause,
+ * so a paused exercise computes these figures from its injects instead.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "exercises_summaries")
+public class ExerciseSummary {
+
+  @Id
+  @Column(name = "exercise_id")
+  private String id;
+
+  // Only written by the database triggers and the refresh job
+  @Column(name = "summary_stale", insertable = false, updatable = false)
+  private boolean stale;
+
+  @Column(name = "summary_injects_total")
+  private long injectsTotal;
+
+  @Column(name = "summary_injects_executed")
+  private long injectsExecuted;
+
+  // Sorted epoch millis of every dated inject
+  @Type(LongArrayType.class)
+  @Column(name = "summary_inject_dates", columnDefinition = "bigint[]")
+  private long[] injectDates = new long[0];
+
+  // Sorted epoch millis of dated injects not executed yet
+  @Type(LongArrayType.class)
+  @Column(name = "summary_pending_inject_dates", columnDefinition = "bigint[]")
+  private long[] pendingInjectDates = new long[0];
+
+  @Column(name = "summary_communications_number")
+  private long communicationsNumber;
+
+  @Column(name = "summary_lessons_answers_number")
+  private long lessonsAnswersNumber;
+
+  @Column(name = "summary_users_number")
+  private long usersNumber;
+
+  @Column(name = "summary_all_users_number")
+  private long allUsersNumber;
+
+  @Type(StringArrayType.class)
+  @Column(name = "summary_platforms", columnDefinition = "text[]")
+  private String[] platforms = new String[0];
+
+  @ManyToMany(fetch = FetchType.LAZY)
+  @JoinTable(
+      name = "exercises_summaries_kill_chain_phases",
+      joinColumns = @JoinColumn(name = "exercise_id"),
+      inverseJoinColumns = @JoinColumn(name = "phase_id"))
+  private List<KillChainPhase> killChainPhases = new ArrayList<>();
+
+  @Column(name = "summary_updated_at")
+  private Instant updatedAt = now();
+
+  // -- COMPUTE --
+
+  /** Compute the summary of an exercise by walking its injects and related collections. */
+  public static ExerciseSummary compute(Exercise exercise) {
+    ExerciseSummary summary = new ExerciseSummary();
+    summary.setId(exercise.getId());
+    summary.refresh(exercise);
+    summary.setLessonsAnswersNumber(
+        exercise.getLessonsCategories().stream()
+            .flatMap(
+                lessonsCategory ->
+                    lessonsCategory.getQuestions().stream()
+                        .flatMap(lessonsQuestion -> lessonsQuestion.getAnswers().stream()))
+            .count());
+    return summary;
+  }
+
+  /**
+   * Refresh the inject related figures. The lessons answers number is left to the caller, which
+   * counts it with a single aggregate query instead of walking categories and questions.
+   */
+  public void refresh(Exercise exercise) {
+    List<Inject> injects = exercise.getInjects();
+    this.injectsTotal = injects.size();
+    this.injectsExecuted =
+        injects.stream().filter(inject -> inject.getStatus().isPresent()).count();
+    this.injectDates =
+        injects.stream()
+            .flatMap(inject -> inject.getDate().stream())
+            .mapToLong(Instant::toEpochMilli)
+            .sorted()
+            .toArray();
+    this.pendingInjectDates =
+        injects.stream()
+            .filter(Inject::isNotExecuted)
+            .flatMap(inject -> inject.getDate().stream())
+            .mapToLong(Instant::toEpochMilli)
+            .sorted()
+            .toArray();
+    this.communicationsNumber = injects.stream().mapToLong(Inject::getCommunicationsNumber).sum();
+    this.usersNumber =
+        exercise.getTeamUsers().stream().map(ExerciseTeamUser::getUser).distinct().count();
+    this.allUsersNumber = exercise.getTeams().stream().mapToLong(Team::getUsersNumber).sum();
+    this.platforms =
+        injects.stream()
+            .flatMap(
+                inject ->
+                    inject.getInjectorContract().map(InjectorContract::getPlatforms).stream()
+                        .flatMap(Arrays::stream))
+            .distinct()
+            .map(PLATFORM_TYPE::name)
+            .toArray(String[]::new);
+    this.killChainPhases =
+        new ArrayList<>(
+            injects.stream()
+                .flatMap(
+                    inject ->
+                        inject
+                            .getInjectorContract()
+                            .map(InjectorContract::getAttackPatterns)
+                            .stream()
+                            .flatMap(Collection::stream)
+                            .flatMap(attackPattern -> attackPattern.getKillChainPhases().stream()))
+                .distinct()
+                .toList());
+    this.updatedAt = now();
+  }
+
+  // -- READ --
+
+  public Map<String, Long> getInjectStatistics() {
+    long nowMillis = now().toEpochMilli();
+    long past = firstIndexAfter(injectDates, nowMillis - 1);
+    long future = injectDates.length - firstIndexAfter(injectDates, nowMillis);
+    Map<String, Long> stats = new HashMap<>();
+    stats.put("total_count", injectsTotal);
+    stats.put("total_executed", injectsExecuted);
+    stats.put("total_remaining", injectsTotal - injectsExecuted);
+    stats.put("total_past", past);
+    stats.put("total_future", future);
+    stats.put("total_progress", injectsTotal > 0 ? (injectsExecuted * 100 / injectsTotal) : 0);
+    return stats;
+  }
+
+  public Optional<Instant> getNextInjectExecution() {
+    int next = firstIndexAfter(pendingInjectDates, now().toEpochMilli());
+    return next < pendingInjectDates.length
+        ? Optional.of(Instant.ofEpochMilli(pendingInjectDates[next]))
+        : Optional.empty();
+  }
+
+  public List<PLATFORM_TYPE> getPlatformTypes() {
+    return Arrays.stream(platforms).map(PLATFORM_TYPE::valueOf).toList();
+  }
+
+  /** Index of the first value strictly greater than {@code bound} in a sorted array. */
+  private static int firstIndexAfter(long[] sorted, long bound) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid] <= bound) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
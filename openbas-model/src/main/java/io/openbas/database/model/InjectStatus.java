@@ -3,6 +3,7 @@ package io.openbas.database.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
+import io.openbas.database.audit.InjectStatusListener;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -16,6 +17,7 @@ import org.hibernate.annotations.Type;
 @Getter
 @Entity
 @Table(name = "injects_statuses")
+@EntityListeners(InjectStatusListener.class)
 public class InjectStatus extends BaseInjectStatus {
 
   @Type(JsonType.class)
@@ -149,6 +149,12 @@ public class Payload implements Base {
   @JsonProperty("payload_external_id")
   private String externalId;
 
+  // Hash of the input of the last upsert, to skip the upserts changing nothing
+  @Setter
+  @Column(name = "payload_upsert_hash")
+  @JsonIgnore
+  private String upsertHash;
+
   @Setter
   @Queryable(filterable = true, sortable = true)
   @Column(name = "payload_source")
@@ -0,0 +1,12 @@
+package io.openbas.database.raw;
+
+import java.util.List;
+
+public interface RawChallengeUsage {
+
+  String getChallenge_id();
+
+  List<String> getChallenge_exercises();
+
+  List<String> getChallenge_scenarios();
+}
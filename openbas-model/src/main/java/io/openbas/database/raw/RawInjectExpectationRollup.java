@@ -1,16 +1,20 @@
 package io.openbas.database.raw;
 
-public interface RawGlobalInjectExpectation {
+public interface RawInjectExpectationRollup {
 
-  String getInject_expectation_type();
-
-  Double getInject_expectation_score();
-
-  Double getInject_expectation_expected_score();
+  String getAttack_pattern_id();
 
   String getInject_id();
 
   String getInject_title();
 
-  String getAttack_pattern_id();
+  String getInject_expectation_type();
+
+  long getSuccess_count();
+
+  long getPartial_count();
+
+  long getPending_count();
+
+  long getFailed_count();
 }
@@ -4,6 +4,7 @@ import io.openbas.database.model.AssetGroup;
 import io.openbas.database.raw.RawAssetGroup;
 import io.openbas.database.raw.RawAssetGroupDynamicFilter;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -13,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -70,6 +72,114 @@ public interface AssetGroupRepository
   Set<RawAssetGroup> rawByIdsOrInjectIds(
       @Param("assetGroupIds") Set<String> assetGroupIds, @Param("injectIds") Set<String> injectIds);
 
+  // -- DYNAMIC ASSETS --
+
+  /** Groups whose filter changed since their dynamic assets were refreshed, oldest first */
+  @Query(
+      value =
+          "SELECT asset_group_id FROM asset_groups "
+              + "WHERE asset_group_dynamic_stale_since IS NOT NULL "
+              + "ORDER BY asset_group_dynamic_stale_since ;",
+      nativeQuery = true)
+  List<String> staleDynamicAssetGroupIds();
+
+  @Query(
+      value =
+          "SELECT asset_group_id FROM asset_groups "
+              + "WHERE asset_group_id IN :ids AND asset_group_dynamic_stale_since IS NULL ;",
+      nativeQuery = true)
+  Set<String> freshDynamicAssetGroupIds(@Param("ids") Collection<String> ids);
+
+  /**
+   * Mark the dynamic assets of a group as fresh before refreshing them. The row stays locked until
+   * the refresh commits, so a concurrent filter change marks the group stale again afterward.
+   *
+   * @param id the asset group id
+   * @return 0 if the group was not stale, i.e. another refresh already handled it
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE asset_groups SET asset_group_dynamic_stale_since = NULL "
+              + "WHERE asset_group_id = :id AND asset_group_dynamic_stale_since IS NOT NULL",
+      nativeQuery = true)
+  int claimStaleDynamicAssets(@Param("id") String id);
+
+  /**
+   * Filters of the fresh dynamic groups. The rows stay locked until the refresh commits, so that a
+   * filter changed meanwhile marks its group stale only once the members read with the previous
+   * filter are written.
+   */
+  @Query(
+      value =
+          "SELECT asset_group_id, "
+              + "CAST(asset_group_dynamic_filter as text) as asset_group_dynamic_filter "
+              + "FROM asset_groups "
+              + "WHERE asset_group_dynamic_stale_since IS NULL "
+              + "AND asset_group_dynamic_filter IS NOT NULL "
+              + "FOR SHARE",
+      nativeQuery = true)
+  List<RawAssetGroupDynamicFilter> lockFreshDynamicFilters();
+
+  /** Endpoints changed since the last refresh, whatever the group */
+  @Query(value = "SELECT asset_id FROM asset_groups_dynamic_changes ;", nativeQuery = true)
+  Set<String> dynamicAssetsChanges();
+
+  /**
+   * Claim a batch of changed endpoints, oldest first. Rows claimed by another node are skipped, and
+   * the claimed ones stay locked until the refresh commits.
+   */
+  @Query(
+      value =
+          "SELECT asset_id FROM asset_groups_dynamic_changes "
+              + "ORDER BY change_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<String> claimDynamicAssetsChanges(@Param("limit") int limit);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM asset_groups_dynamic_changes WHERE asset_id IN :assetIds",
+      nativeQuery = true)
+  void deleteDynamicAssetsChanges(@Param("assetIds") Collection<String> assetIds);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM asset_groups_dynamic_assets WHERE asset_group_id = :id",
+      nativeQuery = true)
+  void deleteDynamicAssets(@Param("id") String id);
+
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM asset_groups_dynamic_assets "
+              + "WHERE asset_group_id = :id AND asset_id IN :assetIds",
+      nativeQuery = true)
+  void deleteDynamicAssets(@Param("id") String id, @Param("assetIds") Collection<String> assetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO asset_groups_dynamic_assets (asset_group_id, asset_id) "
+              + "SELECT :id, unnest(cast(:assetIds as text[])) ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void insertDynamicAssets(@Param("id") String id, @Param("assetIds") String[] assetIds);
+
+  @Query(
+      value =
+          "SELECT asset_group_id, asset_id FROM asset_groups_dynamic_assets "
+              + "WHERE asset_group_id IN :ids ;",
+      nativeQuery = true)
+  List<Object[]> dynamicAssetIds(@Param("ids") Collection<String> ids);
+
+  /** Age in milliseconds of the oldest stale dynamic assets, 0 when every group is fresh */
+  @Query(
+      value =
+          "SELECT CAST(COALESCE(EXTRACT(EPOCH FROM now() - LEAST("
+              + "(SELECT MIN(asset_group_dynamic_stale_since) FROM asset_groups), "
+              + "(SELECT MIN(change_date) FROM asset_groups_dynamic_changes))) * 1000, 0) AS bigint) ;",
+      nativeQuery = true)
+  long dynamicAssetsRefreshLag();
+
   // -- PAGINATION --
 
   @Query(
@@ -17,4 +17,7 @@ public interface ChallengeRepository
 
   @NotNull
   List<Challenge> findByNameIgnoreCase(@NotNull final String name);
+
+  @NotNull
+  List<Challenge> findAllByNameInIgnoreCase(@NotNull final List<String> names);
 }
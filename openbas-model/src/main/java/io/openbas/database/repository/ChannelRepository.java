@@ -16,4 +16,6 @@ public interface ChannelRepository
   Optional<Channel> findById(@NotNull String id);
 
   List<Channel> findByNameIgnoreCase(String name);
+
+  List<Channel> findAllByNameInIgnoreCase(List<String> names);
 }
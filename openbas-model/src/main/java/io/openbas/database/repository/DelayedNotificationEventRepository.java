@@ -0,0 +1,105 @@
+package io.openbas.database.repository;
+
+import io.openbas.database.model.DelayedNotificationEvent;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DelayedNotificationEventRepository
+    extends CrudRepository<DelayedNotificationEvent, String> {
+
+  /** Queue an event, ignoring it if the same event is already queued (by this node or another). */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO delayed_notification_events (notification_event_id, notification_event_type, "
+              + "notification_event_resource_type, notification_event_resource_id, "
+              + "notification_event_timestamp, notification_event_due_at) "
+              + "VALUES (:id, :eventType, :resourceType, :resourceId, :timestamp, :dueAt) "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void enqueue(
+      @Param("id") String id,
+      @Param("eventType") String eventType,
+      @Param("resourceType") String resourceType,
+      @Param("resourceId") String resourceId,
+      @Param("timestamp") Instant timestamp,
+      @Param("dueAt") Instant dueAt);
+
+  /**
+   * Lock the events due for dispatch, skipping the ones locked by other nodes. Events stuck in
+   * processing since {@code processingBefore} (node stopped while dispatching) are dispatched
+   * again.
+   */
+  @Query(
+      value =
+          "SELECT * FROM delayed_notification_events "
+              + "WHERE (notification_event_status = 'PENDING' AND notification_event_due_at <= now()) "
+              + "OR (notification_event_status = 'PROCESSING' "
+              + "AND notification_event_updated_at < :processingBefore) "
+              + "ORDER BY notification_event_due_at "
+              + "LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<DelayedNotificationEvent> findDueForUpdate(
+      @Param("limit") int limit, @Param("processingBefore") Instant processingBefore);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE delayed_notification_events SET notification_event_status = 'PROCESSING', "
+              + "notification_event_attempts = notification_event_attempts + 1, "
+              + "notification_event_updated_at = now() WHERE notification_event_id IN :ids",
+      nativeQuery = true)
+  void markProcessing(@NotNull @Param("ids") List<String> ids);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE delayed_notification_events SET notification_event_status = 'SENT', "
+              + "notification_event_error = null, notification_event_updated_at = now() "
+              + "WHERE notification_event_id IN :ids",
+      nativeQuery = true)
+  void markSent(@NotNull @Param("ids") List<String> ids);
+
+  /**
+   * Record a failed dispatch. Events attempted less than {@code maxAttempts} times are queued
+   * again, {@code retryDelay} seconds later per attempt already made, the others are marked failed.
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE delayed_notification_events SET notification_event_status = "
+              + "CASE WHEN notification_event_attempts < :maxAttempts THEN 'PENDING' ELSE 'FAILED' END, "
+              + "notification_event_due_at = CASE WHEN notification_event_attempts < :maxAttempts "
+              + "THEN now() + :retryDelay * notification_event_attempts * interval '1 second' "
+              + "ELSE notification_event_due_at END, "
+              + "notification_event_error = :error, notification_event_updated_at = now() "
+              + "WHERE notification_event_id IN :ids",
+      nativeQuery = true)
+  void markFailed(
+      @NotNull @Param("ids") List<String> ids,
+      @Param("error") String error,
+      @Param("maxAttempts") int maxAttempts,
+      @Param("retryDelay") long retryDelay);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "DELETE FROM delayed_notification_events WHERE notification_event_status = 'SENT' "
+              + "AND notification_event_updated_at < :before",
+      nativeQuery = true)
+  void deleteSentBefore(@Param("before") Instant before);
+
+  long countByStatus(DelayedNotificationEvent.STATUS status);
+}
@@ -27,6 +27,9 @@ public interface DocumentRepository
   @NotNull
   Optional<Document> findByTarget(@NotNull String target);
 
+  @NotNull
+  List<Document> findAllByTargetIn(@NotNull List<String> targets);
+
   @NotNull
   Optional<Document> findByName(@NotNull String name);
 
@@ -4,6 +4,7 @@ import io.openbas.database.model.Endpoint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -35,6 +36,20 @@ public interface EndpointRepository
   List<Endpoint> findByAtleastOneMacAddress(
       @NotNull final @Param("macAddresses") String[] macAddresses);
 
+  /**
+   * Returns the materialized dynamic members of the asset groups, only valid for groups not stale
+   *
+   * @param assetGroupIds a list of asset group ids
+   * @return the endpoints matching the dynamic filter of at least one of the groups
+   */
+  @Query(
+      value =
+          "select e.* from assets e where e.asset_id in "
+              + "(select d.asset_id from asset_groups_dynamic_assets d where d.asset_group_id in :assetGroupIds)",
+      nativeQuery = true)
+  List<Endpoint> findDynamicEndpointsOfAssetGroups(
+      @NotNull final @Param("assetGroupIds") Collection<String> assetGroupIds);
+
   @Override
   @Query(
       "select COUNT(DISTINCT a) from Inject i "
@@ -88,87 +88,95 @@ public interface ExerciseRepository
   List<Exercise> thatMustBeFinished();
 
   /**
-   * Get all the expectations created from a date
+   * Get the expectation outcome counts by type of the exercises created from a date
    *
    * @param from the date of creation
-   * @return the list of expectations
+   * @return the counts by expectation type
    */
   @Query(
       value =
-          "SELECT "
-              + "ie.inject_expectation_type, ie.inject_expectation_group, ie.inject_expectation_score, ie.inject_expectation_expected_score "
-              + "FROM injects_expectations ie "
-              + "INNER JOIN injects ON ie.inject_id = injects.inject_id "
+          "SELECT r.rollup_expectation_type AS inject_expectation_type, "
+              + "CAST(SUM(r.rollup_success_count) AS bigint) AS success_count, CAST(SUM(r.rollup_partial_count) AS bigint) AS partial_count, "
+              + "CAST(SUM(r.rollup_pending_count) AS bigint) AS pending_count, CAST(SUM(r.rollup_failed_count) AS bigint) AS failed_count "
+              + "FROM injects_expectations_rollups r "
+              + "INNER JOIN injects ON r.inject_id = injects.inject_id "
               + "INNER JOIN exercises ON injects.inject_exercise = exercises.exercise_id "
-              + "WHERE exercises.exercise_created_at > :from and exercises.exercise_start_date is not null ;",
+              + "WHERE exercises.exercise_created_at > :from and exercises.exercise_start_date is not null "
+              + "GROUP BY r.rollup_expectation_type ;",
       nativeQuery = true)
-  List<RawInjectExpectation> allInjectExpectationsFromDate(@Param("from") Instant from);
+  List<RawInjectExpectationRollup> expectationRollupsFromDate(@Param("from") Instant from);
 
   /**
-   * Get all the expectations a user can see that were created from a date
+   * Get the expectation outcome counts by type of the exercises a user can see that were created
+   * from a date
    *
    * @param from the date of creation
    * @param userId the id of the user
-   * @return the list of expectations
+   * @return the counts by expectation type
    */
   @Query(
       value =
-          "SELECT ie.inject_expectation_type, ie.inject_expectation_group, ie.inject_expectation_score, ie.inject_expectation_expected_score "
-              + "FROM injects_expectations ie "
-              + "INNER JOIN injects ON ie.inject_id = injects.inject_id "
+          "SELECT r.rollup_expectation_type AS inject_expectation_type, "
+              + "CAST(SUM(r.rollup_success_count) AS bigint) AS success_count, CAST(SUM(r.rollup_partial_count) AS bigint) AS partial_count, "
+              + "CAST(SUM(r.rollup_pending_count) AS bigint) AS pending_count, CAST(SUM(r.rollup_failed_count) AS bigint) AS failed_count "
+              + "FROM injects_expectations_rollups r "
+              + "INNER JOIN injects ON r.inject_id = injects.inject_id "
               + "INNER JOIN exercises e ON injects.inject_exercise = e.exercise_id "
-              + "INNER join grants ON grants.grant_exercise = e.exercise_id "
-              + "INNER join groups ON grants.grant_group = groups.group_id "
-              + "INNER JOIN users_groups ON groups.group_id = users_groups.group_id "
               + "WHERE e.exercise_created_at > :from and e.exercise_start_date is not null "
-              + "AND users_groups.user_id = :userId ;",
+              + "AND e.exercise_id IN (SELECT grants.grant_exercise FROM grants "
+              + "INNER JOIN users_groups ON grants.grant_group = users_groups.group_id "
+              + "WHERE users_groups.user_id = :userId) "
+              + "GROUP BY r.rollup_expectation_type ;",
       nativeQuery = true)
-  List<RawInjectExpectation> allGrantedInjectExpectationsFromDate(
+  List<RawInjectExpectationRollup> grantedExpectationRollupsFromDate(
       @Param("from") Instant from, @Param("userId") String userId);
 
   /**
-   * Returns the global expectations that were created from a date
+   * Get the expectation outcome counts by attack pattern, inject and type of the exercises created
+   * from a date
    *
    * @param from the date of creation
-   * @return a list of expectations
+   * @return the counts by attack pattern, inject and expectation type
    */
   @Query(
       value =
-          "SELECT ie.inject_expectation_type, ie.inject_expectation_score, ie.inject_expectation_expected_score, "
-              + "injects.inject_id, injects.inject_title, icap.attack_pattern_id "
-              + "FROM exercises "
-              + "INNER JOIN injects ON exercises.exercise_id = injects.inject_exercise "
-              + "JOIN injects_expectations ie ON injects.inject_id = ie.inject_id "
-              + "INNER JOIN injectors_contracts ic ON injects.inject_injector_contract = ic.injector_contract_id "
-              + "INNER JOIN injectors_contracts_attack_patterns icap ON ic.injector_contract_id = icap.injector_contract_id "
+          "SELECT icap.attack_pattern_id, injects.inject_id, injects.inject_title, "
+              + "r.rollup_expectation_type AS inject_expectation_type, "
+              + "r.rollup_success_count AS success_count, r.rollup_partial_count AS partial_count, "
+              + "r.rollup_pending_count AS pending_count, r.rollup_failed_count AS failed_count "
+              + "FROM injects_expectations_rollups r "
+              + "INNER JOIN injects ON r.inject_id = injects.inject_id "
+              + "INNER JOIN exercises ON injects.inject_exercise = exercises.exercise_id "
+              + "INNER JOIN injectors_contracts_attack_patterns icap ON injects.inject_injector_contract = icap.injector_contract_id "
               + "WHERE exercises.exercise_created_at > :from and exercises.exercise_start_date is not null ;",
       nativeQuery = true)
-  Iterable<RawGlobalInjectExpectation> rawGlobalInjectExpectationResultsFromDate(
+  List<RawInjectExpectationRollup> attackPatternExpectationRollupsFromDate(
       @Param("from") Instant from);
 
   /**
-   * Returns the global expectations that were created from a date and that a user can see
+   * Get the expectation outcome counts by attack pattern, inject and type of the exercises a user
+   * can see that were created from a date
    *
    * @param from the date of creation
    * @param userId the id of the user
-   * @return the list of global expectations
+   * @return the counts by attack pattern, inject and expectation type
    */
   @Query(
       value =
-          "SELECT ie.inject_expectation_type, ie.inject_expectation_score, ie.inject_expectation_expected_score, "
-              + "injects.inject_id, injects.inject_title, icap.attack_pattern_id "
-              + "FROM exercises "
-              + "INNER JOIN injects ON exercises.exercise_id = injects.inject_exercise "
-              + "LEFT JOIN injects_expectations ie ON exercises.exercise_id = ie.exercise_id "
-              + "INNER JOIN injectors_contracts ic ON injects.inject_injector_contract = ic.injector_contract_id "
-              + "INNER JOIN injectors_contracts_attack_patterns icap ON ic.injector_contract_id = icap.injector_contract_id "
-              + "INNER join grants ON grants.grant_exercise = exercises.exercise_id "
-              + "INNER join groups ON grants.grant_group = groups.group_id "
-              + "INNER JOIN users_groups ON groups.group_id = users_groups.group_id "
-              + "WHERE exercises.exercise_created_at > :from and exercises.exercise_start_date is not null "
-              + "AND users_groups.user_id = :userId ;",
+          "SELECT icap.attack_pattern_id, injects.inject_id, injects.inject_title, "
+              + "r.rollup_expectation_type AS inject_expectation_type, "
+              + "r.rollup_success_count AS success_count, r.rollup_partial_count AS partial_count, "
+              + "r.rollup_pending_count AS pending_count, r.rollup_failed_count AS failed_count "
+              + "FROM injects_expectations_rollups r "
+              + "INNER JOIN injects ON r.inject_id = injects.inject_id "
+              + "INNER JOIN exercises e ON injects.inject_exercise = e.exercise_id "
+              + "INNER JOIN injectors_contracts_attack_patterns icap ON injects.inject_injector_contract = icap.injector_contract_id "
+              + "WHERE e.exercise_created_at > :from and e.exercise_start_date is not null "
+              + "AND e.exercise_id IN (SELECT grants.grant_exercise FROM grants "
+              + "INNER JOIN users_groups ON grants.grant_group = users_groups.group_id "
+              + "WHERE users_groups.user_id = :userId) ;",
       nativeQuery = true)
-  Iterable<RawGlobalInjectExpectation> rawGrantedInjectExpectationResultsFromDate(
+  List<RawInjectExpectationRollup> grantedAttackPatternExpectationRollupsFromDate(
       @Param("from") Instant from, @Param("userId") String userId);
 
   /**
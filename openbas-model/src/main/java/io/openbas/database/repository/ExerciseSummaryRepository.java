@@ -0,0 +1,43 @@
+package io.openbas.database.repository;
+
+import io.openbas.database.model.ExerciseSummary;
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExerciseSummaryRepository extends CrudRepository<ExerciseSummary, String> {
+
+  @Query(
+      value = "SELECT exercise_id FROM exercises_summaries WHERE summary_stale LIMIT :limit",
+      nativeQuery = true)
+  List<String> findExerciseIdsToRefresh(@Param("limit") int limit);
+
+  /**
+   * Lock the summary of an exercise if it is still stale. A summary locked by another node is
+   * skipped, so that each exercise is refreshed once, and a summary refreshed since it was listed
+   * is not refreshed again.
+   */
+  @Query(
+      value =
+          "SELECT exercise_id FROM exercises_summaries "
+              + "WHERE exercise_id = :id AND summary_stale "
+              + "FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  Optional<String> lockStale(@NotBlank @Param("id") String id);
+
+  /**
+   * Clear the stale flag in the refresh transaction: a failed refresh rolls it back, and changes
+   * made by other transactions wait for the row lock, then flag the summary again.
+   */
+  @Modifying
+  @Query(
+      value = "UPDATE exercises_summaries SET summary_stale = false WHERE exercise_id = :id",
+      nativeQuery = true)
+  void clearStale(@NotBlank @Param("id") String id);
+}
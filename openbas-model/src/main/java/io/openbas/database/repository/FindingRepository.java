@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Optional;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -29,6 +30,107 @@ public interface FindingRepository
       @NotNull @Param("type") ContractOutputType type,
       @NotBlank @Param("key") String key);
 
+  // -- BULK UPSERT --
+
+  /**
+   * Insert a batch of findings for an inject in a single statement. Rows colliding on the unique
+   * (inject, value, type, field) constraint keep their id and only get their update date touched,
+   * so the indexing job picks up their new links.
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO findings (finding_id, finding_inject_id, finding_field, finding_type, finding_value, finding_name, finding_created_at, finding_updated_at) "
+              + "SELECT f.id, :injectId, f.field, f.type, f.value, f.name, now(), now() "
+              + "FROM unnest(cast(:ids as text[]), cast(:fields as text[]), cast(:types as text[]), cast(:values as text[]), cast(:names as text[])) AS f(id, field, type, value, name) "
+              + "ON CONFLICT (finding_inject_id, finding_value, finding_type, finding_field) DO UPDATE SET finding_updated_at = now()",
+      nativeQuery = true)
+  void upsertFindings(
+      @NotBlank @Param("injectId") String injectId,
+      @NotNull @Param("ids") String[] ids,
+      @NotNull @Param("fields") String[] fields,
+      @NotNull @Param("types") String[] types,
+      @NotNull @Param("values") String[] values,
+      @NotNull @Param("names") String[] names);
+
+  /** Findings of an inject by natural key, as written by {@link #upsertFindings}. */
+  @Query(
+      value =
+          "SELECT f.* FROM findings f "
+              + "JOIN unnest(cast(:fields as text[]), cast(:types as text[]), cast(:values as text[])) AS k(field, type, value) "
+              + "ON f.finding_field = k.field AND f.finding_type = k.type AND f.finding_value = k.value "
+              + "WHERE f.finding_inject_id = :injectId",
+      nativeQuery = true)
+  List<Finding> findAllByInjectIdAndKeys(
+      @NotBlank @Param("injectId") String injectId,
+      @NotNull @Param("fields") String[] fields,
+      @NotNull @Param("types") String[] types,
+      @NotNull @Param("values") String[] values);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO findings_assets (finding_id, asset_id) "
+              + "SELECT f.finding_id, l.target_id "
+              + "FROM unnest(cast(:fields as text[]), cast(:types as text[]), cast(:values as text[]), cast(:targetIds as text[])) AS l(field, type, value, target_id) "
+              + "JOIN findings f ON f.finding_inject_id = :injectId AND f.finding_field = l.field AND f.finding_type = l.type AND f.finding_value = l.value "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void linkAssets(
+      @NotBlank @Param("injectId") String injectId,
+      @NotNull @Param("fields") String[] fields,
+      @NotNull @Param("types") String[] types,
+      @NotNull @Param("values") String[] values,
+      @NotNull @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO findings_teams (finding_id, team_id) "
+              + "SELECT f.finding_id, l.target_id "
+              + "FROM unnest(cast(:fields as text[]), cast(:types as text[]), cast(:values as text[]), cast(:targetIds as text[])) AS l(field, type, value, target_id) "
+              + "JOIN findings f ON f.finding_inject_id = :injectId AND f.finding_field = l.field AND f.finding_type = l.type AND f.finding_value = l.value "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void linkTeams(
+      @NotBlank @Param("injectId") String injectId,
+      @NotNull @Param("fields") String[] fields,
+      @NotNull @Param("types") String[] types,
+      @NotNull @Param("values") String[] values,
+      @NotNull @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO findings_users (finding_id, user_id) "
+              + "SELECT f.finding_id, l.target_id "
+              + "FROM unnest(cast(:fields as text[]), cast(:types as text[]), cast(:values as text[]), cast(:targetIds as text[])) AS l(field, type, value, target_id) "
+              + "JOIN findings f ON f.finding_inject_id = :injectId AND f.finding_field = l.field AND f.finding_type = l.type AND f.finding_value = l.value "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void linkUsers(
+      @NotBlank @Param("injectId") String injectId,
+      @NotNull @Param("fields") String[] fields,
+      @NotNull @Param("types") String[] types,
+      @NotNull @Param("values") String[] values,
+      @NotNull @Param("targetIds") String[] targetIds);
+
+  /**
+   * Tag findings by their pre-generated id: only rows actually inserted by {@link #upsertFindings}
+   * match, existing findings keep their tags untouched.
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO findings_tags (finding_id, tag_id) "
+              + "SELECT f.finding_id, l.tag_id "
+              + "FROM unnest(cast(:findingIds as text[]), cast(:tagIds as text[])) AS l(finding_id, tag_id) "
+              + "JOIN findings f ON f.finding_id = l.finding_id "
+              + "ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void linkTagsToNewFindings(
+      @NotNull @Param("findingIds") String[] findingIds, @NotNull @Param("tagIds") String[] tagIds);
+
   // -- INDEXING --
 
   @Query(
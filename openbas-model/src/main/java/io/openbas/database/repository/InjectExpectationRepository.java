@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -278,4 +279,36 @@ public interface InjectExpectationRepository
     """,
       nativeQuery = true)
   List<RawInjectExpectation> findForIndexing(@Param("from") Instant from);
+
+  /**
+   * Insert a batch of expectations in a single statement.
+   *
+   * @param expectations JSON array of rows keyed by column name
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO injects_expectations (inject_expectation_id, inject_expectation_type, "
+              + "inject_expectation_name, inject_expectation_description, inject_expectation_signatures, "
+              + "inject_expectation_results, inject_expectation_score, inject_expectation_expected_score, "
+              + "inject_expiration_time, inject_expectation_created_at, inject_expectation_updated_at, "
+              + "inject_expectation_group, exercise_id, inject_id, user_id, team_id, agent_id, asset_id, "
+              + "asset_group_id, article_id, challenge_id) "
+              + "SELECT e.inject_expectation_id, e.inject_expectation_type, e.inject_expectation_name, "
+              + "e.inject_expectation_description, e.inject_expectation_signatures, e.inject_expectation_results, "
+              + "e.inject_expectation_score, e.inject_expectation_expected_score, e.inject_expiration_time, "
+              + "e.inject_expectation_created_at, e.inject_expectation_updated_at, e.inject_expectation_group, "
+              + "e.exercise_id, e.inject_id, e.user_id, e.team_id, e.agent_id, e.asset_id, e.asset_group_id, "
+              + "e.article_id, e.challenge_id "
+              + "FROM json_to_recordset(cast(:expectations as json)) AS e("
+              + "inject_expectation_id varchar, inject_expectation_type varchar, inject_expectation_name varchar, "
+              + "inject_expectation_description text, inject_expectation_signatures json, "
+              + "inject_expectation_results json, inject_expectation_score double precision, "
+              + "inject_expectation_expected_score double precision, inject_expiration_time bigint, "
+              + "inject_expectation_created_at timestamptz, inject_expectation_updated_at timestamptz, "
+              + "inject_expectation_group boolean, exercise_id varchar, inject_id varchar, user_id varchar, "
+              + "team_id varchar, agent_id varchar, asset_id varchar, asset_group_id varchar, "
+              + "article_id varchar, challenge_id varchar)",
+      nativeQuery = true)
+  int insertAll(@Param("expectations") String expectations);
 }
@@ -1,6 +1,7 @@
 package io.openbas.database.repository;
 
 import io.openbas.database.model.Inject;
+import io.openbas.database.raw.RawChallengeUsage;
 import io.openbas.database.raw.RawInject;
 import io.openbas.database.raw.RawInjectIndexing;
 import java.time.Instant;
@@ -47,12 +48,25 @@ public interface InjectRepository
       nativeQuery = true)
   List<RawInjectIndexing> findForIndexing(@Param("from") Instant from);
 
+  /**
+   * Returns the simulations and scenarios using each of the given challenges, through the injects
+   * publishing them
+   *
+   * @param challengeIds a list of challenge ids
+   * @return one raw usage per challenge published by at least one inject
+   */
   @Query(
       value =
-          "select i.* from injects i where i.inject_injector_contract = '49229430-b5b5-431f-ba5b-f36f599b0233'"
-              + " and i.inject_content like :challengeId",
+          "SELECT ic.challenge_id, "
+              + "coalesce(array_agg(DISTINCT i.inject_exercise) FILTER ( WHERE i.inject_exercise IS NOT NULL ), '{}') as challenge_exercises, "
+              + "coalesce(array_agg(DISTINCT i.inject_scenario) FILTER ( WHERE i.inject_scenario IS NOT NULL ), '{}') as challenge_scenarios "
+              + "FROM injects_challenges ic "
+              + "JOIN injects i ON i.inject_id = ic.inject_id "
+              + "WHERE ic.challenge_id IN :challengeIds "
+              + "GROUP BY ic.challenge_id;",
       nativeQuery = true)
-  List<Inject> findAllForChallengeId(@Param("challengeId") String challengeId);
+  List<RawChallengeUsage> rawChallengeUsages(
+      @Param("challengeIds") Collection<String> challengeIds);
 
   @Query(
       value =
@@ -146,6 +160,103 @@ public interface InjectRepository
       nativeQuery = true)
   void addTeam(@Param("injectId") String injectId, @Param("teamId") String teamId);
 
+  // -- BULK COPY --
+  // Source and target inject ids are aligned arrays, the target ids are generated by the caller
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects (inject_id, inject_title, inject_description, inject_country, inject_city, "
+              + "inject_injector_contract, inject_all_teams, inject_enabled, inject_exercise, "
+              + "inject_depends_duration, inject_user, inject_content, inject_created_at, inject_updated_at) "
+              + "select m.target_id, i.inject_title, i.inject_description, i.inject_country, i.inject_city, "
+              + "i.inject_injector_contract, i.inject_all_teams, i.inject_enabled, :exerciseId, "
+              + "i.inject_depends_duration, i.inject_user, coalesce(m.content, i.inject_content), now(), now() "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[]), cast(:contents as text[])) "
+              + "as m(source_id, target_id, content) "
+              + "join injects i on i.inject_id = m.source_id",
+      nativeQuery = true)
+  int copyInjectsToExercise(
+      @Param("exerciseId") String exerciseId,
+      @Param("sourceIds") String[] sourceIds,
+      @Param("targetIds") String[] targetIds,
+      @Param("contents") String[] contents);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_teams (inject_id, team_id) "
+              + "select m.target_id, coalesce(t.target_id, it.team_id) "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as m(source_id, target_id) "
+              + "join injects_teams it on it.inject_id = m.source_id "
+              + "left join unnest(cast(:teamSourceIds as text[]), cast(:teamTargetIds as text[])) "
+              + "as t(source_id, target_id) on t.source_id = it.team_id",
+      nativeQuery = true)
+  int copyInjectsTeams(
+      @Param("sourceIds") String[] sourceIds,
+      @Param("targetIds") String[] targetIds,
+      @Param("teamSourceIds") String[] teamSourceIds,
+      @Param("teamTargetIds") String[] teamTargetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_assets (inject_id, asset_id) "
+              + "select m.target_id, ia.asset_id "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as m(source_id, target_id) "
+              + "join injects_assets ia on ia.inject_id = m.source_id",
+      nativeQuery = true)
+  int copyInjectsAssets(
+      @Param("sourceIds") String[] sourceIds, @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_asset_groups (inject_id, asset_group_id) "
+              + "select m.target_id, iag.asset_group_id "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as m(source_id, target_id) "
+              + "join injects_asset_groups iag on iag.inject_id = m.source_id",
+      nativeQuery = true)
+  int copyInjectsAssetGroups(
+      @Param("sourceIds") String[] sourceIds, @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_tags (inject_id, tag_id) "
+              + "select m.target_id, it.tag_id "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as m(source_id, target_id) "
+              + "join injects_tags it on it.inject_id = m.source_id",
+      nativeQuery = true)
+  int copyInjectsTags(
+      @Param("sourceIds") String[] sourceIds, @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_documents (inject_id, document_id, document_attached) "
+              + "select m.target_id, id.document_id, id.document_attached "
+              + "from unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as m(source_id, target_id) "
+              + "join injects_documents id on id.inject_id = m.source_id",
+      nativeQuery = true)
+  int copyInjectsDocuments(
+      @Param("sourceIds") String[] sourceIds, @Param("targetIds") String[] targetIds);
+
+  @Modifying
+  @Query(
+      value =
+          "insert into injects_dependencies (inject_parent_id, inject_children_id, dependency_condition, "
+              + "dependency_created_at, dependency_updated_at) "
+              + "select parent.target_id, child.target_id, d.dependency_condition, now(), now() "
+              + "from injects_dependencies d "
+              + "join unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as child(source_id, target_id) "
+              + "on child.source_id = d.inject_children_id "
+              + "join unnest(cast(:sourceIds as text[]), cast(:targetIds as text[])) as parent(source_id, target_id) "
+              + "on parent.source_id = d.inject_parent_id",
+      nativeQuery = true)
+  int copyInjectsDependencies(
+      @Param("sourceIds") String[] sourceIds, @Param("targetIds") String[] targetIds);
+
   @Override
   @Query(
       "select count(distinct i) from Inject i "
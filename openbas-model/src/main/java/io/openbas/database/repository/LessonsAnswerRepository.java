@@ -2,9 +2,12 @@ package io.openbas.database.repository;
 
 import io.openbas.database.model.LessonsAnswer;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -16,4 +19,18 @@ public interface LessonsAnswerRepository
 
   Optional<LessonsAnswer> findByUserIdAndQuestionId(
       @NotNull String userId, @NotNull String questionId);
+
+  @Query(
+      "select a from LessonsAnswer a where a.question.category.exercise.id = :exerciseId "
+          + "order by a.question.category.order, a.question.order")
+  List<LessonsAnswer> findAllByExerciseId(@Param("exerciseId") String exerciseId);
+
+  @Query(
+      value =
+          "SELECT count(la.lessons_answer_id) FROM lessons_answers la "
+              + "JOIN lessons_questions lq ON lq.lessons_question_id = la.lessons_answer_question "
+              + "JOIN lessons_categories lc ON lc.lessons_category_id = lq.lessons_question_category "
+              + "WHERE lc.lessons_category_exercise = :exerciseId",
+      nativeQuery = true)
+  long countByExerciseId(@Param("exerciseId") String exerciseId);
 }
@@ -2,9 +2,12 @@ package io.openbas.database.repository;
 
 import io.openbas.database.model.LessonsQuestion;
 import jakarta.validation.constraints.NotNull;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +16,14 @@ public interface LessonsQuestionRepository
 
   @NotNull
   Optional<LessonsQuestion> findById(@NotNull String id);
+
+  @Query(
+      "select q from LessonsQuestion q where q.category.exercise.id = :exerciseId "
+          + "order by q.category.order, q.order")
+  List<LessonsQuestion> findAllByExerciseId(@Param("exerciseId") String exerciseId);
+
+  @Query(
+      "select q from LessonsQuestion q where q.category.scenario.id = :scenarioId "
+          + "order by q.category.order, q.order")
+  List<LessonsQuestion> findAllByScenarioId(@Param("scenarioId") String scenarioId);
 }
@@ -21,6 +21,9 @@ public interface OrganizationRepository
   @NotNull
   List<Organization> findByNameIgnoreCase(@NotNull final String name);
 
+  @NotNull
+  List<Organization> findAllByNameInIgnoreCase(@NotNull final List<String> names);
+
   @Query(
       value =
           "SELECT org.*, "
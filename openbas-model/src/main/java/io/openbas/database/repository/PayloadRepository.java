@@ -2,6 +2,7 @@ package io.openbas.database.repository;
 
 import io.openbas.database.model.Payload;
 import jakarta.validation.constraints.NotNull;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -22,6 +23,8 @@ public interface PayloadRepository
 
   Optional<Payload> findByExternalId(@NotNull String externalId);
 
+  List<Payload> findAllByExternalIdIn(@NotNull Collection<String> externalIds);
+
   @Query(
       value = "SELECT payload_external_id FROM payloads WHERE payload_collector = :collectorId",
       nativeQuery = true)
@@ -30,7 +33,8 @@ public interface PayloadRepository
   @Modifying
   @Query(
       value =
-          "UPDATE payloads SET payload_status = :payloadStatus WHERE payload_external_id IN :payloadExternalIds",
+          "UPDATE payloads SET payload_status = :payloadStatus, payload_upsert_hash = NULL "
+              + "WHERE payload_external_id IN :payloadExternalIds",
       nativeQuery = true)
   void setPayloadStatusByExternalIds(
       @Param("payloadStatus") String payloadStatus,
@@ -19,4 +19,7 @@ public interface TagRepository extends CrudRepository<Tag, String>, JpaSpecifica
 
   @NotNull
   List<Tag> findByNameIgnoreCase(@NotNull final String name);
+
+  @NotNull
+  List<Tag> findAllByNameInIgnoreCase(@NotNull final List<String> names);
 }
@@ -30,10 +30,16 @@ public interface TeamRepository
   @NotNull
   List<Team> findAllByNameIgnoreCase(@NotNull final String name);
 
+  @NotNull
+  List<Team> findByContextualFalse();
+
   @Query(
       "SELECT team FROM Team team where lower(team.name) = lower(:name) and team.contextual = false")
   List<Team> findByNameIgnoreCaseAndNotContextual(@NotNull final String name);
 
+  @Query("SELECT team FROM Team team where lower(team.name) in :names and team.contextual = false")
+  List<Team> findByLowerNamesAndNotContextual(@NotNull @Param("names") final List<String> names);
+
   @Query(
       "select team from Team team where team.organization is null or team.organization.id in :organizationIds")
   List<Team> teamsAccessibleFromOrganizations(
@@ -1,5 +1,7 @@
 package io.openbas.database.specification;
 
+import static io.openbas.database.criteria.TextSearchFunctionContributor.TS_MATCH_SIMPLE;
+
 import io.openbas.database.model.Base;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
@@ -27,7 +29,11 @@ public class SpecificationUtils {
             cb.function("to_tsquery", Double.class, cb.literal("simple"), cb.literal(searchTerm));
         Expression<Double> rank = cb.function("ts_rank", Double.class, tsVector, tsQuery);
         query.orderBy(cb.desc(rank));
-        listOfPredicates.add(cb.greaterThan(rank, 0.01));
+        // Match with the @@ operator so that the to_tsvector indexes can serve the search
+        listOfPredicates.add(
+            cb.isTrue(
+                cb.function(
+                    TS_MATCH_SIMPLE, Boolean.class, root.get(property), cb.literal(searchTerm))));
       }
 
       return cb.or(listOfPredicates.toArray(new Predicate[0]));
@@ -0,0 +1,209 @@
+package io.openbas.helper;
+
+import static io.openbas.database.model.InjectorContract.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.openbas.database.model.InjectorContract;
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Compiled form of the fields declared by an injector contract content, used to compute inject
+ * readiness without parsing the contract JSON again. Compiled schemas are cached per contract id,
+ * for a bounded number of contracts, and recompiled whenever the contract update date or content
+ * changes, as some contract updates (injector registration, payload sync) rewrite the content
+ * without touching the update date.
+ */
+public class InjectContractSchema {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  // Bounded, contracts of removed injectors and payloads must not be kept forever
+  private static final int CACHE_SIZE = 5000;
+
+  private static final Cache<String, InjectContractSchema> CACHE =
+      Caffeine.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  private final Instant updatedAt;
+  private final int contentHash;
+  private final List<Field> fields;
+
+  private InjectContractSchema(Instant updatedAt, int contentHash, List<Field> fields) {
+    this.updatedAt = updatedAt;
+    this.contentHash = contentHash;
+    this.fields = fields;
+  }
+
+  public static InjectContractSchema of(@NotNull final InjectorContract injectorContract) {
+    String id = injectorContract.getId();
+    if (id == null) {
+      return compile(injectorContract);
+    }
+    return CACHE
+        .asMap()
+        .compute(
+            id,
+            (key, cached) ->
+                cached != null && cached.isCompiledFrom(injectorContract)
+                    ? cached
+                    : compile(injectorContract));
+  }
+
+  private boolean isCompiledFrom(InjectorContract injectorContract) {
+    // Hashing the content is far cheaper than parsing it again
+    return Objects.equals(updatedAt, injectorContract.getUpdatedAt())
+        && contentHash == Objects.hashCode(injectorContract.getContent());
+  }
+
+  private static InjectContractSchema compile(InjectorContract injectorContract) {
+    JsonNode contractFields;
+    try {
+      contractFields =
+          MAPPER
+              .readValue(injectorContract.getContent(), ObjectNode.class)
+              .get(CONTACT_CONTENT_FIELDS);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Error parsing injector contract content", e);
+    }
+
+    // A text field without value is only valid if every field declared with its key has a default
+    Set<String> keysWithoutDefault = new HashSet<>();
+    for (JsonNode jsonField : contractFields) {
+      JsonNode defaultValue = jsonField.get(DEFAULT_VALUE_FIELD);
+      if (defaultValue == null || defaultValue.isNull()) {
+        keysWithoutDefault.add(jsonField.get(CONTACT_ELEMENT_CONTENT_KEY).asText());
+      }
+    }
+
+    List<Field> fields = new ArrayList<>();
+    Map<String, Field> firstByKey = new HashMap<>();
+    for (JsonNode jsonField : contractFields) {
+      String key = jsonField.get(CONTACT_ELEMENT_CONTENT_KEY).asText();
+      String type = jsonField.get(CONTACT_ELEMENT_CONTENT_TYPE).asText();
+      Field field =
+          new Field(
+              key,
+              type,
+              jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY).asBoolean()
+                  || (jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_GROUPS)
+                      && jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_GROUPS).asBoolean())
+                  || CONTACT_ELEMENT_CONTENT_KEY_ASSETS.equals(key),
+              ("text".equals(type) || "textarea".equals(type)) && keysWithoutDefault.contains(key),
+              jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL)
+                  ? jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL).asText()
+                  : null,
+              jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL_VALUE)
+                  ? jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL_VALUE).asText()
+                  : null);
+      fields.add(field);
+      firstByKey.putIfAbsent(key, field);
+    }
+    fields.forEach(field -> field.conditionalField = firstByKey.get(field.conditionalKey));
+    return new InjectContractSchema(
+        injectorContract.getUpdatedAt(),
+        Objects.hashCode(injectorContract.getContent()),
+        List.copyOf(fields));
+  }
+
+  public boolean isReady(
+      ObjectNode content,
+      boolean allTeams,
+      @NotNull final List<String> teams,
+      @NotNull final List<String> assets,
+      @NotNull final List<String> assetGroups) {
+    Target target = new Target(content, allTeams, teams, assets, assetGroups);
+    for (Field field : fields) {
+      // if field is mandatory or if field is asset, check if the field is set
+      if (field.mandatory && !field.isSet(target)) {
+        return false;
+      }
+
+      // if field is mandatory conditional, if the conditional field is set check if the current
+      // field is set
+      if (field.conditionalKey != null) {
+        Field conditionalField = field.conditionalField;
+        if (conditionalField == null) {
+          return false;
+        }
+        // if field is mandatory conditional on a specific value, only check it when the
+        // conditional field holds this value
+        boolean conditionMet =
+            field.conditionalValue == null
+                || content == null
+                || field.conditionalValue.equals(conditionalField.value(content));
+        if (conditionMet && conditionalField.isSet(target) && !field.isSet(target)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private record Target(
+      ObjectNode content,
+      boolean allTeams,
+      List<String> teams,
+      List<String> assets,
+      List<String> assetGroups) {}
+
+  private static class Field {
+
+    private final String key;
+    private final String type;
+    private final boolean mandatory;
+    private final boolean textWithoutDefault;
+    private final String conditionalKey;
+    private final String conditionalValue;
+    private Field conditionalField;
+
+    private Field(
+        String key,
+        String type,
+        boolean mandatory,
+        boolean textWithoutDefault,
+        String conditionalKey,
+        String conditionalValue) {
+      this.key = key;
+      this.type = type;
+      this.mandatory = mandatory;
+      this.textWithoutDefault = textWithoutDefault;
+      this.conditionalKey = conditionalKey;
+      this.conditionalValue = conditionalValue;
+    }
+
+    private String value(ObjectNode content) {
+      JsonNode value = content.get(key);
+      return value == null ? null : value.asText();
+    }
+
+    private boolean isSet(Target target) {
+      switch (type) {
+        case CONTACT_ELEMENT_CONTENT_TYPE_TEAM -> {
+          return !target.teams().isEmpty() || target.allTeams();
+        }
+        case CONTACT_ELEMENT_CONTENT_TYPE_ASSET -> {
+          return !target.assets().isEmpty() || !target.assetGroups().isEmpty();
+        }
+        default -> {
+          if (target.content() == null) {
+            return false;
+          }
+          JsonNode value = target.content().get(key);
+          if (value == null || (value.isTextual() && value.asText().isEmpty())) {
+            return false;
+          }
+          if (textWithoutDefault && value.asText().isEmpty()) {
+            return false;
+          }
+          return !((value.isArray() || value.isObject()) && value.isEmpty());
+        }
+      }
+    }
+  }
+}
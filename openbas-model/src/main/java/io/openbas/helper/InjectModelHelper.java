@@ -1,15 +1,10 @@
 package io.openbas.helper;
 
 import static io.openbas.database.model.Inject.SPEED_STANDARD;
-import static io.openbas.database.model.InjectorContract.*;
 import static java.time.Duration.between;
 import static java.time.Instant.now;
 import static java.util.Optional.ofNullable;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.openbas.database.model.*;
 import jakarta.validation.constraints.NotNull;
@@ -18,9 +13,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 
 public class InjectModelHelper {
 
@@ -42,122 +35,8 @@ public class InjectModelHelper {
       return false;
     }
 
-    ObjectMapper mapper = new ObjectMapper();
-    ArrayNode injectContractFields;
-
-    try {
-      injectContractFields =
-          (ArrayNode)
-              mapper
-                  .readValue(injectorContract.getContent(), ObjectNode.class)
-                  .get(CONTACT_CONTENT_FIELDS);
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException("Error parsing injector contract content", e);
-    }
-
-    ObjectNode contractContent = injectorContract.getConvertedContent();
-    List<JsonNode> contractFields =
-        StreamSupport.stream(contractContent.get(CONTACT_CONTENT_FIELDS).spliterator(), false)
-            .toList();
-
-    boolean isReady = true;
-    for (JsonNode jsonField : contractFields) {
-
-      // if field is mandatory or if field is asset, check if the field is set
-      String key = jsonField.get(CONTACT_ELEMENT_CONTENT_KEY).asText();
-      if (jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY).asBoolean()
-          || (jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_GROUPS)
-                  && jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_GROUPS).asBoolean()
-              || CONTACT_ELEMENT_CONTENT_KEY_ASSETS.equals(key))) {
-        isReady =
-            isFieldSet(
-                allTeams, teams, assets, assetGroups, jsonField, content, injectContractFields);
-      }
-
-      // if field is mandatory conditional, if the conditional field is set check if the current
-      // field is set
-      if (jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL)) {
-        String mandatoryOnConditionFieldKey =
-            jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL).asText();
-        Optional<JsonNode> mandatoryOnConditionField =
-            contractFields.stream()
-                .filter(
-                    jsonNode ->
-                        mandatoryOnConditionFieldKey.equals(
-                            jsonNode.get(CONTACT_ELEMENT_CONTENT_KEY).asText()))
-                .findFirst();
-        // if field is mandatory conditional on a specific value and this value is equals, check the
-        // field is set
-        if (jsonField.hasNonNull(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL_VALUE)) {
-          if (mandatoryOnConditionField.isEmpty()
-              || content == null
-              || Objects.equals(
-                  getFieldValue(mandatoryOnConditionField.get(), content),
-                  jsonField.get(CONTACT_ELEMENT_CONTENT_MANDATORY_CONDITIONAL_VALUE).asText())) {
-            if (isFieldSet(
-                    allTeams,
-                    teams,
-                    assets,
-                    assetGroups,
-                    mandatoryOnConditionField.get(),
-                    content,
-                    injectContractFields)
-                && !isFieldSet(
-                    allTeams,
-                    teams,
-                    assets,
-                    assetGroups,
-                    jsonField,
-                    content,
-                    injectContractFields)) {
-              isReady = false;
-            }
-          }
-        } else if (mandatoryOnConditionField.isPresent()) {
-          if (isFieldSet(
-                  allTeams,
-                  teams,
-                  assets,
-                  assetGroups,
-                  mandatoryOnConditionField.get(),
-                  content,
-                  injectContractFields)
-              && !isFieldSet(
-                  allTeams, teams, assets, assetGroups, jsonField, content, injectContractFields)) {
-            isReady = false;
-          }
-        } else {
-          isReady = false;
-        }
-      }
-      if (!isReady) {
-        break;
-      }
-    }
-
-    return isReady;
-  }
-
-  private static boolean isTextOrTextarea(JsonNode jsonField) {
-    String type = jsonField.get("type").asText();
-    return "text".equals(type) || "textarea".equals(type);
-  }
-
-  private static boolean isFieldValid(
-      ObjectNode content, ArrayNode injectContractFields, String key) {
-    JsonNode fieldValue = content.get(key);
-    if (fieldValue == null || fieldValue.asText().isEmpty()) {
-      for (JsonNode contractField : injectContractFields) {
-        if (key.equals(contractField.get(CONTACT_ELEMENT_CONTENT_KEY).asText())) {
-          JsonNode defaultValue = contractField.get(DEFAULT_VALUE_FIELD);
-          if (defaultValue == null || defaultValue.isNull()) {
-            return false;
-          }
-        }
-      }
-    }
-
-    return true;
+    return InjectContractSchema.of(injectorContract)
+        .isReady(content, allTeams, teams, assets, assetGroups);
   }
 
   public static Instant computeInjectDate(
@@ -232,50 +111,4 @@ public class InjectModelHelper {
     }
     return null;
   }
-
-  public static boolean isFieldSet(
-      final boolean allTeams,
-      @NotNull final List<String> teams,
-      @NotNull final List<String> assets,
-      @NotNull final List<String> assetGroups,
-      @NotNull final JsonNode jsonField,
-      @NotNull final ObjectNode content,
-      @NotNull final ArrayNode injectContractFields) {
-    boolean isSet = true;
-    String key = jsonField.get(CONTACT_ELEMENT_CONTENT_KEY).asText();
-    String type = jsonField.get(CONTACT_ELEMENT_CONTENT_TYPE).asText();
-    switch (type) {
-      case CONTACT_ELEMENT_CONTENT_TYPE_TEAM -> {
-        if (teams.isEmpty() && !allTeams) {
-          isSet = false;
-        }
-      }
-      case CONTACT_ELEMENT_CONTENT_TYPE_ASSET -> {
-        if (assets.isEmpty() && assetGroups.isEmpty()) {
-          isSet = false;
-        }
-      }
-      default -> {
-        if (content == null) {
-          isSet = false;
-          break;
-        }
-        if (isTextOrTextarea(jsonField) && !isFieldValid(content, injectContractFields, key)) {
-          isSet = false;
-        } else if (content.get(key) == null
-            || (content.get(key).isArray() && content.get(key).isEmpty())
-            || (content.get(key).isObject() && content.get(key).isEmpty())
-            || (content.get(key).isTextual() && content.get(key).asText().isEmpty())) {
-          isSet = false;
-        }
-      }
-    }
-    return isSet;
-  }
-
-  public static String getFieldValue(
-      @NotNull final JsonNode jsonField, @NotNull final ObjectNode content) {
-    String key = jsonField.get(CONTACT_ELEMENT_CONTENT_KEY).asText();
-    return content.get(key).asText();
-  }
 }